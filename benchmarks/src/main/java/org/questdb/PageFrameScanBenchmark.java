@@ -0,0 +1,147 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2022 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package org.questdb;
+
+import io.questdb.cairo.CairoConfiguration;
+import io.questdb.cairo.CairoEngine;
+import io.questdb.cairo.DefaultCairoConfiguration;
+import io.questdb.cairo.SqlIOMode;
+import io.questdb.cairo.security.AllowAllCairoSecurityContext;
+import io.questdb.cairo.sql.PageFrame;
+import io.questdb.cairo.sql.PageFrameCursor;
+import io.questdb.cairo.sql.RecordCursorFactory;
+import io.questdb.griffin.SqlCompiler;
+import io.questdb.griffin.SqlException;
+import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.griffin.SqlExecutionContextImpl;
+import io.questdb.log.LogFactory;
+import io.questdb.std.Files;
+import io.questdb.std.Vect;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares page frame scans over mapped column files with and without read ahead of
+ * upcoming frames. To measure cold scans drop page cache before each iteration, e.g.
+ * "sync; echo 3 > /proc/sys/vm/drop_caches", otherwise both modes read from page cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class PageFrameScanBenchmark {
+
+    private static final int PARTITION_COUNT = 16;
+    private static final long ROWS_PER_PARTITION = 8_000_000L;
+    private static final String ROOT = System.getProperty("java.io.tmpdir");
+
+    @Param({"MMAP", "PREFETCH"})
+    public IOMode ioMode;
+
+    private CairoEngine engine;
+    private SqlExecutionContextImpl ctx;
+    private RecordCursorFactory factory;
+
+    public static void main(String[] args) throws RunnerException {
+        if (!Files.isMadviseSupported()) {
+            // without madvise() read ahead is not issued and both modes scan the same way
+            System.err.println("native library does not support madvise, PREFETCH mode is identical to MMAP");
+            return;
+        }
+        try (CairoEngine engine = new CairoEngine(new DefaultCairoConfiguration(ROOT))) {
+            SqlExecutionContext sqlExecutionContext = new SqlExecutionContextImpl(engine, 1)
+                    .with(
+                            AllowAllCairoSecurityContext.INSTANCE,
+                            null,
+                            null,
+                            -1,
+                            null
+                    );
+            try (SqlCompiler compiler = new SqlCompiler(engine)) {
+                compiler.compile("create table if not exists scan as (select" +
+                        " rnd_double() d," +
+                        " rnd_long() l," +
+                        " timestamp_sequence(0, " + (86_400_000_000L / ROWS_PER_PARTITION) + ") ts" +
+                        " from long_sequence(" + PARTITION_COUNT * ROWS_PER_PARTITION + ")) timestamp(ts) partition by DAY", sqlExecutionContext);
+            } catch (SqlException e) {
+                throw new ExceptionInInitializerError(e);
+            }
+        }
+
+        Options opt = new OptionsBuilder()
+                .include(PageFrameScanBenchmark.class.getSimpleName())
+                .warmupIterations(2)
+                .measurementIterations(5)
+                .forks(1)
+                .build();
+
+        new Runner(opt).run();
+
+        LogFactory.INSTANCE.haltThread();
+    }
+
+    @Setup(Level.Iteration)
+    public void setup() throws SqlException {
+        final int mode = ioMode == IOMode.PREFETCH ? SqlIOMode.IO_MODE_PREFETCH : SqlIOMode.IO_MODE_MMAP;
+        final CairoConfiguration configuration = new DefaultCairoConfiguration(ROOT) {
+            @Override
+            public int getSqlIOMode() {
+                return mode;
+            }
+        };
+        engine = new CairoEngine(configuration);
+        ctx = new SqlExecutionContextImpl(engine, 1);
+        try (SqlCompiler compiler = new SqlCompiler(engine)) {
+            factory = compiler.compile("scan", ctx).getRecordCursorFactory();
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        factory.close();
+        engine.close();
+    }
+
+    @Benchmark
+    public double testScan() throws SqlException {
+        double sum = 0;
+        try (PageFrameCursor cursor = factory.getPageFrameCursor(ctx)) {
+            PageFrame frame;
+            while ((frame = cursor.next()) != null) {
+                sum += Vect.sumDouble(frame.getPageAddress(0), frame.getPageSize(0) >>> 3);
+                sum += Vect.sumLong(frame.getPageAddress(1), frame.getPageSize(1) >>> 3);
+            }
+        }
+        return sum;
+    }
+
+    public enum IOMode {
+        MMAP, PREFETCH
+    }
+}
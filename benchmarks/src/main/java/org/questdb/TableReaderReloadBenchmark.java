@@ -51,6 +51,7 @@ public class TableReaderReloadBenchmark {
 
     private static final CairoConfiguration configuration = new DefaultCairoConfiguration(System.getProperty("java.io.tmpdir"));
     private static final long ts;
+    private static final long o3Ts;
     private static TableWriter writer;
     private static TableReader reader;
     private static long sum = 0;
@@ -129,6 +130,14 @@ public class TableReaderReloadBenchmark {
         reader.reload();
     }
 
+    @Benchmark
+    public void testReloadAfterO3() {
+        appendRow(ts);
+        appendRow(o3Ts);
+        writer.commit();
+        reader.reload();
+    }
+
     private static void appendRow(long timestamp) {
         TableWriter.Row r = writer.newRow(timestamp);
         r.append();
@@ -137,6 +146,7 @@ public class TableReaderReloadBenchmark {
     static {
         try {
             ts = TimestampFormatUtils.parseTimestamp("2012-03-10T00:00:00.000000Z");
+            o3Ts = TimestampFormatUtils.parseTimestamp("2012-03-05T00:00:00.000000Z");
         } catch (NumericException e) {
             throw new ExceptionInInitializerError();
         }
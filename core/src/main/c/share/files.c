@@ -65,6 +65,30 @@ JNIEXPORT jlong JNICALL Java_io_questdb_std_Files_mmap0
     return (jlong) mmap((void *) baseAddress, (size_t) len, prot, MAP_SHARED, (int) fd, offset);
 }
 
+JNIEXPORT jint JNICALL Java_io_questdb_std_Files_madvise0
+        (JNIEnv *e, jclass cl, jlong address, jlong len, jint advice) {
+    int advise;
+    switch (advice) {
+        case com_questdb_std_Files_MADV_RANDOM:
+            advise = POSIX_MADV_RANDOM;
+            break;
+        case com_questdb_std_Files_MADV_SEQUENTIAL:
+            advise = POSIX_MADV_SEQUENTIAL;
+            break;
+        case com_questdb_std_Files_MADV_WILLNEED:
+            advise = POSIX_MADV_WILLNEED;
+            break;
+        case com_questdb_std_Files_MADV_DONTNEED:
+            advise = POSIX_MADV_DONTNEED;
+            break;
+        default:
+            advise = POSIX_MADV_NORMAL;
+            break;
+    }
+    // address must be page aligned, length is rounded up to page size by the kernel
+    return posix_madvise((void *) address, (size_t) len, advise);
+}
+
 JNIEXPORT jint JNICALL Java_io_questdb_std_Files_munmap0
         (JNIEnv *cl, jclass e, jlong address, jlong len) {
     return munmap((void *) address, (size_t) len);
@@ -407,6 +407,12 @@ JNIEXPORT jboolean JNICALL Java_io_questdb_std_Files_allocate
     return Java_io_questdb_std_Files_truncate(e, cl, handle, size);
 }
 
+JNIEXPORT jint JNICALL Java_io_questdb_std_Files_madvise0
+        (JNIEnv *e, jclass cl, jlong address, jlong len, jint advice) {
+    /* Windows has no equivalent of access pattern hints for file views */
+    return 0;
+}
+
 JNIEXPORT jint JNICALL Java_io_questdb_std_Files_munmap0
         (JNIEnv *e, jclass cl, jlong address, jlong len) {
     if (UnmapViewOfFile((LPCVOID) address) == 0) {
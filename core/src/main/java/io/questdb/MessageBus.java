@@ -52,6 +52,12 @@ public interface MessageBus extends Closeable {
 
     Sequence getLatestBySubSeq();
 
+    Sequence getLatestByScanPubSeq();
+
+    RingQueue<LatestByScanTask> getLatestByScanQueue();
+
+    Sequence getLatestByScanSubSeq();
+
     MPSequence getO3CallbackPubSeq();
 
     RingQueue<O3CallbackTask> getO3CallbackQueue();
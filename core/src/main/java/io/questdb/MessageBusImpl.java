@@ -63,6 +63,10 @@ public class MessageBusImpl implements MessageBus {
     private final MPSequence latestByPubSeq;
     private final MCSequence latestBySubSeq;
 
+    private final RingQueue<LatestByScanTask> latestByScanQueue;
+    private final MPSequence latestByScanPubSeq;
+    private final MCSequence latestByScanSubSeq;
+
     private final RingQueue<TableWriterTask> tableWriterEventQueue;
     private final MPSequence tableWriterEventPubSeq;
     private final FanOut tableWriterEventSubSeq;
@@ -114,6 +118,11 @@ public class MessageBusImpl implements MessageBus {
         this.latestBySubSeq = new MCSequence(latestByQueue.getCycle());
         latestByPubSeq.then(latestBySubSeq).then(latestByPubSeq);
 
+        this.latestByScanQueue = new RingQueue<>(LatestByScanTask::new, configuration.getLatestByQueueCapacity());
+        this.latestByScanPubSeq = new MPSequence(latestByScanQueue.getCycle());
+        this.latestByScanSubSeq = new MCSequence(latestByScanQueue.getCycle());
+        latestByScanPubSeq.then(latestByScanSubSeq).then(latestByScanPubSeq);
+
         this.tableWriterEventQueue = new RingQueue<>(
                 TableWriterTask::new,
                 configuration.getWriterCommandQueueSlotSize(),
@@ -164,6 +173,21 @@ public class MessageBusImpl implements MessageBus {
         return latestBySubSeq;
     }
 
+    @Override
+    public Sequence getLatestByScanPubSeq() {
+        return latestByScanPubSeq;
+    }
+
+    @Override
+    public RingQueue<LatestByScanTask> getLatestByScanQueue() {
+        return latestByScanQueue;
+    }
+
+    @Override
+    public Sequence getLatestByScanSubSeq() {
+        return latestByScanSubSeq;
+    }
+
     @Override
     public MPSequence getO3CallbackPubSeq() {
         return o3CallbackPubSeq;
@@ -24,13 +24,20 @@
 
 package io.questdb;
 
+import io.questdb.cairo.MatViewMetrics;
+import io.questdb.cairo.QueryFactoryCacheMetrics;
+import io.questdb.cairo.QueryResultCacheMetrics;
+import io.questdb.cairo.TableReaderMetrics;
 import io.questdb.cairo.TableWriterMetrics;
+import io.questdb.cutlass.http.HttpConnectionMetrics;
 import io.questdb.cutlass.http.processors.HealthCheckMetrics;
 import io.questdb.cutlass.http.processors.JsonQueryMetrics;
+import io.questdb.jit.CompiledFilterMetrics;
 import io.questdb.metrics.MetricsRegistry;
 import io.questdb.metrics.MetricsRegistryImpl;
 import io.questdb.metrics.NullMetricsRegistry;
 import io.questdb.metrics.Scrapable;
+import io.questdb.network.TlsMetrics;
 import io.questdb.std.MemoryTag;
 import io.questdb.std.Unsafe;
 import io.questdb.std.str.CharSink;
@@ -40,6 +47,13 @@ public class Metrics implements Scrapable {
     private final JsonQueryMetrics jsonQuery;
     private final HealthCheckMetrics healthCheck;
     private final TableWriterMetrics tableWriter;
+    private final TableReaderMetrics tableReader;
+    private final QueryFactoryCacheMetrics queryFactoryCache;
+    private final QueryResultCacheMetrics queryResultCache;
+    private final MatViewMetrics matView;
+    private final CompiledFilterMetrics compiledFilter;
+    private final HttpConnectionMetrics httpConnection;
+    private final TlsMetrics tls;
     private final MetricsRegistry metricsRegistry;
 
     Metrics(boolean enabled, MetricsRegistry metricsRegistry) {
@@ -47,6 +61,13 @@ public class Metrics implements Scrapable {
         this.jsonQuery = new JsonQueryMetrics(metricsRegistry);
         this.healthCheck = new HealthCheckMetrics(metricsRegistry);
         this.tableWriter = new TableWriterMetrics(metricsRegistry);
+        this.tableReader = new TableReaderMetrics(metricsRegistry);
+        this.queryFactoryCache = new QueryFactoryCacheMetrics(metricsRegistry);
+        this.queryResultCache = new QueryResultCacheMetrics(metricsRegistry);
+        this.matView = new MatViewMetrics(metricsRegistry);
+        this.compiledFilter = new CompiledFilterMetrics(metricsRegistry);
+        this.httpConnection = new HttpConnectionMetrics(metricsRegistry);
+        this.tls = new TlsMetrics(metricsRegistry);
         createMemoryGauges(metricsRegistry);
         this.metricsRegistry = metricsRegistry;
     }
@@ -86,6 +107,34 @@ public class Metrics implements Scrapable {
         return tableWriter;
     }
 
+    public TableReaderMetrics tableReader() {
+        return tableReader;
+    }
+
+    public QueryFactoryCacheMetrics queryFactoryCache() {
+        return queryFactoryCache;
+    }
+
+    public QueryResultCacheMetrics queryResultCache() {
+        return queryResultCache;
+    }
+
+    public MatViewMetrics matView() {
+        return matView;
+    }
+
+    public CompiledFilterMetrics compiledFilter() {
+        return compiledFilter;
+    }
+
+    public HttpConnectionMetrics httpConnection() {
+        return httpConnection;
+    }
+
+    public TlsMetrics tls() {
+        return tls;
+    }
+
     @Override
     public void scrapeIntoPrometheus(CharSink sink) {
         metricsRegistry.scrapeIntoPrometheus(sink);
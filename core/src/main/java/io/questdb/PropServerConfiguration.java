@@ -40,6 +40,7 @@ import io.questdb.cutlass.text.types.InputFormatConfiguration;
 import io.questdb.griffin.SqlExecutionCircuitBreakerConfiguration;
 import io.questdb.log.Log;
 import io.questdb.metrics.MetricsConfiguration;
+import io.questdb.metrics.NullMetricsRegistry;
 import io.questdb.mp.WorkerPoolConfiguration;
 import io.questdb.network.*;
 import io.questdb.std.*;
@@ -55,6 +56,8 @@ import io.questdb.std.str.StringSink;
 import org.jetbrains.annotations.Nullable;
 
 import java.io.File;
+import java.io.IOException;
+import java.security.GeneralSecurityException;
 import java.util.*;
 
 public class PropServerConfiguration implements ServerConfiguration {
@@ -167,6 +170,9 @@ public class PropServerConfiguration implements ServerConfiguration {
     private final int sqlJitRowsThreshold;
     private final int sqlJitPageAddressCacheThreshold;
     private final boolean sqlJitDebugEnabled;
+    private final boolean sqlFunctionCompilerEnabled;
+    private final int sqlFunctionCompilerCacheCapacity;
+    private final boolean sqlLatestByStateEnabled;
     private final DateLocale locale;
     private final String backupRoot;
     private final DateFormat backupDirTimestampFormat;
@@ -183,6 +189,9 @@ public class PropServerConfiguration implements ServerConfiguration {
     private final LineTcpReceiverConfiguration lineTcpReceiverConfiguration = new PropLineTcpReceiverConfiguration();
     private final IODispatcherConfiguration lineTcpReceiverDispatcherConfiguration = new PropLineTcpReceiverIODispatcherConfiguration();
     private final boolean lineTcpEnabled;
+    private final NetworkFacade httpNetworkFacade;
+    private final NetworkFacade pgNetworkFacade;
+    private final NetworkFacade lineTcpNetworkFacade;
     private final WorkerPoolAwareConfiguration lineTcpWriterWorkerPoolConfiguration = new PropLineTcpWriterWorkerPoolConfiguration();
     private final WorkerPoolAwareConfiguration lineTcpIOWorkerPoolConfiguration = new PropLineTcpIOWorkerPoolConfiguration();
     private final Log log;
@@ -288,6 +297,22 @@ public class PropServerConfiguration implements ServerConfiguration {
     private int lineUdpBindIPV4Address;
     private int lineUdpPort;
     private final int queryCacheEventQueueCapacity;
+    private final boolean queryFactoryCacheEnabled;
+    private final int queryFactoryCacheCapacity;
+    private final int queryFactoryCacheInstancesPerKey;
+    private final boolean queryResultCacheEnabled;
+    private final long queryResultCacheMemoryLimit;
+    private final long queryResultCachePageSize;
+    private final double symbolMapMaxLoadFactor;
+    private final int sqlIOMode;
+    private final int sqlIOPrefetchFrameCount;
+    private final int sqlIOPrefetchRowCount;
+    private final int o3PartitionMaxConcurrency;
+    private final long o3CopySplitSize;
+    private final long writerDataAppendStagingPageSize;
+    private final String coldTierRoot;
+    private final long tierMoveCheckInterval;
+    private final long matViewRefreshInterval;
     private int jsonQueryFloatScale;
     private int jsonQueryDoubleScale;
     private int jsonQueryConnectionCheckFrequency;
@@ -715,6 +740,9 @@ public class PropServerConfiguration implements ServerConfiguration {
             this.sqlJitRowsThreshold = getIntSize(properties, env, PropertyKey.CAIRO_SQL_JIT_ROWS_THRESHOLD, 1024 * 1024);
             this.sqlJitPageAddressCacheThreshold = getIntSize(properties, env, PropertyKey.CAIRO_SQL_JIT_PAGE_ADDRESS_CACHE_THRESHOLD, 1024 * 1024);
             this.sqlJitDebugEnabled = getBoolean(properties, env, PropertyKey.CAIRO_SQL_JIT_DEBUG_ENABLED, false);
+            this.sqlFunctionCompilerEnabled = getBoolean(properties, env, PropertyKey.CAIRO_SQL_FUNCTION_COMPILER_ENABLED, false);
+            this.sqlFunctionCompilerCacheCapacity = getInt(properties, env, PropertyKey.CAIRO_SQL_FUNCTION_COMPILER_CACHE_CAPACITY, 1024);
+            this.sqlLatestByStateEnabled = getBoolean(properties, env, PropertyKey.CAIRO_SQL_LATEST_BY_STATE_ENABLED, false);
 
             String value = getString(properties, env, PropertyKey.CAIRO_WRITER_FO_OPTS, "o_none");
             long lopts = CairoConfiguration.O_NONE;
@@ -886,6 +914,39 @@ public class PropServerConfiguration implements ServerConfiguration {
                 }
             }
 
+            final boolean httpTlsEnabled = httpServerEnabled && getBoolean(properties, env, PropertyKey.HTTP_TLS_ENABLED, false);
+            final boolean pgTlsEnabled = pgEnabled && getBoolean(properties, env, PropertyKey.PG_TLS_ENABLED, false);
+            final boolean lineTcpTlsEnabled = lineTcpEnabled && getBoolean(properties, env, PropertyKey.LINE_TCP_TLS_ENABLED, false);
+            if (httpTlsEnabled || pgTlsEnabled || lineTcpTlsEnabled) {
+                String keyStorePath = getString(properties, env, PropertyKey.TLS_KEYSTORE_PATH, null);
+                if (keyStorePath == null) {
+                    throw ServerConfigurationException.forInvalidKey(PropertyKey.TLS_KEYSTORE_PATH.getPropertyPath());
+                }
+                if (!new File(keyStorePath).isAbsolute()) {
+                    keyStorePath = new File(root, keyStorePath).getAbsolutePath();
+                }
+                final String keyStorePassword = getString(properties, env, PropertyKey.TLS_KEYSTORE_PASSWORD, "");
+                final int sessionCacheSize = getInt(properties, env, PropertyKey.TLS_SESSION_CACHE_SIZE, 20_480);
+                final int sessionTimeout = getInt(properties, env, PropertyKey.TLS_SESSION_TIMEOUT, 86_400);
+                final TlsNetworkFacade tlsNetworkFacade;
+                try {
+                    tlsNetworkFacade = new TlsNetworkFacade(
+                            NetworkFacadeImpl.INSTANCE,
+                            TlsNetworkFacade.createSslContext(keyStorePath, keyStorePassword, sessionCacheSize, sessionTimeout),
+                            new TlsMetrics(new NullMetricsRegistry())
+                    );
+                } catch (GeneralSecurityException | IOException e) {
+                    throw new ServerConfigurationException("could not load TLS key store [path=" + keyStorePath + ", error=" + e.getMessage() + ']');
+                }
+                this.httpNetworkFacade = httpTlsEnabled ? tlsNetworkFacade : NetworkFacadeImpl.INSTANCE;
+                this.pgNetworkFacade = pgTlsEnabled ? tlsNetworkFacade : NetworkFacadeImpl.INSTANCE;
+                this.lineTcpNetworkFacade = lineTcpTlsEnabled ? tlsNetworkFacade : NetworkFacadeImpl.INSTANCE;
+            } else {
+                this.httpNetworkFacade = NetworkFacadeImpl.INSTANCE;
+                this.pgNetworkFacade = NetworkFacadeImpl.INSTANCE;
+                this.lineTcpNetworkFacade = NetworkFacadeImpl.INSTANCE;
+            }
+
             this.sharedWorkerCount = getInt(properties, env, PropertyKey.SHARED_WORKER_COUNT, Math.max(1, cpuAvailable / 2 - 1 - cpuUsed));
             this.sharedWorkerAffinity = getAffinity(properties, env, PropertyKey.SHARED_WORKER_AFFINITY, sharedWorkerCount);
             this.sharedWorkerHaltOnError = getBoolean(properties, env, PropertyKey.SHARED_WORKER_HALT_ON_ERROR, false);
@@ -901,6 +962,22 @@ public class PropServerConfiguration implements ServerConfiguration {
             this.writerAsyncCommandQueueSlotSize = Numbers.ceilPow2(getLongSize(properties, env, PropertyKey.CAIRO_WRITER_COMMAND_QUEUE_SLOT_SIZE, 2048));
 
             this.queryCacheEventQueueCapacity = Numbers.ceilPow2(getInt(properties, env, PropertyKey.CAIRO_QUERY_CACHE_EVENT_QUEUE_CAPACITY, 4));
+            this.queryFactoryCacheEnabled = getBoolean(properties, env, PropertyKey.CAIRO_QUERY_FACTORY_CACHE_ENABLED, false);
+            this.queryFactoryCacheCapacity = getInt(properties, env, PropertyKey.CAIRO_QUERY_FACTORY_CACHE_CAPACITY, 256);
+            this.queryFactoryCacheInstancesPerKey = getInt(properties, env, PropertyKey.CAIRO_QUERY_FACTORY_CACHE_INSTANCES_PER_KEY, 8);
+            this.queryResultCacheEnabled = getBoolean(properties, env, PropertyKey.CAIRO_QUERY_RESULT_CACHE_ENABLED, false);
+            this.queryResultCacheMemoryLimit = getLongSize(properties, env, PropertyKey.CAIRO_QUERY_RESULT_CACHE_MEMORY_LIMIT, 64 * 1024 * 1024);
+            this.queryResultCachePageSize = getLongSize(properties, env, PropertyKey.CAIRO_QUERY_RESULT_CACHE_PAGE_SIZE, 64 * 1024);
+            this.symbolMapMaxLoadFactor = getDouble(properties, env, PropertyKey.CAIRO_SYMBOL_MAP_MAX_LOAD_FACTOR, 2.0);
+            this.sqlIOMode = getSqlIOMode(properties, env);
+            this.sqlIOPrefetchFrameCount = getInt(properties, env, PropertyKey.CAIRO_SQL_IO_PREFETCH_FRAME_COUNT, 2);
+            this.sqlIOPrefetchRowCount = getInt(properties, env, PropertyKey.CAIRO_SQL_IO_PREFETCH_ROW_COUNT, 64);
+            this.o3PartitionMaxConcurrency = getInt(properties, env, PropertyKey.CAIRO_O3_PARTITION_MAX_CONCURRENCY, 0);
+            this.o3CopySplitSize = getLongSize(properties, env, PropertyKey.CAIRO_O3_COPY_SPLIT_SIZE, 64 * Numbers.SIZE_1MB);
+            this.writerDataAppendStagingPageSize = getLongSize(properties, env, PropertyKey.CAIRO_WRITER_DATA_APPEND_STAGING_PAGE_SIZE, 0);
+            this.coldTierRoot = getString(properties, env, PropertyKey.CAIRO_TIER_COLD_ROOT, null);
+            this.tierMoveCheckInterval = getLong(properties, env, PropertyKey.CAIRO_TIER_MOVE_CHECK_INTERVAL, 60 * 1000L);
+            this.matViewRefreshInterval = getLong(properties, env, PropertyKey.CAIRO_MAT_VIEW_REFRESH_INTERVAL, 1000L);
 
             this.buildInformation = buildInformation;
             this.binaryEncodingMaxLength = getInt(properties, env, PropertyKey.BINARYDATA_ENCODING_MAXLENGTH, 32768);
@@ -1221,6 +1298,20 @@ public class PropServerConfiguration implements ServerConfiguration {
         return SqlJitMode.JIT_MODE_DISABLED;
     }
 
+    private int getSqlIOMode(Properties properties, @Nullable Map<String, String> env) throws ServerConfigurationException {
+        final String ioMode = overrideWithEnv(properties, env, PropertyKey.CAIRO_SQL_IO_MODE);
+
+        if (ioMode == null || Chars.equalsLowerCaseAscii(ioMode, "mmap")) {
+            return SqlIOMode.IO_MODE_MMAP;
+        }
+
+        if (Chars.equalsLowerCaseAscii(ioMode, "prefetch")) {
+            return SqlIOMode.IO_MODE_PREFETCH;
+        }
+
+        throw ServerConfigurationException.forInvalidKey(PropertyKey.CAIRO_SQL_IO_MODE.getPropertyPath(), ioMode);
+    }
+
     private String getString(Properties properties, @Nullable Map<String, String> env, PropertyKey key, String defaultValue) {
         String value = overrideWithEnv(properties, env, key);
         if (value == null) {
@@ -1388,7 +1479,7 @@ public class PropServerConfiguration implements ServerConfiguration {
 
         @Override
         public NetworkFacade getNetworkFacade() {
-            return NetworkFacadeImpl.INSTANCE;
+            return httpNetworkFacade;
         }
 
         @Override
@@ -1632,7 +1723,7 @@ public class PropServerConfiguration implements ServerConfiguration {
 
         @Override
         public NetworkFacade getNetworkFacade() {
-            return NetworkFacadeImpl.INSTANCE;
+            return httpNetworkFacade;
         }
 
         @Override
@@ -2365,10 +2456,105 @@ public class PropServerConfiguration implements ServerConfiguration {
             return sqlJitDebugEnabled;
         }
 
+        @Override
+        public boolean isSqlFunctionCompilerEnabled() {
+            return sqlFunctionCompilerEnabled;
+        }
+
+        @Override
+        public int getSqlFunctionCompilerCacheCapacity() {
+            return sqlFunctionCompilerCacheCapacity;
+        }
+
+        @Override
+        public boolean isSqlLatestByStateEnabled() {
+            return sqlLatestByStateEnabled;
+        }
+
         @Override
         public int getQueryCacheEventQueueCapacity() {
             return queryCacheEventQueueCapacity;
         }
+
+        @Override
+        public boolean isQueryFactoryCacheEnabled() {
+            return queryFactoryCacheEnabled;
+        }
+
+        @Override
+        public int getQueryFactoryCacheCapacity() {
+            return queryFactoryCacheCapacity;
+        }
+
+        @Override
+        public int getQueryFactoryCacheInstancesPerKey() {
+            return queryFactoryCacheInstancesPerKey;
+        }
+
+        @Override
+        public boolean isQueryResultCacheEnabled() {
+            return queryResultCacheEnabled;
+        }
+
+        @Override
+        public long getQueryResultCacheMemoryLimit() {
+            return queryResultCacheMemoryLimit;
+        }
+
+        @Override
+        public long getQueryResultCachePageSize() {
+            return queryResultCachePageSize;
+        }
+
+        @Override
+        public double getSymbolMapMaxLoadFactor() {
+            return symbolMapMaxLoadFactor;
+        }
+
+        @Override
+        public int getSqlIOMode() {
+            return sqlIOMode;
+        }
+
+        @Override
+        public int getSqlIOPrefetchFrameCount() {
+            return sqlIOPrefetchFrameCount;
+        }
+
+        @Override
+        public int getSqlIOPrefetchRowCount() {
+            return sqlIOPrefetchRowCount;
+        }
+
+        @Override
+        public int getO3PartitionMaxConcurrency() {
+            return o3PartitionMaxConcurrency;
+        }
+
+        @Override
+        public long getO3CopySplitSize() {
+            return o3CopySplitSize;
+        }
+
+        @Override
+        public long getDataAppendStagingPageSize() {
+            return writerDataAppendStagingPageSize;
+        }
+
+        @Override
+        public CharSequence getColdTierRoot() {
+            return coldTierRoot;
+        }
+
+        @Override
+        public long getTierMoveCheckInterval() {
+            return tierMoveCheckInterval;
+        }
+
+        @Override
+        public long getMatViewRefreshInterval() {
+            return matViewRefreshInterval;
+        }
     }
 
     private class PropLineUdpReceiverConfiguration implements LineUdpReceiverConfiguration {
@@ -2511,7 +2697,7 @@ public class PropServerConfiguration implements ServerConfiguration {
         }
 
         public NetworkFacade getNetworkFacade() {
-            return NetworkFacadeImpl.INSTANCE;
+            return lineTcpNetworkFacade;
         }
 
         @Override
@@ -2683,7 +2869,7 @@ public class PropServerConfiguration implements ServerConfiguration {
 
         @Override
         public NetworkFacade getNetworkFacade() {
-            return NetworkFacadeImpl.INSTANCE;
+            return lineTcpNetworkFacade;
         }
 
         @Override
@@ -2892,7 +3078,7 @@ public class PropServerConfiguration implements ServerConfiguration {
 
         @Override
         public NetworkFacade getNetworkFacade() {
-            return NetworkFacadeImpl.INSTANCE;
+            return pgNetworkFacade;
         }
 
         @Override
@@ -3009,7 +3195,7 @@ public class PropServerConfiguration implements ServerConfiguration {
 
         @Override
         public NetworkFacade getNetworkFacade() {
-            return NetworkFacadeImpl.INSTANCE;
+            return pgNetworkFacade;
         }
 
         @Override
@@ -117,6 +117,9 @@ public enum PropertyKey {
     CAIRO_SQL_JIT_ROWS_THRESHOLD("cairo.sql.jit.rows.threshold"),
     CAIRO_SQL_JIT_PAGE_ADDRESS_CACHE_THRESHOLD("cairo.sql.jit.page.address.cache.threshold"),
     CAIRO_SQL_JIT_DEBUG_ENABLED("cairo.sql.jit.debug.enabled"),
+    CAIRO_SQL_FUNCTION_COMPILER_ENABLED("cairo.sql.function.compiler.enabled"),
+    CAIRO_SQL_FUNCTION_COMPILER_CACHE_CAPACITY("cairo.sql.function.compiler.cache.capacity"),
+    CAIRO_SQL_LATEST_BY_STATE_ENABLED("cairo.sql.latest.by.state.enabled"),
     CAIRO_WRITER_FO_OPTS("cairo.writer.fo_opts"),
     CAIRO_SQL_COPY_ROOT("cairo.sql.copy.root"),
     CAIRO_SQL_BACKUP_ROOT("cairo.sql.backup.root"),
@@ -147,6 +150,22 @@ public enum PropertyKey {
     CAIRO_O3_PARTITION_PURGE_LIST_INITIAL_CAPACITY("cairo.o3.partition.purge.list.initial.capacity"),
     CAIRO_O3_ENABLED("cairo.o3.enabled"),
     CAIRO_QUERY_CACHE_EVENT_QUEUE_CAPACITY("cairo.query.cache.event.queue.capacity"),
+    CAIRO_QUERY_FACTORY_CACHE_ENABLED("cairo.query.factory.cache.enabled"),
+    CAIRO_QUERY_FACTORY_CACHE_CAPACITY("cairo.query.factory.cache.capacity"),
+    CAIRO_QUERY_FACTORY_CACHE_INSTANCES_PER_KEY("cairo.query.factory.cache.instances.per.key"),
+    CAIRO_QUERY_RESULT_CACHE_ENABLED("cairo.query.result.cache.enabled"),
+    CAIRO_QUERY_RESULT_CACHE_MEMORY_LIMIT("cairo.query.result.cache.memory.limit"),
+    CAIRO_QUERY_RESULT_CACHE_PAGE_SIZE("cairo.query.result.cache.page.size"),
+    CAIRO_SYMBOL_MAP_MAX_LOAD_FACTOR("cairo.symbol.map.max.load.factor"),
+    CAIRO_SQL_IO_MODE("cairo.sql.io.mode"),
+    CAIRO_SQL_IO_PREFETCH_FRAME_COUNT("cairo.sql.io.prefetch.frame.count"),
+    CAIRO_SQL_IO_PREFETCH_ROW_COUNT("cairo.sql.io.prefetch.row.count"),
+    CAIRO_O3_PARTITION_MAX_CONCURRENCY("cairo.o3.partition.max.concurrency"),
+    CAIRO_O3_COPY_SPLIT_SIZE("cairo.o3.copy.split.size"),
+    CAIRO_WRITER_DATA_APPEND_STAGING_PAGE_SIZE("cairo.writer.data.append.staging.page.size"),
+    CAIRO_TIER_COLD_ROOT("cairo.tier.cold.root"),
+    CAIRO_TIER_MOVE_CHECK_INTERVAL("cairo.tier.move.check.interval"),
+    CAIRO_MAT_VIEW_REFRESH_INTERVAL("cairo.mat.view.refresh.interval"),
     CIRCUIT_BREAKER_THROTTLE("circuit.breaker.throttle"),
     CIRCUIT_BREAKER_BUFFER_SIZE("circuit.breaker.buffer.size"),
     CONFIG_VALIDATION_STRICT("config.validation.strict"),
@@ -167,6 +186,7 @@ public enum PropertyKey {
     HTTP_MIN_NET_CONNECTION_RCVBUF("http.min.net.connection.rcvbuf"),
     HTTP_MIN_NET_CONNECTION_HINT("http.min.net.connection.hint"),
     HTTP_ENABLED("http.enabled"),
+    HTTP_TLS_ENABLED("http.tls.enabled"),
     HTTP_MULTIPART_HEADER_BUFFER_SIZE("http.multipart.header.buffer.size"),
     HTTP_MULTIPART_IDLE_SPIN_COUNT("http.multipart.idle.spin.count"),
     HTTP_RECEIVE_BUFFER_SIZE("http.receive.buffer.size"),
@@ -242,6 +262,7 @@ public enum PropertyKey {
     LINE_UDP_COMMIT_MODE("line.udp.commit.mode"),
     LINE_UDP_TIMESTAMP("line.udp.timestamp"),
     LINE_TCP_ENABLED("line.tcp.enabled"),
+    LINE_TCP_TLS_ENABLED("line.tcp.tls.enabled"),
     LINE_TCP_NET_ACTIVE_CONNECTION_LIMIT("line.tcp.net.active.connection.limit"),
     LINE_TCP_NET_CONNECTION_LIMIT("line.tcp.net.connection.limit"),
     LINE_TCP_NET_CONNECTION_HINT("line.tcp.net.connection.hint"),
@@ -285,6 +306,7 @@ public enum PropertyKey {
     LINE_TCP_IO_AGGRESIVE_RECV("line.tcp.io.aggressive.recv"),
     METRICS_ENABLED("metrics.enabled"),
     PG_ENABLED("pg.enabled"),
+    PG_TLS_ENABLED("pg.tls.enabled"),
     PG_NET_CONNECTION_HINT("pg.net.connection.hint"),
     PG_NET_BIND_TO("pg.net.bind.to"),
     PG_NET_IDLE_TIMEOUT("pg.net.idle.timeout"),
@@ -330,6 +352,10 @@ public enum PropertyKey {
     SHARED_WORKER_SLEEP_THRESHOLD("shared.worker.sleep.threshold"),
     SHARED_WORKER_SLEEP_MS("shared.worker.sleep.ms"),
     SHARED_WORKER_YIELD_THRESHOLD("shared.worker.yield.threshold"),
+    TLS_KEYSTORE_PATH("tls.keystore.path"),
+    TLS_KEYSTORE_PASSWORD("tls.keystore.password"),
+    TLS_SESSION_CACHE_SIZE("tls.session.cache.size"),
+    TLS_SESSION_TIMEOUT("tls.session.timeout"),
     TELEMETRY_ENABLED("telemetry.enabled"),
     TELEMETRY_DISABLE_COMPLETELY("telemetry.disable.completely"),
     TELEMETRY_QUEUE_CAPACITY("telemetry.queue.capacity"),
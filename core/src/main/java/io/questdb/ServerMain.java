@@ -34,11 +34,13 @@ import io.questdb.cutlass.pgwire.PGWireServer;
 import io.questdb.griffin.DatabaseSnapshotAgent;
 import io.questdb.griffin.FunctionFactory;
 import io.questdb.griffin.FunctionFactoryCache;
+import io.questdb.griffin.MatViewRefreshJob;
 import io.questdb.jit.JitUtil;
 import io.questdb.log.Log;
 import io.questdb.log.LogFactory;
 import io.questdb.log.LogRecord;
 import io.questdb.mp.WorkerPool;
+import io.questdb.mp.WorkerPoolConfiguration;
 import io.questdb.network.NetworkError;
 import io.questdb.std.*;
 import io.questdb.std.datetime.millitime.Dates;
@@ -149,9 +151,11 @@ public class ServerMain {
         log.advisoryW().$("available CPUs: ").$(Runtime.getRuntime().availableProcessors()).$();
         log.advisoryW().$("db root: ").$(cairoConfiguration.getRoot()).$();
         log.advisoryW().$("backup root: ").$(cairoConfiguration.getBackupRoot()).$();
+        log.advisoryW().$("cold tier root: ").$(cairoConfiguration.getColdTierRoot()).$();
         try (Path path = new Path()) {
             verifyFileSystem("db", cairoConfiguration.getRoot(), path, log);
             verifyFileSystem("backup", cairoConfiguration.getBackupRoot(), path, log);
+            verifyFileSystem("cold tier", cairoConfiguration.getColdTierRoot(), path, log);
             verifyFileOpts(cairoConfiguration, path);
         }
 
@@ -175,6 +179,13 @@ public class ServerMain {
             }
         }
 
+        if (!Files.isMadviseSupported()) {
+            log.advisoryW().$("native library does not support madvise, memory access hints are disabled").$();
+            if (cairoConfiguration.getSqlIOMode() == SqlIOMode.IO_MODE_PREFETCH) {
+                log.advisoryW().$("SQL IO mode prefetch has no effect, columns are read via page faults").$();
+            }
+        }
+
         Metrics metrics;
         if (configuration.getMetricsConfiguration().isEnabled()) {
             metrics = Metrics.enabled();
@@ -194,6 +205,46 @@ public class ServerMain {
         workerPool.assign(cairoEngine.getEngineMaintenanceJob());
         instancesToClean.add(cairoEngine);
 
+        if (configuration.getCairoConfiguration().getColdTierRoot() != null) {
+            // partition copy takes as long as the file system needs, it runs on its own thread
+            // so that jobs of the shared pool are not stalled behind it
+            final WorkerPool tierWorkerPool = new WorkerPool(new WorkerPoolConfiguration() {
+                @Override
+                public String getPoolName() {
+                    return "tier";
+                }
+
+                @Override
+                public int[] getWorkerAffinity() {
+                    return new int[]{-1};
+                }
+
+                @Override
+                public int getWorkerCount() {
+                    return 1;
+                }
+
+                @Override
+                public boolean haltOnError() {
+                    return false;
+                }
+
+                @Override
+                public boolean isDaemonPool() {
+                    return true;
+                }
+            }, metrics);
+            final PartitionTierJob partitionTierJob = new PartitionTierJob(cairoEngine);
+            tierWorkerPool.assign(partitionTierJob);
+            tierWorkerPool.freeOnHalt(partitionTierJob);
+            tierWorkerPool.start(log);
+            instancesToClean.add(tierWorkerPool::halt);
+        }
+
+        final MatViewRefreshJob matViewRefreshJob = new MatViewRefreshJob(cairoEngine, functionFactoryCache);
+        workerPool.assign(matViewRefreshJob);
+        instancesToClean.add(matViewRefreshJob);
+
         final DatabaseSnapshotAgent snapshotAgent = new DatabaseSnapshotAgent(cairoEngine);
         instancesToClean.add(snapshotAgent);
 
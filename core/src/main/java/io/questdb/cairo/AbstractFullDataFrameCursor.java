@@ -30,9 +30,15 @@ import io.questdb.std.Misc;
 
 public abstract class AbstractFullDataFrameCursor implements DataFrameCursor {
     protected final FullTableDataFrame frame = new FullTableDataFrame();
+    private final int defaultMemoryAdvice;
     protected TableReader reader;
     protected int partitionHi;
     protected int partitionIndex;
+    protected int memoryAdvice;
+
+    public AbstractFullDataFrameCursor(int defaultMemoryAdvice) {
+        this.defaultMemoryAdvice = defaultMemoryAdvice;
+    }
 
     @Override
     public void close() {
@@ -57,6 +63,11 @@ public abstract class AbstractFullDataFrameCursor implements DataFrameCursor {
         return moreData;
     }
 
+    @Override
+    public void setMemoryAdvice(int advice) {
+        this.memoryAdvice = advice;
+    }
+
     @Override
     public long size() {
         return reader.size();
@@ -65,6 +76,7 @@ public abstract class AbstractFullDataFrameCursor implements DataFrameCursor {
     public DataFrameCursor of(TableReader reader) {
         this.reader = reader;
         this.partitionHi = reader.getPartitionCount();
+        this.memoryAdvice = defaultMemoryAdvice;
         toTop();
         return this;
     }
@@ -51,15 +51,19 @@ public abstract class AbstractIntervalDataFrameCursor implements DataFrameCursor
     protected long partitionLimit;
     protected long sizeSoFar = 0;
     protected long size = -1;
+    protected int memoryAdvice;
     private int initialIntervalsLo;
     private int initialIntervalsHi;
     private int initialPartitionLo;
     private int initialPartitionHi;
 
-    public AbstractIntervalDataFrameCursor(RuntimeIntrinsicIntervalModel intervals, int timestampIndex) {
+    private final int defaultMemoryAdvice;
+
+    public AbstractIntervalDataFrameCursor(RuntimeIntrinsicIntervalModel intervals, int timestampIndex, int defaultMemoryAdvice) {
         assert timestampIndex > -1;
         this.intervalsModel = intervals;
         this.timestampIndex = timestampIndex;
+        this.defaultMemoryAdvice = defaultMemoryAdvice;
     }
 
     @Override
@@ -90,6 +94,11 @@ public abstract class AbstractIntervalDataFrameCursor implements DataFrameCursor
         sizeSoFar = 0;
     }
 
+    @Override
+    public void setMemoryAdvice(int advice) {
+        this.memoryAdvice = advice;
+    }
+
     @Override
     public long size() {
         return size > -1 ? size : computeSize();
@@ -102,6 +111,7 @@ public abstract class AbstractIntervalDataFrameCursor implements DataFrameCursor
 
     public void of(TableReader reader, SqlExecutionContext sqlContext) throws SqlException {
         this.reader = reader;
+        this.memoryAdvice = defaultMemoryAdvice;
         this.intervals = this.intervalsModel.calculateIntervals(sqlContext);
         calculateRanges(intervals);
     }
@@ -335,5 +335,43 @@ public interface CairoConfiguration {
 
     boolean isSqlJitDebugEnabled();
 
+    boolean isSqlFunctionCompilerEnabled();
+
+    int getSqlFunctionCompilerCacheCapacity();
+
+    boolean isSqlLatestByStateEnabled();
+
     int getQueryCacheEventQueueCapacity();
+
+    boolean isQueryFactoryCacheEnabled();
+
+    int getQueryFactoryCacheCapacity();
+
+    int getQueryFactoryCacheInstancesPerKey();
+
+    boolean isQueryResultCacheEnabled();
+
+    long getQueryResultCacheMemoryLimit();
+
+    long getQueryResultCachePageSize();
+
+    double getSymbolMapMaxLoadFactor();
+
+    int getSqlIOMode();
+
+    int getSqlIOPrefetchFrameCount();
+
+    int getSqlIOPrefetchRowCount();
+
+    int getO3PartitionMaxConcurrency();
+
+    long getO3CopySplitSize();
+
+    long getDataAppendStagingPageSize();
+
+    CharSequence getColdTierRoot();
+
+    long getTierMoveCheckInterval();
+
+    long getMatViewRefreshInterval();
 }
@@ -66,6 +66,8 @@ public class CairoEngine implements Closeable, WriterSource {
     private final SCSequence telemetrySubSeq;
     private final long tableIdMemSize;
     private final AtomicLong alterCommandCommandCorrelationId = new AtomicLong();
+    private final QueryFactoryCache queryFactoryCache;
+    private final QueryResultCache queryResultCache;
     private long tableIdFd = -1;
     private long tableIdMem = 0;
 
@@ -80,8 +82,26 @@ public class CairoEngine implements Closeable, WriterSource {
         this.metrics = metrics;
         this.messageBus = new MessageBusImpl(configuration);
         this.writerPool = new WriterPool(configuration, messageBus, metrics);
-        this.readerPool = new ReaderPool(configuration, messageBus);
+        this.readerPool = new ReaderPool(configuration, messageBus, metrics.tableReader());
         this.engineMaintenanceJob = new EngineMaintenanceJob(configuration);
+        if (configuration.isQueryFactoryCacheEnabled()) {
+            this.queryFactoryCache = new QueryFactoryCache(
+                    configuration.getQueryFactoryCacheCapacity(),
+                    configuration.getQueryFactoryCacheInstancesPerKey(),
+                    metrics.queryFactoryCache()
+            );
+        } else {
+            this.queryFactoryCache = null;
+        }
+        if (configuration.isQueryResultCacheEnabled()) {
+            this.queryResultCache = new QueryResultCache(
+                    configuration.getQueryResultCacheMemoryLimit(),
+                    configuration.getQueryResultCachePageSize(),
+                    metrics.queryResultCache()
+            );
+        } else {
+            this.queryResultCache = null;
+        }
         if (configuration.getTelemetryConfiguration().getEnabled()) {
             this.telemetryQueue = new RingQueue<>(TelemetryTask::new, configuration.getTelemetryConfiguration().getQueueCapacity());
             this.telemetryPubSeq = new MPSequence(telemetryQueue.getCycle());
@@ -120,6 +140,8 @@ public class CairoEngine implements Closeable, WriterSource {
 
     @Override
     public void close() {
+        Misc.free(queryFactoryCache);
+        Misc.free(queryResultCache);
         Misc.free(writerPool);
         Misc.free(readerPool);
         freeTableId();
@@ -215,6 +237,22 @@ public class CairoEngine implements Closeable, WriterSource {
         return messageBus;
     }
 
+    /**
+     * @return engine-wide factory cache or null when it is disabled via configuration
+     */
+    @Nullable
+    public QueryFactoryCache getQueryFactoryCache() {
+        return queryFactoryCache;
+    }
+
+    /**
+     * @return engine-wide result cache or null when it is disabled via configuration
+     */
+    @Nullable
+    public QueryResultCache getQueryResultCache() {
+        return queryResultCache;
+    }
+
     public long getNextTableId() {
         long next;
         long x = Unsafe.getUnsafe().getLong(tableIdMem);
@@ -401,11 +439,18 @@ public class CairoEngine implements Closeable, WriterSource {
         if (null == lockedReason) {
             try {
                 path.of(configuration.getRoot()).concat(tableName).$();
+                final int coldTierTableId = readColdTierTableId(path);
                 int errno;
                 if ((errno = configuration.getFilesFacade().rmdir(path)) != 0) {
                     LOG.error().$("remove failed [tableName='").utf8(tableName).$("', error=").$(errno).$(']').$();
                     throw CairoException.instance(errno).put("Table remove failed");
                 }
+                if (coldTierTableId > -1) {
+                    removeColdTierTable(path, coldTierTableId);
+                }
+                if (queryResultCache != null) {
+                    queryResultCache.onTableDroppedOrRenamed();
+                }
                 return;
             } finally {
                 unlock(securityContext, tableName, null, false);
@@ -432,6 +477,9 @@ public class CairoEngine implements Closeable, WriterSource {
         if (null == lockedReason) {
             try {
                 rename0(path, tableName, otherPath, newName);
+                if (queryResultCache != null) {
+                    queryResultCache.onTableDroppedOrRenamed();
+                }
             } finally {
                 unlock(securityContext, tableName, null, false);
             }
@@ -466,6 +514,42 @@ public class CairoEngine implements Closeable, WriterSource {
         writerPool.unlock(tableName);
     }
 
+    private int readColdTierTableId(Path path) {
+        // partitions moved to cold tier are soft links in table directory,
+        // removing the directory only unlinks them
+        if (configuration.getColdTierRoot() == null) {
+            return -1;
+        }
+        final FilesFacade ff = configuration.getFilesFacade();
+        final int rootLen = path.length();
+        final long fd = ff.openRO(path.chop$().concat(TableUtils.META_FILE_NAME).$());
+        path.trimTo(rootLen).$();
+        if (fd < 0) {
+            return -1;
+        }
+        final long mem = Unsafe.malloc(Integer.BYTES, MemoryTag.NATIVE_DEFAULT);
+        try {
+            if (ff.read(fd, mem, Integer.BYTES, TableUtils.META_OFFSET_TABLE_ID) == Integer.BYTES) {
+                return Unsafe.getUnsafe().getInt(mem);
+            }
+            return -1;
+        } finally {
+            Unsafe.free(mem, Integer.BYTES, MemoryTag.NATIVE_DEFAULT);
+            ff.close(fd);
+        }
+    }
+
+    private void removeColdTierTable(Path path, int tableId) {
+        final FilesFacade ff = configuration.getFilesFacade();
+        TableUtils.setColdTierTablePath(path.of(configuration.getColdTierRoot()), tableId).$();
+        if (ff.exists(path)) {
+            int errno;
+            if ((errno = ff.rmdir(path)) != 0) {
+                LOG.error().$("could not remove cold tier data [path=").$(path).$(", errno=").$(errno).I$();
+            }
+        }
+    }
+
     private void rename0(Path path, CharSequence tableName, Path otherPath, CharSequence to) {
         final FilesFacade ff = configuration.getFilesFacade();
         final CharSequence root = configuration.getRoot();
@@ -110,6 +110,25 @@ public class ColumnVersionReader implements Closeable, Mutable {
         return versionRecordIndex > -1 ? cachedList.getQuick(versionRecordIndex + 3) : 0L;
     }
 
+    /**
+     * Column versions of a partition are upserted under the current txn whenever column files of
+     * the partition are created or rewritten in place of the old ones. Highest name txn of partition
+     * records therefore changes with every such change.
+     *
+     * @param partitionTimestamp partition timestamp
+     * @return highest column name txn recorded for the partition or -1 when partition has no records
+     */
+    public long getMaxColumnNameTxn(long partitionTimestamp) {
+        long max = -1L;
+        int index = cachedList.binarySearchBlock(BLOCK_SIZE_MSB, partitionTimestamp, BinarySearch.SCAN_UP);
+        if (index > -1) {
+            for (final int sz = cachedList.size(); index < sz && cachedList.getQuick(index) == partitionTimestamp; index += BLOCK_SIZE) {
+                max = Math.max(max, cachedList.getQuick(index + 2));
+            }
+        }
+        return max;
+    }
+
     public long getColumnTopPartitionTimestamp(int columnIndex) {
         int index = getRecordIndex(COL_TOP_DEFAULT_PARTITION, columnIndex);
         return index > -1 ? getColumnTopByIndex(index) : Long.MIN_VALUE;
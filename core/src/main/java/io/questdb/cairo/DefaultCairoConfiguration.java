@@ -627,6 +627,21 @@ public class DefaultCairoConfiguration implements CairoConfiguration {
         return false;
     }
 
+    @Override
+    public boolean isSqlFunctionCompilerEnabled() {
+        return false;
+    }
+
+    @Override
+    public int getSqlFunctionCompilerCacheCapacity() {
+        return 1024;
+    }
+
+    @Override
+    public boolean isSqlLatestByStateEnabled() {
+        return false;
+    }
+
     @Override
     public TelemetryConfiguration getTelemetryConfiguration() {
         return telemetryConfiguration;
@@ -696,4 +711,84 @@ public class DefaultCairoConfiguration implements CairoConfiguration {
     public int getQueryCacheEventQueueCapacity() {
         return 4;
     }
+
+    @Override
+    public boolean isQueryFactoryCacheEnabled() {
+        return false;
+    }
+
+    @Override
+    public int getQueryFactoryCacheCapacity() {
+        return 256;
+    }
+
+    @Override
+    public int getQueryFactoryCacheInstancesPerKey() {
+        return 8;
+    }
+
+    @Override
+    public boolean isQueryResultCacheEnabled() {
+        return false;
+    }
+
+    @Override
+    public long getQueryResultCacheMemoryLimit() {
+        return 64 * 1024 * 1024;
+    }
+
+    @Override
+    public long getQueryResultCachePageSize() {
+        return 64 * 1024;
+    }
+
+    @Override
+    public double getSymbolMapMaxLoadFactor() {
+        return 2.0;
+    }
+
+    @Override
+    public int getSqlIOMode() {
+        return SqlIOMode.IO_MODE_MMAP;
+    }
+
+    @Override
+    public int getSqlIOPrefetchFrameCount() {
+        return 2;
+    }
+
+    @Override
+    public int getSqlIOPrefetchRowCount() {
+        return 64;
+    }
+
+    @Override
+    public int getO3PartitionMaxConcurrency() {
+        return 0;
+    }
+
+    @Override
+    public long getO3CopySplitSize() {
+        return 64 * Numbers.SIZE_1MB;
+    }
+
+    @Override
+    public long getDataAppendStagingPageSize() {
+        return 0;
+    }
+
+    @Override
+    public CharSequence getColdTierRoot() {
+        return null;
+    }
+
+    @Override
+    public long getTierMoveCheckInterval() {
+        return 60 * 1000L;
+    }
+
+    @Override
+    public long getMatViewRefreshInterval() {
+        return 1000L;
+    }
 }
@@ -25,10 +25,16 @@
 package io.questdb.cairo;
 
 import io.questdb.cairo.sql.DataFrame;
+import io.questdb.std.Files;
 import org.jetbrains.annotations.Nullable;
 
 public class FullBwdDataFrameCursor extends AbstractFullDataFrameCursor {
 
+    public FullBwdDataFrameCursor() {
+        // kernel readahead does not help backward scans
+        super(Files.MADV_NORMAL);
+    }
+
     @Override
     public DataFrame next() {
         while (this.partitionIndex > -1) {
@@ -37,6 +43,7 @@ public class FullBwdDataFrameCursor extends AbstractFullDataFrameCursor {
                 // this partition is missing, skip
                 partitionIndex--;
             } else {
+                reader.adviseColumns(partitionIndex, memoryAdvice);
                 frame.partitionIndex = partitionIndex;
                 frame.rowHi = hi;
                 partitionIndex--;
@@ -80,6 +87,9 @@ public class FullBwdDataFrameCursor extends AbstractFullDataFrameCursor {
             }
         }
 
+        if (partitionRows > 0) {
+            getTableReader().adviseColumns(partitionIndex, memoryAdvice);
+        }
         frame.partitionIndex = partitionIndex;
         frame.rowHi = position > -1L ? partitionRows - position : position;
         frame.rowLo = 0;
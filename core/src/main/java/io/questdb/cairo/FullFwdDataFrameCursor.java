@@ -25,10 +25,15 @@
 package io.questdb.cairo;
 
 import io.questdb.cairo.sql.DataFrame;
+import io.questdb.std.Files;
 import org.jetbrains.annotations.Nullable;
 
 public class FullFwdDataFrameCursor extends AbstractFullDataFrameCursor {
 
+    public FullFwdDataFrameCursor() {
+        super(Files.MADV_SEQUENTIAL);
+    }
+
     @Override
     public @Nullable DataFrame next() {
         while (this.partitionIndex < partitionHi) {
@@ -37,6 +42,7 @@ public class FullFwdDataFrameCursor extends AbstractFullDataFrameCursor {
                 // this partition is missing, skip
                 partitionIndex++;
             } else {
+                getTableReader().adviseColumns(partitionIndex, memoryAdvice);
                 frame.partitionIndex = partitionIndex;
                 frame.rowLo = 0;
                 frame.rowHi = hi;
@@ -81,6 +87,9 @@ public class FullFwdDataFrameCursor extends AbstractFullDataFrameCursor {
             }
         }
 
+        if (partitionRows > 0) {
+            getTableReader().adviseColumns(partitionIndex, memoryAdvice);
+        }
         frame.partitionIndex = partitionIndex;
         frame.rowHi = partitionRows;
         frame.rowLo = position;
@@ -27,6 +27,7 @@ package io.questdb.cairo;
 import io.questdb.cairo.sql.DataFrame;
 import io.questdb.cairo.vm.api.MemoryR;
 import io.questdb.griffin.model.RuntimeIntrinsicIntervalModel;
+import io.questdb.std.Files;
 import io.questdb.log.Log;
 import io.questdb.log.LogFactory;
 
@@ -44,7 +45,7 @@ public class IntervalBwdDataFrameCursor extends AbstractIntervalDataFrameCursor
      * @param timestampIndex index of timestamp column in the readr that is used by this cursor
      */
     public IntervalBwdDataFrameCursor(RuntimeIntrinsicIntervalModel intervals, int timestampIndex) {
-        super(intervals, timestampIndex);
+        super(intervals, timestampIndex, Files.MADV_NORMAL);
     }
 
     @Override
@@ -119,6 +120,7 @@ public class IntervalBwdDataFrameCursor extends AbstractIntervalDataFrameCursor
                 }
 
                 if (lo < hi) {
+                    reader.adviseColumns(currentPartition, memoryAdvice);
                     dataFrame.partitionIndex = currentPartition;
                     dataFrame.rowLo = lo;
                     dataFrame.rowHi = hi;
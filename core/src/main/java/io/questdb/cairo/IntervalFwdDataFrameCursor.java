@@ -27,6 +27,7 @@ package io.questdb.cairo;
 import io.questdb.cairo.sql.DataFrame;
 import io.questdb.cairo.vm.api.MemoryR;
 import io.questdb.griffin.model.RuntimeIntrinsicIntervalModel;
+import io.questdb.std.Files;
 
 public class IntervalFwdDataFrameCursor extends AbstractIntervalDataFrameCursor {
     /**
@@ -39,7 +40,7 @@ public class IntervalFwdDataFrameCursor extends AbstractIntervalDataFrameCursor
      * @param timestampIndex index of timestamp column in the readr that is used by this cursor
      */
     public IntervalFwdDataFrameCursor(RuntimeIntrinsicIntervalModel intervals, int timestampIndex) {
-        super(intervals, timestampIndex);
+        super(intervals, timestampIndex, Files.MADV_SEQUENTIAL);
     }
 
     @Override
@@ -93,6 +94,7 @@ public class IntervalFwdDataFrameCursor extends AbstractIntervalDataFrameCursor
                 }
 
                 if (lo < hi) {
+                    reader.adviseColumns(partitionLo, memoryAdvice);
                     dataFrame.partitionIndex = partitionLo;
                     dataFrame.rowLo = lo;
                     dataFrame.rowHi = hi;
@@ -0,0 +1,104 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2022 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.cairo;
+
+import io.questdb.cairo.vm.Vm;
+import io.questdb.cairo.vm.api.MemoryCMARW;
+import io.questdb.cairo.vm.api.MemoryMA;
+import io.questdb.std.Chars;
+import io.questdb.std.FilesFacade;
+import io.questdb.std.MemoryTag;
+import io.questdb.std.str.Path;
+
+/**
+ * Materialized view definition stored in {@link TableUtils#MAT_VIEW_FILE_NAME} file of the view table.
+ * View table is a regular partitioned table populated by SAMPLE BY query over the base table.
+ * Refresh query is the same query with base table rows restricted to designated timestamp
+ * at or after the value of $1 bind variable.
+ */
+public class MatViewDefinition {
+    private final String viewName;
+    private final String baseTableName;
+    private final String sql;
+    private final String refreshSql;
+
+    public MatViewDefinition(String viewName, String baseTableName, String sql, String refreshSql) {
+        this.viewName = viewName;
+        this.baseTableName = baseTableName;
+        this.sql = sql;
+        this.refreshSql = refreshSql;
+    }
+
+    /**
+     * Reads view definition from table directory.
+     *
+     * @return view definition or null when table is not materialized view
+     */
+    public static MatViewDefinition read(FilesFacade ff, Path path, CharSequence root, CharSequence viewName) {
+        path.of(root).concat(viewName).concat(TableUtils.MAT_VIEW_FILE_NAME).$();
+        if (!ff.exists(path)) {
+            return null;
+        }
+        try (MemoryCMARW mem = Vm.getCMARWInstance()) {
+            mem.smallFile(ff, path, MemoryTag.MMAP_DEFAULT);
+            long offset = 0;
+            final String baseTableName = Chars.toString(mem.getStr(offset));
+            offset += Vm.getStorageLength(baseTableName);
+            final String sql = Chars.toString(mem.getStr(offset));
+            offset += Vm.getStorageLength(sql);
+            final String refreshSql = Chars.toString(mem.getStr(offset));
+            return new MatViewDefinition(Chars.toString(viewName), baseTableName, sql, refreshSql);
+        }
+    }
+
+    public static void write(FilesFacade ff, MemoryMA mem, Path path, CharSequence root, MatViewDefinition definition) {
+        path.of(root).concat(definition.getViewName()).concat(TableUtils.MAT_VIEW_FILE_NAME).$();
+        mem.smallFile(ff, path, MemoryTag.MMAP_DEFAULT);
+        try {
+            mem.putStr(definition.getBaseTableName());
+            mem.putStr(definition.getSql());
+            mem.putStr(definition.getRefreshSql());
+        } finally {
+            mem.close();
+        }
+    }
+
+    public String getBaseTableName() {
+        return baseTableName;
+    }
+
+    public String getRefreshSql() {
+        return refreshSql;
+    }
+
+    public String getSql() {
+        return sql;
+    }
+
+    public String getViewName() {
+        return viewName;
+    }
+}
@@ -0,0 +1,73 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2022 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.cairo;
+
+import io.questdb.metrics.Counter;
+import io.questdb.metrics.MetricsRegistry;
+import org.jetbrains.annotations.TestOnly;
+
+public class MatViewMetrics {
+
+    private final Counter refreshCounter;
+    private final Counter refreshFailureCounter;
+    private volatile long lastRefreshDuration;
+    private volatile long refreshLag;
+
+    public MatViewMetrics(MetricsRegistry metricsRegistry) {
+        this.refreshCounter = metricsRegistry.newCounter("mat_view_refreshes");
+        this.refreshFailureCounter = metricsRegistry.newCounter("mat_view_refresh_failures");
+        metricsRegistry.newVirtualGauge("mat_view_refresh_duration_micros", this::getLastRefreshDuration);
+        metricsRegistry.newVirtualGauge("mat_view_refresh_lag_micros", this::getRefreshLag);
+    }
+
+    public long getLastRefreshDuration() {
+        return lastRefreshDuration;
+    }
+
+    public long getRefreshLag() {
+        return refreshLag;
+    }
+
+    public void markRefresh(long duration, long lag) {
+        refreshCounter.inc();
+        lastRefreshDuration = duration;
+        refreshLag = lag;
+    }
+
+    public void markRefreshFailure() {
+        refreshFailureCounter.inc();
+    }
+
+    @TestOnly
+    public long refreshCount() {
+        return refreshCounter.get();
+    }
+
+    @TestOnly
+    public long refreshFailureCount() {
+        return refreshFailureCounter.get();
+    }
+}
@@ -31,6 +31,7 @@ import io.questdb.log.LogFactory;
 import io.questdb.mp.AbstractQueueConsumerJob;
 import io.questdb.mp.Sequence;
 import io.questdb.std.*;
+import io.questdb.std.str.LPSZ;
 import io.questdb.std.str.Path;
 import io.questdb.tasks.O3CopyTask;
 import io.questdb.tasks.O3OpenColumnTask;
@@ -685,6 +686,7 @@ public class O3OpenColumnJob extends AbstractQueueConsumerJob<O3OpenColumnTask>
 
         try {
             dstFixSize = dstLen << shl;
+            tableWriter.getMetrics().addO3BytesWritten((srcOooHi - srcOooLo + 1) << shl);
             if (dstFixMem == null || dstFixMem.getAppendAddressSize() < dstFixSize) {
                 dstFixOffset = (srcDataMax - srcDataTop) << shl;
                 dstFixAddr = mapRW(ff, Math.abs(dstFixFd), dstFixSize, MemoryTag.MMAP_O3);
@@ -807,6 +809,7 @@ public class O3OpenColumnJob extends AbstractQueueConsumerJob<O3OpenColumnTask>
         final FilesFacade ff = tableWriter.getFilesFacade();
         try {
             dstFixSize = dstLen * Long.BYTES;
+            tableWriter.getMetrics().addO3BytesWritten((srcOooHi - srcOooLo + 1) * Long.BYTES);
             if (dstFixMem == null || dstFixMem.getAppendAddressSize() < dstFixSize) {
                 dstFixOffset = srcDataMax * Long.BYTES;
                 dstFixFileOffset = dstFixOffset;
@@ -926,6 +929,7 @@ public class O3OpenColumnJob extends AbstractQueueConsumerJob<O3OpenColumnTask>
         try {
             long l = O3Utils.getVarColumnLength(srcOooLo, srcOooHi, srcOooFixAddr);
             dstFixSize = (dstLen + 1) * Long.BYTES;
+            tableWriter.getMetrics().addO3BytesWritten((srcOooHi - srcOooLo + 1) * Long.BYTES + l);
             if (dstFixMem == null || dstFixMem.getAppendAddressSize() < dstFixSize || dstVarMem.getAppendAddressSize() < l) {
                 assert dstFixMem == null || dstFixMem.getAppendOffset() - Long.BYTES == (srcDataMax - srcDataTop) * Long.BYTES;
 
@@ -1027,6 +1031,18 @@ public class O3OpenColumnJob extends AbstractQueueConsumerJob<O3OpenColumnTask>
         );
     }
 
+    private static long o3CopySplitRows(TableWriter tableWriter, int columnType) {
+        final long splitSize = tableWriter.getConfiguration().getO3CopySplitSize();
+        if (splitSize <= 0 || ColumnType.isVariableLength(columnType)) {
+            return -1;
+        }
+        return Math.max(1, splitSize >> ColumnType.pow2SizeOf(Math.abs(columnType)));
+    }
+
+    private static int o3CopySplitCount(long splitRows, long lo, long hi) {
+        return splitRows > 0 && hi >= lo ? (int) ((hi - lo) / splitRows) + 1 : 1;
+    }
+
     private static void publishCopyTask(
             AtomicInteger columnCounter,
             @Nullable AtomicInteger partCounter,
@@ -1249,6 +1265,7 @@ public class O3OpenColumnJob extends AbstractQueueConsumerJob<O3OpenColumnTask>
         }
 
         if (cursor == -1) {
+            tableWriter.getMetrics().incrementO3TasksStolen();
             O3CopyJob.copy(
                     columnCounter,
                     partCounter,
@@ -1411,6 +1428,7 @@ public class O3OpenColumnJob extends AbstractQueueConsumerJob<O3OpenColumnTask>
             TableWriter tableWriter,
             BitmapIndexWriter indexWriter
     ) {
+        tableWriter.getMetrics().incrementO3TasksQueued();
         final O3CopyTask task = tableWriter.getO3CopyQueue().get(cursor);
         task.of(
                 columnCounter,
@@ -1598,7 +1616,8 @@ public class O3OpenColumnJob extends AbstractQueueConsumerJob<O3OpenColumnTask>
                         tableWriter,
                         indexWriter,
                         colTopSinkAddr,
-                        columnNameTxn
+                        columnNameTxn,
+                        0
                 );
                 break;
         }
@@ -1768,6 +1787,11 @@ public class O3OpenColumnJob extends AbstractQueueConsumerJob<O3OpenColumnTask>
                     );
                     throw e;
                 }
+                // rows preceding O3 data keep their positions in the new partition version,
+                // their index can be copied rather than rebuilt
+                final long dstIndexPrefixRows = indexBlockCapacity > -1 && prefixType == O3_BLOCK_DATA && srcDataTop == 0
+                        ? copyIndexFiles(ff, pathToPartition, plen, pplen, txn, columnName, columnNameTxn, prefixHi - prefixLo + 1)
+                        : 0;
                 mergeFixColumn(
                         pathToPartition,
                         pplen,
@@ -1808,7 +1832,8 @@ public class O3OpenColumnJob extends AbstractQueueConsumerJob<O3OpenColumnTask>
                         tableWriter,
                         indexWriter,
                         colTopSinkAddr,
-                        columnNameTxn
+                        columnNameTxn,
+                        dstIndexPrefixRows
                 );
                 break;
         }
@@ -1836,6 +1861,43 @@ public class O3OpenColumnJob extends AbstractQueueConsumerJob<O3OpenColumnTask>
         }
     }
 
+    private static long copyIndexFiles(
+            FilesFacade ff,
+            Path pathToPartition,
+            int plen,
+            int pplen,
+            long txn,
+            CharSequence columnName,
+            long columnNameTxn,
+            long prefixRows
+    ) {
+        final Path dstPath = Path.getThreadLocal2(pathToPartition.trimTo(pplen));
+        txnPartition(dstPath, txn);
+        final int dstLen = dstPath.length();
+        if (
+                copyFile(
+                        ff,
+                        BitmapIndexUtils.keyFileName(pathToPartition.trimTo(plen), columnName, columnNameTxn),
+                        BitmapIndexUtils.keyFileName(dstPath.trimTo(dstLen), columnName, columnNameTxn)
+                ) && copyFile(
+                        ff,
+                        BitmapIndexUtils.valueFileName(pathToPartition.trimTo(plen), columnName, columnNameTxn),
+                        BitmapIndexUtils.valueFileName(dstPath.trimTo(dstLen), columnName, columnNameTxn)
+                )
+        ) {
+            return prefixRows;
+        }
+        // index writer will truncate partial copy and rebuild the index from scratch
+        LOG.info().$("could not copy index, rebuilding [path=").$(pathToPartition).$(']').$();
+        return 0;
+    }
+
+    private static boolean copyFile(FilesFacade ff, LPSZ from, LPSZ to) {
+        final long len = ff.length(from);
+        // copy can be short on large files, size check ensures the copy is complete
+        return len > 0 && ff.copy(from, to) > -1 && ff.length(to) == len;
+    }
+
     private static void mergeFixColumn(
             Path pathToPartition,
             int pplen,
@@ -1876,7 +1938,8 @@ public class O3OpenColumnJob extends AbstractQueueConsumerJob<O3OpenColumnTask>
             TableWriter tableWriter,
             BitmapIndexWriter indexWriter,
             long colTopSinkAddr,
-            long columnNameTxn
+            long columnNameTxn,
+            long dstIndexPrefixRows
     ) {
         int partCount = 0;
         long dstFixAppendOffset1;
@@ -1930,6 +1993,7 @@ public class O3OpenColumnJob extends AbstractQueueConsumerJob<O3OpenColumnTask>
             dstFixFd = openRW(ff, pathToPartition, LOG, tableWriter.getConfiguration().getWriterFileOpenOpts());
             dstFixSize = ((srcOooHi - srcOooLo + 1) + srcDataMax - srcDataTop) << shl;
             dstFixAddr = mapRW(ff, dstFixFd, dstFixSize, MemoryTag.MMAP_O3);
+            tableWriter.getMetrics().addO3BytesWritten(dstFixSize);
 
             // when prefix is "data" we need to reduce it by "srcDataTop"
             if (prefixType == O3_BLOCK_DATA) {
@@ -1957,7 +2021,10 @@ public class O3OpenColumnJob extends AbstractQueueConsumerJob<O3OpenColumnTask>
                 dstVFd = openRW(ff, pathToPartition, LOG, tableWriter.getConfiguration().getWriterFileOpenOpts());
             }
 
-            if (prefixType != O3_BLOCK_NONE) {
+            final long splitRows = o3CopySplitRows(tableWriter, columnType);
+            if (prefixType == O3_BLOCK_DATA) {
+                partCount += o3CopySplitCount(splitRows, prefixLo, prefixHi);
+            } else if (prefixType != O3_BLOCK_NONE) {
                 partCount++;
             }
 
@@ -1965,7 +2032,9 @@ public class O3OpenColumnJob extends AbstractQueueConsumerJob<O3OpenColumnTask>
                 partCount++;
             }
 
-            if (suffixType != O3_BLOCK_NONE) {
+            if (suffixType == O3_BLOCK_DATA) {
+                partCount += o3CopySplitCount(splitRows, suffixLo, suffixHi);
+            } else if (suffixType != O3_BLOCK_NONE) {
                 partCount++;
             }
         } catch (Throwable e) {
@@ -2035,6 +2104,7 @@ public class O3OpenColumnJob extends AbstractQueueConsumerJob<O3OpenColumnTask>
                 0,
                 dstKFd,
                 dstVFd,
+                dstIndexPrefixRows * Integer.BYTES,
                 indexBlockCapacity,
                 srcTimestampFd,
                 srcTimestampAddr,
@@ -2234,6 +2304,7 @@ public class O3OpenColumnJob extends AbstractQueueConsumerJob<O3OpenColumnTask>
             dstVarSize = srcDataVarSize - srcDataVarOffset
                     + O3Utils.getVarColumnLength(srcOooLo, srcOooHi, srcOooFixAddr);
             dstVarAddr = mapRW(ff, dstVarFd, dstVarSize, MemoryTag.MMAP_O3);
+            tableWriter.getMetrics().addO3BytesWritten(dstFixSize + dstVarSize);
 
             if (prefixType == O3_BLOCK_DATA) {
                 dstFixAppendOffset1 = (prefixHi - prefixLo + 1 - srcDataTop) * Long.BYTES;
@@ -2366,6 +2437,7 @@ public class O3OpenColumnJob extends AbstractQueueConsumerJob<O3OpenColumnTask>
                 dstVarAppendOffset2,
                 0,
                 0,
+                0,
                 indexBlockCapacity,
                 srcTimestampFd,
                 srcTimestampAddr,
@@ -2458,11 +2530,13 @@ public class O3OpenColumnJob extends AbstractQueueConsumerJob<O3OpenColumnTask>
                 dstVarFd = openRW(ff, pathToPartition, LOG, tableWriter.getConfiguration().getWriterFileOpenOpts());
                 dstVarSize = O3Utils.getVarColumnLength(srcOooLo, srcOooHi, srcOooFixAddr);
                 dstVarAddr = mapRW(ff, dstVarFd, dstVarSize, MemoryTag.MMAP_O3);
+                tableWriter.getMetrics().addO3BytesWritten(dstFixSize + dstVarSize);
             } else {
                 dFile(pathToPartition.trimTo(plen), columnName, columnNameTxn);
                 dstFixFd = openRW(ff, pathToPartition, LOG, tableWriter.getConfiguration().getWriterFileOpenOpts());
                 dstFixSize = (srcOooHi - srcOooLo + 1) << ColumnType.pow2SizeOf(Math.abs(columnType));
                 dstFixAddr = mapRW(ff, dstFixFd, dstFixSize, MemoryTag.MMAP_O3);
+                tableWriter.getMetrics().addO3BytesWritten(dstFixSize);
                 if (indexBlockCapacity > -1) {
                     BitmapIndexUtils.keyFileName(pathToPartition.trimTo(plen), columnName, columnNameTxn);
                     dstKFd = openRW(ff, pathToPartition, LOG, tableWriter.getConfiguration().getWriterFileOpenOpts());
@@ -2589,6 +2663,7 @@ public class O3OpenColumnJob extends AbstractQueueConsumerJob<O3OpenColumnTask>
             long dstVarAppendOffset2,
             long dstKFd,
             long dstVFd,
+            long dstIndexOffset,
             int indexBlockCapacity,
             long srcTimestampFd,
             long srcTimestampAddr,
@@ -2597,6 +2672,12 @@ public class O3OpenColumnJob extends AbstractQueueConsumerJob<O3OpenColumnTask>
             BitmapIndexWriter indexWriter
     ) {
         final boolean partitionMutates = true;
+        // large blocks of existing data are copied by several tasks, each taking its own
+        // range of rows, so that one big column does not hold up the whole partition
+        final long splitRows = o3CopySplitRows(tableWriter, columnType);
+        final int shl = ColumnType.isVariableLength(columnType) ? 0 : ColumnType.pow2SizeOf(Math.abs(columnType));
+        final int prefixParts = o3CopySplitCount(splitRows, prefixLo, prefixHi);
+        final int suffixParts = o3CopySplitCount(splitRows, suffixLo, suffixHi);
         switch (prefixType) {
             case O3_BLOCK_O3:
                 publishCopyTask(
@@ -2641,7 +2722,7 @@ public class O3OpenColumnJob extends AbstractQueueConsumerJob<O3OpenColumnTask>
                         dstVarSize,
                         dstKFd,
                         dstVFd,
-                        0,
+                        dstIndexOffset,
                         0,
                         indexBlockCapacity,
                         srcTimestampFd,
@@ -2653,58 +2734,63 @@ public class O3OpenColumnJob extends AbstractQueueConsumerJob<O3OpenColumnTask>
                 );
                 break;
             case O3_BLOCK_DATA:
-                publishCopyTask(
-                        columnCounter,
-                        partCounter,
-                        columnType,
-                        prefixType,
-                        timestampMergeIndexAddr,
-                        timestampMergeIndexSize,
-                        srcDataFixFd,
-                        srcDataFixAddr,
-                        srcDataFixOffset,
-                        srcDataFixSize,
-                        srcDataVarFd,
-                        srcDataVarAddr,
-                        srcDataVarOffset,
-                        srcDataVarSize,
-                        prefixLo,
-                        prefixHi,
-                        srcDataTopOffset,
-                        srcDataMax,
-                        0,
-                        0,
-                        0,
-                        0,
-                        srcOooMax,
-                        srcOooLo,
-                        srcOooHi,
-                        timestampMin,
-                        timestampMax,
-                        partitionTimestamp,
-                        dstFixFd,
-                        dstFixAddr,
-                        0,
-                        0,
-                        dstFixSize,
-                        dstVarFd,
-                        dstVarAddr,
-                        0,
-                        0,
-                        0,
-                        dstVarSize,
-                        dstKFd,
-                        dstVFd,
-                        0,
-                        0,
-                        indexBlockCapacity,
-                        srcTimestampFd,
-                        srcTimestampAddr,
-                        srcTimestampSize,
-                        partitionMutates,
-                        tableWriter,
-                        indexWriter
-                );
+                for (int i = 0; i < prefixParts; i++) {
+                    final long partLo = prefixLo + i * splitRows;
+                    final long partHi = i == prefixParts - 1 ? prefixHi : partLo + splitRows - 1;
+                    final long partOffset = (partLo - prefixLo) << shl;
+                    publishCopyTask(
+                            columnCounter,
+                            partCounter,
+                            columnType,
+                            prefixType,
+                            timestampMergeIndexAddr,
+                            timestampMergeIndexSize,
+                            srcDataFixFd,
+                            srcDataFixAddr,
+                            srcDataFixOffset,
+                            srcDataFixSize,
+                            srcDataVarFd,
+                            srcDataVarAddr,
+                            srcDataVarOffset,
+                            srcDataVarSize,
+                            partLo,
+                            partHi,
+                            srcDataTopOffset,
+                            srcDataMax,
+                            0,
+                            0,
+                            0,
+                            0,
+                            srcOooMax,
+                            srcOooLo,
+                            srcOooHi,
+                            timestampMin,
+                            timestampMax,
+                            partitionTimestamp,
+                            dstFixFd,
+                            dstFixAddr,
+                            partOffset,
+                            partOffset,
+                            dstFixSize,
+                            dstVarFd,
+                            dstVarAddr,
+                            0,
+                            0,
+                            0,
+                            dstVarSize,
+                            dstKFd,
+                            dstVFd,
+                            dstIndexOffset,
+                            0,
+                            indexBlockCapacity,
+                            srcTimestampFd,
+                            srcTimestampAddr,
+                            srcTimestampSize,
+                            partitionMutates,
+                            tableWriter,
+                            indexWriter
+                    );
+                }
                 break;
             default:
                 break;
@@ -2752,7 +2838,7 @@ public class O3OpenColumnJob extends AbstractQueueConsumerJob<O3OpenColumnTask>
                         dstVarSize,
                         dstKFd,
                         dstVFd,
-                        0,
+                        dstIndexOffset,
                         0,
                         indexBlockCapacity,
                         srcTimestampFd,
@@ -2806,7 +2892,7 @@ public class O3OpenColumnJob extends AbstractQueueConsumerJob<O3OpenColumnTask>
                         dstVarSize,
                         dstKFd,
                         dstVFd,
-                        0,
+                        dstIndexOffset,
                         0,
                         indexBlockCapacity,
                         srcTimestampFd,
@@ -2860,7 +2946,7 @@ public class O3OpenColumnJob extends AbstractQueueConsumerJob<O3OpenColumnTask>
                         dstVarSize,
                         dstKFd,
                         dstVFd,
-                        0,
+                        dstIndexOffset,
                         0,
                         indexBlockCapacity,
                         srcTimestampFd,
@@ -2919,7 +3005,7 @@ public class O3OpenColumnJob extends AbstractQueueConsumerJob<O3OpenColumnTask>
                         dstVarSize,
                         dstKFd,
                         dstVFd,
-                        0,
+                        dstIndexOffset,
                         0,
                         indexBlockCapacity,
                         srcTimestampFd,
@@ -2931,58 +3017,63 @@ public class O3OpenColumnJob extends AbstractQueueConsumerJob<O3OpenColumnTask>
                 );
                 break;
             case O3_BLOCK_DATA:
-                publishCopyTask(
-                        columnCounter,
-                        partCounter,
-                        columnType,
-                        suffixType,
-                        timestampMergeIndexAddr,
-                        timestampMergeIndexSize,
-                        srcDataFixFd,
-                        srcDataFixAddr,
-                        srcDataFixOffset,
-                        srcDataFixSize,
-                        srcDataVarFd,
-                        srcDataVarAddr,
-                        srcDataVarOffset,
-                        srcDataVarSize,
-                        suffixLo,
-                        suffixHi,
-                        srcDataTopOffset,
-                        srcDataMax,
-                        0,
-                        0,
-                        0,
-                        0,
-                        srcOooMax,
-                        srcOooLo,
-                        srcOooHi,
-                        timestampMin,
-                        timestampMax,
-                        partitionTimestamp,
-                        dstFixFd,
-                        dstFixAddr,
-                        dstFixAppendOffset2,
-                        dstFixAppendOffset2,
-                        dstFixSize,
-                        dstVarFd,
-                        dstVarAddr,
-                        dstVarAppendOffset2,
-                        0,
-                        0,
-                        dstVarSize,
-                        dstKFd,
-                        dstVFd,
-                        0,
-                        0,
-                        indexBlockCapacity,
-                        srcTimestampFd,
-                        srcTimestampAddr,
-                        srcTimestampSize,
-                        partitionMutates,
-                        tableWriter,
-                        indexWriter
-                );
+                for (int i = 0; i < suffixParts; i++) {
+                    final long partLo = suffixLo + i * splitRows;
+                    final long partHi = i == suffixParts - 1 ? suffixHi : partLo + splitRows - 1;
+                    final long partOffset = dstFixAppendOffset2 + ((partLo - suffixLo) << shl);
+                    publishCopyTask(
+                            columnCounter,
+                            partCounter,
+                            columnType,
+                            suffixType,
+                            timestampMergeIndexAddr,
+                            timestampMergeIndexSize,
+                            srcDataFixFd,
+                            srcDataFixAddr,
+                            srcDataFixOffset,
+                            srcDataFixSize,
+                            srcDataVarFd,
+                            srcDataVarAddr,
+                            srcDataVarOffset,
+                            srcDataVarSize,
+                            partLo,
+                            partHi,
+                            srcDataTopOffset,
+                            srcDataMax,
+                            0,
+                            0,
+                            0,
+                            0,
+                            srcOooMax,
+                            srcOooLo,
+                            srcOooHi,
+                            timestampMin,
+                            timestampMax,
+                            partitionTimestamp,
+                            dstFixFd,
+                            dstFixAddr,
+                            partOffset,
+                            partOffset,
+                            dstFixSize,
+                            dstVarFd,
+                            dstVarAddr,
+                            dstVarAppendOffset2,
+                            0,
+                            0,
+                            dstVarSize,
+                            dstKFd,
+                            dstVFd,
+                            dstIndexOffset,
+                            0,
+                            indexBlockCapacity,
+                            srcTimestampFd,
+                            srcTimestampAddr,
+                            srcTimestampSize,
+                            partitionMutates,
+                            tableWriter,
+                            indexWriter
+                    );
+                }
                 break;
             default:
                 break;
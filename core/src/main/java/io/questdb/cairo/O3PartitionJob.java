@@ -660,6 +660,7 @@ public class O3PartitionJob extends AbstractQueueConsumerJob<O3PartitionTask> {
             int columnIndex,
             long columnNameTxn
     ) {
+        tableWriter.getMetrics().incrementO3TasksQueued();
         final O3OpenColumnTask openColumnTask = tableWriter.getO3OpenColumnQueue().get(cursor);
         openColumnTask.of(
                 openColumnMode,
@@ -1042,6 +1043,7 @@ public class O3PartitionJob extends AbstractQueueConsumerJob<O3PartitionTask> {
                     columnNameTxn
             );
         } else {
+            tableWriter.getMetrics().incrementO3TasksStolen();
             O3OpenColumnJob.openColumn(
                     openColumnMode,
                     pathToTable,
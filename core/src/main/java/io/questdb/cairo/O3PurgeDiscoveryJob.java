@@ -259,7 +259,7 @@ public class O3PurgeDiscoveryJob extends AbstractQueueConsumerJob<O3PurgeDiscove
             try {
                 do {
                     long fileName = ff.findName(p);
-                    if (Files.isDir(fileName, ff.findType(p), fileNameSink)) {
+                    if (Files.isDirOrSoftLink(fileName, ff.findType(p), fileNameSink)) {
                         // extract txn, partition ts from name
                         parsePartitionDateVersion(fileNameSink, partitionList, tableName, partitionByFormat);
                     }
@@ -0,0 +1,245 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2022 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.cairo;
+
+import io.questdb.MessageBus;
+import io.questdb.cairo.vm.Vm;
+import io.questdb.cairo.vm.api.MemoryMR;
+import io.questdb.log.Log;
+import io.questdb.log.LogFactory;
+import io.questdb.mp.RingQueue;
+import io.questdb.mp.SOCountDownLatch;
+import io.questdb.mp.Sequence;
+import io.questdb.std.*;
+import io.questdb.std.str.Path;
+import io.questdb.tasks.ColumnIndexerTask;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.TestOnly;
+
+import java.io.Closeable;
+
+/**
+ * Builds bitmap indexes of whole partitions. Partitions are collected via {@link #add} and
+ * indexed in batches, one partition per task on the column indexer queue. Partitions that
+ * do not make it to the queue, either because the queue is full or there is no message bus,
+ * are indexed by the calling thread. The calling thread also steals queued tasks that workers
+ * have not picked up in time. Build is not a background job, {@link #build()} returns once
+ * all collected partitions are indexed.
+ */
+public class ParallelIndexBuilder implements Closeable, Mutable {
+    private static final Log LOG = LogFactory.getLog(ParallelIndexBuilder.class);
+    private final ObjList<PartitionIndexer> indexers = new ObjList<>();
+    private final LongList sequences = new LongList();
+    private final SOCountDownLatch latch = new SOCountDownLatch();
+    private CairoConfiguration configuration;
+    private MessageBus messageBus;
+    private int batchSize;
+    private int pendingCount;
+    private long partitionCount;
+    private long stolenCount;
+
+    /**
+     * Indexes partition rows between column top and partition size. Key and value files
+     * must already exist in the partition directory.
+     *
+     * @param path          partition directory, the path is left unchanged
+     * @param columnName    name of the symbol column
+     * @param columnNameTxn column version in this partition
+     * @param columnTop     column top in this partition
+     * @param partitionSize number of rows in the partition
+     */
+    public void add(Path path, CharSequence columnName, long columnNameTxn, long columnTop, long partitionSize) {
+        if (partitionSize <= columnTop) {
+            return;
+        }
+
+        final PartitionIndexer indexer = nextIndexer();
+        final int plen = path.length();
+        try {
+            TableUtils.dFile(path, columnName, columnNameTxn);
+            indexer.of(configuration, path, plen, columnName, columnNameTxn, columnTop, partitionSize);
+        } catch (Throwable e) {
+            clear();
+            throw e;
+        } finally {
+            path.trimTo(plen);
+        }
+
+        if (pendingCount == batchSize) {
+            build();
+        }
+    }
+
+    /**
+     * Indexes all partitions added since the last call and waits for them to complete.
+     *
+     * @throws CairoException when any of the partitions could not be indexed
+     */
+    public void build() {
+        final int count = pendingCount;
+        if (count == 0) {
+            return;
+        }
+
+        sequences.clear();
+        latch.setCount(count);
+        LOG.info().$("building index [partitionCount=").$(count).I$();
+
+        // everything except the last partition goes to the queue, the last one is indexed
+        // by this thread while the others are brewing
+        for (int i = 0, n = count - 1; i < n; i++) {
+            final PartitionIndexer indexer = indexers.getQuick(i);
+            long cursor = -1;
+            if (messageBus != null) {
+                final Sequence pubSeq = messageBus.getIndexerPubSequence();
+                do {
+                    cursor = pubSeq.next();
+                } while (cursor == -2);
+                if (cursor > -1) {
+                    final RingQueue<ColumnIndexerTask> queue = messageBus.getIndexerQueue();
+                    final ColumnIndexerTask task = queue.get(cursor);
+                    final long sequence = indexer.getSequence();
+                    task.indexer = indexer;
+                    task.lo = indexer.lo;
+                    task.hi = indexer.hi;
+                    task.countDownLatch = latch;
+                    task.sequence = sequence;
+                    sequences.add(sequence);
+                    pubSeq.done(cursor);
+                }
+            }
+
+            if (cursor < 0) {
+                // queue is full
+                sequences.add(-1);
+                TableWriter.indexAndCountDown(indexer, indexer.lo, indexer.hi, latch);
+            }
+        }
+
+        final PartitionIndexer last = indexers.getQuick(count - 1);
+        TableWriter.indexAndCountDown(last, last.lo, last.hi, latch);
+
+        if (!latch.await(configuration.getWorkStealTimeoutNanos())) {
+            for (int i = 0, n = count - 1; i < n; i++) {
+                final PartitionIndexer indexer = indexers.getQuick(i);
+                if (indexer.tryLock(sequences.getQuick(i))) {
+                    stolenCount++;
+                    TableWriter.indexAndCountDown(indexer, indexer.lo, indexer.hi, latch);
+                }
+            }
+            latch.await();
+        }
+
+        boolean distressed = false;
+        for (int i = 0; i < count; i++) {
+            distressed |= indexers.getQuick(i).isDistressed();
+        }
+        partitionCount += count;
+        clear();
+
+        if (distressed) {
+            throw CairoException.instance(0).put("could not build index, see log for details");
+        }
+    }
+
+    @Override
+    public void clear() {
+        for (int i = 0; i < pendingCount; i++) {
+            indexers.getQuick(i).clear();
+        }
+        pendingCount = 0;
+    }
+
+    @Override
+    public void close() {
+        clear();
+        Misc.freeObjList(indexers);
+        indexers.clear();
+    }
+
+    @TestOnly
+    public long getPartitionCount() {
+        return partitionCount;
+    }
+
+    @TestOnly
+    public long getStolenCount() {
+        return stolenCount;
+    }
+
+    public ParallelIndexBuilder of(CairoConfiguration configuration, @Nullable MessageBus messageBus) {
+        this.configuration = configuration;
+        this.messageBus = messageBus;
+        // each pending partition holds its column and index files open
+        this.batchSize = Math.max(1, configuration.getColumnIndexerQueueCapacity());
+        return this;
+    }
+
+    private PartitionIndexer nextIndexer() {
+        if (pendingCount == indexers.size()) {
+            indexers.add(new PartitionIndexer());
+        }
+        return indexers.getQuick(pendingCount++);
+    }
+
+    private static class PartitionIndexer extends SymbolColumnIndexer {
+        private final MemoryMR columnMem = Vm.getMRInstance();
+        private long lo;
+        private long hi;
+
+        @Override
+        public void clear() {
+            super.clear();
+            columnMem.close();
+        }
+
+        @Override
+        public void close() {
+            super.close();
+            Misc.free(columnMem);
+        }
+
+        @Override
+        public void refreshSourceAndIndex(long loRow, long hiRow) {
+            index(columnMem, loRow, hiRow);
+        }
+
+        void of(
+                CairoConfiguration configuration,
+                Path path,
+                int plen,
+                CharSequence columnName,
+                long columnNameTxn,
+                long columnTop,
+                long partitionSize
+        ) {
+            final long columnSize = (partitionSize - columnTop) << ColumnType.pow2SizeOf(ColumnType.INT);
+            columnMem.of(configuration.getFilesFacade(), path, columnSize, columnSize, MemoryTag.MMAP_TABLE_WRITER);
+            configureWriter(configuration, path.trimTo(plen), columnName, columnNameTxn, columnTop);
+            lo = columnTop;
+            hi = partitionSize;
+        }
+    }
+}
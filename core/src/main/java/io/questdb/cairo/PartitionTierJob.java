@@ -0,0 +1,257 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2022 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.cairo;
+
+import io.questdb.cairo.security.AllowAllCairoSecurityContext;
+import io.questdb.griffin.AlterStatement;
+import io.questdb.griffin.AlterStatementBuilder;
+import io.questdb.griffin.SqlException;
+import io.questdb.log.Log;
+import io.questdb.log.LogFactory;
+import io.questdb.mp.SynchronizedJob;
+import io.questdb.std.*;
+import io.questdb.std.datetime.microtime.MicrosecondClock;
+import io.questdb.std.str.Path;
+import io.questdb.std.str.StringSink;
+
+import java.io.Closeable;
+
+import static io.questdb.cairo.TableUtils.*;
+
+/**
+ * Moves partitions of tables altered with SET TIER 'cold' AFTER &lt;interval&gt; to the cold storage tier
+ * root once all their rows are older than the interval. Partition directory is copied by this job, so
+ * that writer is never blocked by the copy. Writer then switches partition to the copy asynchronously,
+ * see {@link TableWriter#movePartitionToColdTier(long, long, long, long)}. Active partition is never moved.
+ * <p>
+ * Copy can take long, job should not be assigned to the shared worker pool, server runs it on a dedicated
+ * worker.
+ */
+public class PartitionTierJob extends SynchronizedJob implements Closeable {
+    private static final Log LOG = LogFactory.getLog(PartitionTierJob.class);
+    private final CairoEngine engine;
+    private final FilesFacade ff;
+    private final CharSequence root;
+    private final CharSequence coldRoot;
+    private final MicrosecondClock clock;
+    private final long checkInterval;
+    private final int mkDirMode;
+    private final AlterStatementBuilder alterStatementBuilder = new AlterStatementBuilder();
+    private final ObjList<String> tableNames = new ObjList<>();
+    // partition timestamp, name txn, row count and highest column name txn of copied partitions
+    private final LongList copiedPartitions = new LongList();
+    private final StringSink fileNameSink = new StringSink();
+    private final Path path = new Path();
+    private final Path coldPath = new Path();
+    private long last = 0;
+
+    public PartitionTierJob(CairoEngine engine) {
+        final CairoConfiguration configuration = engine.getConfiguration();
+        this.engine = engine;
+        this.ff = configuration.getFilesFacade();
+        this.root = configuration.getRoot();
+        this.coldRoot = configuration.getColdTierRoot();
+        this.clock = configuration.getMicrosecondClock();
+        this.checkInterval = configuration.getTierMoveCheckInterval() * 1000;
+        this.mkDirMode = configuration.getMkDirMode();
+    }
+
+    @Override
+    public void close() {
+        Misc.free(path);
+        Misc.free(coldPath);
+    }
+
+    @Override
+    protected boolean runSerially() {
+        if (coldRoot == null) {
+            return false;
+        }
+        final long t = clock.getTicks();
+        if (last + checkInterval < t) {
+            last = t;
+            return moveAgedPartitions(t);
+        }
+        return false;
+    }
+
+    private boolean copyPartition(CharSequence tableName, int tableId, int partitionBy, long partitionTimestamp, long nameTxn) {
+        path.of(root).concat(tableName);
+        setPathForPartition(path, partitionBy, partitionTimestamp, false);
+        TableUtils.txnPartitionConditionally(path, nameTxn);
+        final int srcLen = path.length();
+
+        setColdTierTablePath(coldPath.of(coldRoot), tableId);
+        setPathForPartition(coldPath, partitionBy, partitionTimestamp, false);
+        TableUtils.txnPartitionConditionally(coldPath, nameTxn);
+        coldPath.put(COLD_TIER_COPY_MARKER);
+        final int dstLen = coldPath.length();
+
+        // copy left over by a move writer did not apply, e.g. server restarted
+        if (ff.exists(coldPath.$())) {
+            ff.rmdir(coldPath);
+        }
+        if (ff.mkdirs(coldPath.trimTo(dstLen).slash$(), mkDirMode) != 0) {
+            LOG.error().$("could not create [path=").$(coldPath).$(", errno=").$(ff.errno()).I$();
+            return false;
+        }
+
+        final long p = ff.findFirst(path.$());
+        if (p > 0) {
+            try {
+                do {
+                    final long name = ff.findName(p);
+                    if (ff.findType(p) == Files.DT_FILE) {
+                        path.trimTo(srcLen).concat(name).$();
+                        coldPath.trimTo(dstLen).concat(name).$();
+                        if (ff.copy(path, coldPath) < 0) {
+                            LOG.error().$("could not copy [from=").$(path).$(", to=").$(coldPath).$(", errno=").$(ff.errno()).I$();
+                            ff.rmdir(coldPath.trimTo(dstLen).$());
+                            return false;
+                        }
+                    }
+                } while (ff.findNext(p) > 0);
+            } finally {
+                ff.findClose(p);
+            }
+            return true;
+        }
+        ff.rmdir(coldPath.trimTo(dstLen).$());
+        return false;
+    }
+
+    private boolean moveAgedPartitions(long now) {
+        tableNames.clear();
+        final long p = ff.findFirst(path.of(root).$());
+        if (p > 0) {
+            try {
+                do {
+                    if (Files.isDir(ff.findName(p), ff.findType(p), fileNameSink)) {
+                        tableNames.add(Chars.toString(fileNameSink));
+                    }
+                } while (ff.findNext(p) > 0);
+            } finally {
+                ff.findClose(p);
+            }
+        }
+
+        boolean useful = false;
+        for (int i = 0, n = tableNames.size(); i < n; i++) {
+            final String tableName = tableNames.getQuick(i);
+            try {
+                useful |= moveAgedPartitions(tableName, now);
+            } catch (CairoException e) {
+                LOG.error().$("could not move partitions to cold tier [table=").$(tableName).$(", ex=").$((Sinkable) e).I$();
+            }
+        }
+        return useful;
+    }
+
+    private boolean moveAgedPartitions(String tableName, long now) {
+        // check tier setting without opening reader, most tables are not tiered
+        path.of(root).concat(tableName).concat(META_FILE_NAME).$();
+        if (!ff.exists(path)) {
+            return false;
+        }
+        final long fd = ff.openRO(path);
+        if (fd < 0) {
+            return false;
+        }
+        final long coldTierAfter;
+        try {
+            coldTierAfter = ff.readULong(fd, META_OFFSET_COLD_TIER_AFTER);
+        } finally {
+            ff.close(fd);
+        }
+        if (coldTierAfter <= 0) {
+            return false;
+        }
+
+        copiedPartitions.clear();
+        final int tableId;
+        // reader pins partition versions, they cannot be purged while being copied
+        try (TableReader reader = engine.getReader(AllowAllCairoSecurityContext.INSTANCE, tableName)) {
+            final int partitionBy = reader.getPartitionedBy();
+            final PartitionBy.PartitionCeilMethod ceilMethod = PartitionBy.getPartitionCeilMethod(partitionBy);
+            if (ceilMethod == null) {
+                return false;
+            }
+            final TxReader txFile = reader.getTxFile();
+            final ColumnVersionReader columnVersionReader = reader.getColumnVersionReader();
+            tableId = reader.getMetadata().getId();
+            // last partition is active, it stays on hot tier
+            for (int i = 0, n = txFile.getPartitionCount() - 1; i < n; i++) {
+                final long partitionTimestamp = txFile.getPartitionTimestamp(i);
+                if (ceilMethod.ceil(partitionTimestamp) + coldTierAfter > now) {
+                    break;
+                }
+                if (txFile.isPartitionCold(i)) {
+                    continue;
+                }
+                final long nameTxn = txFile.getPartitionNameTxn(i);
+                if (copyPartition(tableName, tableId, partitionBy, partitionTimestamp, nameTxn)) {
+                    copiedPartitions.add(
+                            partitionTimestamp,
+                            nameTxn,
+                            txFile.getPartitionSize(i),
+                            columnVersionReader.getMaxColumnNameTxn(partitionTimestamp)
+                    );
+                }
+            }
+        }
+
+        // reader is released first, so that writer can remove hot partition versions straight away,
+        // partitions that changed since they were copied are skipped by the writer
+        for (int i = 0, n = copiedPartitions.size(); i < n; i += 4) {
+            publishMove(
+                    tableName,
+                    tableId,
+                    copiedPartitions.getQuick(i),
+                    copiedPartitions.getQuick(i + 1),
+                    copiedPartitions.getQuick(i + 2),
+                    copiedPartitions.getQuick(i + 3)
+            );
+        }
+        return copiedPartitions.size() > 0;
+    }
+
+    private void publishMove(String tableName, int tableId, long partitionTimestamp, long nameTxn, long rowCount, long columnNameTxn) {
+        alterStatementBuilder.clear();
+        final AlterStatement alterStatement = alterStatementBuilder
+                .ofMovePartitionToColdTier(tableName, tableId, partitionTimestamp, nameTxn, rowCount, columnNameTxn)
+                .build();
+        // writer that is busy picks the command up from its queue
+        try (TableWriter writer = engine.getWriterOrPublishCommand(AllowAllCairoSecurityContext.INSTANCE, tableName, "partitionTier", alterStatement)) {
+            if (writer != null) {
+                alterStatement.apply(writer, true);
+            }
+        } catch (SqlException | TableStructureChangesException e) {
+            LOG.error().$("could not move partition to cold tier [table=").$(tableName)
+                    .$(", ts=").$ts(partitionTimestamp)
+                    .$(", ex=").$((Throwable) e)
+                    .I$();
+        }
+    }
+}
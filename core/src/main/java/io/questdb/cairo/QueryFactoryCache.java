@@ -0,0 +1,252 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2022 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.cairo;
+
+import io.questdb.cairo.sql.RecordCursorFactory;
+import io.questdb.log.Log;
+import io.questdb.log.LogFactory;
+import io.questdb.std.*;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.TestOnly;
+
+import java.io.Closeable;
+
+/**
+ * Engine-wide cache of compiled record cursor factories shared by all network
+ * workers and connections. Factories are leased exclusively: {@link #poll(CharSequence, IntList)}
+ * removes an idle instance from the cache and {@link #push(CharSequence, RecordCursorFactory, IntList)}
+ * returns it once the cursor is closed. Each SQL text keeps at most a bounded number of idle
+ * instances, and the least recently used SQL texts are evicted once the cache is at capacity.
+ * <p>
+ * Bind variable types the factory was compiled with are stored alongside each instance and
+ * handed back on lease. Table structure versions are not part of the key, factories validate
+ * reader versions when opening a cursor and throw {@link io.questdb.cairo.sql.ReaderOutOfDateException},
+ * in which case the caller is expected to free the stale factory and recompile.
+ */
+public class QueryFactoryCache implements Closeable, Mutable {
+    private static final Log LOG = LogFactory.getLog(QueryFactoryCache.class);
+    private final CharSequenceObjHashMap<Entry> entries = new CharSequenceObjHashMap<>();
+    private final ObjList<IntList> typeListPool = new ObjList<>();
+    private final int capacity;
+    private final int maxInstancesPerKey;
+    private final QueryFactoryCacheMetrics metrics;
+    // LRU list, head is most recently used
+    private Entry head;
+    private Entry tail;
+    private int instanceCount;
+
+    public QueryFactoryCache(int capacity, int maxInstancesPerKey, QueryFactoryCacheMetrics metrics) {
+        this.capacity = Math.max(1, capacity);
+        this.maxInstancesPerKey = Math.max(1, maxInstancesPerKey);
+        this.metrics = metrics;
+    }
+
+    @Override
+    public synchronized void clear() {
+        Entry e = head;
+        while (e != null) {
+            freeInstances(e);
+            e = e.next;
+        }
+        entries.clear();
+        head = tail = null;
+        LOG.info().$("cleared").$();
+    }
+
+    @Override
+    public void close() {
+        clear();
+    }
+
+    @TestOnly
+    public synchronized int getInstanceCount() {
+        return instanceCount;
+    }
+
+    @TestOnly
+    public synchronized int getKeyCount() {
+        return entries.size();
+    }
+
+    /**
+     * Leases idle factory compiled for given SQL text. The factory is removed from the cache
+     * until it is pushed back.
+     *
+     * @param sql               SQL text
+     * @param bindVariableTypes optional sink for the types of indexed bind variables the
+     *                          factory was compiled with
+     * @return idle factory or null on cache miss
+     */
+    public synchronized RecordCursorFactory poll(CharSequence sql, @Nullable IntList bindVariableTypes) {
+        final Entry e = entries.get(sql);
+        if (e != null && e.factories.size() > 0) {
+            final int last = e.factories.size() - 1;
+            final RecordCursorFactory factory = e.factories.getQuick(last);
+            final IntList types = e.types.getQuick(last);
+            e.factories.remove(last);
+            e.types.remove(last);
+            if (bindVariableTypes != null) {
+                bindVariableTypes.clear();
+                bindVariableTypes.addAll(types);
+            }
+            releaseTypeList(types);
+            instanceCount--;
+            moveToHead(e);
+            metrics.markHit();
+            return factory;
+        }
+        metrics.markMiss();
+        return null;
+    }
+
+    /**
+     * Returns factory to the cache. Factory is freed if SQL text already has maximum number
+     * of idle instances.
+     *
+     * @param sql               SQL text
+     * @param factory           factory compiled from the SQL text
+     * @param bindVariableTypes optional types of indexed bind variables the factory was compiled with
+     */
+    public synchronized void push(CharSequence sql, RecordCursorFactory factory, @Nullable IntList bindVariableTypes) {
+        if (factory == null) {
+            return;
+        }
+
+        Entry e = entries.get(sql);
+        if (e == null) {
+            if (entries.size() == capacity) {
+                evict(tail);
+            }
+            e = new Entry(Chars.toString(sql));
+            entries.put(e.sql, e);
+            addToHead(e);
+        } else {
+            moveToHead(e);
+        }
+
+        if (e.factories.size() < maxInstancesPerKey) {
+            final IntList types = nextTypeList();
+            if (bindVariableTypes != null) {
+                types.addAll(bindVariableTypes);
+            }
+            e.factories.add(factory);
+            e.types.add(types);
+            instanceCount++;
+        } else {
+            Misc.free(factory);
+        }
+    }
+
+    /**
+     * Frees all idle factories cached for given SQL text.
+     *
+     * @param sql SQL text
+     */
+    public synchronized void remove(CharSequence sql) {
+        final Entry e = entries.get(sql);
+        if (e != null) {
+            evict(e);
+        }
+    }
+
+    private void addToHead(Entry e) {
+        e.prev = null;
+        e.next = head;
+        if (head != null) {
+            head.prev = e;
+        }
+        head = e;
+        if (tail == null) {
+            tail = e;
+        }
+    }
+
+    private void evict(Entry e) {
+        unlink(e);
+        entries.remove(e.sql);
+        freeInstances(e);
+        metrics.markEviction();
+        LOG.debug().$("evicted [sql=").utf8(e.sql).$(']').$();
+    }
+
+    private void freeInstances(Entry e) {
+        for (int i = 0, n = e.factories.size(); i < n; i++) {
+            Misc.free(e.factories.getQuick(i));
+            releaseTypeList(e.types.getQuick(i));
+        }
+        instanceCount -= e.factories.size();
+        e.factories.clear();
+        e.types.clear();
+    }
+
+    private void moveToHead(Entry e) {
+        if (e != head) {
+            unlink(e);
+            addToHead(e);
+        }
+    }
+
+    private IntList nextTypeList() {
+        final int n = typeListPool.size();
+        if (n > 0) {
+            final IntList types = typeListPool.getQuick(n - 1);
+            typeListPool.remove(n - 1);
+            return types;
+        }
+        return new IntList();
+    }
+
+    private void releaseTypeList(IntList types) {
+        types.clear();
+        typeListPool.add(types);
+    }
+
+    private void unlink(Entry e) {
+        if (e.prev != null) {
+            e.prev.next = e.next;
+        } else {
+            head = e.next;
+        }
+        if (e.next != null) {
+            e.next.prev = e.prev;
+        } else {
+            tail = e.prev;
+        }
+        e.prev = e.next = null;
+    }
+
+    private static class Entry {
+        private final String sql;
+        private final ObjList<RecordCursorFactory> factories = new ObjList<>();
+        private final ObjList<IntList> types = new ObjList<>();
+        private Entry prev;
+        private Entry next;
+
+        private Entry(String sql) {
+            this.sql = sql;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2022 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.cairo;
+
+import io.questdb.metrics.Counter;
+import io.questdb.metrics.MetricsRegistry;
+import org.jetbrains.annotations.TestOnly;
+
+public class QueryFactoryCacheMetrics {
+
+    private final Counter hitCounter;
+    private final Counter missCounter;
+    private final Counter evictionCounter;
+
+    public QueryFactoryCacheMetrics(MetricsRegistry metricsRegistry) {
+        this.hitCounter = metricsRegistry.newCounter("query_factory_cache_hits");
+        this.missCounter = metricsRegistry.newCounter("query_factory_cache_misses");
+        this.evictionCounter = metricsRegistry.newCounter("query_factory_cache_evictions");
+    }
+
+    public void markEviction() {
+        evictionCounter.inc();
+    }
+
+    public void markHit() {
+        hitCounter.inc();
+    }
+
+    public void markMiss() {
+        missCounter.inc();
+    }
+
+    @TestOnly
+    public long evictionCount() {
+        return evictionCounter.get();
+    }
+
+    @TestOnly
+    public long hitCount() {
+        return hitCounter.get();
+    }
+
+    @TestOnly
+    public long missCount() {
+        return missCounter.get();
+    }
+}
@@ -0,0 +1,292 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2022 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.cairo;
+
+import io.questdb.cairo.sql.Record;
+import io.questdb.cairo.sql.SymbolTable;
+import io.questdb.log.Log;
+import io.questdb.log.LogFactory;
+import io.questdb.std.*;
+import org.jetbrains.annotations.TestOnly;
+
+import java.io.Closeable;
+
+/**
+ * Engine-wide cache of materialized query results. Each entry is keyed on SQL text
+ * and bind variable values and remembers the transaction of every table the query
+ * reads. An entry is only returned when none of these tables committed since the
+ * result was materialized; a stale entry is freed on lookup.
+ * <p>
+ * Entries are leased exclusively, {@link #poll(CharSequence, LongList)} removes the entry
+ * from the cache and {@link #push(Entry)} returns it once the cursor over the result is
+ * closed. Total memory of cached results is bounded, least recently used entries are
+ * evicted to make room for new ones.
+ */
+public class QueryResultCache implements Closeable, Mutable {
+    private static final Log LOG = LogFactory.getLog(QueryResultCache.class);
+    private final CharSequenceObjHashMap<Entry> entries = new CharSequenceObjHashMap<>();
+    private final long memoryLimit;
+    private final long pageSize;
+    private final QueryResultCacheMetrics metrics;
+    // LRU list, head is most recently used
+    private Entry head;
+    private Entry tail;
+    private long memoryUsed;
+    // bumped when a table is dropped or renamed, so that mapped _txn files are reopened
+    private volatile long tableGeneration;
+
+    public QueryResultCache(long memoryLimit, long pageSize, QueryResultCacheMetrics metrics) {
+        this.memoryLimit = memoryLimit;
+        this.pageSize = pageSize;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public synchronized void clear() {
+        Entry e = head;
+        while (e != null) {
+            Misc.free(e);
+            e = e.next;
+        }
+        entries.clear();
+        head = tail = null;
+        updateMemoryUsed(0);
+    }
+
+    @Override
+    public void close() {
+        clear();
+    }
+
+    @TestOnly
+    public synchronized int getEntryCount() {
+        return entries.size();
+    }
+
+    public long getMemoryLimit() {
+        return memoryLimit;
+    }
+
+    @TestOnly
+    public synchronized long getMemoryUsed() {
+        return memoryUsed;
+    }
+
+    public long getTableGeneration() {
+        return tableGeneration;
+    }
+
+    public synchronized void onTableDroppedOrRenamed() {
+        tableGeneration++;
+    }
+
+    public long getPageSize() {
+        return pageSize;
+    }
+
+    /**
+     * Leases result cached for given key. Result is removed from the cache until it is pushed back.
+     *
+     * @param key       SQL text and bind variable values
+     * @param tableTxns current transactions of the tables the query reads, in the order tables
+     *                  were recorded when the result was materialized
+     * @return cached result or null if there is no result or any of the tables committed since
+     */
+    public synchronized Entry poll(CharSequence key, LongList tableTxns) {
+        final int index = entries.keyIndex(key);
+        if (index < 0) {
+            final Entry e = entries.valueAtQuick(index);
+            entries.removeAt(index);
+            unlink(e);
+            updateMemoryUsed(memoryUsed - e.memorySize);
+            if (sameTxns(e.tableTxns, tableTxns)) {
+                metrics.markHit();
+                return e;
+            }
+            LOG.debug().$("stale [key=").utf8(e.key).$(']').$();
+            Misc.free(e);
+        }
+        metrics.markMiss();
+        return null;
+    }
+
+    /**
+     * Returns result to the cache. When the key already has a result the older one is freed.
+     * Least recently used results are evicted until the total size fits the memory limit.
+     *
+     * @param entry result, which becomes owned by the cache
+     */
+    public synchronized void push(Entry entry) {
+        if (entry.memorySize > memoryLimit) {
+            Misc.free(entry);
+            return;
+        }
+
+        final int index = entries.keyIndex(entry.key);
+        if (index < 0) {
+            evict(entries.valueAtQuick(index));
+        }
+
+        while (memoryUsed + entry.memorySize > memoryLimit && tail != null) {
+            evict(tail);
+        }
+
+        entries.put(entry.key, entry);
+        addToHead(entry);
+        updateMemoryUsed(memoryUsed + entry.memorySize);
+    }
+
+    private void addToHead(Entry e) {
+        e.prev = null;
+        e.next = head;
+        if (head != null) {
+            head.prev = e;
+        }
+        head = e;
+        if (tail == null) {
+            tail = e;
+        }
+    }
+
+    private void evict(Entry e) {
+        unlink(e);
+        entries.remove(e.key);
+        updateMemoryUsed(memoryUsed - e.memorySize);
+        Misc.free(e);
+        metrics.markEviction();
+        LOG.debug().$("evicted [key=").utf8(e.key).$(']').$();
+    }
+
+    public static boolean sameTxns(LongList lhs, LongList rhs) {
+        final int n = lhs.size();
+        if (n != rhs.size()) {
+            return false;
+        }
+        for (int i = 0; i < n; i++) {
+            if (lhs.getQuick(i) != rhs.getQuick(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void unlink(Entry e) {
+        if (e.prev != null) {
+            e.prev.next = e.next;
+        } else {
+            head = e.next;
+        }
+        if (e.next != null) {
+            e.next.prev = e.prev;
+        } else {
+            tail = e.prev;
+        }
+        e.prev = e.next = null;
+    }
+
+    private void updateMemoryUsed(long memoryUsed) {
+        this.memoryUsed = memoryUsed;
+        metrics.setMemoryUsed(memoryUsed);
+    }
+
+    public static class Entry implements Closeable {
+        private final String key;
+        private final RecordChain chain;
+        private final LongList tableTxns = new LongList();
+        private final ObjList<CachedSymbolTable> symbolTables;
+        private final long rowCount;
+        private final long memorySize;
+        private Entry prev;
+        private Entry next;
+
+        public Entry(
+                CharSequence key,
+                RecordChain chain,
+                ObjList<CachedSymbolTable> symbolTables,
+                LongList tableTxns,
+                long rowCount,
+                long memorySize
+        ) {
+            this.key = Chars.toString(key);
+            this.chain = chain;
+            this.symbolTables = symbolTables;
+            this.tableTxns.add(tableTxns);
+            this.rowCount = rowCount;
+            this.memorySize = memorySize;
+        }
+
+        @Override
+        public void close() {
+            Misc.free(chain);
+        }
+
+        public RecordChain getChain() {
+            return chain;
+        }
+
+        public long getRowCount() {
+            return rowCount;
+        }
+
+        public SymbolTable getSymbolTable(int columnIndex) {
+            return symbolTables.getQuiet(columnIndex);
+        }
+    }
+
+    /**
+     * Symbol values of a cached result column. Result rows keep the symbol keys of the
+     * cursor they were copied from, the table maps these keys to values seen while copying.
+     */
+    public static class CachedSymbolTable implements SymbolTable {
+        private final ObjList<String> values = new ObjList<>();
+        private long memorySize;
+
+        public long getMemorySize() {
+            return memorySize;
+        }
+
+        public void put(Record record, int columnIndex) {
+            final int key = record.getInt(columnIndex);
+            if (key > -1 && values.getQuiet(key) == null) {
+                final CharSequence value = record.getSym(columnIndex);
+                if (value != null) {
+                    values.extendAndSet(key, Chars.toString(value));
+                    memorySize += 2L * value.length() + Long.BYTES;
+                }
+            }
+        }
+
+        @Override
+        public CharSequence valueBOf(int key) {
+            return valueOf(key);
+        }
+
+        @Override
+        public CharSequence valueOf(int key) {
+            return key > -1 ? values.getQuiet(key) : null;
+        }
+    }
+}
@@ -152,6 +152,7 @@ public abstract class RebuildColumnBase implements Closeable, Mutable {
                                 columnVersionReader
                         );
                     }
+                    finishRebuild();
                 }
             }
         } finally {
@@ -166,6 +167,9 @@ public abstract class RebuildColumnBase implements Closeable, Mutable {
         return true;
     }
 
+    protected void finishRebuild() {
+    }
+
     private void lock(FilesFacade ff) {
         try {
             path.trimTo(rootLen);
@@ -24,15 +24,16 @@
 
 package io.questdb.cairo;
 
+import io.questdb.MessageBus;
 import io.questdb.cairo.vm.Vm;
 import io.questdb.cairo.vm.api.MemoryMAR;
-import io.questdb.cairo.vm.api.MemoryMR;
 import io.questdb.log.Log;
 import io.questdb.log.LogFactory;
 import io.questdb.std.FilesFacade;
 import io.questdb.std.MemoryTag;
 import io.questdb.std.Misc;
 import io.questdb.std.str.Path;
+import org.jetbrains.annotations.Nullable;
 
 /**
  * Rebuild index independently of TableWriter
@@ -40,8 +41,7 @@ import io.questdb.std.str.Path;
  */
 public class RebuildIndex extends RebuildColumnBase {
     private static final Log LOG = LogFactory.getLog(RebuildIndex.class);
-    private final MemoryMR indexMem = Vm.getMRInstance();
-    private final SymbolColumnIndexer indexer = new SymbolColumnIndexer();
+    private final ParallelIndexBuilder indexBuilder = new ParallelIndexBuilder();
     private final MemoryMAR ddlMem = Vm.getMARInstance();
 
     public RebuildIndex() {
@@ -53,13 +53,42 @@ public class RebuildIndex extends RebuildColumnBase {
     public void clear() {
         super.clear();
         ddlMem.close();
-        indexer.clear();
+        indexBuilder.clear();
     }
 
     @Override
     public void close() {
         super.close();
-        Misc.free(indexer);
+        Misc.free(indexBuilder);
+    }
+
+    @Override
+    public RebuildIndex of(CharSequence tablePath, CairoConfiguration configuration) {
+        return of(tablePath, configuration, null);
+    }
+
+    /**
+     * @param messageBus when not null, partitions are indexed in parallel on the column indexer queue
+     */
+    public RebuildIndex of(CharSequence tablePath, CairoConfiguration configuration, @Nullable MessageBus messageBus) {
+        super.of(tablePath, configuration);
+        indexBuilder.of(configuration, messageBus);
+        return this;
+    }
+
+    @Override
+    public void rebuildPartitionColumn(CharSequence rebuildPartitionName, CharSequence rebuildColumn) {
+        try {
+            super.rebuildPartitionColumn(rebuildPartitionName, rebuildColumn);
+        } finally {
+            // partitions collected before failure hold their files open
+            indexBuilder.clear();
+        }
+    }
+
+    @Override
+    protected void finishRebuild() {
+        indexBuilder.build();
     }
 
     @Override
@@ -84,25 +113,16 @@ public class RebuildIndex extends RebuildColumnBase {
         final int plen = path.length();
 
         if (ff.exists(path.$())) {
-            try (final MemoryMR roMem = indexMem) {
-                long columnNameTxn = columnVersionReader.getColumnNameTxn(partitionTimestamp, columnIndex);
-                removeIndexFiles(columnName, ff, columnNameTxn);
-                TableUtils.dFile(path.trimTo(plen), columnName, columnNameTxn);
-
-                if (columnVersionReader.getColumnTopPartitionTimestamp(columnIndex) <= partitionTimestamp) {
-                    LOG.info().$("indexing [path=").utf8(path).I$();
-                    final long columnTop = columnVersionReader.getColumnTop(partitionTimestamp, columnIndex);
-                    createIndexFiles(columnName, indexValueBlockCapacity, plen, ff, columnNameTxn);
-
-                    if (partitionSize > columnTop) {
-                        TableUtils.dFile(path.trimTo(plen), columnName, columnNameTxn);
-                        final long columnSize = (partitionSize - columnTop) << ColumnType.pow2SizeOf(ColumnType.INT);
-                        roMem.of(ff, path, columnSize, columnSize, MemoryTag.MMAP_TABLE_WRITER);
-                        indexer.configureWriter(configuration, path.trimTo(plen), columnName, columnNameTxn, columnTop);
-                        indexer.index(roMem, columnTop, partitionSize);
-                        indexer.clear();
-                    }
-                }
+            long columnNameTxn = columnVersionReader.getColumnNameTxn(partitionTimestamp, columnIndex);
+            removeIndexFiles(columnName, ff, columnNameTxn);
+            TableUtils.dFile(path.trimTo(plen), columnName, columnNameTxn);
+
+            if (columnVersionReader.getColumnTopPartitionTimestamp(columnIndex) <= partitionTimestamp) {
+                LOG.info().$("indexing [path=").utf8(path).I$();
+                final long columnTop = columnVersionReader.getColumnTop(partitionTimestamp, columnIndex);
+                createIndexFiles(columnName, indexValueBlockCapacity, plen, ff, columnNameTxn);
+                // partitions are indexed in parallel once all of them are collected
+                indexBuilder.add(path.trimTo(plen), columnName, columnNameTxn, columnTop, partitionSize);
             }
         } else {
             LOG.info().$("partition does not exit ").$(path).$();
@@ -103,6 +103,13 @@ public class RecordChain implements Closeable, RecordCursor, Mutable, RecordSink
         return addressOf(getOffsetOfColumn(recordOffset, columnIndex));
     }
 
+    /**
+     * @return number of bytes occupied by records appended to the chain
+     */
+    public long getMemorySize() {
+        return varAppendOffset;
+    }
+
     public long getOffsetOfColumn(long recordOffset, int columnIndex) {
         return rowToDataOffset(recordOffset) + varOffset + columnOffsets[columnIndex];
     }
@@ -49,6 +49,7 @@ public class SymbolMapReaderImpl implements Closeable, SymbolMapReader {
     private int symbolCount;
     private long maxOffset;
     private int symbolCapacity;
+    private long indexNameTxn;
     private boolean nullValue;
 
     public SymbolMapReaderImpl() {
@@ -68,6 +69,10 @@ public class SymbolMapReaderImpl implements Closeable, SymbolMapReader {
         LOG.debug().$("closed [fd=").$(fd).$(']').$();
     }
 
+    public long getIndexNameTxn() {
+        return indexNameTxn;
+    }
+
     @Override
     public int getSymbolCapacity() {
         return symbolCapacity;
@@ -110,6 +115,17 @@ public class SymbolMapReaderImpl implements Closeable, SymbolMapReader {
         return -1;
     }
 
+    /**
+     * Checks if writer rehashed symbol map index since this reader opened it. Such reader keeps
+     * working with the previous index until it is reopened.
+     *
+     * @return true when index in the header of symbol map is not the one this reader uses
+     */
+    public boolean isIndexStale() {
+        return offsetMem.getInt(SymbolMapWriter.HEADER_INDEX_CAPACITY) > 0
+                && offsetMem.getLong(SymbolMapWriter.HEADER_INDEX_NAME_TXN) != indexNameTxn;
+    }
+
     public void of(CairoConfiguration configuration, Path path, CharSequence columnName, long columnNameTxn, int symbolCount) {
         FilesFacade ff = configuration.getFilesFacade();
         this.symbolCount = symbolCount;
@@ -142,7 +158,8 @@ public class SymbolMapReaderImpl implements Closeable, SymbolMapReader {
             this.nullValue = offsetMem.getBool(SymbolMapWriter.HEADER_NULL_FLAG);
 
             // index writer is used to identify attempts to store duplicate symbol value
-            this.indexReader.of(configuration, path.trimTo(plen), columnName, columnNameTxn, 0, -1);
+            final int indexCapacity = readIndexHeader(columnNameTxn);
+            this.indexReader.of(configuration, path.trimTo(plen), columnName, this.indexNameTxn, 0, -1);
 
             // this is the place where symbol values are stored
             this.charMem.wholeFile(ff, charFileName(path.trimTo(plen), columnName, columnNameTxn), MemoryTag.MMAP_INDEX_READER);
@@ -150,10 +167,11 @@ public class SymbolMapReaderImpl implements Closeable, SymbolMapReader {
             // move append pointer for symbol values in the correct place
             this.charMem.extend(this.offsetMem.getLong(maxOffset));
 
-            // we use index hash maximum equals to half of symbol capacity, which
-            // theoretically should require 2 value cells in index per hash
-            // we use 4 cells to compensate for occasionally unlucky hash distribution
-            this.maxHash = Numbers.ceilPow2(symbolCapacity / 2) - 1;
+            // symbol lookups are random and symbol maps are typically small, read them ahead of first query
+            this.offsetMem.advise(Files.MADV_WILLNEED);
+            this.charMem.advise(Files.MADV_WILLNEED);
+
+            this.maxHash = SymbolMapWriter.maxHash(indexCapacity);
             if (cached) {
                 this.cache.setPos(symbolCapacity);
             }
@@ -228,6 +246,26 @@ public class SymbolMapReaderImpl implements Closeable, SymbolMapReader {
         return symbol;
     }
 
+    // reads name txn of index files and returns capacity index was sized for
+    private int readIndexHeader(long columnNameTxn) {
+        while (true) {
+            final long sequence = offsetMem.getLong(SymbolMapWriter.HEADER_INDEX_SEQUENCE_CHECK);
+            Unsafe.getUnsafe().loadFence();
+            final int indexCapacity = offsetMem.getInt(SymbolMapWriter.HEADER_INDEX_CAPACITY);
+            final long indexNameTxn = offsetMem.getLong(SymbolMapWriter.HEADER_INDEX_NAME_TXN);
+            Unsafe.getUnsafe().loadFence();
+            if (offsetMem.getLong(SymbolMapWriter.HEADER_INDEX_SEQUENCE) == sequence) {
+                if (indexCapacity > 0) {
+                    this.indexNameTxn = indexNameTxn;
+                    return indexCapacity;
+                }
+                this.indexNameTxn = columnNameTxn;
+                return symbolCapacity;
+            }
+            Os.pause();
+        }
+    }
+
     private CharSequence uncachedValue(int key) {
         return charMem.getStr(offsetMem.getLong(SymbolMapWriter.keyToOffset(key)));
     }
@@ -27,6 +27,7 @@ package io.questdb.cairo;
 import io.questdb.cairo.sql.RowCursor;
 import io.questdb.cairo.sql.SymbolTable;
 import io.questdb.cairo.vm.Vm;
+import io.questdb.cairo.vm.api.MemoryMA;
 import io.questdb.cairo.vm.api.MemoryMARW;
 import io.questdb.log.Log;
 import io.questdb.log.LogFactory;
@@ -44,15 +45,28 @@ public class SymbolMapWriter implements Closeable, MapWriter {
     public static final int HEADER_CAPACITY = 0;
     public static final int HEADER_CACHE_ENABLED = 4;
     public static final int HEADER_NULL_FLAG = 8;
+    // index rebuilt by rehash() is recorded in the header, fields are guarded by sequence the same
+    // way bitmap index key header is, zero capacity means index is named by column name txn and
+    // is sized by symbol capacity
+    public static final int HEADER_INDEX_SEQUENCE = 16;
+    public static final int HEADER_INDEX_NAME_TXN = 24;
+    public static final int HEADER_INDEX_CAPACITY = 32;
+    public static final int HEADER_INDEX_SEQUENCE_CHECK = 40;
     private static final Log LOG = LogFactory.getLog(SymbolMapWriter.class);
-    private final BitmapIndexWriter indexWriter;
+    private final CairoConfiguration configuration;
     private final MemoryMARW charMem;
     private final MemoryMARW offsetMem;
     private final CharSequenceIntHashMap cache;
-    private final int maxHash;
+    private final double maxLoadFactor;
     private final SymbolValueCountCollector valueCountCollector;
+    private BitmapIndexWriter indexWriter;
+    private int maxHash;
+    private int indexCapacity;
+    private long indexNameTxn;
     private boolean nullValue = false;
     private int symbolIndexInTxWriter;
+    private long lookupCount;
+    private long chainLength;
 
     public SymbolMapWriter(
             CairoConfiguration configuration,
@@ -63,6 +77,8 @@ public class SymbolMapWriter implements Closeable, MapWriter {
             int symbolIndexInTxWriter,
             @NotNull SymbolValueCountCollector valueCountCollector
     ) {
+        this.configuration = configuration;
+        this.maxLoadFactor = configuration.getSymbolMapMaxLoadFactor();
         final int plen = path.length();
         try {
             final FilesFacade ff = configuration.getFilesFacade();
@@ -100,11 +116,19 @@ public class SymbolMapWriter implements Closeable, MapWriter {
 
             // index writer is used to identify attempts to store duplicate symbol value
             // symbol table index stores int keys and long values, e.g. value = key * 2 storage size
+            final int indexCapacity = offsetMem.getInt(HEADER_INDEX_CAPACITY);
+            if (indexCapacity > 0) {
+                this.indexNameTxn = offsetMem.getLong(HEADER_INDEX_NAME_TXN);
+                this.indexCapacity = indexCapacity;
+            } else {
+                this.indexNameTxn = columnNameTxn;
+                this.indexCapacity = symbolCapacity;
+            }
             this.indexWriter = new BitmapIndexWriter(
                     configuration,
                     path.trimTo(plen),
                     name,
-                    columnNameTxn,
+                    this.indexNameTxn,
                     configuration.getDataIndexKeyAppendPageSize(),
                     configuration.getDataIndexKeyAppendPageSize() * 2
             );
@@ -121,10 +145,7 @@ public class SymbolMapWriter implements Closeable, MapWriter {
             // move append pointer for symbol values in the correct place
             jumpCharMemToSymbolCount(symbolCount);
 
-            // we use index hash maximum equals to half of symbol capacity, which
-            // theoretically should require 2 value cells in index per hash
-            // we use 4 cells to compensate for occasionally unlucky hash distribution
-            this.maxHash = Numbers.ceilPow2(symbolCapacity / 2) - 1;
+            this.maxHash = maxHash(this.indexCapacity);
 
             if (useCache) {
                 this.cache = new CharSequenceIntHashMap(symbolCapacity);
@@ -139,6 +160,7 @@ public class SymbolMapWriter implements Closeable, MapWriter {
                     .$(", fd=").$(this.offsetMem.getFd())
                     .$(", cache=").$(cache != null)
                     .$(", capacity=").$(symbolCapacity)
+                    .$(", indexCapacity=").$(this.indexCapacity)
                     .I$();
         } catch (Throwable e) {
             close();
@@ -160,10 +182,44 @@ public class SymbolMapWriter implements Closeable, MapWriter {
         nullValue = false;
     }
 
+    /**
+     * @return number of index value cells visited by lookups since last {@link #resetLookupStats()}
+     */
+    public long getChainLength() {
+        return chainLength;
+    }
+
+    public int getIndexCapacity() {
+        return indexCapacity;
+    }
+
+    public long getIndexNameTxn() {
+        return indexNameTxn;
+    }
+
+    /**
+     * @return number of lookups that had to probe index since last {@link #resetLookupStats()}
+     */
+    public long getLookupCount() {
+        return lookupCount;
+    }
+
     public int getSymbolCount() {
         return offsetToKey(offsetMem.getAppendOffset() - Long.BYTES);
     }
 
+    /**
+     * Checks if average number of values per index hash bucket exceeds configured load factor.
+     * Chains of such index degrade both symbol lookups on the writer and keyOf() on the readers.
+     */
+    public boolean isRehashRequired() {
+        return maxLoadFactor > 0 && getSymbolCount() > (maxHash + 1L) * maxLoadFactor;
+    }
+
+    public boolean isIndexRehashed() {
+        return offsetMem.getInt(HEADER_INDEX_CAPACITY) > 0;
+    }
+
     public boolean isCached() {
         return cache != null;
     }
@@ -191,6 +247,69 @@ public class SymbolMapWriter implements Closeable, MapWriter {
         return lookupAndPut(symbol);
     }
 
+    /**
+     * Builds new index sized for current symbol count and switches symbol lookups to it. New index
+     * is written into separate files named by indexNameTxn, files of current index are left intact
+     * for readers, which switch to the new index once they read it from the header. It is up to caller
+     * to remove files of the previous index when no reader can use them.
+     * <p>
+     * Index is built from symbols that are already in the map, including uncommitted ones.
+     *
+     * @param path         table root path
+     * @param name         column name
+     * @param indexNameTxn name txn for files of the new index
+     * @return name txn of the previous index
+     */
+    public long rehash(Path path, CharSequence name, long indexNameTxn) {
+        final FilesFacade ff = configuration.getFilesFacade();
+        final int symbolCount = getSymbolCount();
+        // keeps load factor at or below 1 after rehash
+        final int indexCapacity = Numbers.ceilPow2(symbolCount) * 2;
+        final int maxHash = maxHash(indexCapacity);
+        final int plen = path.length();
+        BitmapIndexWriter writer = null;
+        try {
+            createIndexFiles(ff, path, name, indexNameTxn);
+            writer = new BitmapIndexWriter(
+                    configuration,
+                    path.trimTo(plen),
+                    name,
+                    indexNameTxn,
+                    configuration.getDataIndexKeyAppendPageSize(),
+                    configuration.getDataIndexKeyAppendPageSize() * 2
+            );
+            for (int key = 0; key < symbolCount; key++) {
+                final long offsetOffset = keyToOffset(key);
+                writer.add(Hash.boundedHash(charMem.getStr(offsetMem.getLong(offsetOffset)), maxHash), offsetOffset);
+            }
+        } catch (Throwable e) {
+            Misc.free(writer);
+            throw e;
+        } finally {
+            path.trimTo(plen);
+        }
+
+        final long prevIndexNameTxn = this.indexNameTxn;
+        LOG.info()
+                .$("rehashed [name=").$(name)
+                .$(", symbolCount=").$(symbolCount)
+                .$(", indexCapacity=").$(this.indexCapacity).$("->").$(indexCapacity)
+                .$(", indexNameTxn=").$(prevIndexNameTxn).$("->").$(indexNameTxn)
+                .I$();
+        Misc.free(this.indexWriter);
+        this.indexWriter = writer;
+        this.indexNameTxn = indexNameTxn;
+        this.indexCapacity = indexCapacity;
+        this.maxHash = maxHash;
+        writeIndexHeader(indexNameTxn, indexCapacity);
+        return prevIndexNameTxn;
+    }
+
+    public void resetLookupStats() {
+        lookupCount = 0;
+        chainLength = 0;
+    }
+
     @Override
     public void rollback(int symbolCount) {
         indexWriter.rollbackValues(keyToOffset(symbolCount - 1));
@@ -210,9 +329,14 @@ public class SymbolMapWriter implements Closeable, MapWriter {
     @Override
     public void truncate() {
         final int symbolCapacity = offsetMem.getInt(HEADER_CAPACITY);
+        final boolean indexRehashed = isIndexRehashed();
         offsetMem.truncate();
         offsetMem.putInt(HEADER_CAPACITY, symbolCapacity);
         offsetMem.putBool(HEADER_CACHE_ENABLED, isCached());
+        if (indexRehashed) {
+            // rehashed index is truncated in place
+            writeIndexHeader(indexNameTxn, indexCapacity);
+        }
         nullValue = false;
         updateNullFlag(nullValue);
         offsetMem.jumpTo(keyToOffset(0) + Long.BYTES);
@@ -223,6 +347,13 @@ public class SymbolMapWriter implements Closeable, MapWriter {
         }
     }
 
+    // we use index hash maximum equals to half of symbol capacity, which
+    // theoretically should require 2 value cells in index per hash
+    // we use 4 cells to compensate for occasionally unlucky hash distribution
+    static int maxHash(int capacity) {
+        return Numbers.ceilPow2(capacity / 2) - 1;
+    }
+
     static int offsetToKey(long offset) {
         return (int) ((offset - HEADER_SIZE) / 8L);
     }
@@ -236,6 +367,23 @@ public class SymbolMapWriter implements Closeable, MapWriter {
         offsetMem.putBool(HEADER_CACHE_ENABLED, flag);
     }
 
+    private static void createIndexFiles(FilesFacade ff, Path path, CharSequence name, long indexNameTxn) {
+        final int plen = path.length();
+        try {
+            // files can be left behind by rehash that did not make it to commit
+            ff.remove(BitmapIndexUtils.valueFileName(path.trimTo(plen), name, indexNameTxn));
+            if (!ff.touch(path)) {
+                throw CairoException.instance(ff.errno()).put("Cannot create ").put(path);
+            }
+            ff.remove(BitmapIndexUtils.keyFileName(path.trimTo(plen), name, indexNameTxn));
+            try (MemoryMA mem = Vm.getSmallMAInstance(ff, path, MemoryTag.MMAP_INDEX_WRITER, CairoConfiguration.O_NONE)) {
+                BitmapIndexWriter.initKeyMemory(mem, TableUtils.MIN_INDEX_VALUE_BLOCK_SIZE);
+            }
+        } finally {
+            path.trimTo(plen);
+        }
+    }
+
     private void jumpCharMemToSymbolCount(int symbolCount) {
         if (symbolCount > 0) {
             this.charMem.jumpTo(this.offsetMem.getLong(keyToOffset(symbolCount)));
@@ -247,7 +395,9 @@ public class SymbolMapWriter implements Closeable, MapWriter {
     private int lookupAndPut(CharSequence symbol) {
         int hash = Hash.boundedHash(symbol, maxHash);
         RowCursor cursor = indexWriter.getCursor(hash);
+        lookupCount++;
         while (cursor.hasNext()) {
+            chainLength++;
             long offsetOffset = cursor.next();
             if (Chars.equals(symbol, charMem.getStr(offsetMem.getLong(offsetOffset)))) {
                 return offsetToKey(offsetOffset);
@@ -272,6 +422,16 @@ public class SymbolMapWriter implements Closeable, MapWriter {
         return symIndex;
     }
 
+    private void writeIndexHeader(long indexNameTxn, int indexCapacity) {
+        final long sequence = offsetMem.getLong(HEADER_INDEX_SEQUENCE) + 1;
+        offsetMem.putLong(HEADER_INDEX_SEQUENCE, sequence);
+        Unsafe.getUnsafe().storeFence();
+        offsetMem.putLong(HEADER_INDEX_NAME_TXN, indexNameTxn);
+        offsetMem.putInt(HEADER_INDEX_CAPACITY, indexCapacity);
+        Unsafe.getUnsafe().storeFence();
+        offsetMem.putLong(HEADER_INDEX_SEQUENCE_CHECK, sequence);
+    }
+
     @Override
     public void updateNullFlag(boolean flag) {
         offsetMem.putBool(HEADER_NULL_FLAG, flag);
@@ -44,10 +44,12 @@ import java.io.Closeable;
 
 public class TableReader implements Closeable, SymbolTableSource {
     private static final Log LOG = LogFactory.getLog(TableReader.class);
-    private static final int PARTITIONS_SLOT_SIZE = 4;
+    // slot size has to be power of 2 for binary search over partition timestamps
+    private static final int PARTITIONS_SLOT_SIZE = 8;
     private static final int PARTITIONS_SLOT_OFFSET_SIZE = 1;
     private static final int PARTITIONS_SLOT_OFFSET_NAME_TXN = 2;
     private static final int PARTITIONS_SLOT_OFFSET_DATA_TXN = 3;
+    private static final int PARTITIONS_SLOT_OFFSET_ADVICE = 4;
     private static final int PARTITIONS_SLOT_SIZE_MSB = Numbers.msb(PARTITIONS_SLOT_SIZE);
     private final FilesFacade ff;
     private final Path path;
@@ -66,6 +68,10 @@ public class TableReader implements Closeable, SymbolTableSource {
     private final MemoryMR todoMem = Vm.getMRInstance();
     private final TxnScoreboard txnScoreboard;
     private final ColumnVersionReader columnVersionReader;
+    private final TableReaderMetrics metrics;
+    // path to table directory on cold storage tier, null when tiering is not configured
+    private final Path coldPath;
+    private final int coldRootLen;
     private int partitionCount;
     private LongList columnTops;
     private ObjList<MemoryMR> columns;
@@ -82,10 +88,20 @@ public class TableReader implements Closeable, SymbolTableSource {
     }
 
     public TableReader(CairoConfiguration configuration, CharSequence tableName, @Nullable MessageBus messageBus) {
+        this(configuration, tableName, messageBus, null);
+    }
+
+    public TableReader(
+            CairoConfiguration configuration,
+            CharSequence tableName,
+            @Nullable MessageBus messageBus,
+            @Nullable TableReaderMetrics metrics
+    ) {
         this.configuration = configuration;
         this.ff = configuration.getFilesFacade();
         this.tableName = Chars.toString(tableName);
         this.messageBus = messageBus;
+        this.metrics = metrics;
         this.path = new Path();
         this.path.of(configuration.getRoot()).concat(this.tableName);
         this.rootLen = path.length();
@@ -94,6 +110,14 @@ public class TableReader implements Closeable, SymbolTableSource {
             this.columnCount = this.metadata.getColumnCount();
             this.columnCountShl = getColumnBits(columnCount);
             this.partitionBy = this.metadata.getPartitionBy();
+            final CharSequence coldRoot = configuration.getColdTierRoot();
+            if (coldRoot != null) {
+                this.coldPath = TableUtils.setColdTierTablePath(new Path().of(coldRoot), metadata.getId());
+                this.coldRootLen = coldPath.length();
+            } else {
+                this.coldPath = null;
+                this.coldRootLen = 0;
+            }
             this.columnVersionReader = new ColumnVersionReader().ofRO(ff, path.trimTo(rootLen).concat(TableUtils.COLUMN_VERSION_FILE_NAME).$());
             this.txnScoreboard = new TxnScoreboard(ff, configuration.getTxnScoreboardEntryCount()).ofRW(path.trimTo(rootLen));
             path.trimTo(rootLen);
@@ -124,6 +148,7 @@ public class TableReader implements Closeable, SymbolTableSource {
                 this.openPartitionInfo.setQuick(i * PARTITIONS_SLOT_SIZE + PARTITIONS_SLOT_OFFSET_SIZE, -1); // size
                 this.openPartitionInfo.setQuick(i * PARTITIONS_SLOT_SIZE + PARTITIONS_SLOT_OFFSET_NAME_TXN, txFile.getPartitionNameTxn(i)); // txn
                 this.openPartitionInfo.setQuick(i * PARTITIONS_SLOT_SIZE + PARTITIONS_SLOT_OFFSET_DATA_TXN, txFile.getPartitionDataTxn(i)); // txn
+                this.openPartitionInfo.setQuick(i * PARTITIONS_SLOT_SIZE + PARTITIONS_SLOT_OFFSET_ADVICE, -1); // memory advice
             }
             this.columnTops = new LongList(capacity / 2);
             this.columnTops.setPos(capacity / 2);
@@ -138,6 +163,26 @@ public class TableReader implements Closeable, SymbolTableSource {
         return 2 + base + index * 2;
     }
 
+    /**
+     * Hints kernel on how column files of open partition are going to be accessed. Advice
+     * is applied once per partition mapping, repeated calls with the same advice are free.
+     *
+     * @param partitionIndex index of open partition
+     * @param advice         one of Files.MADV_* constants
+     */
+    public void adviseColumns(int partitionIndex, int advice) {
+        final int offset = partitionIndex * PARTITIONS_SLOT_SIZE + PARTITIONS_SLOT_OFFSET_ADVICE;
+        if (openPartitionInfo.getQuick(offset) != advice && getPartitionRowCount(partitionIndex) > -1) {
+            final int base = getColumnBase(partitionIndex);
+            for (int i = 0; i < columnCount; i++) {
+                final int index = getPrimaryColumnIndex(base, i);
+                adviseColumn(columns.getQuick(index), advice);
+                adviseColumn(columns.getQuick(index + 1), advice);
+            }
+            openPartitionInfo.setQuick(offset, advice);
+        }
+    }
+
     public double avgDouble(int columnIndex) {
         double result = 0;
         long countTotal = 0;
@@ -175,6 +220,7 @@ public class TableReader implements Closeable, SymbolTableSource {
             freeTempMem();
             Misc.free(txnScoreboard);
             Misc.free(path);
+            Misc.free(coldPath);
             Misc.free(columnVersionReader);
             LOG.debug().$("closed '").utf8(tableName).$('\'').$();
         }
@@ -431,9 +477,13 @@ public class TableReader implements Closeable, SymbolTableSource {
                             }
                             changed = true;
                         }
-                    } else {
+                    } else if (openPartitionSize > -1L) {
                         reOpenPartition(offset, partitionIndex, txPartitionNameTxn);
                         changed = true;
+                    } else {
+                        // partition is not open, there are no files to swap, it will be
+                        // opened with the new name txn on first access
+                        this.openPartitionInfo.setQuick(offset + PARTITIONS_SLOT_OFFSET_NAME_TXN, txPartitionNameTxn);
                     }
                 } else if (openPartitionSize > -1L && newPartitionSize > -1L) { // Don't force re-open if not yet opened
                     reOpenPartition(offset, partitionIndex, txPartitionNameTxn);
@@ -472,7 +522,8 @@ public class TableReader implements Closeable, SymbolTableSource {
 
         try {
             final long partitionNameTxn = txFile.getPartitionNameTxn(partitionIndex);
-            Path path = pathGenPartitioned(partitionIndex);
+            final boolean cold = isPartitionCold(partitionIndex);
+            Path path = cold ? pathGenColdPartition(partitionIndex) : pathGenPartitioned(partitionIndex);
             TableUtils.txnPartitionConditionally(path, partitionNameTxn);
 
             if (ff.exists(path.$())) {
@@ -492,6 +543,9 @@ public class TableReader implements Closeable, SymbolTableSource {
                     openPartitionColumns(partitionIndex, path, getColumnBase(partitionIndex), partitionSize);
                     final int offset = partitionIndex * PARTITIONS_SLOT_SIZE;
                     this.openPartitionInfo.setQuick(offset + PARTITIONS_SLOT_OFFSET_SIZE, partitionSize);
+                    if (metrics != null) {
+                        metrics.addPartitionOpen(cold);
+                    }
                 }
 
                 return partitionSize;
@@ -528,6 +582,7 @@ public class TableReader implements Closeable, SymbolTableSource {
         final long prevTruncateVersion = this.txFile.getTruncateVersion();
         try {
             reloadSlow(true);
+            reloadSymbolMapIndexes();
             // partition reload will apply truncate if necessary
             // applyTruncate for non-partitioned tables only
             reconcileOpenPartitions(prevPartitionVersion, prevTruncateVersion);
@@ -560,6 +615,12 @@ public class TableReader implements Closeable, SymbolTableSource {
         return result;
     }
 
+    private static void adviseColumn(MemoryMR mem, int advice) {
+        if (mem != null) {
+            mem.advise(advice);
+        }
+    }
+
     private static int getColumnBits(int columnCount) {
         return Numbers.msb(Numbers.ceilPow2(columnCount) * 2);
     }
@@ -862,6 +923,7 @@ public class TableReader implements Closeable, SymbolTableSource {
         openPartitionInfo.setQuick(offset + PARTITIONS_SLOT_OFFSET_SIZE, -1L); // size
         openPartitionInfo.setQuick(offset + PARTITIONS_SLOT_OFFSET_NAME_TXN, -1L); // name txn
         openPartitionInfo.setQuick(offset + PARTITIONS_SLOT_OFFSET_DATA_TXN, -1L); // data txn
+        openPartitionInfo.setQuick(offset + PARTITIONS_SLOT_OFFSET_ADVICE, -1L); // memory advice
         partitionCount++;
         LOG.debug().$("inserted partition [index=").$(partitionIndex).$(", path=").$(path).$(", timestamp=").$ts(timestamp).I$();
     }
@@ -936,18 +998,40 @@ public class TableReader implements Closeable, SymbolTableSource {
         symbolMapReaders.setPos(columnCount);
         for (int i = 0; i < columnCount; i++) {
             if (ColumnType.isSymbol(metadata.getColumnType(i))) {
-                long columnNameTxn = columnVersionReader.getDefaultColumnNameTxn(metadata.getWriterIndex(i));
-                SymbolMapReaderImpl symbolMapReader = new SymbolMapReaderImpl(configuration, path, metadata.getColumnName(i), columnNameTxn, txFile.getSymbolValueCount(symbolColumnIndex++));
+                SymbolMapReaderImpl symbolMapReader = new SymbolMapReaderImpl();
+                openSymbolMapReader(symbolMapReader, i, txFile.getSymbolValueCount(symbolColumnIndex++));
                 symbolMapReaders.extendAndSet(i, symbolMapReader);
             }
         }
     }
 
+    private void openSymbolMapReader(SymbolMapReaderImpl symbolMapReader, int columnIndex, int symbolCount) {
+        final int writerColumnIndex = metadata.getWriterIndex(columnIndex);
+        symbolMapReader.of(
+                configuration,
+                path,
+                metadata.getColumnName(columnIndex),
+                columnVersionReader.getDefaultColumnNameTxn(writerColumnIndex),
+                symbolCount
+        );
+    }
+
+    private Path pathGenColdPartition(int partitionIndex) {
+        formatPartitionDirName(partitionIndex, coldPath.trimTo(coldRootLen).slash());
+        return coldPath;
+    }
+
     private Path pathGenPartitioned(int partitionIndex) {
         formatPartitionDirName(partitionIndex, path.slash());
         return path;
     }
 
+    private boolean isPartitionCold(int partitionIndex) {
+        // partition on cold tier is also reachable via soft link under table root,
+        // it is opened from cold tier directly to avoid the extra lookup
+        return coldPath != null && txFile.isPartitionColdByPartitionTimestamp(openPartitionInfo.getQuick(partitionIndex * PARTITIONS_SLOT_SIZE));
+    }
+
     private void readTxnSlow(long deadline) {
         int count = 0;
 
@@ -1042,6 +1126,8 @@ public class TableReader implements Closeable, SymbolTableSource {
             long partitionRowCount
     ) {
         final int plen = path.length();
+        // remapped column memory has to be advised again
+        openPartitionInfo.setQuick(partitionIndex * PARTITIONS_SLOT_SIZE + PARTITIONS_SLOT_OFFSET_ADVICE, -1L);
         try {
             final CharSequence name = metadata.getColumnName(columnIndex);
             final int primaryIndex = getPrimaryColumnIndex(columnBase, columnIndex);
@@ -1172,22 +1258,31 @@ public class TableReader implements Closeable, SymbolTableSource {
         }
     }
 
+    private long getVersionColumnTop(long partitionTimestamp, int columnIndex) {
+        final int versionRecordIndex = columnVersionReader.getRecordIndex(partitionTimestamp, metadata.getWriterIndex(columnIndex));
+        return versionRecordIndex > -1 ? columnVersionReader.getColumnTopByIndex(versionRecordIndex) : 0L;
+    }
+
     /**
-     * Updates boundaries of all columns in partition.
+     * Updates boundaries of all columns in partition. Columns whose top has moved are
+     * re-opened, the rest of the columns extend their existing mappings. Symbol counts
+     * are left for the caller to refresh.
      *
      * @param partitionIndex index of partition
      * @param rowCount       number of rows in partition
      */
     private void reloadPartition(int partitionIndex, long rowCount, long openPartitionNameTxn) {
-        Path path = pathGenPartitioned(partitionIndex);
+        Path path = isPartitionCold(partitionIndex) ? pathGenColdPartition(partitionIndex) : pathGenPartitioned(partitionIndex);
         TableUtils.txnPartitionConditionally(path, openPartitionNameTxn);
         try {
-            int symbolMapIndex = 0;
-            int columnBase = getColumnBase(partitionIndex);
+            final long partitionTimestamp = openPartitionInfo.getQuick(partitionIndex * PARTITIONS_SLOT_SIZE);
+            final int columnBase = getColumnBase(partitionIndex);
             for (int i = 0; i < columnCount; i++) {
                 final int index = getPrimaryColumnIndex(columnBase, i);
                 final MemoryMR mem1 = columns.getQuick(index);
-                if (mem1 instanceof NullMemoryMR) {
+                // column top changes when writer fills the gap before column top, the
+                // file has to be mapped again, other columns only grow their mappings
+                if (mem1 instanceof NullMemoryMR || getColumnTop(columnBase, i) != getVersionColumnTop(partitionTimestamp, i)) {
                     reloadColumnAt(
                             partitionIndex,
                             path,
@@ -1206,16 +1301,10 @@ public class TableReader implements Closeable, SymbolTableSource {
                             rowCount - getColumnTop(columnBase, i)
                     );
                 }
-
-                // reload symbol map
-                SymbolMapReader reader = symbolMapReaders.getQuick(i);
-                if (reader == null) {
-                    continue;
-                }
-                reader.updateSymbolCount(txFile.getSymbolValueCount(symbolMapIndex++));
             }
         } finally {
-            path.trimTo(rootLen);
+            // cold tier path is trimmed when it is generated
+            this.path.trimTo(rootLen);
         }
     }
 
@@ -1246,10 +1335,21 @@ public class TableReader implements Closeable, SymbolTableSource {
             if (ColumnType.isSymbol(metadata.getColumnType(columnIndex))) {
                 SymbolMapReader symbolMapReader = symbolMapReaders.getQuick(columnIndex);
                 if (symbolMapReader instanceof SymbolMapReaderImpl) {
-                    final int writerColumnIndex = metadata.getWriterIndex(columnIndex);
-                    final long columnNameTxn = columnVersionReader.getDefaultColumnNameTxn(writerColumnIndex);
-                    int symbolCount = txFile.getSymbolValueCount(symbolMapIndex++);
-                    ((SymbolMapReaderImpl) symbolMapReader).of(configuration, path, metadata.getColumnName(columnIndex), columnNameTxn, symbolCount);
+                    openSymbolMapReader((SymbolMapReaderImpl) symbolMapReader, columnIndex, txFile.getSymbolValueCount(symbolMapIndex++));
+                }
+            }
+        }
+    }
+
+    private void reloadSymbolMapIndexes() {
+        int symbolMapIndex = 0;
+        for (int columnIndex = 0; columnIndex < columnCount; columnIndex++) {
+            if (ColumnType.isSymbol(metadata.getColumnType(columnIndex))) {
+                final int symbolCount = txFile.getSymbolValueCount(symbolMapIndex++);
+                final SymbolMapReader symbolMapReader = symbolMapReaders.getQuick(columnIndex);
+                // symbol map index has been rehashed by the writer
+                if (symbolMapReader instanceof SymbolMapReaderImpl && ((SymbolMapReaderImpl) symbolMapReader).isIndexStale()) {
+                    openSymbolMapReader((SymbolMapReaderImpl) symbolMapReader, columnIndex, symbolCount);
                 }
             }
         }
@@ -1257,13 +1357,9 @@ public class TableReader implements Closeable, SymbolTableSource {
 
     private SymbolMapReader reloadSymbolMapReader(int columnIndex, SymbolMapReader reader) {
         if (ColumnType.isSymbol(metadata.getColumnType(columnIndex))) {
-            final int writerColumnIndex = metadata.getWriterIndex(columnIndex);
-            final long columnNameTxn = columnVersionReader.getDefaultColumnNameTxn(writerColumnIndex);
-            if (reader instanceof SymbolMapReaderImpl) {
-                ((SymbolMapReaderImpl) reader).of(configuration, path, metadata.getColumnName(columnIndex), columnNameTxn, 0);
-                return reader;
-            }
-            return new SymbolMapReaderImpl(configuration, path, metadata.getColumnName(columnIndex), columnNameTxn, 0);
+            final SymbolMapReaderImpl symbolMapReader = reader instanceof SymbolMapReaderImpl ? (SymbolMapReaderImpl) reader : new SymbolMapReaderImpl();
+            openSymbolMapReader(symbolMapReader, columnIndex, 0);
+            return symbolMapReader;
         } else {
             return reader;
         }
@@ -42,6 +42,7 @@ public class TableReaderMetadata extends BaseRecordMetadata implements Closeable
     private int tableId;
     private int maxUncommittedRows;
     private long commitLag;
+    private long coldTierAfter;
     private long structureVersion;
     private MemoryMR transitionMeta;
 
@@ -75,6 +76,7 @@ public class TableReaderMetadata extends BaseRecordMetadata implements Closeable
         this.structureVersion = metaMem.getLong(TableUtils.META_OFFSET_STRUCTURE_VERSION);
         this.maxUncommittedRows = metaMem.getInt(TableUtils.META_OFFSET_MAX_UNCOMMITTED_ROWS);
         this.commitLag = metaMem.getLong(TableUtils.META_OFFSET_COMMIT_LAG);
+        this.coldTierAfter = metaMem.getLong(TableUtils.META_OFFSET_COLD_TIER_AFTER);
         long offset = TableUtils.getColumnNameOffset(columnCount);
 
         int shiftLeft = 0, existingIndex = 0;
@@ -184,6 +186,10 @@ public class TableReaderMetadata extends BaseRecordMetadata implements Closeable
         return commitLag;
     }
 
+    public long getColdTierAfter() {
+        return coldTierAfter;
+    }
+
     public int getId() {
         return tableId;
     }
@@ -217,6 +223,7 @@ public class TableReaderMetadata extends BaseRecordMetadata implements Closeable
             this.tableId = metaMem.getInt(TableUtils.META_OFFSET_TABLE_ID);
             this.maxUncommittedRows = metaMem.getInt(TableUtils.META_OFFSET_MAX_UNCOMMITTED_ROWS);
             this.commitLag = metaMem.getLong(TableUtils.META_OFFSET_COMMIT_LAG);
+            this.coldTierAfter = metaMem.getLong(TableUtils.META_OFFSET_COLD_TIER_AFTER);
             this.structureVersion = metaMem.getLong(TableUtils.META_OFFSET_STRUCTURE_VERSION);
             this.columnMetadata.clear();
             long offset = TableUtils.getColumnNameOffset(columnCount);
@@ -0,0 +1,78 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2022 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.cairo;
+
+import io.questdb.metrics.Counter;
+import io.questdb.metrics.CounterWithOneLabel;
+import io.questdb.metrics.MetricsRegistry;
+import org.jetbrains.annotations.TestOnly;
+
+public class TableReaderMetrics {
+
+    // upper bounds of reload latency buckets, micros
+    private static final long[] RELOAD_LATENCY_BOUNDS = {10, 100, 1_000, 10_000, 100_000, Long.MAX_VALUE};
+    private static final CharSequence[] RELOAD_LATENCY_LABELS = {"10", "100", "1000", "10000", "100000", "+Inf"};
+    private static final CharSequence[] TIER_LABELS = {"hot", "cold"};
+    private static final short TIER_HOT = 0;
+    private static final short TIER_COLD = 1;
+
+    private final Counter reloadCounter;
+    private final Counter reloadTimeCounter;
+    // buckets are cumulative, each reload is counted in every bucket
+    // whose bound is not below its latency
+    private final CounterWithOneLabel reloadLatencyCounter;
+    private final CounterWithOneLabel partitionOpenCounter;
+
+    public TableReaderMetrics(MetricsRegistry metricsRegistry) {
+        this.reloadCounter = metricsRegistry.newCounter("table_reader_reloads");
+        this.reloadTimeCounter = metricsRegistry.newCounter("table_reader_reload_time_micros");
+        this.reloadLatencyCounter = metricsRegistry.newCounter("table_reader_reload_latency_micros", "le", RELOAD_LATENCY_LABELS);
+        this.partitionOpenCounter = metricsRegistry.newCounter("table_reader_partition_opens", "tier", TIER_LABELS);
+    }
+
+    public void addPartitionOpen(boolean cold) {
+        partitionOpenCounter.inc(cold ? TIER_COLD : TIER_HOT);
+    }
+
+    public void addReload(long micros) {
+        reloadCounter.inc();
+        reloadTimeCounter.add(micros);
+        for (short i = 0, n = (short) RELOAD_LATENCY_BOUNDS.length; i < n; i++) {
+            if (micros <= RELOAD_LATENCY_BOUNDS[i]) {
+                reloadLatencyCounter.inc(i);
+            }
+        }
+    }
+
+    @TestOnly
+    public long reloadCount() {
+        return reloadCounter.get();
+    }
+
+    @TestOnly
+    public long reloadTime() {
+        return reloadTimeCounter.get();
+    }
+}
@@ -52,8 +52,10 @@ public final class TableUtils {
     public static final String TXN_SCOREBOARD_FILE_NAME = "_txn_scoreboard";
     public static final String UPGRADE_FILE_NAME = "_upgrade.d";
     public static final String DETACHED_DIR_MARKER = ".detached";
+    public static final String COLD_TIER_COPY_MARKER = ".copy";
     public static final String TAB_INDEX_FILE_NAME = "_tab_index.d";
     public static final String SNAPSHOT_META_FILE_NAME = "_snapshot";
+    public static final String MAT_VIEW_FILE_NAME = "_mv";
     public static final int INITIAL_TXN = 0;
     public static final int NULL_LEN = -1;
     public static final int ANY_TABLE_ID = -1;
@@ -65,6 +67,7 @@ public final class TableUtils {
     public static final long META_OFFSET_MAX_UNCOMMITTED_ROWS = 20; // LONG
     public static final long META_OFFSET_COMMIT_LAG = 24; // LONG
     public static final long META_OFFSET_STRUCTURE_VERSION = 32; // LONG
+    public static final long META_OFFSET_COLD_TIER_AFTER = 40; // LONG
     public static final String FILE_SUFFIX_I = ".i";
     public static final String FILE_SUFFIX_D = ".d";
     public static final int LONGS_PER_TX_ATTACHED_PARTITION = 4;
@@ -688,6 +691,18 @@ public final class TableUtils {
         }
     }
 
+    /**
+     * Tables are stored under their id on cold storage tier, this way dropped and re-created
+     * tables do not share partition directories.
+     *
+     * @param path     path to the cold storage tier root
+     * @param tableId  table id
+     * @return path to table directory on cold storage tier
+     */
+    public static Path setColdTierTablePath(Path path, int tableId) {
+        return path.slash().put(tableId);
+    }
+
     /**
      * Sets the path to the directory of a partition taking into account the timestamp and the partitioning scheme.
      *
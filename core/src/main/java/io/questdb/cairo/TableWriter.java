@@ -113,6 +113,8 @@ public class TableWriter implements Closeable {
     private final PartitionBy.PartitionCeilMethod partitionCeilMethod;
     private final int defaultCommitMode;
     private final int o3ColumnMemorySize;
+    private final int o3PartitionMaxConcurrency;
+    private final long dataAppendStagingPageSize;
     private final ObjList<Runnable> nullSetters;
     private final ObjList<Runnable> o3NullSetters;
     private final ObjList<MemoryCARW> o3Columns;
@@ -126,6 +128,11 @@ public class TableWriter implements Closeable {
     private final MemoryMARW todoMem = Vm.getMARWInstance();
     private final TxWriter txWriter;
     private final LongList o3PartitionRemoveCandidates = new LongList();
+    // column name and index name txn of symbol map indexes replaced by rehash
+    private final ObjList<String> symbolIndexRemoveCandidateNames = new ObjList<>();
+    private final LongList symbolIndexRemoveCandidateTxns = new LongList();
+    // readers of transactions before this one could be using index removal candidates
+    private long symbolIndexRemoveMinReaderTxn;
     private final ObjectPool<O3MutableAtomicInteger> o3ColumnCounters = new ObjectPool<>(O3MutableAtomicInteger::new, 64);
     private final ObjectPool<O3Basket> o3BasketPool = new ObjectPool<>(O3Basket::new, 64);
     private final TxnScoreboard txnScoreboard;
@@ -137,7 +144,7 @@ public class TableWriter implements Closeable {
     private final SCSequence o3PartitionUpdateSubSeq;
     private final boolean o3QuickSortEnabled;
     private final LongConsumer appendTimestampSetter;
-    private final MemoryMR indexMem = Vm.getMRInstance();
+    private final ParallelIndexBuilder indexBuilder = new ParallelIndexBuilder();
     private final MemoryFR slaveMetaMem = new MemoryFCRImpl();
     private final LongIntHashMap replPartitionHash = new LongIntHashMap();
     private final MemoryFMCRImpl slaveTxMemory = new MemoryFMCRImpl();
@@ -230,6 +237,7 @@ public class TableWriter implements Closeable {
         this.defaultCommitMode = configuration.getCommitMode();
         this.lifecycleManager = lifecycleManager;
         this.parallelIndexerEnabled = configuration.isParallelIndexingEnabled();
+        this.indexBuilder.of(configuration, parallelIndexerEnabled ? this.messageBus : null);
         this.ff = configuration.getFilesFacade();
         this.mkDirMode = configuration.getMkDirMode();
         this.fileOperationRetryCount = configuration.getFileOperationRetryCount();
@@ -240,6 +248,8 @@ public class TableWriter implements Closeable {
         this.o3PartitionUpdateSubSeq = new SCSequence();
         o3PartitionUpdatePubSeq.then(o3PartitionUpdateSubSeq).then(o3PartitionUpdatePubSeq);
         this.o3ColumnMemorySize = configuration.getO3ColumnMemorySize();
+        this.o3PartitionMaxConcurrency = configuration.getO3PartitionMaxConcurrency();
+        this.dataAppendStagingPageSize = configuration.getDataAppendStagingPageSize();
         this.path = new Path();
         this.path.of(root).concat(tableName);
         this.other = new Path().of(root).concat(tableName);
@@ -475,6 +485,15 @@ public class TableWriter implements Closeable {
         LOG.info().$("ADDED column '").utf8(name).$('[').$(ColumnType.nameOf(type)).$("], name txn ").$(columnNameTxn).$(" to ").$(path).$();
     }
 
+    /**
+     * Indexes existing symbol column. Build is synchronous: the writer is held, and rows cannot be
+     * written to the table, until all partitions are indexed. Historic partitions are indexed in parallel
+     * on the column indexer queue when parallel indexer is enabled, which shortens the pause
+     * but does not remove it. Readers see the column as indexed only once metadata is swapped at the end.
+     *
+     * @param columnName          name of symbol column
+     * @param indexValueBlockSize index value block size, power of 2
+     */
     public void addIndex(CharSequence columnName, int indexValueBlockSize) {
         assert indexValueBlockSize == Numbers.ceilPow2(indexValueBlockSize) : "power of 2 expected";
 
@@ -514,7 +533,7 @@ public class TableWriter implements Closeable {
                 // This piece of code is unbelievably fragile!
                 if (PartitionBy.isPartitioned(partitionBy)) {
                     // run indexer for the whole table
-                    indexHistoricPartitions(indexer, columnName, indexValueBlockSize);
+                    indexHistoricPartitions(columnName, indexValueBlockSize);
                     long timestamp = txWriter.getMaxTimestamp();
                     if (timestamp != Numbers.LONG_NaN) {
                         path.trimTo(rootLen);
@@ -941,6 +960,9 @@ public class TableWriter implements Closeable {
         // remove column objects
         removeColumn(index);
 
+        // symbol map index could have been rehashed into files named differently from the column
+        final long symbolIndexNameTxn = getRehashedSymbolIndexNameTxn(index);
+
         // remove symbol map writer or entry for such
         removeSymbolMapWriter(index);
 
@@ -959,7 +981,7 @@ public class TableWriter implements Closeable {
             clearTodoLog();
 
             // remove column files has to be done after _todo is removed
-            removeColumnFiles(name, index, type);
+            removeColumnFiles(name, index, type, symbolIndexNameTxn);
         } catch (CairoException err) {
             throwDistressException(err);
         }
@@ -978,6 +1000,82 @@ public class TableWriter implements Closeable {
         LOG.info().$("REMOVED column '").utf8(name).$("' from ").$(path).$();
     }
 
+    /**
+     * Switches partition to its copy on cold storage tier. The copy is made in the background by
+     * {@link PartitionTierJob} so that writer is not blocked while data is copied. Partition gets new name
+     * txn and its directory under table root becomes a soft link to the cold tier directory. Previous version
+     * of the partition is purged when readers release it.
+     *
+     * @param timestamp  partition timestamp
+     * @param srcNameTxn name txn of partition version the copy was made from
+     * @return true when partition has been moved to cold tier, false when partition has changed since it was
+     * copied, the copy is then discarded
+     */
+    public boolean movePartitionToColdTier(long timestamp, long srcNameTxn, long srcRowCount, long srcColumnNameTxn) {
+        final CharSequence coldRoot = configuration.getColdTierRoot();
+        if (coldRoot == null || !PartitionBy.isPartitioned(partitionBy)) {
+            return false;
+        }
+        commit();
+
+        timestamp = getPartitionLo(timestamp);
+        final Path copy = setColdTierTablePath(Path.getThreadLocal(coldRoot), metadata.getId());
+        setPathForPartition(copy, partitionBy, timestamp, false);
+        TableUtils.txnPartitionConditionally(copy, srcNameTxn);
+        copy.put(COLD_TIER_COPY_MARKER).$();
+
+        if (timestamp == getPartitionLo(txWriter.getMaxTimestamp())
+                || !txWriter.attachedPartitionsContains(timestamp)
+                || txWriter.isPartitionColdByPartitionTimestamp(timestamp)
+                || txWriter.getPartitionNameTxnByPartitionTimestamp(timestamp) != srcNameTxn
+                // O3 appends to the partition and column rewrites keep its name txn
+                || txWriter.getPartitionSizeByPartitionTimestamp(timestamp) != srcRowCount
+                || columnVersionWriter.getMaxColumnNameTxn(timestamp) != srcColumnNameTxn) {
+            LOG.info().$("partition changed, discarding cold tier copy [path=").$(copy).I$();
+            ff.rmdir(copy);
+            return false;
+        }
+
+        if (!ff.exists(copy)) {
+            LOG.error().$("cold tier copy does not exist [path=").$(copy).I$();
+            return false;
+        }
+
+        final long nameTxn = txWriter.getTxn();
+        final Path cold = setColdTierTablePath(Path.getThreadLocal2(coldRoot), metadata.getId());
+        setPathForPartition(cold, partitionBy, timestamp, false);
+        TableUtils.txnPartition(cold, nameTxn);
+        cold.$();
+
+        if (!ff.rename(copy, cold)) {
+            throw CairoException.instance(ff.errno()).put("could not rename [from=").put(copy).put(", to=").put(cold).put(']');
+        }
+
+        try {
+            setPathForPartition(path, partitionBy, timestamp, false);
+            TableUtils.txnPartition(path, nameTxn);
+            if (ff.softLink(cold, path.$()) != 0) {
+                ff.rmdir(cold);
+                throw CairoException.instance(0).put("could not create soft link [src=").put(cold).put(", softLink=").put(path).put(']');
+            }
+        } finally {
+            path.trimTo(rootLen);
+        }
+
+        txWriter.markPartitionCold(timestamp);
+        txWriter.commit(defaultCommitMode, denseSymbolMapWriters);
+        LOG.info().$("moved partition to cold tier [table=").$(tableName)
+                .$(", ts=").$ts(timestamp)
+                .$(", nameTxn=").$(nameTxn)
+                .I$();
+
+        // hot version of the partition is removed once readers release it
+        o3PartitionRemoveCandidates.clear();
+        o3PartitionRemoveCandidates.add(timestamp, srcNameTxn);
+        o3ProcessPartitionRemoveCandidates();
+        return true;
+    }
+
     public boolean removePartition(long timestamp) {
         long minTimestamp = txWriter.getMinTimestamp();
         long maxTimestamp = txWriter.getMaxTimestamp();
@@ -1036,6 +1134,58 @@ public class TableWriter implements Closeable {
         }
     }
 
+    /**
+     * Removes active partition and makes the previous partition active, so that rows can be
+     * appended to it again. Unlike {@link #removePartition(long)} this allows cutting the tail of the
+     * table, which is used to recompute the most recent data of materialized views.
+     *
+     * @return false when table is not partitioned, has less than two partitions or uncommitted rows
+     */
+    public boolean removeLastPartition() {
+        checkDistressed();
+        final int partitionCount = txWriter.getPartitionCount();
+        if (!PartitionBy.isPartitioned(partitionBy) || partitionCount < 2 || inTransaction()) {
+            return false;
+        }
+
+        final long timestamp = txWriter.getPartitionTimestamp(partitionCount - 1);
+        final long partitionNameTxn = txWriter.getPartitionNameTxn(partitionCount - 1);
+        final long prevTimestamp = txWriter.getPartitionTimestamp(partitionCount - 2);
+        final long prevSize = txWriter.getPartitionSize(partitionCount - 2);
+        final long prevMaxTimestamp;
+        try {
+            setStateForTimestamp(path, prevTimestamp, false);
+            TableUtils.dFile(path, metadata.getColumnName(metadata.getTimestampIndex()), COLUMN_NAME_TXN_NONE);
+            prevMaxTimestamp = TableUtils.readLongAtOffset(ff, path.$(), tempMem16b, (prevSize - 1) * Long.BYTES);
+        } finally {
+            path.trimTo(rootLen);
+        }
+
+        freeColumns(false);
+        if (indexers != null) {
+            for (int i = 0, n = indexers.size(); i < n; i++) {
+                Misc.free(indexers.getQuick(i));
+            }
+        }
+
+        txWriter.beginPartitionSizeUpdate();
+        txWriter.removeAttachedPartitions(timestamp);
+        txWriter.finishPartitionSizeUpdate(txWriter.getMinTimestamp(), prevMaxTimestamp);
+        txWriter.bumpTruncateVersion();
+        txWriter.commit(defaultCommitMode, denseSymbolMapWriters);
+        LOG.info().$("removed last partition [table=").$(tableName)
+                .$(", ts=").$ts(timestamp)
+                .$(", maxTimestamp=").$ts(prevMaxTimestamp)
+                .I$();
+
+        o3PartitionRemoveCandidates.clear();
+        o3PartitionRemoveCandidates.add(timestamp, partitionNameTxn);
+        o3ProcessPartitionRemoveCandidates();
+
+        configureAppendPosition();
+        return true;
+    }
+
     public void renameColumn(CharSequence currentName, CharSequence newName) {
 
         checkDistressed();
@@ -1280,6 +1430,27 @@ public class TableWriter implements Closeable {
         }
     }
 
+    public void setMetaColdTierAfter(long coldTierAfter) {
+        try {
+            commit();
+            long metaSize = copyMetadataAndUpdateVersion();
+            openMetaSwapFileByIndex(ff, ddlMem, path, rootLen, this.metaSwapIndex);
+            try {
+                ddlMem.jumpTo(META_OFFSET_COLD_TIER_AFTER);
+                ddlMem.putLong(coldTierAfter);
+                ddlMem.jumpTo(metaSize);
+            } finally {
+                ddlMem.close();
+            }
+
+            finishMetaSwapUpdate();
+            metadata.setColdTierAfter(coldTierAfter);
+            clearTodoLog();
+        } finally {
+            ddlMem.close();
+        }
+    }
+
     public void setMetaMaxUncommittedRows(int maxUncommittedRows) {
         try {
             commit();
@@ -1827,6 +1998,10 @@ public class TableWriter implements Closeable {
     }
 
     private boolean checkScoreboardHasReadersBeforeLastCommittedTxn() {
+        return checkScoreboardHasReadersBeforeTxn(txWriter.getTxn());
+    }
+
+    private boolean checkScoreboardHasReadersBeforeTxn(long txn) {
         long lastCommittedTxn = txWriter.getTxn();
         try {
             if (txnScoreboard.acquireTxn(lastCommittedTxn)) {
@@ -1842,7 +2017,7 @@ public class TableWriter implements Closeable {
                     .$(", errno=").$(ex.getErrno()).I$();
         }
 
-        return txnScoreboard.getMin() != lastCommittedTxn;
+        return txnScoreboard.getMin() < txn;
     }
 
     private void clearO3() {
@@ -1920,6 +2095,9 @@ public class TableWriter implements Closeable {
 
         if (inTransaction()) {
 
+            // staged column data has to reach the files before O3, indexers and readers get to them
+            flushColumns();
+
             if (hasO3() && o3Commit(commitLag)) {
                 // Bookmark masterRef to track how many rows is in uncommitted state
                 this.committedMasterRef = masterRef;
@@ -1934,6 +2112,7 @@ public class TableWriter implements Closeable {
             final long rowsAdded = txWriter.getRowCount() - committedRowCount;
 
             updateIndexes();
+            rehashSymbolMapWriters();
             columnVersionWriter.commit();
             txWriter.setColumnVersion(columnVersionWriter.getVersion());
             txWriter.commit(commitMode, this.denseSymbolMapWriters);
@@ -1941,6 +2120,7 @@ public class TableWriter implements Closeable {
             // Bookmark masterRef to track how many rows is in uncommitted state
             this.committedMasterRef = masterRef;
             o3ProcessPartitionRemoveCandidates();
+            processSymbolIndexRemoveCandidates();
 
             metrics.tableWriter().incrementCommits();
             metrics.tableWriter().addCommittedRows(rowsAdded);
@@ -1978,14 +2158,14 @@ public class TableWriter implements Closeable {
         final MemoryCARW oooSecondary2;
 
         if (type > 0) {
-            primary = Vm.getMAInstance();
+            primary = newColumnAppendMemory();
             oooPrimary = Vm.getCARWInstance(o3ColumnMemorySize, Integer.MAX_VALUE, MemoryTag.NATIVE_O3);
             oooPrimary2 = Vm.getCARWInstance(o3ColumnMemorySize, Integer.MAX_VALUE, MemoryTag.NATIVE_O3);
 
             switch (ColumnType.tagOf(type)) {
                 case ColumnType.BINARY:
                 case ColumnType.STRING:
-                    secondary = Vm.getMAInstance();
+                    secondary = newColumnAppendMemory();
                     oooSecondary = Vm.getCARWInstance(o3ColumnMemorySize, Integer.MAX_VALUE, MemoryTag.NATIVE_O3);
                     oooSecondary2 = Vm.getCARWInstance(o3ColumnMemorySize, Integer.MAX_VALUE, MemoryTag.NATIVE_O3);
                     break;
@@ -2132,6 +2312,7 @@ public class TableWriter implements Closeable {
         ddlMem.putInt(metaMem.getInt(META_OFFSET_MAX_UNCOMMITTED_ROWS));
         ddlMem.putLong(metaMem.getLong(META_OFFSET_COMMIT_LAG));
         ddlMem.putLong(txWriter.getStructureVersion() + 1);
+        ddlMem.putLong(metaMem.getLong(META_OFFSET_COLD_TIER_AFTER));
         metadata.setStructureVersion(txWriter.getStructureVersion() + 1);
     }
 
@@ -2199,11 +2380,12 @@ public class TableWriter implements Closeable {
     private void doClose(boolean truncate) {
         boolean tx = inTransaction();
         freeSymbolMapWriters();
+        processSymbolIndexRemoveCandidates();
         freeIndexers();
         Misc.free(txWriter);
         Misc.free(metaMem);
         Misc.free(ddlMem);
-        Misc.free(indexMem);
+        Misc.free(indexBuilder);
         Misc.free(other);
         Misc.free(todoMem);
         Misc.free(columnVersionWriter);
@@ -2251,6 +2433,17 @@ public class TableWriter implements Closeable {
         metadata.setTableVersion();
     }
 
+    private void flushColumns() {
+        if (dataAppendStagingPageSize > 0) {
+            for (int i = 0, n = columns.size(); i < n; i++) {
+                MemoryMA m = columns.getQuick(i);
+                if (m != null) {
+                    m.flush();
+                }
+            }
+        }
+    }
+
     private void freeAndRemoveColumnPair(ObjList<MemoryMA> columns, int pi, int si) {
         Misc.free(columns.getAndSetQuick(pi, NullMemory.INSTANCE));
         Misc.free(columns.getAndSetQuick(si, NullMemory.INSTANCE));
@@ -2333,6 +2526,10 @@ public class TableWriter implements Closeable {
         return configuration;
     }
 
+    TableWriterMetrics getMetrics() {
+        return metrics.tableWriter();
+    }
+
     Sequence getO3CopyPubSeq() {
         return messageBus.getO3CopyPubSeq();
     }
@@ -2378,6 +2575,15 @@ public class TableWriter implements Closeable {
         return columns.getQuick(getPrimaryColumnIndex(column));
     }
 
+    // name txn of symbol map index files rebuilt by rehash, -1 when index files are named by column name txn
+    private long getRehashedSymbolIndexNameTxn(int columnIndex) {
+        final MapWriter mapWriter = symbolMapWriters.getQuiet(columnIndex);
+        if (mapWriter instanceof SymbolMapWriter && ((SymbolMapWriter) mapWriter).isIndexRehashed()) {
+            return ((SymbolMapWriter) mapWriter).getIndexNameTxn();
+        }
+        return -1L;
+    }
+
     private MemoryMA getSecondaryColumn(int column) {
         assert column < columnCount : "Column index is out of bounds: " + column + " >= " + columnCount;
         return columns.getQuick(getSecondaryColumnIndex(column));
@@ -2391,11 +2597,11 @@ public class TableWriter implements Closeable {
         return o3MasterRef > -1;
     }
 
-    private void indexHistoricPartitions(SymbolColumnIndexer indexer, CharSequence columnName, int indexValueBlockSize) {
+    private void indexHistoricPartitions(CharSequence columnName, int indexValueBlockSize) {
         long ts = this.txWriter.getMaxTimestamp();
         if (ts > Numbers.LONG_NaN) {
             final int columnIndex = metadata.getColumnIndex(columnName);
-            try (final MemoryMR roMem = indexMem) {
+            try {
                 // Index last partition separately
                 for (int i = 0, n = txWriter.getPartitionCount() - 1; i < n; i++) {
 
@@ -2417,19 +2623,14 @@ public class TableWriter implements Closeable {
                             createIndexFiles(columnName, columnNameTxn, indexValueBlockSize, plen, true);
                             final long partitionSize = txWriter.getPartitionSizeByPartitionTimestamp(timestamp);
                             final long columnTop = columnVersionWriter.getColumnTop(timestamp, columnIndex);
-
-                            if (partitionSize > columnTop) {
-                                TableUtils.dFile(path.trimTo(plen), columnName, columnNameTxn);
-                                final long columnSize = (partitionSize - columnTop) << ColumnType.pow2SizeOf(ColumnType.INT);
-                                roMem.of(ff, path, columnSize, columnSize, MemoryTag.MMAP_TABLE_WRITER);
-                                indexer.configureWriter(configuration, path.trimTo(plen), columnName, columnNameTxn, columnTop);
-                                indexer.index(roMem, columnTop, partitionSize);
-                            }
+                            // partitions are indexed in parallel, in batches
+                            indexBuilder.add(path.trimTo(plen), columnName, columnNameTxn, columnTop, partitionSize);
                         }
                     }
                 }
+                indexBuilder.build();
             } finally {
-                indexer.close();
+                indexBuilder.clear();
             }
         }
     }
@@ -2476,6 +2677,10 @@ public class TableWriter implements Closeable {
         }
     }
 
+    private MemoryMA newColumnAppendMemory() {
+        return dataAppendStagingPageSize > 0 ? Vm.getWCMAInstance(dataAppendStagingPageSize) : Vm.getMAInstance();
+    }
+
     private Row newRowO3(long timestamp) {
         LOG.info().$("switched to o3 [table=").utf8(tableName).$(']').$();
         txWriter.beginPartitionSizeUpdate();
@@ -2500,6 +2705,7 @@ public class TableWriter implements Closeable {
      * @return <i>true</i> when commit has is a NOOP, e.g. no data has been committed to disk. <i>false</i> otherwise.
      */
     private boolean o3Commit(long lag) {
+        final long o3CommitStart = configuration.getMicrosecondClock().getTicks();
         o3RowCount = getO3RowCount0();
         o3PartitionRemoveCandidates.clear();
         o3ErrorCount.set(0);
@@ -2507,6 +2713,7 @@ public class TableWriter implements Closeable {
         o3BasketPool.clear();
 
         long o3LagRowCount = 0;
+        long o3CommitRowCount = 0;
         long maxUncommittedRows = metadata.getMaxUncommittedRows();
         final int timestampIndex = metadata.getTimestampIndex();
         this.lastPartitionTimestamp = partitionFloorMethod.floor(partitionTimestampHi);
@@ -2605,6 +2812,7 @@ public class TableWriter implements Closeable {
             if (srcOooMax == 0) {
                 return true;
             }
+            o3CommitRowCount = srcOooMax;
 
             // we could have moved the "srcOooMax" and hence we re-read the max timestamp
             o3TimestampMax = getTimestampIndexValue(sortedTimestampsAddr, srcOooMax - 1);
@@ -2910,6 +3118,7 @@ public class TableWriter implements Closeable {
         }
 
         metrics.tableWriter().incrementO3Commits();
+        metrics.tableWriter().addO3Commit(o3CommitRowCount, configuration.getMicrosecondClock().getTicks() - o3CommitStart);
 
         return false;
     }
@@ -2930,8 +3139,13 @@ public class TableWriter implements Closeable {
             O3Basket o3Basket,
             long colTopSinkAddr
     ) {
-        long cursor = messageBus.getO3PartitionPubSeq().next();
+        // partitions over the concurrency limit are merged by this thread, which in turn
+        // holds back publishing of the remaining partitions of the commit
+        long cursor = o3PartitionMaxConcurrency > 0 && o3PartitionUpdRemaining.get() > o3PartitionMaxConcurrency
+                ? -1
+                : messageBus.getO3PartitionPubSeq().next();
         if (cursor > -1) {
+            metrics.tableWriter().incrementO3TasksQueued();
             O3PartitionTask task = messageBus.getO3PartitionQueue().get(cursor);
             task.of(
                     path,
@@ -2957,6 +3171,7 @@ public class TableWriter implements Closeable {
             );
             messageBus.getO3PartitionPubSeq().done(cursor);
         } else {
+            metrics.tableWriter().incrementO3TasksStolen();
             O3PartitionJob.processPartition(
                     path,
                     partitionBy,
@@ -3167,6 +3382,8 @@ public class TableWriter implements Closeable {
         final long rowsAdded = txWriter.getRowCount() - committedRowCount;
         final long transientRowsAdded = Math.min(txWriter.getTransientRowCount(), rowsAdded);
         if (transientRowsAdded > 0) {
+            // uncommitted rows are read back from column files
+            flushColumns();
             LOG.debug()
                     .$("o3 move uncommitted [table=").$(tableName)
                     .$(", transientRowsAdded=").$(transientRowsAdded)
@@ -3831,6 +4048,8 @@ public class TableWriter implements Closeable {
             MemoryMA mem2 = getSecondaryColumn(columnCount - 1);
             if (mem2 != null) {
                 mem2.putLong(0);
+                // column is added outside of commit, readers will be looking for this offset
+                mem2.flush();
             }
 
         } finally {
@@ -4003,6 +4222,26 @@ public class TableWriter implements Closeable {
         }
     }
 
+    private void processSymbolIndexRemoveCandidates() {
+        final int n = symbolIndexRemoveCandidateNames.size();
+        if (n == 0 || checkScoreboardHasReadersBeforeTxn(symbolIndexRemoveMinReaderTxn)) {
+            // readers of previous transactions could still be opening replaced index, try again after next commit
+            return;
+        }
+        try {
+            for (int i = 0; i < n; i++) {
+                final String columnName = symbolIndexRemoveCandidateNames.getQuick(i);
+                final long indexNameTxn = symbolIndexRemoveCandidateTxns.getQuick(i);
+                removeFileAndOrLog(ff, BitmapIndexUtils.keyFileName(other.trimTo(rootLen), columnName, indexNameTxn));
+                removeFileAndOrLog(ff, BitmapIndexUtils.valueFileName(other.trimTo(rootLen), columnName, indexNameTxn));
+            }
+        } finally {
+            other.trimTo(rootLen);
+            symbolIndexRemoveCandidateNames.clear();
+            symbolIndexRemoveCandidateTxns.clear();
+        }
+    }
+
     private void recoverFromMetaRenameFailure(CharSequence columnName) {
         openMetaFile(ff, path, rootLen, metaMem);
     }
@@ -4062,7 +4301,44 @@ public class TableWriter implements Closeable {
         }
     }
 
-    private void removeColumnFiles(CharSequence columnName, int columnIndex, int columnType) {
+    /**
+     * Rebuilds indexes of symbol maps, which outgrew their load factor. Index files are named by the
+     * transaction being committed and readers pick them up from the symbol map header. Rehash is an
+     * optimisation, failure to rebuild index is logged and commit goes ahead with the current index.
+     */
+    private void rehashSymbolMapWriters() {
+        final TableWriterMetrics writerMetrics = metrics.tableWriter();
+        for (int i = 0, n = symbolMapWriters.size(); i < n; i++) {
+            final MapWriter mapWriter = symbolMapWriters.getQuick(i);
+            if (!(mapWriter instanceof SymbolMapWriter)) {
+                continue;
+            }
+            final SymbolMapWriter symbolMapWriter = (SymbolMapWriter) mapWriter;
+            writerMetrics.addSymbolMapLookups(symbolMapWriter.getLookupCount(), symbolMapWriter.getChainLength());
+            symbolMapWriter.resetLookupStats();
+            if (symbolMapWriter.isRehashRequired()) {
+                final String columnName = metadata.getColumnName(i);
+                final long indexNameTxn = txWriter.getTxn() + 1;
+                try {
+                    final long prevIndexNameTxn = symbolMapWriter.rehash(path.trimTo(rootLen), columnName, indexNameTxn);
+                    symbolIndexRemoveCandidateNames.add(columnName);
+                    symbolIndexRemoveCandidateTxns.add(prevIndexNameTxn);
+                    symbolIndexRemoveMinReaderTxn = indexNameTxn;
+                    writerMetrics.incrementSymbolMapRehashes();
+                } catch (CairoException e) {
+                    LOG.error().$("could not rehash symbol map [table=").$(tableName)
+                            .$(", column=").utf8(columnName)
+                            .$(", error=").$(e.getFlyweightMessage())
+                            .$(", errno=").$(e.getErrno())
+                            .I$();
+                } finally {
+                    path.trimTo(rootLen);
+                }
+            }
+        }
+    }
+
+    private void removeColumnFiles(CharSequence columnName, int columnIndex, int columnType, long symbolIndexNameTxn) {
         try {
             for (int i = txWriter.getPartitionCount() - 1; i > -1L; i--) {
                 long partitionTimestamp = txWriter.getPartitionTimestamp(i);
@@ -4079,6 +4355,10 @@ public class TableWriter implements Closeable {
                 removeFileAndOrLog(ff, charFileName(path.trimTo(rootLen), columnName, columnNameTxn));
                 removeFileAndOrLog(ff, BitmapIndexUtils.keyFileName(path.trimTo(rootLen), columnName, columnNameTxn));
                 removeFileAndOrLog(ff, BitmapIndexUtils.valueFileName(path.trimTo(rootLen), columnName, columnNameTxn));
+                if (symbolIndexNameTxn > -1) {
+                    removeFileAndOrLog(ff, BitmapIndexUtils.keyFileName(path.trimTo(rootLen), columnName, symbolIndexNameTxn));
+                    removeFileAndOrLog(ff, BitmapIndexUtils.valueFileName(path.trimTo(rootLen), columnName, symbolIndexNameTxn));
+                }
             }
         } finally {
             path.trimTo(rootLen);
@@ -4187,7 +4467,7 @@ public class TableWriter implements Closeable {
     }
 
     private void removePartitionDirectories0(long pUtf8NameZ, int type) {
-        if (Files.isDir(pUtf8NameZ, type)) {
+        if (Files.isDirOrSoftLink(pUtf8NameZ, type, fileNameSink)) {
             path.trimTo(rootLen);
             path.concat(pUtf8NameZ).$();
             int errno;
@@ -4198,7 +4478,7 @@ public class TableWriter implements Closeable {
     }
 
     private void removePartitionDirsNotAttached(long pUtf8NameZ, int type) {
-        if (Files.isDir(pUtf8NameZ, type, fileNameSink)) {
+        if (Files.isDirOrSoftLink(pUtf8NameZ, type, fileNameSink)) {
 
             if (Chars.endsWith(fileNameSink, DETACHED_DIR_MARKER)) {
                 // Do not remove detached partitions
@@ -4313,6 +4593,11 @@ public class TableWriter implements Closeable {
                 renameFileOrLog(ff, charFileName(path.trimTo(rootLen), columnName, columnNameTxn), charFileName(other.trimTo(rootLen), newName, columnNameTxn));
                 renameFileOrLog(ff, BitmapIndexUtils.keyFileName(path.trimTo(rootLen), columnName, columnNameTxn), BitmapIndexUtils.keyFileName(other.trimTo(rootLen), newName, columnNameTxn));
                 renameFileOrLog(ff, BitmapIndexUtils.valueFileName(path.trimTo(rootLen), columnName, columnNameTxn), BitmapIndexUtils.valueFileName(other.trimTo(rootLen), newName, columnNameTxn));
+                final long indexNameTxn = getRehashedSymbolIndexNameTxn(columnIndex);
+                if (indexNameTxn > -1) {
+                    renameFileOrLog(ff, BitmapIndexUtils.keyFileName(path.trimTo(rootLen), columnName, indexNameTxn), BitmapIndexUtils.keyFileName(other.trimTo(rootLen), newName, indexNameTxn));
+                    renameFileOrLog(ff, BitmapIndexUtils.valueFileName(path.trimTo(rootLen), columnName, indexNameTxn), BitmapIndexUtils.valueFileName(other.trimTo(rootLen), newName, indexNameTxn));
+                }
             }
         } finally {
             path.trimTo(rootLen);
@@ -4862,6 +5147,7 @@ public class TableWriter implements Closeable {
         // Before partition can be switched we need to index records
         // added so far. Index writers will start point to different
         // files after switch.
+        flushColumns();
         updateIndexes();
         txWriter.switchPartitions(timestamp);
         openPartition(timestamp);
@@ -37,6 +37,7 @@ public class TableWriterMetadata extends BaseRecordMetadata {
     private int version;
     private int maxUncommittedRows;
     private long commitLag;
+    private long coldTierAfter;
     private long structureVersion;
 
     public TableWriterMetadata(MemoryMR metaMem) {
@@ -46,6 +47,7 @@ public class TableWriterMetadata extends BaseRecordMetadata {
         this.id = metaMem.getInt(TableUtils.META_OFFSET_TABLE_ID);
         this.maxUncommittedRows = metaMem.getInt(TableUtils.META_OFFSET_MAX_UNCOMMITTED_ROWS);
         this.commitLag = metaMem.getLong(TableUtils.META_OFFSET_COMMIT_LAG);
+        this.coldTierAfter = metaMem.getLong(TableUtils.META_OFFSET_COLD_TIER_AFTER);
         TableUtils.validate(metaMem, columnNameIndexMap, ColumnType.VERSION);
         this.timestampIndex = metaMem.getInt(TableUtils.META_OFFSET_TIMESTAMP_INDEX);
         this.columnMetadata = new ObjList<>(this.columnCount);
@@ -99,6 +101,14 @@ public class TableWriterMetadata extends BaseRecordMetadata {
         this.commitLag = micros;
     }
 
+    public long getColdTierAfter() {
+        return coldTierAfter;
+    }
+
+    public void setColdTierAfter(long micros) {
+        this.coldTierAfter = micros;
+    }
+
     public int getFileDataSize() {
         return metaFileSize;
     }
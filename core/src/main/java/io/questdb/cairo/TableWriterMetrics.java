@@ -26,6 +26,7 @@ package io.questdb.cairo;
 
 import io.questdb.metrics.Counter;
 import io.questdb.metrics.MetricsRegistry;
+import org.jetbrains.annotations.TestOnly;
 
 public class TableWriterMetrics {
 
@@ -34,12 +35,33 @@ public class TableWriterMetrics {
     private final Counter o3CommitCounter;
     private final Counter committedRowCounter;
     private final Counter rollbackCounter;
+    // symbol map lookups that probed index and index values they visited,
+    // ratio of the two is average chain length
+    private final Counter symbolMapLookupCounter;
+    private final Counter symbolMapChainLengthCounter;
+    private final Counter symbolMapRehashCounter;
+    private final Counter o3RowCounter;
+    private final Counter o3CommitTimeCounter;
+    private final Counter o3BytesWrittenCounter;
+    // O3 partition, open column and copy tasks published to the worker pool
+    // versus those executed by the publishing thread because the queue was full
+    // or the table reached its partition concurrency limit
+    private final Counter o3TasksQueuedCounter;
+    private final Counter o3TasksStolenCounter;
 
     public TableWriterMetrics(MetricsRegistry metricsRegistry) {
         this.commitCounter = metricsRegistry.newCounter("commits");
         this.o3CommitCounter = metricsRegistry.newCounter("o3_commits");
         this.committedRowCounter = metricsRegistry.newCounter("committed_rows");
         this.rollbackCounter = metricsRegistry.newCounter("rollbacks");
+        this.symbolMapLookupCounter = metricsRegistry.newCounter("symbol_map_lookups");
+        this.symbolMapChainLengthCounter = metricsRegistry.newCounter("symbol_map_chain_length");
+        this.symbolMapRehashCounter = metricsRegistry.newCounter("symbol_map_rehashes");
+        this.o3RowCounter = metricsRegistry.newCounter("o3_rows");
+        this.o3CommitTimeCounter = metricsRegistry.newCounter("o3_commit_time_micros");
+        this.o3BytesWrittenCounter = metricsRegistry.newCounter("o3_bytes_written");
+        this.o3TasksQueuedCounter = metricsRegistry.newCounter("o3_tasks_queued");
+        this.o3TasksStolenCounter = metricsRegistry.newCounter("o3_tasks_stolen");
     }
 
     public void incrementCommits() {
@@ -57,4 +79,72 @@ public class TableWriterMetrics {
     public void incrementRollbacks() {
         rollbackCounter.inc();
     }
+
+    public void addSymbolMapLookups(long lookups, long chainLength) {
+        if (lookups > 0) {
+            symbolMapLookupCounter.add(lookups);
+            symbolMapChainLengthCounter.add(chainLength);
+        }
+    }
+
+    public void incrementSymbolMapRehashes() {
+        symbolMapRehashCounter.inc();
+    }
+
+    public void addO3Commit(long rows, long micros) {
+        o3RowCounter.add(rows);
+        o3CommitTimeCounter.add(micros);
+    }
+
+    public void addO3BytesWritten(long bytes) {
+        o3BytesWrittenCounter.add(bytes);
+    }
+
+    public void incrementO3TasksQueued() {
+        o3TasksQueuedCounter.inc();
+    }
+
+    public void incrementO3TasksStolen() {
+        o3TasksStolenCounter.inc();
+    }
+
+    @TestOnly
+    public long o3BytesWritten() {
+        return o3BytesWrittenCounter.get();
+    }
+
+    @TestOnly
+    public long o3CommitTime() {
+        return o3CommitTimeCounter.get();
+    }
+
+    @TestOnly
+    public long o3RowCount() {
+        return o3RowCounter.get();
+    }
+
+    @TestOnly
+    public long o3TasksQueued() {
+        return o3TasksQueuedCounter.get();
+    }
+
+    @TestOnly
+    public long o3TasksStolen() {
+        return o3TasksStolenCounter.get();
+    }
+
+    @TestOnly
+    public long symbolMapChainLength() {
+        return symbolMapChainLengthCounter.get();
+    }
+
+    @TestOnly
+    public long symbolMapLookupCount() {
+        return symbolMapLookupCounter.get();
+    }
+
+    @TestOnly
+    public long symbolMapRehashCount() {
+        return symbolMapRehashCounter.get();
+    }
 }
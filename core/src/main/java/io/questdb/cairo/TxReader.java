@@ -39,6 +39,10 @@ public class TxReader implements Closeable, Mutable {
     protected static final int PARTITION_SIZE_OFFSET = 1;
     protected static final int PARTITION_NAME_TX_OFFSET = 2;
     protected static final int PARTITION_DATA_TX_OFFSET = 3;
+    // set on partition name txn when partition directory is moved to cold storage tier,
+    // the directory under table root is then a soft link to the cold tier directory;
+    // introduced with metadata version 427, older versions do not open tables that may carry the flag
+    protected static final long PARTITION_COLD_TIER_FLAG = 1L << 62;
     private static final long DEFAULT_PARTITION_TIMESTAMP = 0L;
     protected final LongList attachedPartitions = new LongList();
     private final IntList symbolCountSnapshot = new IntList();
@@ -127,17 +131,26 @@ public class TxReader implements Closeable, Mutable {
     }
 
     public long getPartitionNameTxnByIndex(int index) {
-        return attachedPartitions.getQuick(index + PARTITION_NAME_TX_OFFSET);
+        return toNameTxn(attachedPartitions.getQuick(index + PARTITION_NAME_TX_OFFSET));
     }
 
     public long getPartitionNameTxnByPartitionTimestamp(long ts) {
         final int index = findAttachedPartitionIndex(ts);
         if (index > -1) {
-            return attachedPartitions.getQuick(index + PARTITION_NAME_TX_OFFSET);
+            return toNameTxn(attachedPartitions.getQuick(index + PARTITION_NAME_TX_OFFSET));
         }
         return -1;
     }
 
+    public boolean isPartitionCold(int i) {
+        return isColdTier(attachedPartitions.getQuick(i * LONGS_PER_TX_ATTACHED_PARTITION + PARTITION_NAME_TX_OFFSET));
+    }
+
+    public boolean isPartitionColdByPartitionTimestamp(long ts) {
+        final int index = findAttachedPartitionIndex(ts);
+        return index > -1 && isColdTier(attachedPartitions.getQuick(index + PARTITION_NAME_TX_OFFSET));
+    }
+
     public long getPartitionSize(int i) {
         return getPartitionSizeByIndex(i * LONGS_PER_TX_ATTACHED_PARTITION);
     }
@@ -304,6 +317,14 @@ public class TxReader implements Closeable, Mutable {
         return TX_RECORD_HEADER_SIZE + 4 + bytesSymbols + 4 + bytesPartitions;
     }
 
+    private static boolean isColdTier(long nameTxn) {
+        return nameTxn > -1 && (nameTxn & PARTITION_COLD_TIER_FLAG) != 0;
+    }
+
+    private static long toNameTxn(long nameTxn) {
+        return nameTxn > -1 ? nameTxn & ~PARTITION_COLD_TIER_FLAG : nameTxn;
+    }
+
     private void clearData() {
         baseOffset = 0;
         size = 0;
@@ -342,6 +363,8 @@ public class TxReader implements Closeable, Mutable {
                 } else {
                     roTxMemBase.of(ff, path, ff.getPageSize(), ff.length(path), MemoryTag.MMAP_DEFAULT);
                 }
+                // small file, read on every reload
+                roTxMemBase.advise(Files.MADV_WILLNEED);
                 return;
             }
             throw CairoException.instance(ff.errno()).put("Cannot append. File does not exist: ").put(path);
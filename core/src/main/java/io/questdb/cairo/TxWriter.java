@@ -348,6 +348,14 @@ public final class TxWriter extends TxReader implements Closeable, Mutable, Symb
         updateAttachedPartitionSizeByTimestamp(timestamp, rowCount);
     }
 
+    void markPartitionCold(long partitionTimestamp) {
+        final int index = findAttachedPartitionIndexByLoTimestamp(partitionTimestamp);
+        assert index > -1;
+        // partition gets new name txn, readers reopen it from the cold tier path
+        attachedPartitions.set(index + PARTITION_NAME_TX_OFFSET, txn | PARTITION_COLD_TIER_FLAG);
+        bumpPartitionTableVersion();
+    }
+
     void bumpPartitionTableVersion() {
         recordStructureVersion++;
         partitionTableVersion++;
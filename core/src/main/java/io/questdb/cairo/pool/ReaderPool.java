@@ -29,12 +29,15 @@ import io.questdb.cairo.CairoConfiguration;
 import io.questdb.cairo.CairoException;
 import io.questdb.cairo.EntryUnavailableException;
 import io.questdb.cairo.TableReader;
+import io.questdb.cairo.TableReaderMetrics;
 import io.questdb.cairo.pool.ex.EntryLockedException;
 import io.questdb.cairo.pool.ex.PoolClosedException;
 import io.questdb.log.Log;
 import io.questdb.log.LogFactory;
+import io.questdb.metrics.NullMetricsRegistry;
 import io.questdb.std.ConcurrentHashMap;
 import io.questdb.std.Unsafe;
+import io.questdb.std.datetime.microtime.MicrosecondClock;
 
 import java.util.Arrays;
 import java.util.Map;
@@ -53,12 +56,18 @@ public class ReaderPool extends AbstractPool implements ResourcePool<TableReader
     private final int maxSegments;
     private final MessageBus messageBus;
     private final int maxEntries;
+    private final TableReaderMetrics metrics;
 
     public ReaderPool(CairoConfiguration configuration, MessageBus messageBus) {
+        this(configuration, messageBus, new TableReaderMetrics(new NullMetricsRegistry()));
+    }
+
+    public ReaderPool(CairoConfiguration configuration, MessageBus messageBus, TableReaderMetrics metrics) {
         super(configuration, configuration.getInactiveReaderTTL());
         this.maxSegments = configuration.getReaderPoolMaxSegments();
         this.messageBus = messageBus;
         this.maxEntries = maxSegments * ENTRY_SIZE;
+        this.metrics = metrics;
     }
 
     @Override
@@ -95,7 +104,10 @@ public class ReaderPool extends AbstractPool implements ResourcePool<TableReader
                         notifyListener(thread, name, PoolListener.EV_CREATE, e.index, i);
                     } else {
                         try {
+                            final MicrosecondClock clock = getConfiguration().getMicrosecondClock();
+                            final long start = clock.getTicks();
                             r.goActive();
+                            metrics.addReload(clock.getTicks() - start);
                         } catch (Throwable ex) {
                             r.close();
                             throw ex;
@@ -356,7 +368,7 @@ public class ReaderPool extends AbstractPool implements ResourcePool<TableReader
         private Entry entry;
 
         public R(ReaderPool pool, Entry entry, int index, CharSequence name, MessageBus messageBus) {
-            super(pool.getConfiguration(), name, messageBus);
+            super(pool.getConfiguration(), name, messageBus, pool.metrics);
             this.pool = pool;
             this.entry = entry;
             this.index = index;
@@ -0,0 +1,62 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2022 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.cairo.sql;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.io.Closeable;
+
+/**
+ * Cursor over batches of rows. Batch instance is reused by the cursor, it must be processed before
+ * subsequent call to next(). Selection of each batch initially contains all of its rows.
+ */
+public interface BatchCursor extends Closeable, SymbolTableSource {
+
+    @Override
+    void close(); // we don't throw IOException
+
+    /**
+     * @return record that {@link RecordBatch#getRecord(int)} positions at rows of batches
+     */
+    Record getRecord();
+
+    /**
+     * @return record for random access, see {@link RecordCursor#getRecordB()}
+     */
+    Record getRecordB();
+
+    @Nullable RecordBatch next();
+
+    /**
+     * Positions record at row id of a batch row.
+     *
+     * @param record  record of this cursor
+     * @param atRowId row id returned by record of a batch
+     */
+    void recordAt(Record record, long atRowId);
+
+    void toTop();
+}
@@ -70,6 +70,15 @@ public interface DataFrameCursor extends Closeable, SymbolTableSource  {
 
     StaticSymbolTable getSymbolTable(int columnIndex);
 
+    /**
+     * Hints kernel on how column memory of data frames returned by this cursor is going to
+     * be accessed. Advice is reset to cursor's default when cursor is reopened.
+     *
+     * @param advice one of Files.MADV_* constants
+     */
+    default void setMemoryAdvice(int advice) {
+    }
+
     /**
      * @return  true if cursor supports random record access (without having to iterate through all results).
      */
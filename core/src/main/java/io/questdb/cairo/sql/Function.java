@@ -62,6 +62,25 @@ public interface Function extends Closeable {
 
     boolean getBool(Record rec);
 
+    /**
+     * Narrows selection of the batch to rows for which the function is true.
+     *
+     * @param batch batch of rows
+     * @return number of rows that remain selected
+     */
+    default int filterBatch(RecordBatch batch) {
+        final int[] selection = batch.getSelection();
+        int count = 0;
+        for (int i = 0, n = batch.getSelectedCount(); i < n; i++) {
+            final int row = selection[i];
+            if (getBool(batch.getRecord(row))) {
+                selection[count++] = row;
+            }
+        }
+        batch.setSelectedCount(count);
+        return count;
+    }
+
     byte getByte(Record rec);
 
     char getChar(Record rec);
@@ -70,12 +89,36 @@ public interface Function extends Closeable {
 
     double getDouble(Record rec);
 
+    /**
+     * Evaluates the function for selected rows of the batch. Functions that can read column vectors
+     * directly override this method with loops over the whole batch.
+     *
+     * @param batch  batch of rows
+     * @param values values in the order of batch selection, array must fit {@link RecordBatch#MAX_SIZE} values
+     */
+    default void getDoubleBatch(RecordBatch batch, double[] values) {
+        final int[] selection = batch.getSelection();
+        for (int i = 0, n = batch.getSelectedCount(); i < n; i++) {
+            values[i] = getDouble(batch.getRecord(selection[i]));
+        }
+    }
+
     float getFloat(Record rec);
 
     int getInt(Record rec);
 
     long getLong(Record rec);
 
+    /**
+     * @see #getDoubleBatch(RecordBatch, double[])
+     */
+    default void getLongBatch(RecordBatch batch, long[] values) {
+        final int[] selection = batch.getSelection();
+        for (int i = 0, n = batch.getSelectedCount(); i < n; i++) {
+            values[i] = getLong(batch.getRecord(selection[i]));
+        }
+    }
+
     void getLong256(Record rec, CharSink sink);
 
     Long256 getLong256A(Record rec);
@@ -48,4 +48,17 @@ public interface PageFrameCursor extends Closeable {
     long size();
 
     SymbolMapReader getSymbolMapReader(int columnIndex);
+
+    /**
+     * Memory of table page frames stays valid until the cursor is closed, so frames can be
+     * handed over to other threads while the cursor moves on. Cursors that compute frames on
+     * the fly reuse frame memory, only page addresses of the most recent frames remain valid.
+     * Consumers that hand frames over must wait for them to be processed once the window fills up
+     * and before calling next() again.
+     *
+     * @return number of most recent frames, including the current one, which page addresses remain valid
+     */
+    default int getFrameMemoryWindow() {
+        return Integer.MAX_VALUE;
+    }
 }
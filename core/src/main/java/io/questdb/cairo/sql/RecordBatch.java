@@ -0,0 +1,68 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2022 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.cairo.sql;
+
+/**
+ * Batch of consecutive rows of a page frame, which is processed by functions and operators as a whole
+ * rather than row-at-a-time. Rows that take part in processing are listed in the selection vector,
+ * filters narrow the selection in place. Values produced for a batch follow the order of the selection,
+ * i.e. value at position i belongs to row getSelection()[i].
+ */
+public interface RecordBatch {
+    int MAX_SIZE = 4096;
+
+    /**
+     * Address of the first value of fixed size column in the batch. Value of row i is located at
+     * address + (i << shift bits of column type).
+     *
+     * @param columnIndex index of fixed size column
+     * @return address of column values or 0 when all values of the column are null, e.g. column top
+     */
+    long getColumnAddress(int columnIndex);
+
+    /**
+     * Positions batch record at the given row. Used by functions that do not have batch implementation.
+     *
+     * @param row row position within the batch
+     * @return record, which is reused between calls
+     */
+    Record getRecord(int row);
+
+    int getRowCount();
+
+    int getSelectedCount();
+
+    int[] getSelection();
+
+    /**
+     * @return true when all rows of the batch are selected in order, so that selection vector can be ignored
+     */
+    default boolean isDense() {
+        return getSelectedCount() == getRowCount();
+    }
+
+    void setSelectedCount(int count);
+}
@@ -78,6 +78,18 @@ public interface RecordCursorFactory extends Closeable, Sinkable {
      */
     RecordCursor getCursor(SqlExecutionContext executionContext) throws SqlException;
 
+    /**
+     * Creates cursor, which returns rows in batches rather than row-at-a-time. Batch cursor
+     * is available when {@link #supportBatchCursor()} is true.
+     *
+     * @param executionContext name of a SQL execution context
+     * @return instance of batch cursor or null when factory does not support batches
+     * @throws SqlException when cursor cannot be produced due a deferred SQL syntax error
+     */
+    default BatchCursor getBatchCursor(SqlExecutionContext executionContext) throws SqlException {
+        return null;
+    }
+
     /**
      * Metadata of the SQL result. It includes column names, indexes and types.
      *
@@ -91,6 +103,10 @@ public interface RecordCursorFactory extends Closeable, Sinkable {
 
     boolean recordCursorSupportsRandomAccess();
 
+    default boolean supportBatchCursor() {
+        return false;
+    }
+
     default boolean supportPageFrameCursor() {
         return false;
     }
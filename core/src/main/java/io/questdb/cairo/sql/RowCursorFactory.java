@@ -46,4 +46,11 @@ public interface RowCursorFactory {
     }
 
     boolean isEntity();
+
+    /**
+     * @return true when rows are located via bitmap index, in which case column memory is accessed at random
+     */
+    default boolean isUsingIndex() {
+        return false;
+    }
 }
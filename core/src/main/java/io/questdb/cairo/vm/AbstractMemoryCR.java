@@ -51,6 +51,12 @@ public abstract class AbstractMemoryCR implements MemoryCR {
         return 0;
     }
 
+    public void advise(int advice) {
+        if (pageAddress != 0) {
+            ff.madvise(pageAddress, size, advice);
+        }
+    }
+
     public final BinarySequence getBin(long offset) {
         return getBin(offset, bsview);
     }
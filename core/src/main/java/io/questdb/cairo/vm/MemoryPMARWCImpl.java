@@ -0,0 +1,229 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2022 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.cairo.vm;
+
+import io.questdb.cairo.CairoConfiguration;
+import io.questdb.cairo.CairoException;
+import io.questdb.cairo.TableUtils;
+import io.questdb.cairo.vm.api.MemoryMAR;
+import io.questdb.log.Log;
+import io.questdb.log.LogFactory;
+import io.questdb.std.Files;
+import io.questdb.std.FilesFacade;
+import io.questdb.std.MemoryTag;
+import io.questdb.std.Unsafe;
+import io.questdb.std.str.LPSZ;
+
+/**
+ * Write-combining variant of {@link MemoryPMARImpl}. Instead of mapping file pages, appended
+ * values are collected in a small off-heap staging page, which is written out to the file in bulk
+ * when append moves to the next page and on {@link #flush()}. Wide tables append to hundreds
+ * of column files at a time, staging pages keep the writer away from page faults and remapping
+ * of the column files.
+ * <p>
+ * Data is visible to file readers, such as indexers and table readers, only after it is flushed.
+ */
+public class MemoryPMARWCImpl extends MemoryPARWImpl implements MemoryMAR {
+    private static final Log LOG = LogFactory.getLog(MemoryPMARWCImpl.class);
+    private final long stagingPageSize;
+    private FilesFacade ff;
+    private long fd = -1;
+    private long pageAddress = 0;
+    private int stagedPage = -1;
+    // file offset of first appended byte of staged page, which is not written to the file yet
+    private long dirtyLo;
+
+    public MemoryPMARWCImpl(long stagingPageSize) {
+        this.stagingPageSize = Math.max(stagingPageSize, Files.PAGE_SIZE);
+    }
+
+    @Override
+    public final void close(boolean truncate) {
+        long sz = getAppendOffset();
+        try {
+            if (fd != -1) {
+                flush();
+            }
+        } finally {
+            stagedPage = -1;
+            super.close();
+            if (pageAddress != 0) {
+                Unsafe.free(pageAddress, getExtendSegmentSize(), MemoryTag.NATIVE_TABLE_WRITER);
+                pageAddress = 0;
+            }
+            if (fd != -1) {
+                try {
+                    Vm.bestEffortClose(ff, LOG, fd, truncate, sz);
+                } finally {
+                    fd = -1;
+                }
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        close(true);
+    }
+
+    @Override
+    public void flush() {
+        if (stagedPage > -1) {
+            flush(Math.min(getAppendOffset(), pageOffset(stagedPage + 1)));
+        }
+    }
+
+    /**
+     * O3 writes directly to the file when it cannot append to the current page. Staging page does not
+     * reflect file content until writer jumps to the new append position, which is what we want for O3.
+     *
+     * @return always 0
+     */
+    @Override
+    public long getAppendAddressSize() {
+        return 0;
+    }
+
+    public long getFd() {
+        return fd;
+    }
+
+    @Override
+    public FilesFacade getFilesFacade() {
+        return ff;
+    }
+
+    @Override
+    public long getPageAddress(int page) {
+        if (page == stagedPage) {
+            return pageAddress;
+        }
+        return 0L;
+    }
+
+    @Override
+    public void jumpTo(long offset) {
+        // jump may land in the part of file written bypassing staging page,
+        // write out what we have and re-read the page
+        flush();
+        stagedPage = -1;
+        clear();
+        super.jumpTo(offset);
+    }
+
+    public final void of(FilesFacade ff, LPSZ name, long extendSegmentSize, int memoryTag, long opts) {
+        close();
+        this.memoryTag = memoryTag;
+        this.ff = ff;
+        // index sliders map the file by pages of this memory, those have to be aligned for mmap
+        setExtendSegmentSize(Math.max(stagingPageSize, ff.getPageSize()));
+        pageAddress = Unsafe.malloc(getExtendSegmentSize(), MemoryTag.NATIVE_TABLE_WRITER);
+        fd = TableUtils.openFileRWOrFail(ff, name, opts);
+        LOG.debug().$("open ").$(name).$(" [fd=").$(fd).$(", stagingPageSize=").$(getExtendSegmentSize()).$(']').$();
+    }
+
+    @Override
+    public void of(FilesFacade ff, LPSZ name, long extendSegmentSize, long size, int memoryTag, long opts) {
+        of(ff, name, extendSegmentSize, memoryTag, opts);
+    }
+
+    @Override
+    public void skip(long bytes) {
+        jumpTo(getAppendOffset() + bytes);
+    }
+
+    public void sync(boolean async) {
+        if (fd != -1) {
+            flush();
+            if (ff.fsync(fd) != 0) {
+                LOG.error().$("could not fsync [fd=").$(fd).$(", errno=").$(ff.errno()).$(']').$();
+            }
+        }
+    }
+
+    public void truncate() {
+        if (fd == -1) {
+            // are we closed ?
+            return;
+        }
+        stagedPage = -1;
+        clear();
+        if (!ff.truncate(Math.abs(fd), getExtendSegmentSize())) {
+            throw CairoException.instance(ff.errno()).put("Cannot truncate fd=").put(fd).put(" to ").put(getExtendSegmentSize()).put(" bytes");
+        }
+        jumpTo(0);
+        LOG.debug().$("truncated [fd=").$(fd).$(']').$();
+    }
+
+    @Override
+    public void wholeFile(FilesFacade ff, LPSZ name, int memoryTag) {
+        of(ff, name, ff.getMapPageSize(), memoryTag, CairoConfiguration.O_NONE);
+    }
+
+    @Override
+    protected long mapWritePage(int page, long offset) {
+        final long pageOffset = pageOffset(page);
+        if (stagedPage > -1) {
+            // append moved on to the next page, whole staged page is written out
+            assert page == stagedPage + 1;
+            flush(pageOffset);
+            dirtyLo = pageOffset;
+        } else {
+            // we jumped here, page may have been written before and has to be read back in
+            final long len = Math.min(ff.length(fd) - pageOffset, getExtendSegmentSize());
+            if (len > 0 && ff.read(fd, pageAddress, len, pageOffset) != len) {
+                throw CairoException.instance(ff.errno()).put("could not read staged page [fd=").put(fd)
+                        .put(", offset=").put(pageOffset)
+                        .put(", len=").put(len)
+                        .put(']');
+            }
+            // offset is not always the append offset, e.g. the first put into an empty memory maps the page
+            // for the byte after it, anything from append offset onwards is not in the file yet
+            dirtyLo = Math.max(pageOffset, Math.min(offset, getAppendOffset()));
+        }
+        // random access window may still point at the staging page on behalf of the page it held before
+        clearHotPage();
+        stagedPage = page;
+        return pageAddress;
+    }
+
+    @Override
+    protected void release(long address) {
+        // staging page is released on close
+    }
+
+    private void flush(long hi) {
+        final long len = hi - dirtyLo;
+        if (len > 0) {
+            if (ff.write(fd, pageAddress + dirtyLo - pageOffset(stagedPage), len, dirtyLo) != len) {
+                throw CairoException.instance(ff.errno()).put("could not write staged page [fd=").put(fd)
+                        .put(", offset=").put(dirtyLo)
+                        .put(", len=").put(len)
+                        .put(']');
+            }
+            dirtyLo = hi;
+        }
+    }
+}
@@ -84,6 +84,10 @@ public class Vm {
         return new MemoryPMARImpl();
     }
 
+    public static MemoryMA getWCMAInstance(long stagingPageSize) {
+        return new MemoryPMARWCImpl(stagingPageSize);
+    }
+
     public static MemoryMAR getMARInstance() {
         return new MemoryPMARImpl();
     }
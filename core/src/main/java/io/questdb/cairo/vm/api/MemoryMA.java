@@ -31,6 +31,13 @@ public interface MemoryMA extends MemoryM, MemoryA {
 
     void close(boolean truncate);
 
+    /**
+     * Writes out appended data held by the memory itself, making it visible to those reading the file.
+     * Memory appending directly to the mapped file has nothing to flush.
+     */
+    default void flush() {
+    }
+
     long getAppendAddress();
 
     long getAppendAddressSize();
@@ -25,6 +25,15 @@
 package io.questdb.cairo.vm.api;
 
 public interface MemoryMR extends MemoryM, MemoryR {
+
+    /**
+     * Hints kernel on how mapped memory is going to be accessed.
+     *
+     * @param advice one of Files.MADV_* constants
+     */
+    default void advise(int advice) {
+    }
+
     default void growToFileSize() {
         extend(getFilesFacade().length(getFd()));
     }
@@ -33,6 +33,7 @@ import io.questdb.log.LogFactory;
 import io.questdb.network.*;
 import io.questdb.std.*;
 import io.questdb.std.str.DirectByteCharSequence;
+import io.questdb.std.datetime.millitime.MillisecondClock;
 import io.questdb.std.str.StdoutSink;
 
 import static io.questdb.network.IODispatcher.*;
@@ -61,6 +62,7 @@ public class HttpConnectionContext implements IOContext, Locality, Mutable, Retr
     };
     private final boolean serverKeepAlive;
     private final Runnable onPeerDisconnect;
+    private final MillisecondClock clock;
     private long fd;
     private HttpRequestProcessor resumeProcessor = null;
     private boolean pendingRetry = false;
@@ -68,6 +70,10 @@ public class HttpConnectionContext implements IOContext, Locality, Mutable, Retr
     private int nCompletedRequests;
     private long totalBytesSent;
     private int receivedBytes;
+    // bytes of the next pipelined request(s) received ahead of time,
+    // they are kept at the start of receive buffer
+    private int pipelinedBytes;
+    private long parkTimestamp;
 
     public HttpConnectionContext(HttpContextConfiguration configuration, Metrics metrics) {
         this.nf = configuration.getNetworkFacade();
@@ -85,6 +91,7 @@ public class HttpConnectionContext implements IOContext, Locality, Mutable, Retr
         this.serverKeepAlive = configuration.getServerKeepAlive();
         this.onPeerDisconnect = configuration.onPeerDisconnect();
         this.metrics = metrics;
+        this.clock = configuration.getClock();
     }
 
     @Override
@@ -92,7 +99,10 @@ public class HttpConnectionContext implements IOContext, Locality, Mutable, Retr
         LOG.debug().$("clear [fd=").$(fd).$(']').$();
         totalBytesSent += responseSink.getTotalBytesSent();
         nCompletedRequests++;
-        this.resumeProcessor = null;
+        if (this.resumeProcessor != null) {
+            metrics.httpConnection().markUnparked();
+            this.resumeProcessor = null;
+        }
         this.headerParser.clear();
         this.multipartContentParser.clear();
         this.multipartContentHeaderParser.clear();
@@ -123,6 +133,7 @@ public class HttpConnectionContext implements IOContext, Locality, Mutable, Retr
         this.fd = -1;
         nCompletedRequests = 0;
         totalBytesSent = 0;
+        pipelinedBytes = 0;
         csPool.clear();
         multipartContentParser.close();
         multipartContentHeaderParser.close();
@@ -194,9 +205,7 @@ public class HttpConnectionContext implements IOContext, Locality, Mutable, Retr
             } catch (PeerIsSlowToReadException e2) {
                 LOG.info().$("peer is slow on running the rerun [fd=").$(fd).$(", thread=")
                         .$(Thread.currentThread().getId()).$(']').$();
-                processor.parkRequest(this);
-                resumeProcessor = processor;
-                dispatcher.registerChannel(this, IOOperation.WRITE);
+                parkRequest(processor);
             } catch (ServerDisconnectException e) {
                 LOG.info().$("kicked out [fd=").$(fd).$(']').$();
                 dispatcher.disconnect(this, DISCONNECT_REASON_KICKED_OUT_AT_RERUN);
@@ -275,6 +284,7 @@ public class HttpConnectionContext implements IOContext, Locality, Mutable, Retr
     public HttpConnectionContext of(long fd, IODispatcher<HttpConnectionContext> dispatcher) {
         this.fd = fd;
         this.dispatcher = dispatcher;
+        this.pipelinedBytes = 0;
         this.responseSink.of(fd);
         return this;
     }
@@ -478,9 +488,7 @@ public class HttpConnectionContext implements IOContext, Locality, Mutable, Retr
             handlePeerDisconnect(DISCONNECT_REASON_PEER_DISCONNECT_AT_SEND);
         } catch (PeerIsSlowToReadException peerIsSlowToReadException) {
             LOG.info().$("peer is slow to receive failed to retry response [fd=").$(fd).$(']').$();
-            processor.parkRequest(this);
-            resumeProcessor = processor;
-            dispatcher.registerChannel(this, IOOperation.WRITE);
+            parkRequest(processor);
             canClear = false;
         } catch (ServerDisconnectException serverDisconnectException) {
             dispatcher.disconnect(this, reason);
@@ -510,6 +518,15 @@ public class HttpConnectionContext implements IOContext, Locality, Mutable, Retr
             int read = 0;
             final boolean newRequest = headerParser.isIncomplete();
             if (newRequest) {
+                if (pipelinedBytes > 0) {
+                    // next request has already been received, parse it before
+                    // going back to the socket
+                    read = pipelinedBytes;
+                    pipelinedBytes = 0;
+                    metrics.httpConnection().markPipelined();
+                    LOG.debug().$("pipelined [fd=").$(fd).$(", count=").$(read).$(']').$();
+                    headerEnd = headerParser.parse(recvBuffer, recvBuffer + read, true);
+                }
                 while (headerParser.isIncomplete()) {
                     // read headers
                     read = nf.recv(fd, recvBuffer, recvBufferSize);
@@ -559,13 +576,11 @@ public class HttpConnectionContext implements IOContext, Locality, Mutable, Retr
                     busyRecv = consumeMultipart(fd, processor, headerEnd, read, newRequest, rescheduleContext);
                 } else {
 
-                    // Do not expect any more bytes to be sent to us before
-                    // we respond back to client. We will disconnect the client when
-                    // they abuse protocol. In addition, we will not call processor
+                    // Bytes that follow the header belong to the next, pipelined, request.
+                    // We keep them at the start of receive buffer and read ahead whatever
+                    // else client has sent so far. In addition, we will not call processor
                     // if client has disconnected before we had a chance to reply.
-                    read = nf.recv(fd, recvBuffer, 1);
-                    if (read != 0) {
-                        dumpBuffer(recvBuffer, read);
+                    if (!readPipelined(headerEnd, read)) {
                         LOG.info().$("disconnect after request [fd=").$(fd).$(']').$();
                         handlePeerDisconnect(DISCONNECT_REASON_KICKED_OUT_AT_EXTRA_BYTES);
                         busyRecv = false;
@@ -590,11 +605,7 @@ public class HttpConnectionContext implements IOContext, Locality, Mutable, Retr
                 busyRecv = false;
             } catch (PeerIsSlowToReadException e) {
                 LOG.debug().$("peer is slow reader [two]").$();
-                // it is important to assign resume processor before we fire
-                // event off to dispatcher
-                processor.parkRequest(this);
-                resumeProcessor = processor;
-                dispatcher.registerChannel(this, IOOperation.WRITE);
+                parkRequest(processor);
                 busyRecv = false;
             }
         } catch (HttpException e) {
@@ -610,12 +621,12 @@ public class HttpConnectionContext implements IOContext, Locality, Mutable, Retr
             try {
                 responseSink.resumeSend();
                 resumeProcessor.resumeSend(this);
+                metrics.httpConnection().markResumed(clock.getTicks() - parkTimestamp);
                 clear();
                 return true;
             } catch (PeerIsSlowToReadException ignore) {
-                resumeProcessor.parkRequest(this);
                 LOG.debug().$("peer is slow reader").$();
-                dispatcher.registerChannel(this, IOOperation.WRITE);
+                parkRequest(resumeProcessor);
             } catch (PeerDisconnectedException ignore) {
                 handlePeerDisconnect(DISCONNECT_REASON_PEER_DISCONNECT_AT_SEND);
             } catch (ServerDisconnectException ignore) {
@@ -655,6 +666,46 @@ public class HttpConnectionContext implements IOContext, Locality, Mutable, Retr
         return false;
     }
 
+    private void parkRequest(HttpRequestProcessor processor) {
+        processor.parkRequest(this);
+        if (resumeProcessor == null) {
+            parkTimestamp = clock.getTicks();
+            metrics.httpConnection().markParked();
+        }
+        // it is important to assign resume processor before we fire
+        // event off to dispatcher
+        resumeProcessor = processor;
+        dispatcher.registerChannel(this, IOOperation.WRITE);
+    }
+
+    /**
+     * Moves bytes received past the end of request header to the start of receive
+     * buffer and reads ahead the rest of pipelined requests, as much as the buffer allows.
+     *
+     * @param headerEnd address in receive buffer where current request header ended
+     * @param read      number of bytes in receive buffer
+     * @return false when peer has disconnected
+     */
+    private boolean readPipelined(long headerEnd, int read) {
+        int pending = (int) (recvBuffer + read - headerEnd);
+        if (pending > 0 && headerEnd > recvBuffer) {
+            Vect.memmove(recvBuffer, headerEnd, pending);
+        } else if (pending < 0) {
+            pending = 0;
+        }
+
+        if (pending < recvBufferSize) {
+            final int n = nf.recv(fd, recvBuffer + pending, recvBufferSize - pending);
+            if (n < 0) {
+                return false;
+            }
+            dumpBuffer(recvBuffer + pending, n);
+            pending += n;
+        }
+        pipelinedBytes = pending;
+        return true;
+    }
+
     private boolean rejectRequest(CharSequence userMessage) throws PeerDisconnectedException, PeerIsSlowToReadException {
         clear();
         LOG.error().$(userMessage).$();
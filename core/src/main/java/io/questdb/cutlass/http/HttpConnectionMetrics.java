@@ -0,0 +1,95 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2022 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.cutlass.http;
+
+import io.questdb.metrics.Counter;
+import io.questdb.metrics.Gauge;
+import io.questdb.metrics.MetricsRegistry;
+import io.questdb.network.IODispatcher;
+import io.questdb.std.ObjList;
+import org.jetbrains.annotations.TestOnly;
+
+public class HttpConnectionMetrics {
+
+    private final Counter pipelinedRequestCounter;
+    private final Gauge parkedRequestGauge;
+    private final Counter resumedRequestCounter;
+    private final Counter resumeLatencyCounter;
+    // dispatchers of HTTP servers sharing the metrics, queue depth gauge is sum of their queues
+    private final ObjList<IODispatcher<?>> dispatchers = new ObjList<>();
+
+    public HttpConnectionMetrics(MetricsRegistry metricsRegistry) {
+        this.pipelinedRequestCounter = metricsRegistry.newCounter("http_pipelined_requests");
+        this.parkedRequestGauge = metricsRegistry.newGauge("http_parked_requests");
+        this.resumedRequestCounter = metricsRegistry.newCounter("http_resumed_requests");
+        // total time parked requests waited for the peer, divide by resumed request count for average
+        this.resumeLatencyCounter = metricsRegistry.newCounter("http_resume_latency_ms");
+        metricsRegistry.newVirtualGauge("http_io_queue_depth", this::getQueueDepth);
+    }
+
+    public synchronized void addDispatcher(IODispatcher<?> dispatcher) {
+        dispatchers.add(dispatcher);
+    }
+
+    public synchronized long getQueueDepth() {
+        long depth = 0;
+        for (int i = 0, n = dispatchers.size(); i < n; i++) {
+            depth += dispatchers.getQuick(i).getQueueDepth();
+        }
+        return depth;
+    }
+
+    public void markParked() {
+        parkedRequestGauge.inc();
+    }
+
+    public void markPipelined() {
+        pipelinedRequestCounter.inc();
+    }
+
+    public void markResumed(long latencyMs) {
+        resumedRequestCounter.inc();
+        resumeLatencyCounter.add(latencyMs);
+    }
+
+    public void markUnparked() {
+        parkedRequestGauge.dec();
+    }
+
+    public synchronized void removeDispatcher(IODispatcher<?> dispatcher) {
+        dispatchers.remove(dispatcher);
+    }
+
+    @TestOnly
+    public long pipelinedRequestCount() {
+        return pipelinedRequestCounter.get();
+    }
+
+    @TestOnly
+    public long resumedRequestCount() {
+        return resumedRequestCounter.get();
+    }
+}
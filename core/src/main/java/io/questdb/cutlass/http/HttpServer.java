@@ -34,6 +34,7 @@ import io.questdb.griffin.DatabaseSnapshotAgent;
 import io.questdb.griffin.FunctionFactoryCache;
 import io.questdb.griffin.engine.groupby.vect.GroupByJob;
 import io.questdb.griffin.engine.table.LatestByAllIndexedJob;
+import io.questdb.griffin.engine.table.LatestByScanJob;
 import io.questdb.log.Log;
 import io.questdb.log.LogFactory;
 import io.questdb.mp.*;
@@ -41,6 +42,7 @@ import io.questdb.network.IOContextFactory;
 import io.questdb.network.IODispatcher;
 import io.questdb.network.IODispatchers;
 import io.questdb.network.IORequestProcessor;
+import io.questdb.network.TlsNetworkFacade;
 import io.questdb.std.ThreadLocal;
 import io.questdb.std.*;
 import org.jetbrains.annotations.Nullable;
@@ -59,6 +61,7 @@ public class HttpServer implements Closeable {
     private final HttpContextFactory httpContextFactory;
     private final WorkerPool workerPool;
     private final WaitProcessor rescheduleContext;
+    private final HttpConnectionMetrics connectionMetrics;
 
     public HttpServer(HttpMinServerConfiguration configuration, MessageBus messageBus, Metrics metrics, WorkerPool pool, boolean localPool) {
         this.workerCount = pool.getWorkerCount();
@@ -78,6 +81,9 @@ public class HttpServer implements Closeable {
                 configuration.getDispatcherConfiguration(),
                 httpContextFactory
         );
+        TlsNetworkFacade.setMetrics(configuration.getDispatcherConfiguration().getNetworkFacade(), metrics.tls());
+        this.connectionMetrics = metrics.httpConnection();
+        connectionMetrics.addDispatcher(dispatcher);
         pool.assign(dispatcher);
         this.rescheduleContext = new WaitProcessor(configuration.getWaitProcessorConfiguration());
         pool.assign(this.rescheduleContext);
@@ -202,6 +208,7 @@ public class HttpServer implements Closeable {
         workerPool.assign(new ColumnIndexerJob(cairoEngine.getMessageBus()));
         workerPool.assign(new GroupByJob(cairoEngine.getMessageBus()));
         workerPool.assign(new LatestByAllIndexedJob(cairoEngine.getMessageBus()));
+        workerPool.assign(new LatestByScanJob(cairoEngine.getMessageBus()));
     }
 
     @Nullable
@@ -294,6 +301,7 @@ public class HttpServer implements Closeable {
             workerPool.halt();
         }
         Misc.free(httpContextFactory);
+        connectionMetrics.removeDispatcher(dispatcher);
         Misc.free(dispatcher);
         Misc.free(rescheduleContext);
     }
@@ -308,7 +316,7 @@ public class HttpServer implements Closeable {
             Metrics metrics
     ) {
         final HttpServer s = new HttpServer(configuration, cairoEngine.getMessageBus(), metrics, workerPool, localPool);
-        QueryCache.configure(configuration);
+        QueryCache.configure(configuration, cairoEngine.getQueryFactoryCache());
         HttpRequestProcessorBuilder jsonQueryProcessorBuilder = () -> new JsonQueryProcessor(
                 configuration.getJsonQueryProcessorConfiguration(),
                 cairoEngine,
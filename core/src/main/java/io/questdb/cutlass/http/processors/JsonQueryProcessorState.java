@@ -52,6 +52,9 @@ import io.questdb.std.str.StringSink;
 import java.io.Closeable;
 
 public class JsonQueryProcessorState implements Mutable, Closeable {
+    static final int QUERY_COLUMNAR_SUFFIX = 12;
+    static final int QUERY_COLUMNAR_VALUE = 11;
+    static final int QUERY_COLUMNAR_PREFIX = 10;
     static final int QUERY_RECORD_PREFIX = 9;
     static final int QUERY_SETUP_FIRST_RECORD = 8;
     static final int QUERY_SUFFIX = 7;
@@ -62,6 +65,7 @@ public class JsonQueryProcessorState implements Mutable, Closeable {
     static final int QUERY_METADATA = 2;
     static final int QUERY_PREFIX = 1;
     private static final Log LOG = LogFactory.getLog(JsonQueryProcessorState.class);
+    private static final ColumnValueWriter NULL_VALUE_WRITER = (socket, rec, col, bitFlags) -> socket.put("null");
     private final StringSink query = new StringSink();
     private final StringSink columnsQueryParameter = new StringSink();
     private final ObjList<StateResumeAction> resumeActions = new ObjList<>();
@@ -69,6 +73,11 @@ public class JsonQueryProcessorState implements Mutable, Closeable {
     private final ObjList<String> columnNames = new ObjList<>();
     private final HttpConnectionContext httpConnectionContext;
     private final IntList columnSkewList = new IntList();
+    // value writers indexed by column type tag and writers resolved for the output columns of the current query
+    private final ObjList<ColumnValueWriter> valueWriters = new ObjList<>();
+    private final ObjList<ColumnValueWriter> columnValueWriters = new ObjList<>();
+    // ids of rows written out for the first column of column-major output
+    private final LongList columnarRowIds = new LongList();
     private final NanosecondClock nanosecondClock;
     private final int floatScale;
     private final int doubleScale;
@@ -78,6 +87,9 @@ public class JsonQueryProcessorState implements Mutable, Closeable {
     private RecordCursorFactory recordCursorFactory;
     private RecordCursor cursor;
     private boolean noMeta = false;
+    private boolean columnarFormat = false;
+    private boolean hasColumnarRecord;
+    private int columnarRow;
     private Record record;
     private int queryState = QUERY_PREFIX;
     private int columnIndex;
@@ -109,6 +121,29 @@ public class JsonQueryProcessorState implements Mutable, Closeable {
         resumeActions.extendAndSet(QUERY_RECORD, this::onQueryRecord);
         resumeActions.extendAndSet(QUERY_RECORD_SUFFIX, this::onQueryRecordSuffix);
         resumeActions.extendAndSet(QUERY_SUFFIX, this::doQuerySuffix);
+        resumeActions.extendAndSet(QUERY_COLUMNAR_PREFIX, this::doColumnarLoop);
+        resumeActions.extendAndSet(QUERY_COLUMNAR_VALUE, this::onColumnarValue);
+        resumeActions.extendAndSet(QUERY_COLUMNAR_SUFFIX, this::onColumnarSuffix);
+
+        valueWriters.extendAndSet(ColumnType.BOOLEAN, (socket, rec, col, bitFlags) -> putBooleanValue(socket, rec, col));
+        valueWriters.extendAndSet(ColumnType.BYTE, (socket, rec, col, bitFlags) -> putByteValue(socket, rec, col));
+        valueWriters.extendAndSet(ColumnType.DOUBLE, (socket, rec, col, bitFlags) -> putDoubleValue(socket, rec, col));
+        valueWriters.extendAndSet(ColumnType.FLOAT, (socket, rec, col, bitFlags) -> putFloatValue(socket, rec, col));
+        valueWriters.extendAndSet(ColumnType.INT, (socket, rec, col, bitFlags) -> putIntValue(socket, rec, col));
+        valueWriters.extendAndSet(ColumnType.LONG, (socket, rec, col, bitFlags) -> putLongValue(socket, rec, col));
+        valueWriters.extendAndSet(ColumnType.DATE, (socket, rec, col, bitFlags) -> putDateValue(socket, rec, col));
+        valueWriters.extendAndSet(ColumnType.TIMESTAMP, (socket, rec, col, bitFlags) -> putTimestampValue(socket, rec, col));
+        valueWriters.extendAndSet(ColumnType.SHORT, (socket, rec, col, bitFlags) -> putShortValue(socket, rec, col));
+        valueWriters.extendAndSet(ColumnType.CHAR, (socket, rec, col, bitFlags) -> putCharValue(socket, rec, col));
+        valueWriters.extendAndSet(ColumnType.STRING, (socket, rec, col, bitFlags) -> putStrValue(socket, rec, col));
+        valueWriters.extendAndSet(ColumnType.SYMBOL, (socket, rec, col, bitFlags) -> putSymValue(socket, rec, col));
+        valueWriters.extendAndSet(ColumnType.BINARY, (socket, rec, col, bitFlags) -> putBinValue(socket));
+        valueWriters.extendAndSet(ColumnType.LONG256, (socket, rec, col, bitFlags) -> putLong256Value(socket, rec, col));
+        valueWriters.extendAndSet(ColumnType.GEOBYTE, JsonQueryProcessorState::putGeoHashStringByteValue);
+        valueWriters.extendAndSet(ColumnType.GEOSHORT, JsonQueryProcessorState::putGeoHashStringShortValue);
+        valueWriters.extendAndSet(ColumnType.GEOINT, JsonQueryProcessorState::putGeoHashStringIntValue);
+        valueWriters.extendAndSet(ColumnType.GEOLONG, JsonQueryProcessorState::putGeoHashStringLongValue);
+        valueWriters.extendAndSet(ColumnType.RECORD, (socket, rec, col, bitFlags) -> putRecValue(socket));
 
         this.nanosecondClock = nanosecondClock;
         this.floatScale = floatScale;
@@ -120,7 +155,9 @@ public class JsonQueryProcessorState implements Mutable, Closeable {
         columnCount = 0;
         columnSkewList.clear();
         columnTypesAndFlags.clear();
+        columnValueWriters.clear();
         columnNames.clear();
+        columnarRowIds.clear();
         cursor = Misc.free(cursor);
         record = null;
         if (null != recordCursorFactory) {
@@ -163,6 +200,7 @@ public class JsonQueryProcessorState implements Mutable, Closeable {
         this.countRows = Chars.equalsNc("true", request.getUrlParam("count"));
         this.timings = Chars.equalsNc("true", request.getUrlParam("timings"));
         this.explain = Chars.equalsNc("true", request.getUrlParam("explain"));
+        this.columnarFormat = Chars.equalsNc("columns", request.getUrlParam("fmt"));
     }
 
     public LogRecord error() {
@@ -404,15 +442,81 @@ public class JsonQueryProcessorState implements Mutable, Closeable {
         }
 
         addColumnTypeAndName(metadata, columnIndex);
-        this.columnSkewList.add(columnIndex);
         return false;
     }
 
+    private void doColumnarLoop(
+            HttpChunkedResponseSocket socket,
+            int columnCount
+    ) throws PeerDisconnectedException, PeerIsSlowToReadException {
+        while (columnIndex < columnCount) {
+            doColumnarPrefix(socket);
+            doColumnarValues(socket);
+            doColumnarSuffix(socket);
+        }
+        doQuerySuffix(socket, columnCount);
+    }
+
+    private boolean doColumnarNextRecord() {
+        if (columnIndex == 0) {
+            // the first column drives row count, skip and stop, same way row-major output does
+            count++;
+            if (doQueryNextRecord()) {
+                columnarRowIds.add(record.getRowId());
+                return true;
+            }
+            return false;
+        }
+        if (columnarRow < columnarRowIds.size()) {
+            cursor.recordAt(record, columnarRowIds.getQuick(columnarRow));
+            return true;
+        }
+        return false;
+    }
+
+    private void doColumnarPrefix(HttpChunkedResponseSocket socket) {
+        queryState = QUERY_COLUMNAR_PREFIX;
+        socket.bookmark();
+        if (columnIndex > 0) {
+            socket.put(',');
+        }
+        socket.put('[');
+        columnarRow = 0;
+        hasColumnarRecord = onColumnarSetupFirstRecord();
+    }
+
+    private void doColumnarSuffix(HttpChunkedResponseSocket socket) {
+        queryState = QUERY_COLUMNAR_SUFFIX;
+        socket.bookmark();
+        socket.put(']');
+        columnIndex++;
+    }
+
+    private void doColumnarValues(HttpChunkedResponseSocket socket) {
+        queryState = QUERY_COLUMNAR_VALUE;
+        final ColumnValueWriter writer = columnValueWriters.getQuick(columnIndex);
+        final int columnIdx = columnSkewList.getQuick(columnIndex);
+        final int bitFlags = columnTypesAndFlags.getQuick(2 * columnIndex + 1);
+        while (hasColumnarRecord) {
+            socket.bookmark();
+            if (columnarRow > 0) {
+                socket.put(',');
+            }
+            writer.write(socket, record, columnIdx, bitFlags);
+            columnarRow++;
+            hasColumnarRecord = doColumnarNextRecord();
+        }
+    }
+
     private void doFirstRecordLoop(
             HttpChunkedResponseSocket socket,
             int columnCount
     ) throws PeerDisconnectedException, PeerIsSlowToReadException {
-        if (onQuerySetupFirstRecord()) {
+        if (columnarFormat) {
+            // column-major output reads the cursor once, remaining columns revisit rows by id
+            columnIndex = 0;
+            doColumnarLoop(socket, columnCount);
+        } else if (onQuerySetupFirstRecord()) {
             doRecordFetchLoop(socket, columnCount);
         } else {
             doQuerySuffix(socket, columnCount);
@@ -484,71 +588,12 @@ public class JsonQueryProcessorState implements Mutable, Closeable {
                 socket.put(',');
             }
 
-            int columnIdx = columnSkewList.size() > 0 ? columnSkewList.getQuick(columnIndex) : columnIndex;
-            int columnType = columnTypesAndFlags.getQuick(2 * columnIndex);
-            switch (ColumnType.tagOf(columnType)) {
-                case ColumnType.BOOLEAN:
-                    putBooleanValue(socket, record, columnIdx);
-                    break;
-                case ColumnType.BYTE:
-                    putByteValue(socket, record, columnIdx);
-                    break;
-                case ColumnType.DOUBLE:
-                    putDoubleValue(socket, record, columnIdx);
-                    break;
-                case ColumnType.FLOAT:
-                    putFloatValue(socket, record, columnIdx);
-                    break;
-                case ColumnType.INT:
-                    putIntValue(socket, record, columnIdx);
-                    break;
-                case ColumnType.LONG:
-                    putLongValue(socket, record, columnIdx);
-                    break;
-                case ColumnType.DATE:
-                    putDateValue(socket, record, columnIdx);
-                    break;
-                case ColumnType.TIMESTAMP:
-                    putTimestampValue(socket, record, columnIdx);
-                    break;
-                case ColumnType.SHORT:
-                    putShortValue(socket, record, columnIdx);
-                    break;
-                case ColumnType.CHAR:
-                    putCharValue(socket, record, columnIdx);
-                    break;
-                case ColumnType.STRING:
-                    putStrValue(socket, record, columnIdx);
-                    break;
-                case ColumnType.SYMBOL:
-                    putSymValue(socket, record, columnIdx);
-                    break;
-                case ColumnType.BINARY:
-                    putBinValue(socket);
-                    break;
-                case ColumnType.LONG256:
-                    putLong256Value(socket, record, columnIdx);
-                    break;
-                case ColumnType.GEOBYTE:
-                    putGeoHashStringByteValue(socket, record, columnIdx, columnTypesAndFlags.getQuick(2 * columnIndex + 1));
-                    break;
-                case ColumnType.GEOSHORT:
-                    putGeoHashStringShortValue(socket, record, columnIdx, columnTypesAndFlags.getQuick(2 * columnIndex + 1));
-                    break;
-                case ColumnType.GEOINT:
-                    putGeoHashStringIntValue(socket, record, columnIdx, columnTypesAndFlags.getQuick(2 * columnIndex + 1));
-                    break;
-                case ColumnType.GEOLONG:
-                    putGeoHashStringLongValue(socket, record, columnIdx, columnTypesAndFlags.getQuick(2 * columnIndex + 1));
-                    break;
-                case ColumnType.RECORD:
-                    putRecValue(socket);
-                    break;
-                default:
-                    assert false : "Not supported type in output " + ColumnType.nameOf(columnType);
-                    socket.put("null"); // To make JSON valid
-                    break;
-            }
+            columnValueWriters.getQuick(columnIndex).write(
+                    socket,
+                    record,
+                    columnSkewList.getQuick(columnIndex),
+                    columnTypesAndFlags.getQuick(2 * columnIndex + 1)
+            );
         }
     }
 
@@ -630,6 +675,9 @@ public class JsonQueryProcessorState implements Mutable, Closeable {
         DirectByteCharSequence columnNames = header.getUrlParam("cols");
         int columnCount;
         columnSkewList.clear();
+        columnTypesAndFlags.clear();
+        columnValueWriters.clear();
+        this.columnNames.clear();
         if (columnNames != null) {
             columnsQueryParameter.clear();
             try {
@@ -670,6 +718,18 @@ public class JsonQueryProcessorState implements Mutable, Closeable {
             }
         }
         this.columnCount = columnCount;
+
+        if (columnarFormat && !factory.recordCursorSupportsRandomAccess()) {
+            info().$("columnar format requires random access cursor").$();
+            HttpChunkedResponseSocket socket = getHttpConnectionContext().getChunkedResponseSocket();
+            JsonQueryProcessor.header(socket, "", 400);
+            socket.put('{').
+                    putQuoted("query").put(':').encodeUtf8AndQuote(query).put(',').
+                    putQuoted("error").put(':').putQuoted("fmt=columns is not supported for this query");
+            socket.put('}');
+            socket.sendChunk(true);
+            return false;
+        }
         return true;
     }
 
@@ -684,6 +744,51 @@ public class JsonQueryProcessorState implements Mutable, Closeable {
         this.columnTypesAndFlags.add(columnType);
         this.columnTypesAndFlags.add(flags);
         this.columnNames.add(metadata.getColumnName(i));
+        this.columnSkewList.add(i);
+        final ColumnValueWriter writer = valueWriters.getQuiet(ColumnType.tagOf(columnType));
+        assert writer != null : "Not supported type in output " + ColumnType.nameOf(columnType);
+        // to keep JSON valid
+        this.columnValueWriters.add(writer != null ? writer : NULL_VALUE_WRITER);
+    }
+
+    private boolean onColumnarSetupFirstRecord() {
+        final RecordCursor cursor = this.cursor;
+        record = cursor.getRecord();
+        if (columnIndex > 0) {
+            if (columnarRowIds.size() == 0) {
+                return false;
+            }
+            cursor.recordAt(record, columnarRowIds.getQuick(0));
+            return true;
+        }
+
+        columnarRowIds.clear();
+        long target = skip + 1;
+        while (target > 0 && cursor.hasNext()) {
+            target--;
+        }
+        if (target > 0) {
+            return false;
+        }
+        count = skip;
+        columnarRowIds.add(record.getRowId());
+        return true;
+    }
+
+    private void onColumnarSuffix(
+            HttpChunkedResponseSocket socket,
+            int columnCount
+    ) throws PeerDisconnectedException, PeerIsSlowToReadException {
+        doColumnarSuffix(socket);
+        doColumnarLoop(socket, columnCount);
+    }
+
+    private void onColumnarValue(
+            HttpChunkedResponseSocket socket,
+            int columnCount
+    ) throws PeerDisconnectedException, PeerIsSlowToReadException {
+        doColumnarValues(socket);
+        onColumnarSuffix(socket, columnCount);
     }
 
     private void onNoMoreData() {
@@ -790,6 +895,11 @@ public class JsonQueryProcessorState implements Mutable, Closeable {
         this.queryCacheable = queryCacheable;
     }
 
+    @FunctionalInterface
+    interface ColumnValueWriter {
+        void write(HttpChunkedResponseSocket socket, Record rec, int col, int bitFlags);
+    }
+
     @FunctionalInterface
     interface StateResumeAction {
         void onResume(
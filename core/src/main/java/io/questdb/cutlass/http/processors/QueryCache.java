@@ -24,12 +24,14 @@
 
 package io.questdb.cutlass.http.processors;
 
+import io.questdb.cairo.QueryFactoryCache;
 import io.questdb.cairo.sql.RecordCursorFactory;
 import io.questdb.cutlass.http.HttpServerConfiguration;
 import io.questdb.log.Log;
 import io.questdb.log.LogFactory;
 import io.questdb.std.AssociativeCache;
 import io.questdb.std.ThreadLocal;
+import org.jetbrains.annotations.Nullable;
 
 import java.io.Closeable;
 
@@ -38,16 +40,28 @@ public final class QueryCache implements Closeable {
     private static final Log LOG = LogFactory.getLog(QueryCache.class);
     private static ThreadLocal<QueryCache> TL_QUERY_CACHE;
     private final AssociativeCache<RecordCursorFactory> cache;
+    // when set, factories are shared with all other workers via the engine
+    private final QueryFactoryCache sharedCache;
 
     public QueryCache(int blocks, int rows) {
-        this.cache = new AssociativeCache<>(blocks, rows);
+        this(blocks, rows, null);
+    }
+
+    public QueryCache(int blocks, int rows, @Nullable QueryFactoryCache sharedCache) {
+        this.cache = new AssociativeCache<>(sharedCache == null ? blocks : 1, sharedCache == null ? rows : 1);
+        this.sharedCache = sharedCache;
     }
 
     public static void configure(HttpServerConfiguration configuration) {
+        configure(configuration, null);
+    }
+
+    public static void configure(HttpServerConfiguration configuration, @Nullable QueryFactoryCache sharedCache) {
         final boolean enableQueryCache = configuration.isQueryCacheEnabled();
         final int blockCount = enableQueryCache ? configuration.getQueryCacheBlockCount() : 1;
         final int rowCount = enableQueryCache ? configuration.getQueryCacheRowCount() : 1;
-        TL_QUERY_CACHE = new ThreadLocal<>(() -> new QueryCache(blockCount, rowCount));
+        final QueryFactoryCache shared = enableQueryCache ? sharedCache : null;
+        TL_QUERY_CACHE = new ThreadLocal<>(() -> new QueryCache(blockCount, rowCount, shared));
     }
 
     public static QueryCache getInstance() {
@@ -61,24 +75,35 @@ public final class QueryCache implements Closeable {
     }
 
     public RecordCursorFactory poll(CharSequence sql) {
-        final RecordCursorFactory factory = cache.poll(sql);
+        final RecordCursorFactory factory = sharedCache != null ? sharedCache.poll(sql, null) : cache.poll(sql);
         log(factory == null ? "miss" : "hit", sql);
         return factory;
     }
 
     public void push(CharSequence sql, RecordCursorFactory factory) {
         if (factory != null) {
-            cache.put(sql, factory);
+            if (sharedCache != null) {
+                sharedCache.push(sql, factory, null);
+            } else {
+                cache.put(sql, factory);
+            }
             log("push", sql);
         }
     }
 
     public void remove(CharSequence sql) {
-        cache.put(sql, null);
+        if (sharedCache != null) {
+            sharedCache.remove(sql);
+        } else {
+            cache.put(sql, null);
+        }
         log("remove", sql);
     }
 
     public void clear() {
+        if (sharedCache != null) {
+            sharedCache.clear();
+        }
         cache.clear();
         LOG.info().$("cleared").$();
     }
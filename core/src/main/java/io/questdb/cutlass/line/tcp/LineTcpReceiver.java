@@ -34,6 +34,7 @@ import io.questdb.mp.WorkerPool;
 import io.questdb.network.IOContextFactory;
 import io.questdb.network.IODispatcher;
 import io.questdb.network.IODispatchers;
+import io.questdb.network.TlsNetworkFacade;
 import io.questdb.std.ThreadLocal;
 import io.questdb.std.*;
 import io.questdb.std.str.Path;
@@ -66,6 +67,7 @@ public class LineTcpReceiver implements Closeable {
         ioWorkerPool.assign(dispatcher);
         this.scheduler = new LineTcpMeasurementScheduler(lineConfiguration, engine, ioWorkerPool, dispatcher, writerWorkerPool);
         this.metrics = engine.getMetrics();
+        TlsNetworkFacade.setMetrics(lineConfiguration.getDispatcherConfiguration().getNetworkFacade(), metrics.tls());
 
         final Closeable cleaner = contextFactory::closeContextPool;
         for (int i = 0, n = ioWorkerPool.getWorkerCount(); i < n; i++) {
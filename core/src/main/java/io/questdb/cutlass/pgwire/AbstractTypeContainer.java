@@ -52,6 +52,14 @@ abstract class AbstractTypeContainer<T extends Closeable> implements Closeable {
         }
     }
 
+    void copyTypesFrom(IntList types) {
+        this.types.addAll(types);
+    }
+
+    IntList getTypes() {
+        return types;
+    }
+
     void copyTypesFrom(BindVariableService bindVariableService) {
         for (int i = 0, n = bindVariableService.getIndexedVariableCount(); i < n; i++) {
             types.add(bindVariableService.getFunction(i).getType());
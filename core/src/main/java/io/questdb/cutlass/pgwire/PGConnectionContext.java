@@ -136,6 +136,9 @@ public class PGConnectionContext implements IOContext, Mutable, WriterSource {
     private final DirectCharSink utf8Sink;
     private final TypeManager typeManager;
     private final AssociativeCache<TypesAndInsert> typesAndInsertCache;
+    // engine-wide select cache, when enabled it replaces per-worker "typesAndSelectCache"
+    private final QueryFactoryCache queryFactoryCache;
+    private final IntList queryFactoryCacheTypes = new IntList();
     private final CharSequenceObjHashMap<NamedStatementWrapper> namedStatementMap;
     private final CharSequenceObjHashMap<Portal> namedPortalMap;
     private final IntList syncActions = new IntList(4);
@@ -228,6 +231,7 @@ public class PGConnectionContext implements IOContext, Mutable, WriterSource {
         final int blockCount = enableInsertCache ? configuration.getInsertCacheBlockCount() : 1; // 8
         final int rowCount = enableInsertCache ? configuration.getInsertCacheRowCount() : 1; // 8
         this.typesAndInsertCache = new AssociativeCache<>(blockCount, rowCount);
+        this.queryFactoryCache = configuration.isSelectCacheEnabled() ? engine.getQueryFactoryCache() : null;
         this.batchCallback = new PGConnectionBatchCallback();
         this.bindSelectColumnFormats = new IntList();
     }
@@ -1040,7 +1044,12 @@ public class PGConnectionContext implements IOContext, Mutable, WriterSource {
         // we do not want to overwrite cache entries and potentially
         // leak memory
         if (typesAndSelect != null) {
-            typesAndSelectCache.put(queryText, typesAndSelect);
+            if (queryFactoryCache != null) {
+                queryFactoryCache.push(queryText, typesAndSelect.getFactory(), typesAndSelect.getTypes());
+                typesAndSelect.release();
+            } else {
+                typesAndSelectCache.put(queryText, typesAndSelect);
+            }
             // clear selectAndTypes so that context doesn't accidentally
             // free the factory when context finishes abnormally
             this.typesAndSelect = null;
@@ -1069,7 +1078,7 @@ public class PGConnectionContext implements IOContext, Mutable, WriterSource {
                 return false;
             }
 
-            typesAndSelect = typesAndSelectCache.poll(queryText);
+            typesAndSelect = pollSelectCache(queryText);
 
             if (typesAndSelect != null) {
                 // cache hit, define bind variables
@@ -1090,6 +1099,19 @@ public class PGConnectionContext implements IOContext, Mutable, WriterSource {
         return true;
     }
 
+    private TypesAndSelect pollSelectCache(CharSequence queryText) {
+        if (queryFactoryCache != null) {
+            final RecordCursorFactory factory = queryFactoryCache.poll(queryText, queryFactoryCacheTypes);
+            if (factory != null) {
+                final TypesAndSelect tas = typesAndSelectPool.pop();
+                tas.of(factory, queryFactoryCacheTypes);
+                return tas;
+            }
+            return null;
+        }
+        return typesAndSelectCache.poll(queryText);
+    }
+
     private void configureContextFromNamedStatement(CharSequence statementName, @Nullable @Transient SqlCompiler compiler)
             throws BadProtocolException, SqlException, PeerDisconnectedException, PeerIsSlowToReadException {
 
@@ -25,6 +25,7 @@
 package io.questdb.cutlass.pgwire;
 
 import io.questdb.cairo.CairoEngine;
+import io.questdb.cairo.QueryFactoryCache;
 import io.questdb.griffin.DatabaseSnapshotAgent;
 import io.questdb.griffin.FunctionFactoryCache;
 import io.questdb.griffin.SqlCompiler;
@@ -42,6 +43,7 @@ public class PGJobContext implements Closeable {
     private final SqlCompiler compiler;
     private final AssociativeCache<TypesAndSelect> selectAndTypesCache;
     private final WeakAutoClosableObjectPool<TypesAndSelect> selectAndTypesPool;
+    private final QueryFactoryCache queryFactoryCache;
 
     public PGJobContext(
             PGWireConfiguration configuration,
@@ -55,6 +57,7 @@ public class PGJobContext implements Closeable {
         final int rowCount = enableSelectCache ? configuration.getSelectCacheRowCount() : 1;
         this.selectAndTypesCache = new AssociativeCache<>(blockCount, rowCount);
         this.selectAndTypesPool = new WeakAutoClosableObjectPool<>(TypesAndSelect::new, blockCount * rowCount);
+        this.queryFactoryCache = enableSelectCache ? engine.getQueryFactoryCache() : null;
     }
 
     @Override
@@ -73,5 +76,8 @@ public class PGJobContext implements Closeable {
 
     public void flushQueryCache() {
         selectAndTypesCache.clear();
+        if (queryFactoryCache != null) {
+            queryFactoryCache.clear();
+        }
     }
 }
@@ -65,6 +65,7 @@ public class PGWireServer implements Closeable {
                 configuration.getDispatcherConfiguration(),
                 contextFactory
         );
+        TlsNetworkFacade.setMetrics(configuration.getDispatcherConfiguration().getNetworkFacade(), engine.getMetrics().tls());
 
         workerPool.assign(dispatcher);
 
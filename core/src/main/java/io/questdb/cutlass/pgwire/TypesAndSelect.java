@@ -26,6 +26,7 @@ package io.questdb.cutlass.pgwire;
 
 import io.questdb.cairo.sql.BindVariableService;
 import io.questdb.cairo.sql.RecordCursorFactory;
+import io.questdb.std.IntList;
 import io.questdb.std.Misc;
 import io.questdb.std.WeakAutoClosableObjectPool;
 
@@ -50,4 +51,18 @@ public class TypesAndSelect extends AbstractTypeContainer<TypesAndSelect> {
         this.factory = factory;
         copyTypesFrom(bindVariableService);
     }
+
+    public void of(RecordCursorFactory factory, IntList bindVariableTypes) {
+        this.factory = factory;
+        copyTypesFrom(bindVariableTypes);
+    }
+
+    /**
+     * Returns this container to its pool without freeing the factory, which
+     * is assumed to be owned elsewhere, e.g. by the engine-wide factory cache.
+     */
+    public void release() {
+        factory = null;
+        close();
+    }
 }
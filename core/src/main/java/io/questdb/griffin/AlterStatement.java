@@ -46,6 +46,8 @@ public class AlterStatement implements Mutable, WriteToQueue<TableWriterTask> {
     public final static short RENAME_COLUMN = 10;
     public final static short SET_PARAM_MAX_UNCOMMITTED_ROWS = 11;
     public final static short SET_PARAM_COMMIT_LAG = 12;
+    public final static short SET_PARAM_COLD_TIER_AFTER = 13;
+    public final static short MOVE_PARTITION_TO_COLD_TIER = 14;
 
     private final static Log LOG = LogFactory.getLog(AlterStatement.class);
 
@@ -110,6 +112,12 @@ public class AlterStatement implements Mutable, WriteToQueue<TableWriterTask> {
                 case SET_PARAM_COMMIT_LAG:
                     applyParamCommitLag(tableWriter);
                     break;
+                case SET_PARAM_COLD_TIER_AFTER:
+                    applyParamColdTierAfter(tableWriter);
+                    break;
+                case MOVE_PARTITION_TO_COLD_TIER:
+                    applyMovePartitionToColdTier(tableWriter);
+                    break;
                 default:
                     LOG.error().$("Invalid alter table command [code=").$(command).$(" ,table=").$(tableName).I$();
                     throw SqlException.$(tableNamePosition, "Invalid alter table command [code=").put(command).put(']');
@@ -344,6 +352,16 @@ public class AlterStatement implements Mutable, WriteToQueue<TableWriterTask> {
         }
     }
 
+    private void applyMovePartitionToColdTier(TableWriter tableWriter) {
+        // partition could have changed since it was copied, it will be picked up again by the next tier check
+        tableWriter.movePartitionToColdTier(longList.get(0), longList.get(1), longList.get(2), longList.get(3));
+    }
+
+    private void applyParamColdTierAfter(TableWriter tableWriter) {
+        long coldTierAfter = longList.get(0);
+        tableWriter.setMetaColdTierAfter(coldTierAfter);
+    }
+
     private void applyParamCommitLag(TableWriter tableWriter) {
         long commitLag = longList.get(0);
         tableWriter.setMetaCommitLag(commitLag);
@@ -141,6 +141,32 @@ public class AlterStatementBuilder {
         return this;
     }
 
+    public AlterStatementBuilder ofSetParamColdTierAfter(String tableName, int tableId, long coldTierAfter) {
+        this.command = SET_PARAM_COLD_TIER_AFTER;
+        this.tableName = tableName;
+        this.longList.add(coldTierAfter);
+        this.tableId = tableId;
+        return this;
+    }
+
+    public AlterStatementBuilder ofMovePartitionToColdTier(
+            String tableName,
+            int tableId,
+            long partitionTimestamp,
+            long srcNameTxn,
+            long srcRowCount,
+            long srcColumnNameTxn
+    ) {
+        this.command = MOVE_PARTITION_TO_COLD_TIER;
+        this.tableName = tableName;
+        this.longList.add(partitionTimestamp);
+        this.longList.add(srcNameTxn);
+        this.longList.add(srcRowCount);
+        this.longList.add(srcColumnNameTxn);
+        this.tableId = tableId;
+        return this;
+    }
+
     public AlterStatementBuilder ofSetParamUncommittedRows(String tableName, int tableId, int maxUncommittedRows) {
         this.command = SET_PARAM_MAX_UNCOMMITTED_ROWS;
         this.tableName = tableName;
@@ -70,6 +70,14 @@ public interface FunctionFactory {
         return false;
     }
 
+    /**
+     * @return true if the {@link Function} produced by the factory is {@link io.questdb.griffin.engine.analytic.AnalyticFunction},
+     * such functions are looked up only for columns with OVER clause
+     */
+    default boolean isAnalytic() {
+        return false;
+    }
+
     default boolean isCursor() {
         return false;
     }
@@ -85,6 +93,14 @@ public interface FunctionFactory {
         return false;
     }
 
+    /**
+     * @return true if the {@link Function} produced by the factory may return different values when the same query
+     * is executed again against the same data (i.e. rnd_int() or systimestamp())
+     */
+    default boolean isNonDeterministic() {
+        return false;
+    }
+
     Function newInstance(
             int position,
             @Transient ObjList<Function> args,
@@ -38,11 +38,16 @@ public class FunctionFactoryCache {
     static final CharSequenceHashSet invalidFunctionNames = new CharSequenceHashSet();
     private static final Log LOG = LogFactory.getLog(FunctionFactoryCache.class);
     private final LowerCaseCharSequenceObjHashMap<ObjList<FunctionFactoryDescriptor>> factories = new LowerCaseCharSequenceObjHashMap<>();
+    private final LowerCaseCharSequenceObjHashMap<ObjList<FunctionFactoryDescriptor>> analyticFactories = new LowerCaseCharSequenceObjHashMap<>();
     private final LowerCaseCharSequenceHashSet groupByFunctionNames = new LowerCaseCharSequenceHashSet();
     private final LowerCaseCharSequenceHashSet cursorFunctionNames = new LowerCaseCharSequenceHashSet();
     private final LowerCaseCharSequenceHashSet runtimeConstantFunctionNames = new LowerCaseCharSequenceHashSet();
+    // classes generated by FunctionTreeCompiler keyed by shape of function tree, shared by all compilers
+    private final ConcurrentHashMap<Class<?>> compiledFunctionClasses = new ConcurrentHashMap<>();
+    private final int compiledFunctionCacheCapacity;
 
     public FunctionFactoryCache(CairoConfiguration configuration, Iterable<FunctionFactory> functionFactories) {
+        this.compiledFunctionCacheCapacity = configuration.getSqlFunctionCompilerCacheCapacity();
         boolean enableTestFactories = configuration.enableTestFactories();
         LOG.info().$("loading functions [test=").$(enableTestFactories).$(']').$();
         for (FunctionFactory factory : functionFactories) {
@@ -50,6 +55,11 @@ public class FunctionFactoryCache {
                 try {
                     final FunctionFactoryDescriptor descriptor = new FunctionFactoryDescriptor(factory);
                     final String name = descriptor.getName();
+                    if (factory.isAnalytic()) {
+                        // analytic functions share names with group-by functions, e.g. sum()
+                        addFactoryToList(analyticFactories, descriptor);
+                        continue;
+                    }
                     addFactoryToList(factories, descriptor);
 
                     // Add != counterparts to equality function factories
@@ -97,10 +107,38 @@ public class FunctionFactoryCache {
         return new SwappingArgsFunctionFactory(name, factory);
     }
 
+    public Class<?> getCompiledFunctionClass(CharSequence shape) {
+        return compiledFunctionClasses.get(shape);
+    }
+
+    public int getCompiledFunctionClassCount() {
+        return compiledFunctionClasses.size();
+    }
+
+    public ObjList<FunctionFactoryDescriptor> getAnalyticOverloadList(CharSequence token) {
+        return analyticFactories.get(token);
+    }
+
     public ObjList<FunctionFactoryDescriptor> getOverloadList(CharSequence token) {
         return factories.get(token);
     }
 
+    /**
+     * Caches generated class unless cache is full. When class of the same shape was cached concurrently,
+     * the cached class is returned.
+     *
+     * @param shape shape of function tree
+     * @param clazz generated class
+     * @return class to instantiate functions from
+     */
+    public Class<?> putCompiledFunctionClass(String shape, Class<?> clazz) {
+        if (compiledFunctionClasses.size() < compiledFunctionCacheCapacity) {
+            final Class<?> cached = compiledFunctionClasses.putIfAbsent(shape, clazz);
+            return cached != null ? cached : clazz;
+        }
+        return clazz;
+    }
+
     public boolean isCursor(CharSequence name) {
         return name != null && cursorFunctionNames.contains(name);
     }
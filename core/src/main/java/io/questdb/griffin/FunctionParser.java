@@ -70,13 +70,20 @@ public class FunctionParser implements PostOrderTreeTraversalAlgo.Visitor, Mutab
     private final FunctionFactoryCache functionFactoryCache;
     private final IntList undefinedVariables = new IntList();
     private final Long256Impl long256Sink = new Long256Impl();
+    private final FunctionTreeCompiler functionTreeCompiler;
     private RecordMetadata metadata;
+    // node of analytic function call, which is resolved against analytic function factories
+    private ExpressionNode analyticNode;
     private SqlCodeGenerator sqlCodeGenerator;
     private SqlExecutionContext sqlExecutionContext;
+    // set when query parsed since last clear() uses functions or named bind variables,
+    // which make the query result unsuitable for caching
+    private boolean nonDeterministic;
 
     public FunctionParser(CairoConfiguration configuration, FunctionFactoryCache functionFactoryCache) {
         this.configuration = configuration;
         this.functionFactoryCache = functionFactoryCache;
+        this.functionTreeCompiler = configuration.isSqlFunctionCompilerEnabled() ? new FunctionTreeCompiler(functionFactoryCache) : null;
     }
 
     @NotNull
@@ -139,6 +146,11 @@ public class FunctionParser implements PostOrderTreeTraversalAlgo.Visitor, Mutab
     @Override
     public void clear() {
         this.sqlExecutionContext = null;
+        this.nonDeterministic = false;
+    }
+
+    public boolean isNonDeterministic() {
+        return nonDeterministic;
     }
 
     public Function createBindVariable(SqlExecutionContext sqlExecutionContext, int position, CharSequence name) throws SqlException {
@@ -200,6 +212,23 @@ public class FunctionParser implements PostOrderTreeTraversalAlgo.Visitor, Mutab
         return functionFactoryCache;
     }
 
+    /**
+     * Parses function call of column with OVER clause. The call itself is resolved against
+     * analytic function factories, while its arguments are regular functions.
+     */
+    public Function parseAnalyticFunction(
+            ExpressionNode node,
+            RecordMetadata metadata,
+            SqlExecutionContext executionContext
+    ) throws SqlException {
+        analyticNode = node;
+        try {
+            return parseFunction(node, metadata, executionContext);
+        } finally {
+            analyticNode = null;
+        }
+    }
+
     /**
      * Creates function instance. When node type is {@link ExpressionNode#LITERAL} a column or parameter
      * function is returned. We will be using the supplied {@link #metadata} to resolve type of column. When node token
@@ -257,7 +286,7 @@ public class FunctionParser implements PostOrderTreeTraversalAlgo.Visitor, Mutab
             if (function != null && function.isConstant() && (function instanceof ScalarFunction)) {
                 return functionToConstant(function);
             }
-            return function;
+            return compileFunctionTree(node, function);
         } finally {
             if (metadataStack.size() == 0) {
                 this.metadata = null;
@@ -313,11 +342,29 @@ public class FunctionParser implements PostOrderTreeTraversalAlgo.Visitor, Mutab
                     throw SqlException.position(pos).put("Aggregate function cannot be passed as an argument");
                 }
             }
+            if (functionTreeCompiler != null && !FunctionTreeCompiler.isArithmetic(node)) {
+                // arithmetic is compiled as a whole tree, which is the argument of non-arithmetic function
+                for (int n = 0; n < argCount; n++) {
+                    mutableArgs.setQuick(n, compileFunctionTree(argumentNode(node, n), mutableArgs.getQuick(n)));
+                }
+            }
             functionStack.push(createFunction(node, mutableArgs, mutableArgPositions));
         }
         positionStack.push(node.position);
     }
 
+    // node of n-th argument, arguments are popped off function stack in reverse order of traversal
+    private static ExpressionNode argumentNode(ExpressionNode node, int n) {
+        switch (node.paramCount) {
+            case 1:
+                return node.rhs;
+            case 2:
+                return n == 0 ? node.lhs : node.rhs;
+            default:
+                return node.args.getQuick(node.paramCount - 1 - n);
+        }
+    }
+
     private static SqlException invalidFunction(ExpressionNode node, ObjList<Function> args) {
         SqlException ex = SqlException.position(node.position);
         ex.put("unknown function name");
@@ -384,6 +431,10 @@ public class FunctionParser implements PostOrderTreeTraversalAlgo.Visitor, Mutab
             int position,
             CairoConfiguration configuration
     ) throws SqlException {
+        if (factory.isNonDeterministic() || factory.isRuntimeConstant() || factory.isCursor()) {
+            nonDeterministic = true;
+        }
+
         Function function;
         try {
             function = factory.newInstance(position, args, argPositions, configuration, sqlExecutionContext);
@@ -412,6 +463,17 @@ public class FunctionParser implements PostOrderTreeTraversalAlgo.Visitor, Mutab
         }
     }
 
+    private Function compileFunctionTree(ExpressionNode node, Function function) {
+        if (functionTreeCompiler != null && function != null) {
+            final Function compiled = functionTreeCompiler.compile(node, function);
+            if (compiled != null) {
+                Misc.free(function);
+                return compiled;
+            }
+        }
+        return function;
+    }
+
     private Function createBindVariable0(int position, CharSequence name) throws SqlException {
         if (name.charAt(0) != ':') {
             return parseIndexedParameter(position, name);
@@ -518,7 +580,9 @@ public class FunctionParser implements PostOrderTreeTraversalAlgo.Visitor, Mutab
             @Transient ObjList<Function> args,
             @Transient IntList argPositions
     ) throws SqlException {
-        final ObjList<FunctionFactoryDescriptor> overload = functionFactoryCache.getOverloadList(node.token);
+        final ObjList<FunctionFactoryDescriptor> overload = node == analyticNode
+                ? functionFactoryCache.getAnalyticOverloadList(node.token)
+                : functionFactoryCache.getOverloadList(node.token);
         if (overload == null) {
             throw invalidFunction(node, args);
         }
@@ -768,6 +832,8 @@ public class FunctionParser implements PostOrderTreeTraversalAlgo.Visitor, Mutab
     }
 
     private Function createNamedParameter(int position, CharSequence name) throws SqlException {
+        // named bind variables cannot be enumerated to become part of result cache key
+        nonDeterministic = true;
         Function function = getBindVariableService().getFunction(name);
         if (function == null) {
             throw SqlException.position(position).put("undefined bind variable: ").put(name);
@@ -0,0 +1,391 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2022 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.griffin;
+
+import io.questdb.cairo.ColumnType;
+import io.questdb.cairo.sql.Function;
+import io.questdb.cairo.sql.Record;
+import io.questdb.griffin.engine.functions.BinaryFunction;
+import io.questdb.griffin.engine.functions.CompiledDoubleFunction;
+import io.questdb.griffin.engine.functions.CompiledFunction;
+import io.questdb.griffin.engine.functions.CompiledLongFunction;
+import io.questdb.griffin.engine.functions.columns.DoubleColumn;
+import io.questdb.griffin.engine.functions.columns.IntColumn;
+import io.questdb.griffin.engine.functions.columns.LongColumn;
+import io.questdb.griffin.model.ExpressionNode;
+import io.questdb.log.Log;
+import io.questdb.log.LogFactory;
+import io.questdb.std.*;
+import io.questdb.std.str.StringSink;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Compiles trees of arithmetic functions over numeric columns and constants into a single class,
+ * which reads column values from the record directly. This replaces chain of virtual calls through
+ * function objects with straight-line code, which JVM can inline and optimise as a whole.
+ * <p>
+ * Generated classes are cached in {@link FunctionFactoryCache} by shape of the tree, e.g. operations
+ * and types. Column indexes and constants are supplied to each instance, so that queries which differ
+ * only in columns or constants reuse the same class.
+ */
+public class FunctionTreeCompiler {
+    private static final Log LOG = LogFactory.getLog(FunctionTreeCompiler.class);
+    // trees with a single operation are already a single call away from column values
+    private static final int MIN_OPERATION_COUNT = 2;
+    private final BytecodeAssembler asm = new BytecodeAssembler();
+    private final FunctionFactoryCache functionFactoryCache;
+    private final StringSink shape = new StringSink();
+    private final IntList columns = new IntList();
+    private final LongList doubleConstants = new LongList();
+    private final LongList longConstants = new LongList();
+    private int operationCount;
+    // positions of the next column and constants while generating code
+    private int columnPosition;
+    private int doubleConstantPosition;
+    private int longConstantPosition;
+    // constant pool indexes used by generated code
+    private int columnsFieldIndex;
+    private int doubleConstantsFieldIndex;
+    private int longConstantsFieldIndex;
+    private int getIntIndex;
+    private int getLongIndex;
+    private int getDoubleIndex;
+    private int intToDoubleIndex;
+    private int intToLongIndex;
+    private int longToDoubleIndex;
+    private int addLongIndex;
+    private int subLongIndex;
+    private int mulLongIndex;
+    private int divLongIndex;
+
+    public FunctionTreeCompiler(FunctionFactoryCache functionFactoryCache) {
+        this.functionFactoryCache = functionFactoryCache;
+    }
+
+    static boolean isArithmetic(ExpressionNode node) {
+        return operationOf(node) != 0;
+    }
+
+    private static char operationOf(ExpressionNode node) {
+        if (node.type == ExpressionNode.OPERATION && node.paramCount == 2 && node.token.length() == 1) {
+            final char c = node.token.charAt(0);
+            switch (c) {
+                case '+':
+                case '-':
+                case '*':
+                case '/':
+                    return c;
+                default:
+                    break;
+            }
+        }
+        return 0;
+    }
+
+    private static char typeChar(int type) {
+        switch (ColumnType.tagOf(type)) {
+            case ColumnType.INT:
+                return 'I';
+            case ColumnType.LONG:
+                return 'J';
+            default:
+                return 'D';
+        }
+    }
+
+    private static int columnIndexOf(Function function) {
+        if (function instanceof DoubleColumn) {
+            return ((DoubleColumn) function).getColumnIndex();
+        }
+        if (function instanceof LongColumn) {
+            return ((LongColumn) function).getColumnIndex();
+        }
+        if (function instanceof IntColumn) {
+            return ((IntColumn) function).getColumnIndex();
+        }
+        return -1;
+    }
+
+    private static boolean isConvertible(int fromType, int toType) {
+        switch (ColumnType.tagOf(fromType)) {
+            case ColumnType.INT:
+                return true;
+            case ColumnType.LONG:
+                return toType != ColumnType.INT;
+            case ColumnType.DOUBLE:
+                return toType == ColumnType.DOUBLE;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Compiles arithmetic function tree into single function. Supported trees consist of
+     * +, -, *, / operations with DOUBLE or LONG result over INT, LONG and DOUBLE columns and constants.
+     *
+     * @param node     expression the function was parsed from
+     * @param function function parsed from the expression
+     * @return compiled function or null when tree is not supported. The supplied function is left intact.
+     */
+    @Nullable
+    public Function compile(ExpressionNode node, Function function) {
+        final int type = function.getType();
+        if ((type != ColumnType.DOUBLE && type != ColumnType.LONG) || function.isConstant() || !isArithmetic(node)) {
+            return null;
+        }
+
+        shape.clear();
+        columns.clear();
+        doubleConstants.clear();
+        longConstants.clear();
+        operationCount = 0;
+        if (!collect(node, function, type) || operationCount < MIN_OPERATION_COUNT) {
+            return null;
+        }
+
+        try {
+            Class<?> clazz = functionFactoryCache.getCompiledFunctionClass(shape);
+            if (clazz == null) {
+                clazz = functionFactoryCache.putCompiledFunctionClass(Chars.toString(shape), generate(node, function, type));
+            }
+            final CompiledFunction compiled = (CompiledFunction) clazz.getDeclaredConstructor().newInstance();
+            compiled.of(toIntArray(columns), toDoubleArray(doubleConstants), toLongArray(longConstants));
+            return (Function) compiled;
+        } catch (Throwable e) {
+            LOG.error().$("could not compile function tree [shape=").$(shape).$(", e=").$(e).$(']').$();
+            return null;
+        }
+    }
+
+    private static int[] toIntArray(IntList values) {
+        final int[] result = new int[values.size()];
+        for (int i = 0, n = values.size(); i < n; i++) {
+            result[i] = values.getQuick(i);
+        }
+        return result;
+    }
+
+    private static long[] toLongArray(LongList values) {
+        final long[] result = new long[values.size()];
+        for (int i = 0, n = values.size(); i < n; i++) {
+            result[i] = values.getQuick(i);
+        }
+        return result;
+    }
+
+    private static double[] toDoubleArray(LongList bits) {
+        final double[] result = new double[bits.size()];
+        for (int i = 0, n = bits.size(); i < n; i++) {
+            result[i] = Double.longBitsToDouble(bits.getQuick(i));
+        }
+        return result;
+    }
+
+    // validates tree, collects columns and constants and describes shape of the tree
+    private boolean collect(ExpressionNode node, Function function, int targetType) {
+        final int type = function.getType();
+        if (!isConvertible(type, targetType)) {
+            return false;
+        }
+        final char operation = operationOf(node);
+        if (operation != 0) {
+            if ((type != ColumnType.DOUBLE && type != ColumnType.LONG) || function.isConstant() || !(function instanceof BinaryFunction)) {
+                return false;
+            }
+            operationCount++;
+            shape.put(typeChar(targetType)).put(typeChar(type)).put(operation).put('(');
+            if (!collect(node.lhs, ((BinaryFunction) function).getLeft(), type)) {
+                return false;
+            }
+            shape.put(',');
+            if (!collect(node.rhs, ((BinaryFunction) function).getRight(), type)) {
+                return false;
+            }
+            shape.put(')');
+            return true;
+        }
+
+        if (node.type == ExpressionNode.LITERAL) {
+            final int columnIndex = columnIndexOf(function);
+            if (columnIndex < 0) {
+                return false;
+            }
+            columns.add(columnIndex);
+            shape.put(typeChar(targetType)).put(typeChar(type)).put('c');
+            return true;
+        }
+
+        if (function.isConstant()) {
+            if (targetType == ColumnType.DOUBLE) {
+                doubleConstants.add(Double.doubleToRawLongBits(function.getDouble(null)));
+            } else {
+                longConstants.add(function.getLong(null));
+            }
+            shape.put(typeChar(targetType)).put('k');
+            return true;
+        }
+        return false;
+    }
+
+    private void emit(ExpressionNode node, Function function, int targetType) {
+        final int type = function.getType();
+        final char operation = operationOf(node);
+        if (operation != 0) {
+            emit(node.lhs, ((BinaryFunction) function).getLeft(), type);
+            emit(node.rhs, ((BinaryFunction) function).getRight(), type);
+            if (type == ColumnType.DOUBLE) {
+                switch (operation) {
+                    case '+':
+                        asm.dadd();
+                        break;
+                    case '-':
+                        asm.dsub();
+                        break;
+                    case '*':
+                        asm.dmul();
+                        break;
+                    default:
+                        asm.ddiv();
+                        break;
+                }
+            } else {
+                switch (operation) {
+                    case '+':
+                        asm.invokeStatic(addLongIndex);
+                        break;
+                    case '-':
+                        asm.invokeStatic(subLongIndex);
+                        break;
+                    case '*':
+                        asm.invokeStatic(mulLongIndex);
+                        break;
+                    default:
+                        asm.invokeStatic(divLongIndex);
+                        break;
+                }
+            }
+            emitConversion(type, targetType);
+        } else if (node.type == ExpressionNode.LITERAL) {
+            // record.getXXX(columns[i])
+            asm.aload(1);
+            asm.aload(0);
+            asm.getfield(columnsFieldIndex);
+            asm.iconst(columnPosition++);
+            asm.iaload();
+            switch (ColumnType.tagOf(type)) {
+                case ColumnType.INT:
+                    asm.invokeInterface(getIntIndex, 1);
+                    break;
+                case ColumnType.LONG:
+                    asm.invokeInterface(getLongIndex, 1);
+                    break;
+                default:
+                    asm.invokeInterface(getDoubleIndex, 1);
+                    break;
+            }
+            emitConversion(type, targetType);
+        } else if (targetType == ColumnType.DOUBLE) {
+            asm.aload(0);
+            asm.getfield(doubleConstantsFieldIndex);
+            asm.iconst(doubleConstantPosition++);
+            asm.daload();
+        } else {
+            asm.aload(0);
+            asm.getfield(longConstantsFieldIndex);
+            asm.iconst(longConstantPosition++);
+            asm.laload();
+        }
+    }
+
+    private void emitConversion(int type, int targetType) {
+        if (type == targetType) {
+            return;
+        }
+        if (targetType == ColumnType.DOUBLE) {
+            asm.invokeStatic(ColumnType.tagOf(type) == ColumnType.INT ? intToDoubleIndex : longToDoubleIndex);
+        } else {
+            asm.invokeStatic(intToLongIndex);
+        }
+    }
+
+    private Class<?> generate(ExpressionNode node, Function function, int type) {
+        final boolean isDouble = type == ColumnType.DOUBLE;
+        final Class<?> superclass = isDouble ? CompiledDoubleFunction.class : CompiledLongFunction.class;
+        asm.init(superclass);
+        asm.setupPool();
+        final int thisClassIndex = asm.poolClass(asm.poolUtf8("io/questdb/griffin/engine/functions/CompiledFunctionAsm"));
+        final int superclassIndex = asm.poolClass(superclass);
+        final int superIndex = asm.poolMethod(superclassIndex, "<init>", "()V");
+        final int recordClassIndex = asm.poolClass(Record.class);
+        getIntIndex = asm.poolInterfaceMethod(recordClassIndex, "getInt", "(I)I");
+        getLongIndex = asm.poolInterfaceMethod(recordClassIndex, "getLong", "(I)J");
+        getDoubleIndex = asm.poolInterfaceMethod(recordClassIndex, "getDouble", "(I)D");
+        columnsFieldIndex = asm.poolField(thisClassIndex, asm.poolNameAndType(asm.poolUtf8("columns"), asm.poolUtf8("[I")));
+        doubleConstantsFieldIndex = asm.poolField(thisClassIndex, asm.poolNameAndType(asm.poolUtf8("doubleConstants"), asm.poolUtf8("[D")));
+        longConstantsFieldIndex = asm.poolField(thisClassIndex, asm.poolNameAndType(asm.poolUtf8("longConstants"), asm.poolUtf8("[J")));
+        final int numbersClassIndex = asm.poolClass(Numbers.class);
+        intToDoubleIndex = asm.poolMethod(numbersClassIndex, "intToDouble", "(I)D");
+        intToLongIndex = asm.poolMethod(numbersClassIndex, "intToLong", "(I)J");
+        longToDoubleIndex = asm.poolMethod(numbersClassIndex, "longToDouble", "(J)D");
+        final int longFunctionClassIndex = asm.poolClass(CompiledLongFunction.class);
+        addLongIndex = asm.poolMethod(longFunctionClassIndex, "add", "(JJ)J");
+        subLongIndex = asm.poolMethod(longFunctionClassIndex, "sub", "(JJ)J");
+        mulLongIndex = asm.poolMethod(longFunctionClassIndex, "mul", "(JJ)J");
+        divLongIndex = asm.poolMethod(longFunctionClassIndex, "div", "(JJ)J");
+        final int methodNameIndex = asm.poolUtf8(isDouble ? "getDouble" : "getLong");
+        final int methodDescIndex = asm.poolUtf8(isDouble ? "(Lio/questdb/cairo/sql/Record;)D" : "(Lio/questdb/cairo/sql/Record;)J");
+        asm.finishPool();
+
+        asm.defineClass(thisClassIndex, superclassIndex);
+        asm.interfaceCount(0);
+        asm.fieldCount(0);
+        asm.methodCount(2);
+        asm.defineDefaultConstructor(superIndex);
+
+        // each operation keeps at most one 2-slot value on the stack while evaluating its right operand,
+        // leaf evaluation needs 3 more slots: record, array and index
+        asm.startMethod(methodNameIndex, methodDescIndex, 2 * operationCount + 4, 2);
+        columnPosition = 0;
+        doubleConstantPosition = 0;
+        longConstantPosition = 0;
+        emit(node, function, type);
+        if (isDouble) {
+            asm.dreturn();
+        } else {
+            asm.lreturn();
+        }
+        asm.endMethodCode();
+        // exceptions
+        asm.putShort(0);
+        // attributes
+        asm.putShort(0);
+        asm.endMethod();
+
+        // class attribute count
+        asm.putShort(0);
+        return asm.loadClass(superclass);
+    }
+}
@@ -0,0 +1,293 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2022 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.griffin;
+
+import io.questdb.cairo.*;
+import io.questdb.cairo.security.AllowAllCairoSecurityContext;
+import io.questdb.cairo.sql.BindVariableService;
+import io.questdb.griffin.engine.functions.bind.BindVariableServiceImpl;
+import io.questdb.log.Log;
+import io.questdb.log.LogFactory;
+import io.questdb.mp.SynchronizedJob;
+import io.questdb.std.*;
+import io.questdb.std.datetime.microtime.MicrosecondClock;
+import io.questdb.std.str.Path;
+import io.questdb.std.str.StringSink;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.Closeable;
+
+/**
+ * Keeps materialized views, see {@link MatViewDefinition}, up to date with their base tables.
+ * <p>
+ * Job remembers partition sizes and name versions of base table as of the last refresh. Changed partitions
+ * give the lowest base timestamp that could affect the view. View partitions from that timestamp onwards are
+ * removed and re-populated by the refresh query, older view partitions are left intact. Append to the last
+ * partition only recomputes from the previous max timestamp. Base table truncate, column updates and the first
+ * refresh after the server start recompute the whole view.
+ * <p>
+ * Refresh is not atomic, readers may briefly observe the view without the partitions that are being recomputed.
+ */
+public class MatViewRefreshJob extends SynchronizedJob implements Closeable {
+    private static final Log LOG = LogFactory.getLog(MatViewRefreshJob.class);
+    private static final String WRITER_LOCK_REASON = "matViewRefresh";
+    private final CairoEngine engine;
+    private final FilesFacade ff;
+    private final CharSequence root;
+    private final MicrosecondClock clock;
+    private final long refreshInterval;
+    private final MatViewMetrics metrics;
+    private final SqlCompiler compiler;
+    private final SqlExecutionContextImpl executionContext;
+    private final BindVariableService bindVariableService;
+    private final CharSequenceObjHashMap<MatViewState> states = new CharSequenceObjHashMap<>();
+    private final ObjList<String> tableNames = new ObjList<>();
+    private final StringSink fileNameSink = new StringSink();
+    private final StringSink sqlSink = new StringSink();
+    private final Path path = new Path();
+    private long last = 0;
+
+    public MatViewRefreshJob(CairoEngine engine, @Nullable FunctionFactoryCache functionFactoryCache) {
+        final CairoConfiguration configuration = engine.getConfiguration();
+        this.engine = engine;
+        this.ff = configuration.getFilesFacade();
+        this.root = configuration.getRoot();
+        this.clock = configuration.getMicrosecondClock();
+        this.refreshInterval = configuration.getMatViewRefreshInterval() * 1000;
+        this.metrics = engine.getMetrics().matView();
+        this.bindVariableService = new BindVariableServiceImpl(configuration);
+        this.compiler = new SqlCompiler(engine, functionFactoryCache, null);
+        this.executionContext = new SqlExecutionContextImpl(engine, 1);
+        this.executionContext.with(AllowAllCairoSecurityContext.INSTANCE, bindVariableService, null);
+    }
+
+    @Override
+    public void close() {
+        Misc.free(compiler);
+        Misc.free(path);
+    }
+
+    /**
+     * Refreshes all materialized views which base tables changed since the previous refresh.
+     *
+     * @return true when at least one view was refreshed
+     */
+    public boolean refresh() {
+        tableNames.clear();
+        final long p = ff.findFirst(path.of(root).$());
+        if (p > 0) {
+            try {
+                do {
+                    if (Files.isDir(ff.findName(p), ff.findType(p), fileNameSink)) {
+                        tableNames.add(Chars.toString(fileNameSink));
+                    }
+                } while (ff.findNext(p) > 0);
+            } finally {
+                ff.findClose(p);
+            }
+        }
+
+        boolean useful = false;
+        for (int i = 0, n = tableNames.size(); i < n; i++) {
+            useful |= refresh(tableNames.getQuick(i));
+        }
+        return useful;
+    }
+
+    @Override
+    protected boolean runSerially() {
+        final long t = clock.getTicks();
+        if (last + refreshInterval < t) {
+            last = t;
+            return refresh();
+        }
+        return false;
+    }
+
+    private boolean refresh(String tableName) {
+        MatViewState state = states.get(tableName);
+        if (state == null) {
+            final MatViewDefinition definition = MatViewDefinition.read(ff, path, root, tableName);
+            if (definition == null) {
+                return false;
+            }
+            state = new MatViewState(definition);
+            states.put(tableName, state);
+        }
+
+        final MatViewDefinition definition = state.definition;
+        final String baseTableName = definition.getBaseTableName();
+        if (engine.getStatus(AllowAllCairoSecurityContext.INSTANCE, path, baseTableName) != TableUtils.TABLE_EXISTS
+                || engine.getStatus(AllowAllCairoSecurityContext.INSTANCE, path, tableName) != TableUtils.TABLE_EXISTS) {
+            // view, or its base table, has been dropped
+            states.remove(tableName);
+            return false;
+        }
+
+        final long start = clock.getTicks();
+        try (TableReader baseReader = engine.getReader(AllowAllCairoSecurityContext.INSTANCE, baseTableName)) {
+            final TxReader txFile = baseReader.getTxFile();
+            if (state.initialized && state.baseTxn == txFile.getTxn()) {
+                state.syncedAt = start;
+                return false;
+            }
+
+            final long lo = state.findRefreshLo(txFile);
+            if (lo != Long.MAX_VALUE && !refreshView(definition, lo)) {
+                // view writer is busy, try again later
+                return false;
+            }
+            state.saveSnapshot(txFile);
+        } catch (EntryUnavailableException e) {
+            return false;
+        } catch (SqlException | CairoException e) {
+            LOG.error().$("could not refresh materialized view [view=").$(tableName)
+                    .$(", base=").$(baseTableName)
+                    .$(", ex=").$((Throwable) e)
+                    .I$();
+            metrics.markRefreshFailure();
+            // view partitions may have been removed, the view is rebuilt on the next run
+            state.initialized = false;
+            return false;
+        }
+
+        final long end = clock.getTicks();
+        metrics.markRefresh(end - start, end - (state.syncedAt > 0 ? state.syncedAt : start));
+        state.syncedAt = end;
+        return true;
+    }
+
+    private boolean refreshView(MatViewDefinition definition, long lo) throws SqlException {
+        final String viewName = definition.getViewName();
+        boolean rebuild = lo == Long.MIN_VALUE;
+        long viewLo = Long.MIN_VALUE;
+        try (TableWriter writer = engine.getWriter(AllowAllCairoSecurityContext.INSTANCE, viewName, WRITER_LOCK_REASON)) {
+            if (!rebuild) {
+                viewLo = PartitionBy.getPartitionFloorMethod(writer.getPartitionBy()).floor(lo);
+                while (writer.getPartitionCount() > 0 && writer.getPartitionTimestamp(writer.getPartitionCount() - 1) >= viewLo) {
+                    if (!writer.removeLastPartition()) {
+                        // only the first partition is left, which has to be recomputed too
+                        rebuild = true;
+                        break;
+                    }
+                }
+            }
+            if (rebuild) {
+                writer.truncate();
+            }
+        } catch (EntryUnavailableException e) {
+            return false;
+        }
+
+        LOG.info().$("refreshing materialized view [view=").$(viewName).$(", from=").$ts(viewLo).I$();
+        sqlSink.clear();
+        sqlSink.put("insert into \"").put(viewName).put("\" ");
+        if (rebuild) {
+            sqlSink.put(definition.getSql());
+        } else {
+            sqlSink.put(definition.getRefreshSql());
+            bindVariableService.clear();
+            bindVariableService.setTimestamp(0, viewLo);
+        }
+        compiler.compile(sqlSink, executionContext);
+        return true;
+    }
+
+    private static class MatViewState {
+        private final MatViewDefinition definition;
+        // triplets of base table partition timestamp, name txn and size as of the last refresh
+        private final LongList partitions = new LongList();
+        private boolean initialized;
+        private long baseTxn;
+        private long baseDataVersion;
+        private long baseColumnVersion;
+        private long baseMaxTimestamp;
+        private long syncedAt;
+
+        private MatViewState(MatViewDefinition definition) {
+            this.definition = definition;
+        }
+
+        private static long partitionSize(TxReader txFile, int partitionIndex) {
+            return partitionIndex < txFile.getPartitionCount() - 1 ? txFile.getPartitionSize(partitionIndex) : txFile.getTransientRowCount();
+        }
+
+        /**
+         * @return lowest base table timestamp to recompute the view from, Long.MIN_VALUE to recompute
+         * the whole view or Long.MAX_VALUE when base table rows did not change
+         */
+        private long findRefreshLo(TxReader txFile) {
+            if (!initialized || baseDataVersion != txFile.getDataVersion() || baseColumnVersion != txFile.getColumnVersion()) {
+                return Long.MIN_VALUE;
+            }
+
+            long lo = Long.MAX_VALUE;
+            final int savedCount = partitions.size() / 3;
+            final int partitionCount = txFile.getPartitionCount();
+            int i = 0;
+            int j = 0;
+            while (i < savedCount || j < partitionCount) {
+                final long savedTimestamp = i < savedCount ? partitions.getQuick(i * 3) : Long.MAX_VALUE;
+                final long timestamp = j < partitionCount ? txFile.getPartitionTimestamp(j) : Long.MAX_VALUE;
+                if (savedTimestamp < timestamp) {
+                    // partition removed
+                    return Math.min(lo, savedTimestamp);
+                }
+                if (timestamp < savedTimestamp) {
+                    // partition added
+                    return Math.min(lo, timestamp);
+                }
+                final long savedNameTxn = partitions.getQuick(i * 3 + 1);
+                final long savedSize = partitions.getQuick(i * 3 + 2);
+                final long size = partitionSize(txFile, j);
+                if (savedNameTxn != txFile.getPartitionNameTxn(j) || size < savedSize) {
+                    // partition rewritten by out-of-order commit
+                    return Math.min(lo, timestamp);
+                }
+                if (size > savedSize) {
+                    // rows appended to the partition, they cannot be older than previous max timestamp
+                    // unless partition is rewritten, which changes its name txn
+                    lo = Math.min(lo, i == savedCount - 1 ? baseMaxTimestamp : timestamp);
+                }
+                i++;
+                j++;
+            }
+            return lo;
+        }
+
+        private void saveSnapshot(TxReader txFile) {
+            partitions.clear();
+            for (int i = 0, n = txFile.getPartitionCount(); i < n; i++) {
+                partitions.add(txFile.getPartitionTimestamp(i), txFile.getPartitionNameTxn(i));
+                partitions.add(partitionSize(txFile, i));
+            }
+            baseTxn = txFile.getTxn();
+            baseDataVersion = txFile.getDataVersion();
+            baseColumnVersion = txFile.getColumnVersion();
+            baseMaxTimestamp = txFile.getMaxTimestamp();
+            initialized = true;
+        }
+    }
+}
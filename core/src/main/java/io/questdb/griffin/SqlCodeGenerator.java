@@ -36,7 +36,10 @@ import io.questdb.griffin.engine.LimitOverflowException;
 import io.questdb.griffin.engine.LimitRecordCursorFactory;
 import io.questdb.griffin.engine.RecordComparator;
 import io.questdb.griffin.engine.analytic.AnalyticFunction;
+import io.questdb.griffin.engine.analytic.AnalyticRecordCursorFactory;
 import io.questdb.griffin.engine.analytic.CachedAnalyticRecordCursorFactory;
+import io.questdb.griffin.engine.analytic.StreamAnalyticFunction;
+import io.questdb.griffin.engine.functions.BinaryFunction;
 import io.questdb.griffin.engine.functions.GroupByFunction;
 import io.questdb.griffin.engine.functions.SymbolFunction;
 import io.questdb.griffin.engine.functions.constants.ConstantFunction;
@@ -113,10 +116,15 @@ public class SqlCodeGenerator implements Mutable, Closeable {
     private final ObjList<VectorAggregateFunctionConstructor> tempVecConstructors = new ObjList<>();
     private final IntList tempVecConstructorArgIndexes = new IntList();
     private final IntList tempKeyKinds = new IntList();
+    // arithmetic arguments of vector aggregates, computed into page frames
+    private final ObjList<ExpressionNode> tempProjectionNodes = new ObjList<>();
+    private final IntList tempProjectionTypes = new IntList();
     private final ObjObjHashMap<IntList, ObjList<AnalyticFunction>> grouppedAnalytic = new ObjObjHashMap<>();
     private final IntList recordFunctionPositions = new IntList();
     private final IntList groupByFunctionPositions = new IntList();
     private final LongList prefixes = new LongList();
+    // names of the tables readers were opened for since last clear()
+    private final ObjList<String> tableNames = new ObjList<>();
     private boolean enableJitNullChecks = true;
     private boolean fullFatJoins = false;
     private final ObjectPool<ExpressionNode> expressionNodePool;
@@ -143,6 +151,7 @@ public class SqlCodeGenerator implements Mutable, Closeable {
     @Override
     public void clear() {
         whereClauseParser.clear();
+        tableNames.clear();
     }
 
     @Override
@@ -150,6 +159,13 @@ public class SqlCodeGenerator implements Mutable, Closeable {
         jitIRMem.close();
     }
 
+    /**
+     * @return names of the tables the factories generated since last {@link #clear()} read from
+     */
+    public ObjList<String> getTableNames() {
+        return tableNames;
+    }
+
     @NotNull
     public Function compileFilter(ExpressionNode expr, RecordMetadata metadata, SqlExecutionContext executionContext) throws SqlException {
         final Function filter = functionParser.parseFunction(expr, metadata, executionContext);
@@ -221,39 +237,39 @@ public class SqlCodeGenerator implements Mutable, Closeable {
     }
 
     private VectorAggregateFunctionConstructor assembleFunctionReference(RecordMetadata metadata, ExpressionNode ast) {
-        int columnIndex;
-        if (ast.type == FUNCTION && ast.paramCount == 1 && SqlKeywords.isSumKeyword(ast.token) && ast.rhs.type == LITERAL) {
-            columnIndex = metadata.getColumnIndex(ast.rhs.token);
-            tempVecConstructorArgIndexes.add(columnIndex);
-            return sumConstructors.get(metadata.getColumnType(columnIndex));
+        if (ast.type == FUNCTION && ast.paramCount == 1 && SqlKeywords.isSumKeyword(ast.token) && isVectorArgument(ast.rhs)) {
+            return sumConstructors.get(assembleVectorArgument(metadata, ast.rhs));
         } else if (ast.type == FUNCTION && ast.paramCount == 0 && SqlKeywords.isCountKeyword(ast.token)) {
             // count() is a no-arg function
             tempVecConstructorArgIndexes.add(-1);
             return COUNT_CONSTRUCTOR;
         } else if (isSingleColumnFunction(ast, "ksum")) {
-            columnIndex = metadata.getColumnIndex(ast.rhs.token);
-            tempVecConstructorArgIndexes.add(columnIndex);
-            return ksumConstructors.get(metadata.getColumnType(columnIndex));
+            return ksumConstructors.get(assembleVectorArgument(metadata, ast.rhs));
         } else if (isSingleColumnFunction(ast, "nsum")) {
-            columnIndex = metadata.getColumnIndex(ast.rhs.token);
-            tempVecConstructorArgIndexes.add(columnIndex);
-            return nsumConstructors.get(metadata.getColumnType(columnIndex));
+            return nsumConstructors.get(assembleVectorArgument(metadata, ast.rhs));
         } else if (isSingleColumnFunction(ast, "avg")) {
-            columnIndex = metadata.getColumnIndex(ast.rhs.token);
-            tempVecConstructorArgIndexes.add(columnIndex);
-            return avgConstructors.get(metadata.getColumnType(columnIndex));
+            return avgConstructors.get(assembleVectorArgument(metadata, ast.rhs));
         } else if (isSingleColumnFunction(ast, "min")) {
-            columnIndex = metadata.getColumnIndex(ast.rhs.token);
-            tempVecConstructorArgIndexes.add(columnIndex);
-            return minConstructors.get(metadata.getColumnType(columnIndex));
+            return minConstructors.get(assembleVectorArgument(metadata, ast.rhs));
         } else if (isSingleColumnFunction(ast, "max")) {
-            columnIndex = metadata.getColumnIndex(ast.rhs.token);
-            tempVecConstructorArgIndexes.add(columnIndex);
-            return maxConstructors.get(metadata.getColumnType(columnIndex));
+            return maxConstructors.get(assembleVectorArgument(metadata, ast.rhs));
         }
         return null;
     }
 
+    // adds index of the argument column in page frame and returns its type
+    private int assembleVectorArgument(RecordMetadata metadata, ExpressionNode arg) {
+        if (arg.type == LITERAL) {
+            final int columnIndex = metadata.getColumnIndex(arg.token);
+            tempVecConstructorArgIndexes.add(columnIndex);
+            return metadata.getColumnType(columnIndex);
+        }
+        // computed columns follow base columns in the page frame
+        final int projectionIndex = tempProjectionNodes.indexOf(arg);
+        tempVecConstructorArgIndexes.add(metadata.getColumnCount() + projectionIndex);
+        return tempProjectionTypes.getQuick(projectionIndex);
+    }
+
     private boolean assembleKeysAndFunctionReferences(
             ObjList<QueryColumn> columns,
             RecordMetadata metadata,
@@ -360,6 +376,52 @@ public class SqlCodeGenerator implements Mutable, Closeable {
         );
     }
 
+    @Nullable
+    private RecordCursorFactory createAsOfSeekJoin(
+            CharSequence masterAlias,
+            RecordCursorFactory master,
+            RecordMetadata masterMetadata,
+            RecordCursorFactory slave,
+            RecordMetadata slaveMetadata,
+            CharSequence slaveAlias
+    ) {
+        // slave rows are found by searching timestamp column of table data frames, which is
+        // possible when slave is a plain table scan in ascending timestamp order, page frame
+        // support tells us that slave row cursor does not filter rows
+        if (fullFatJoins
+                || !(slave instanceof DataFrameRecordCursorFactory)
+                || !slave.supportPageFrameCursor()
+                || slave.hasDescendingOrder()) {
+            return null;
+        }
+
+        int masterKeyIndex = -1;
+        int slaveKeyIndex = -1;
+        final int keyCount = listColumnFilterA.getColumnCount();
+        if (keyCount > 1) {
+            return null;
+        }
+        if (keyCount == 1) {
+            // keyed join requires slave symbol index to find rows
+            masterKeyIndex = listColumnFilterB.getColumnIndexFactored(0);
+            slaveKeyIndex = listColumnFilterA.getColumnIndexFactored(0);
+            if (!ColumnType.isSymbol(slaveMetadata.getColumnType(slaveKeyIndex))
+                    || !slaveMetadata.isColumnIndexed(slaveKeyIndex)
+                    || !ColumnType.isSymbolOrString(masterMetadata.getColumnType(masterKeyIndex))) {
+                return null;
+            }
+        }
+
+        return new AsOfJoinSeekRecordCursorFactory(
+                createJoinMetadata(masterAlias, masterMetadata, slaveAlias, slaveMetadata),
+                master,
+                slave,
+                masterMetadata.getColumnCount(),
+                masterKeyIndex,
+                slaveKeyIndex
+        );
+    }
+
     @NotNull
     private RecordCursorFactory createFullFatJoin(
             RecordCursorFactory master,
@@ -691,6 +753,42 @@ public class SqlCodeGenerator implements Mutable, Closeable {
         );
     }
 
+    @Nullable
+    private RecordCursorFactory createMergeJoin(
+            RecordMetadata metadata,
+            RecordCursorFactory master,
+            RecordCursorFactory slave,
+            int joinType
+    ) {
+        // both sides must be ordered by the join key, which is the case when the key
+        // is designated timestamp of both master and slave read in ascending order
+        if (fullFatJoins
+                || listColumnFilterA.getColumnCount() != 1
+                || !slave.recordCursorSupportsRandomAccess()
+                || master.hasDescendingOrder()
+                || slave.hasDescendingOrder()) {
+            return null;
+        }
+
+        final int masterKeyIndex = listColumnFilterB.getColumnIndexFactored(0);
+        final int slaveKeyIndex = listColumnFilterA.getColumnIndexFactored(0);
+        if (masterKeyIndex != master.getMetadata().getTimestampIndex()
+                || slaveKeyIndex != slave.getMetadata().getTimestampIndex()) {
+            return null;
+        }
+
+        return new MergeJoinRecordCursorFactory(
+                configuration,
+                metadata,
+                master,
+                slave,
+                master.getMetadata().getColumnCount(),
+                masterKeyIndex,
+                slaveKeyIndex,
+                joinType == JOIN_OUTER
+        );
+    }
+
     private RecordCursorFactory createSpliceJoin(
             RecordMetadata metadata,
             RecordCursorFactory master,
@@ -763,8 +861,10 @@ public class SqlCodeGenerator implements Mutable, Closeable {
                     LOG.info()
                             .$("JIT enabled for (sub)query [tableName=").utf8(model.getName())
                             .$(", fd=").$(executionContext.getRequestFd()).$(']').$();
+                    engine.getMetrics().compiledFilter().markCompiled();
                     return new CompiledFilterRecordCursorFactory(configuration, factory, bindVarFunctions, f, jitFilter);
                 } catch (SqlException | LimitOverflowException ex) {
+                    engine.getMetrics().compiledFilter().markFallback();
                     LOG.debug()
                             .$("JIT cannot be applied to (sub)query [tableName=").utf8(model.getName())
                             .$(", ex=").$(ex.getFlyweightMessage())
@@ -844,7 +944,17 @@ public class SqlCodeGenerator implements Mutable, Closeable {
                             case JOIN_ASOF:
                                 validateBothTimestamps(slaveModel, masterMetadata, slaveMetadata);
                                 processJoinContext(index == 1, slaveModel.getContext(), masterMetadata, slaveMetadata);
-                                if (slave.recordCursorSupportsRandomAccess() && !fullFatJoins) {
+                                final RecordCursorFactory seekJoin = createAsOfSeekJoin(
+                                        masterAlias,
+                                        master,
+                                        masterMetadata,
+                                        slave,
+                                        slaveMetadata,
+                                        slaveModel.getName()
+                                );
+                                if (seekJoin != null) {
+                                    master = seekJoin;
+                                } else if (slave.recordCursorSupportsRandomAccess() && !fullFatJoins) {
                                     if (listColumnFilterA.size() > 0 && listColumnFilterB.size() > 0) {
                                         master = createAsOfJoin(
                                                 createJoinMetadata(masterAlias, masterMetadata, slaveModel.getName(), slaveMetadata),
@@ -960,12 +1070,9 @@ public class SqlCodeGenerator implements Mutable, Closeable {
                                 break;
                             default:
                                 processJoinContext(index == 1, slaveModel.getContext(), masterMetadata, slaveMetadata);
-                                master = createHashJoin(
-                                        createJoinMetadata(masterAlias, masterMetadata, slaveModel.getName(), slaveMetadata),
-                                        master,
-                                        slave,
-                                        joinType
-                                );
+                                final JoinRecordMetadata joinMetadata = createJoinMetadata(masterAlias, masterMetadata, slaveModel.getName(), slaveMetadata);
+                                final RecordCursorFactory mergeJoin = createMergeJoin(joinMetadata, master, slave, joinType);
+                                master = mergeJoin != null ? mergeJoin : createHashJoin(joinMetadata, master, slave, joinType);
                                 masterAlias = null;
                                 break;
                         }
@@ -1247,6 +1354,16 @@ public class SqlCodeGenerator implements Mutable, Closeable {
         assert intrinsicModel.keyValueFuncs.size() == 0;
         // get the latest rows for all values of "latest by" column
 
+        if (filter == null && prefixes.size() == 0 && !intrinsicModel.hasIntervalFilters() && configuration.isSqlLatestByStateEnabled()) {
+            return new LatestByStateRecordCursorFactory(
+                    configuration,
+                    metadata,
+                    dataFrameCursorFactory,
+                    latestByIndex,
+                    columnIndexes
+            );
+        }
+
         if (indexed && filter == null) {
             return new LatestByAllIndexedRecordCursorFactory(
                     metadata,
@@ -1784,6 +1901,37 @@ public class SqlCodeGenerator implements Mutable, Closeable {
 
     private RecordCursorFactory generateSelectAnalytic(QueryModel model, SqlExecutionContext executionContext) throws SqlException {
         final RecordCursorFactory base = generateSubQuery(model, executionContext);
+        try {
+            final RecordMetadata baseMetadata = base.getMetadata();
+            final ObjList<QueryColumn> columns = model.getColumns();
+            boolean streaming = !base.hasDescendingOrder();
+            for (int i = 0, n = columns.size(); i < n; i++) {
+                final QueryColumn qc = columns.getQuick(i);
+                if (qc instanceof AnalyticColumn) {
+                    final AnalyticColumn ac = (AnalyticColumn) qc;
+                    validateAnalyticFrame(ac, baseMetadata);
+                    streaming &= isOrderedByDesignatedTimestamp(ac, baseMetadata);
+                }
+            }
+
+            if (streaming) {
+                final RecordCursorFactory factory = generateSelectAnalyticStreaming(model, base, executionContext);
+                if (factory != null) {
+                    return factory;
+                }
+            }
+            return generateSelectAnalyticCached(model, base, executionContext);
+        } catch (SqlException | CairoException e) {
+            Misc.free(base);
+            throw e;
+        }
+    }
+
+    private RecordCursorFactory generateSelectAnalyticCached(
+            QueryModel model,
+            RecordCursorFactory base,
+            SqlExecutionContext executionContext
+    ) throws SqlException {
         final RecordMetadata baseMetadata = base.getMetadata();
         final ObjList<QueryColumn> columns = model.getColumns();
         final int columnCount = columns.size();
@@ -1851,61 +1999,11 @@ public class SqlCodeGenerator implements Mutable, Closeable {
             final QueryColumn qc = columns.getQuick(i);
             if (qc instanceof AnalyticColumn) {
                 final AnalyticColumn ac = (AnalyticColumn) qc;
-                final ExpressionNode ast = qc.getAst();
-                if (ast.paramCount > 1) {
-                    throw SqlException.$(ast.position, "Too many arguments");
-                }
-
-                ObjList<Function> partitionBy = null;
-                int psz = ac.getPartitionBy().size();
-                if (psz > 0) {
-                    partitionBy = new ObjList<>(psz);
-                    for (int j = 0; j < psz; j++) {
-                        partitionBy.add(
-                                functionParser.parseFunction(ac.getPartitionBy().getQuick(j), chainMetadata, executionContext)
-                        );
-                    }
-                }
-
-                final VirtualRecord partitionByRecord;
-                final RecordSink partitionBySink;
-
-                if (partitionBy != null) {
-                    partitionByRecord = new VirtualRecord(partitionBy);
-                    keyTypes.clear();
-                    final int partitionByCount = partitionBy.size();
-
-                    for (int j = 0; j < partitionByCount; j++) {
-                        keyTypes.add(partitionBy.getQuick(j).getType());
-                    }
-                    entityColumnFilter.of(partitionByCount);
-                    // create sink
-                    partitionBySink = RecordSinkFactory.getInstance(
-                            asm,
-                            keyTypes,
-                            entityColumnFilter,
-                            false
-                    );
-                } else {
-                    partitionByRecord = null;
-                    partitionBySink = null;
-                }
-
+                // arguments and partition by functions read the chain record
+                final Function f = parseAnalyticFunction(ac, chainMetadata, base, executionContext);
+                final AnalyticFunction analyticFunction = (AnalyticFunction) f;
 
                 final int osz = ac.getOrderBy().size();
-                executionContext.configureAnalyticContext(
-                        partitionByRecord,
-                        partitionBySink,
-                        keyTypes,
-                        osz > 0,
-                        base.recordCursorSupportsRandomAccess()
-                );
-
-                final Function f = functionParser.parseFunction(ac.getAst(), baseMetadata, executionContext);
-                // todo: throw an error when non-analytic function is called in analytic context
-                assert f instanceof AnalyticFunction;
-                AnalyticFunction analyticFunction = (AnalyticFunction) f;
-
                 // analyze order by clause on the current model and optimise out
                 // order by on analytic function if it matches the one on the model
                 final LowerCaseCharSequenceIntHashMap orderHash = model.getOrderHash();
@@ -1990,6 +2088,74 @@ public class SqlCodeGenerator implements Mutable, Closeable {
         );
     }
 
+    /**
+     * Attempts to compute analytic functions as the rows of the base cursor go by. Returns null
+     * when any of the functions needs to see rows that follow the current row. Rows with the same
+     * timestamp, which RANGE frames include, are the exception as long as the base cursor can
+     * revisit them.
+     */
+    @Nullable
+    private RecordCursorFactory generateSelectAnalyticStreaming(
+            QueryModel model,
+            RecordCursorFactory base,
+            SqlExecutionContext executionContext
+    ) throws SqlException {
+        final RecordMetadata baseMetadata = base.getMetadata();
+        final ObjList<QueryColumn> columns = model.getColumns();
+        final int columnCount = columns.size();
+        final ObjList<Function> functions = new ObjList<>(columnCount);
+        final ObjList<StreamAnalyticFunction> analyticFunctions = new ObjList<>();
+        final GenericRecordMetadata metadata = new GenericRecordMetadata();
+        boolean peers = false;
+        try {
+            for (int i = 0; i < columnCount; i++) {
+                final QueryColumn qc = columns.getQuick(i);
+                if (qc instanceof AnalyticColumn) {
+                    final Function f = parseAnalyticFunction((AnalyticColumn) qc, baseMetadata, base, executionContext);
+                    functions.add(f);
+                    if (!(f instanceof StreamAnalyticFunction) || !isStreamable((StreamAnalyticFunction) f, base)) {
+                        Misc.freeObjList(functions);
+                        return null;
+                    }
+                    peers |= ((StreamAnalyticFunction) f).isPeerFrame();
+                    analyticFunctions.add((StreamAnalyticFunction) f);
+                    metadata.add(new TableColumnMetadata(
+                            Chars.toString(qc.getAlias()),
+                            0, // transient column hash is 0
+                            f.getType(),
+                            false,
+                            0,
+                            false,
+                            null
+                    ));
+                } else {
+                    final int columnIndex = baseMetadata.getColumnIndexQuiet(qc.getAst().token);
+                    functions.add(functionParser.parseFunction(qc.getAst(), baseMetadata, executionContext));
+                    metadata.add(BaseRecordMetadata.copyOf(baseMetadata, columnIndex));
+                    if (columnIndex == baseMetadata.getTimestampIndex()) {
+                        metadata.setTimestampIndex(i);
+                    }
+                }
+            }
+        } catch (SqlException | CairoException e) {
+            Misc.freeObjList(functions);
+            throw e;
+        }
+        return new AnalyticRecordCursorFactory(
+                metadata,
+                base,
+                functions,
+                analyticFunctions,
+                peers ? baseMetadata.getTimestampIndex() : -1
+        );
+    }
+
+    private static boolean isStreamable(StreamAnalyticFunction function, RecordCursorFactory base) {
+        // peers are revisited once their group is complete
+        return function.getPassCount() == AnalyticFunction.STREAM
+                || (function.isPeerFrame() && base.recordCursorSupportsRandomAccess());
+    }
+
     private RecordCursorFactory generateSelectChoose(QueryModel model, SqlExecutionContext executionContext) throws SqlException {
         final RecordCursorFactory factory = generateSubQuery(model, executionContext);
 
@@ -2118,6 +2284,7 @@ public class SqlCodeGenerator implements Mutable, Closeable {
         ) {
             CharSequence tableName = tableNameEn.token;
             try (TableReader reader = engine.getReader(executionContext.getCairoSecurityContext(), tableName)) {
+                addTableName(reader.getTableName());
                 CharSequence columnName = model.getBottomUpColumnNames().get(0);
                 TableReaderMetadata readerMetadata = reader.getMetadata();
                 int columnIndex = readerMetadata.getColumnIndex(columnName);
@@ -2169,6 +2336,8 @@ public class SqlCodeGenerator implements Mutable, Closeable {
         }
 
         RecordCursorFactory factory = null;
+        final ObjList<Function> projectionFunctions = new ObjList<>();
+        VirtualPageFrameCursor projectionCursor = null;
         try {
             ObjList<QueryColumn> columns;
             ExpressionNode columnExpr;
@@ -2190,6 +2359,8 @@ public class SqlCodeGenerator implements Mutable, Closeable {
             tempKeyIndex.clear();
             arrayColumnTypes.clear();
             tempKeyKinds.clear();
+            tempProjectionNodes.clear();
+            tempProjectionTypes.clear();
 
             boolean pageFramingSupported = false;
             boolean specialCaseKeys = false;
@@ -2246,6 +2417,12 @@ public class SqlCodeGenerator implements Mutable, Closeable {
 
             RecordMetadata metadata = factory.getMetadata();
 
+            // arithmetic arguments of aggregates can be computed a page frame at a time for vector aggregates,
+            // functions and cursor are owned by this method until they are handed over to the vector factory
+            projectionCursor = pageFramingSupported && !specialCaseKeys
+                    ? generateVirtualPageFrameCursor(columns, metadata, projectionFunctions, executionContext)
+                    : null;
+
             // inspect model for possibility of vector aggregate intrinsics
             if (pageFramingSupported && assembleKeysAndFunctionReferences(columns, metadata, !specialCaseKeys)) {
                 // create metadata from everything we've gathered
@@ -2301,6 +2478,8 @@ public class SqlCodeGenerator implements Mutable, Closeable {
                 }
 
                 if (tempKeyIndexesInBase.size() == 0) {
+                    factory = wrapVirtualPageFrames(factory, projectionFunctions, projectionCursor);
+                    projectionCursor = null;
                     return new GroupByNotKeyedVectorRecordCursorFactory(
                             configuration,
                             factory,
@@ -2316,6 +2495,8 @@ public class SqlCodeGenerator implements Mutable, Closeable {
 
                     GroupByUtils.validateGroupByColumns(model, 1);
 
+                    factory = wrapVirtualPageFrames(factory, projectionFunctions, projectionCursor);
+                    projectionCursor = null;
                     return new GroupByRecordCursorFactory(
                             configuration,
                             factory,
@@ -2330,6 +2511,11 @@ public class SqlCodeGenerator implements Mutable, Closeable {
                 }
             }
 
+            // row-by-row group by parses its own functions
+            Misc.freeObjList(projectionFunctions);
+            projectionCursor = Misc.free(projectionCursor);
+            tempProjectionNodes.clear();
+
             if (specialCaseKeys) {
                 // uh-oh, we had special case keys, but could not find implementation for the functions
                 // release factory we created unnecessarily
@@ -2410,6 +2596,8 @@ public class SqlCodeGenerator implements Mutable, Closeable {
             );
 
         } catch (Throwable e) {
+            Misc.freeObjList(projectionFunctions);
+            Misc.free(projectionCursor);
             Misc.free(factory);
             throw e;
         }
@@ -2548,6 +2736,112 @@ public class SqlCodeGenerator implements Mutable, Closeable {
         }
     }
 
+    @Nullable
+    // hands computed columns over to page frames of the vector aggregation base, functions list is left empty
+    private static RecordCursorFactory wrapVirtualPageFrames(
+            RecordCursorFactory factory,
+            ObjList<Function> functions,
+            @Nullable VirtualPageFrameCursor cursor
+    ) {
+        if (cursor == null) {
+            Misc.freeObjList(functions);
+            functions.clear();
+            return factory;
+        }
+        final RecordCursorFactory wrapper = new VirtualPageFrameRecordCursorFactory(factory, new ObjList<>(functions), cursor);
+        functions.clear();
+        return wrapper;
+    }
+
+    private VirtualPageFrameCursor generateVirtualPageFrameCursor(
+            ObjList<QueryColumn> columns,
+            RecordMetadata metadata,
+            ObjList<Function> functions,
+            SqlExecutionContext executionContext
+    ) throws SqlException {
+        VirtualPageFrameCursor cursor = null;
+        for (int i = 0, n = columns.size(); i < n; i++) {
+            final ExpressionNode ast = columns.getQuick(i).getAst();
+            if (ast.type != FUNCTION || ast.paramCount != 1) {
+                continue;
+            }
+            final ExpressionNode node = ast.rhs;
+            if (!isVirtualPageFrameOperation(node)) {
+                continue;
+            }
+
+            final Function function;
+            try {
+                function = functionParser.parseFunction(node, metadata, executionContext);
+            } catch (SqlException e) {
+                Misc.freeObjList(functions);
+                Misc.free(cursor);
+                throw e;
+            }
+            functions.add(function);
+            final int type = function.getType();
+            if ((type != ColumnType.DOUBLE && type != ColumnType.LONG) || !(function instanceof BinaryFunction)) {
+                continue;
+            }
+            // any double operation can yield infinity, vector min() and max() cannot tell it from no value
+            if (type == ColumnType.DOUBLE && (Chars.equals(ast.token, "min") || Chars.equals(ast.token, "max"))) {
+                continue;
+            }
+            if (
+                    !isVirtualPageFrameOperand(node.lhs, ((BinaryFunction) function).getLeft(), type, metadata)
+                            || !isVirtualPageFrameOperand(node.rhs, ((BinaryFunction) function).getRight(), type, metadata)
+            ) {
+                continue;
+            }
+
+            if (cursor == null) {
+                cursor = new VirtualPageFrameCursor(configuration, executionContext.getWorkerCount());
+                for (int j = 0, m = metadata.getColumnCount(); j < m; j++) {
+                    cursor.addColumn(j);
+                }
+            }
+            cursor.addFunction(function);
+            tempProjectionNodes.add(node);
+            tempProjectionTypes.add(type);
+        }
+        return cursor;
+    }
+
+    // operand is either a numeric column of the base or a constant
+    private static boolean isVirtualPageFrameOperand(ExpressionNode node, Function function, int type, RecordMetadata metadata) {
+        if (node.type == LITERAL) {
+            final int columnIndex = metadata.getColumnIndexQuiet(node.token);
+            if (columnIndex > -1 && function.getType() == metadata.getColumnType(columnIndex)) {
+                switch (function.getType()) {
+                    case ColumnType.DOUBLE:
+                        return type == ColumnType.DOUBLE;
+                    case ColumnType.LONG:
+                    case ColumnType.INT:
+                        return true;
+                    default:
+                        break;
+                }
+            }
+            return false;
+        }
+        return function.isConstant();
+    }
+
+    private static boolean isVirtualPageFrameOperation(ExpressionNode node) {
+        if (node.type != ExpressionNode.OPERATION || node.paramCount != 2 || node.token.length() != 1) {
+            return false;
+        }
+        switch (node.token.charAt(0)) {
+            case '+':
+            case '-':
+            case '*':
+            case '/':
+                return true;
+            default:
+                return false;
+        }
+    }
+
     /**
      * Generates chain of parent factories each of which takes only two argument factories.
      * Parent factory will perform one of SET operations on its arguments, such as UNION, UNION ALL,
@@ -2585,6 +2879,12 @@ public class SqlCodeGenerator implements Mutable, Closeable {
         return generateQuery(model.getNestedModel(), executionContext, true);
     }
 
+    private void addTableName(String tableName) {
+        if (tableNames.indexOf(tableName) == -1) {
+            tableNames.add(tableName);
+        }
+    }
+
     private RecordCursorFactory generateTableQuery(
             QueryModel model,
             SqlExecutionContext executionContext
@@ -2597,6 +2897,7 @@ public class SqlCodeGenerator implements Mutable, Closeable {
                 model.getTableId(),
                 model.getTableVersion())
         ) {
+            addTableName(reader.getTableName());
             final RecordMetadata readerMeta = reader.getMetadata();
 
             // create metadata based on top-down columns that are required
@@ -3030,6 +3331,18 @@ public class SqlCodeGenerator implements Mutable, Closeable {
             // listColumnFilterA = latest by column indexes
             if (latestByColumnCount == 1) {
                 int latestByColumnIndex = listColumnFilterA.getColumnIndexFactored(0);
+                if (configuration.isSqlLatestByStateEnabled()
+                        && ColumnType.isSymbol(myMeta.getColumnType(latestByColumnIndex))
+                        && myMeta.isSymbolTableStatic(latestByColumnIndex)) {
+                    return new LatestByStateRecordCursorFactory(
+                            configuration,
+                            myMeta,
+                            new FullBwdDataFrameCursorFactory(engine, tableName, model.getTableId(), model.getTableVersion()),
+                            latestByColumnIndex,
+                            columnIndexes
+                    );
+                }
+
                 if (myMeta.isColumnIndexed(latestByColumnIndex)) {
                     return new LatestByAllIndexedRecordCursorFactory(
                             myMeta,
@@ -3154,6 +3467,17 @@ public class SqlCodeGenerator implements Mutable, Closeable {
         return metadata.getTimestampIndex();
     }
 
+    private boolean isOrderedByDesignatedTimestamp(AnalyticColumn ac, RecordMetadata metadata) {
+        final ObjList<ExpressionNode> orderBy = ac.getOrderBy();
+        if (orderBy.size() == 0) {
+            return true;
+        }
+        return orderBy.size() == 1
+                && ac.getOrderByDirection().getQuick(0) == QueryModel.ORDER_DIRECTION_ASCENDING
+                && metadata.getTimestampIndex() != -1
+                && metadata.getColumnIndexQuiet(orderBy.getQuick(0).token) == metadata.getTimestampIndex();
+    }
+
     private boolean isOrderDescendingByDesignatedTimestampOnly(QueryModel model) {
         return model.getOrderByAdvice().size() == 1 && model.getTimestamp() != null &&
                 Chars.equalsIgnoreCase(model.getOrderByAdvice().getQuick(0).token, model.getTimestamp().token) &&
@@ -3161,7 +3485,11 @@ public class SqlCodeGenerator implements Mutable, Closeable {
     }
 
     private boolean isSingleColumnFunction(ExpressionNode ast, CharSequence name) {
-        return ast.type == FUNCTION && ast.paramCount == 1 && Chars.equals(ast.token, name) && ast.rhs.type == LITERAL;
+        return ast.type == FUNCTION && ast.paramCount == 1 && Chars.equals(ast.token, name) && isVectorArgument(ast.rhs);
+    }
+
+    private boolean isVectorArgument(ExpressionNode arg) {
+        return arg.type == LITERAL || tempProjectionNodes.indexOf(arg) > -1;
     }
 
     private void lookupColumnIndexes(
@@ -3200,6 +3528,70 @@ public class SqlCodeGenerator implements Mutable, Closeable {
         }
     }
 
+    private Function parseAnalyticFunction(
+            AnalyticColumn ac,
+            RecordMetadata metadata,
+            RecordCursorFactory base,
+            SqlExecutionContext executionContext
+    ) throws SqlException {
+        ObjList<Function> partitionBy = null;
+        final int psz = ac.getPartitionBy().size();
+        try {
+            if (psz > 0) {
+                partitionBy = new ObjList<>(psz);
+                for (int j = 0; j < psz; j++) {
+                    partitionBy.add(
+                            functionParser.parseFunction(ac.getPartitionBy().getQuick(j), metadata, executionContext)
+                    );
+                }
+            }
+
+            final VirtualRecord partitionByRecord;
+            final RecordSink partitionBySink;
+
+            if (partitionBy != null) {
+                partitionByRecord = new VirtualRecord(partitionBy);
+                keyTypes.clear();
+                for (int j = 0; j < psz; j++) {
+                    keyTypes.add(partitionBy.getQuick(j).getType());
+                }
+                entityColumnFilter.of(psz);
+                // create sink
+                partitionBySink = RecordSinkFactory.getInstance(
+                        asm,
+                        keyTypes,
+                        entityColumnFilter,
+                        false
+                );
+            } else {
+                partitionByRecord = null;
+                partitionBySink = null;
+            }
+
+            final int osz = ac.getOrderBy().size();
+            executionContext.configureAnalyticContext(
+                    partitionByRecord,
+                    partitionBySink,
+                    keyTypes,
+                    osz > 0,
+                    base.recordCursorSupportsRandomAccess(),
+                    ac.getFramingMode(),
+                    ac.getFrameLo(),
+                    ac.getFrameHi(),
+                    osz > 0 ? metadata.getColumnIndexQuiet(ac.getOrderBy().getQuick(0).token) : -1
+            );
+            final Function f = functionParser.parseAnalyticFunction(ac.getAst(), metadata, executionContext);
+            if (f instanceof AnalyticFunction) {
+                return f;
+            }
+            Misc.free(f);
+            throw SqlException.$(ac.getAst().position, "analytic function expected");
+        } catch (SqlException | CairoException e) {
+            Misc.freeObjList(partitionBy);
+            throw e;
+        }
+    }
+
     private int prepareLatestByColumnIndexes(ObjList<ExpressionNode> latestBy, RecordMetadata myMeta) throws SqlException {
         keyTypes.clear();
         listColumnFilterA.clear();
@@ -3321,6 +3713,29 @@ public class SqlCodeGenerator implements Mutable, Closeable {
         return indices;
     }
 
+    private void validateAnalyticFrame(AnalyticColumn ac, RecordMetadata metadata) throws SqlException {
+        final int position = ac.getAst().position;
+        // RANGE frame is measured by timestamp, rows with the same timestamp are peers
+        if (ac.getFramingMode() == AnalyticColumn.FRAMING_RANGE
+                && (ac.getOrderBy().size() > 0 || ac.getFrameLo() != AnalyticColumn.UNBOUNDED_PRECEDING)) {
+            final ObjList<ExpressionNode> orderBy = ac.getOrderBy();
+            final int columnIndex = orderBy.size() == 1 ? metadata.getColumnIndexQuiet(orderBy.getQuick(0).token) : -1;
+            if (columnIndex == -1
+                    || ColumnType.tagOf(metadata.getColumnType(columnIndex)) != ColumnType.TIMESTAMP
+                    || ac.getOrderByDirection().getQuick(0) != QueryModel.ORDER_DIRECTION_ASCENDING) {
+                throw SqlException.$(position, "RANGE frame requires ascending ORDER BY on a single TIMESTAMP column");
+            }
+        }
+
+        if (ac.getFrameHi() == AnalyticColumn.UNBOUNDED_FOLLOWING) {
+            if (ac.getFrameLo() != AnalyticColumn.UNBOUNDED_PRECEDING) {
+                throw SqlException.$(position, "frame ending with UNBOUNDED FOLLOWING must start with UNBOUNDED PRECEDING");
+            }
+        } else if (ac.getFrameHi() != 0) {
+            throw SqlException.$(position, "frame must end with CURRENT ROW or UNBOUNDED FOLLOWING");
+        }
+    }
+
     private void validateBothTimestamps(QueryModel slaveModel, RecordMetadata masterMetadata, RecordMetadata slaveMetadata) throws SqlException {
         if (masterMetadata.getTimestampIndex() == -1) {
             throw SqlException.$(slaveModel.getJoinKeywordPosition(), "left side of time series join has no timestamp");
@@ -35,6 +35,7 @@ import io.questdb.cairo.vm.api.MemoryMARW;
 import io.questdb.cutlass.text.Atomicity;
 import io.questdb.cutlass.text.TextException;
 import io.questdb.cutlass.text.TextLoader;
+import io.questdb.griffin.engine.QueryResultCacheRecordCursorFactory;
 import io.questdb.griffin.engine.functions.cast.CastCharToStrFunctionFactory;
 import io.questdb.griffin.engine.functions.cast.CastStrToGeoHashFunctionFactory;
 import io.questdb.griffin.engine.functions.catalogue.ShowSearchPathCursorFactory;
@@ -1229,8 +1230,10 @@ public class SqlCompiler implements Closeable {
                     }
 
                 } else if (SqlKeywords.isSetKeyword(tok)) {
-                    tok = expectToken(lexer, "'param'");
-                    if (SqlKeywords.isParamKeyword(tok)) {
+                    tok = expectToken(lexer, "'param' or 'tier'");
+                    if (SqlKeywords.isTierKeyword(tok)) {
+                        return alterTableSetTier(tableName, tableMetadata.getId());
+                    } else if (SqlKeywords.isParamKeyword(tok)) {
                         final int paramNameNamePosition = lexer.getPosition();
                         tok = expectToken(lexer, "param name");
                         final CharSequence paramName = GenericLexer.immutableOf(tok);
@@ -1242,7 +1245,7 @@ public class SqlCompiler implements Closeable {
                             throw SqlException.$(lexer.lastTokenPosition(), "'=' expected");
                         }
                     } else {
-                        throw SqlException.$(lexer.lastTokenPosition(), "'param' expected");
+                        throw SqlException.$(lexer.lastTokenPosition(), "'param' or 'tier' expected");
                     }
                 } else {
                     throw SqlException.$(lexer.lastTokenPosition(), "'add', 'drop', 'attach', 'set' or 'rename' expected");
@@ -1698,6 +1701,32 @@ public class SqlCompiler implements Closeable {
         }
     }
 
+    private CompiledQuery alterTableSetTier(String tableName, int tableId) throws SqlException {
+        CharSequence tok = expectToken(lexer, "'hot' or 'cold'");
+        final int tierPosition = lexer.lastTokenPosition();
+        tok = GenericLexer.unquote(tok);
+        if (SqlKeywords.isHotKeyword(tok)) {
+            // all new partitions stay on the hot tier, partitions that have been moved already remain on cold tier
+            return compiledQuery.ofAlter(alterQueryBuilder.ofSetParamColdTierAfter(tableName, tableId, 0).build());
+        }
+        if (!SqlKeywords.isColdKeyword(tok)) {
+            throw SqlException.$(tierPosition, "'hot' or 'cold' expected");
+        }
+        if (configuration.getColdTierRoot() == null) {
+            throw SqlException.$(tierPosition, "cold storage tier is disabled, no cold tier root directory is configured in the server configuration ['cairo.tier.cold.root' property]");
+        }
+        tok = expectToken(lexer, "'after'");
+        if (!SqlKeywords.isAfterKeyword(tok)) {
+            throw SqlException.$(lexer.lastTokenPosition(), "'after' expected");
+        }
+        tok = expectToken(lexer, "interval");
+        final long coldTierAfter = SqlUtil.expectMicros(tok, lexer.lastTokenPosition());
+        if (coldTierAfter <= 0) {
+            throw SqlException.$(lexer.lastTokenPosition(), "interval must be positive");
+        }
+        return compiledQuery.ofAlter(alterQueryBuilder.ofSetParamColdTierAfter(tableName, tableId, coldTierAfter).build());
+    }
+
     private void clear() {
         sqlNodePool.clear();
         characterStore.clear();
@@ -1763,7 +1792,7 @@ public class SqlCompiler implements Closeable {
         switch (executionModel.getModelType()) {
             case ExecutionModel.QUERY:
                 LOG.info().$("plan [q=`").$((QueryModel) executionModel).$("`, fd=").$(executionContext.getRequestFd()).$(']').$();
-                return compiledQuery.of(generate((QueryModel) executionModel, executionContext));
+                return compiledQuery.of(generateSelect((QueryModel) executionModel, executionContext));
             case ExecutionModel.CREATE_TABLE:
                 return createTableWithRetries(executionModel, executionContext);
             case ExecutionModel.COPY:
@@ -2010,6 +2039,7 @@ public class SqlCompiler implements Closeable {
         }
 
         this.insertCount = -1;
+        final MatViewDefinition matViewDefinition = createTableModel.isMatView() ? newMatViewDefinition(createTableModel, executionContext) : null;
 
         // Slow path with lock attempt
         CharSequence lockedReason = engine.lock(executionContext.getCairoSecurityContext(), name.token, "createTable");
@@ -2030,6 +2060,9 @@ public class SqlCompiler implements Closeable {
                         newTable = true;
                     } else {
                         writer = createTableFromCursor(createTableModel, executionContext);
+                        if (matViewDefinition != null) {
+                            MatViewDefinition.write(configuration.getFilesFacade(), mem, path, configuration.getRoot(), matViewDefinition);
+                        }
                     }
                 } catch (CairoException e) {
                     LOG.error().$("could not create table [error=").$((Throwable) e).$(']').$();
@@ -2075,6 +2108,27 @@ public class SqlCompiler implements Closeable {
         }
     }
 
+    private MatViewDefinition newMatViewDefinition(CreateTableModel model, SqlExecutionContext executionContext) throws SqlException {
+        final String baseTableName = model.getMatViewBaseTableName();
+        final CharSequence timestampName;
+        try (TableReader reader = engine.getReader(executionContext.getCairoSecurityContext(), baseTableName)) {
+            final int timestampIndex = reader.getMetadata().getTimestampIndex();
+            if (timestampIndex < 0) {
+                throw SqlException.$(model.getName().position, "base table of materialized view must have designated timestamp");
+            }
+            timestampName = reader.getMetadata().getColumnName(timestampIndex);
+        }
+
+        // refresh query reads only base table rows at or after $1
+        final String sql = model.getMatViewSql();
+        final int lo = model.getMatViewBaseTableLo();
+        final int hi = model.getMatViewBaseTableHi();
+        final String refreshSql = sql.substring(0, lo)
+                + '(' + sql.substring(lo, hi) + " where \"" + timestampName + "\" >= $1)"
+                + sql.substring(hi);
+        return new MatViewDefinition(Chars.toString(model.getName().token), baseTableName, sql, refreshSql);
+    }
+
     /**
      * Creates new table.
      * <p>
@@ -2240,6 +2294,34 @@ public class SqlCompiler implements Closeable {
         return codeGenerator.generate(queryModel, executionContext);
     }
 
+    private RecordCursorFactory generateSelect(QueryModel queryModel, SqlExecutionContext executionContext) throws SqlException {
+        final RecordCursorFactory factory = generate(queryModel, executionContext);
+        final QueryResultCache queryResultCache = engine.getQueryResultCache();
+        // results are cached for whole statements that read tables and produce the same
+        // output for the same table transactions
+        if (
+                queryResultCache == null
+                        || !isSingleQueryMode
+                        || functionParser.isNonDeterministic()
+                        || codeGenerator.getTableNames().size() == 0
+        ) {
+            return factory;
+        }
+        try {
+            return new QueryResultCacheRecordCursorFactory(
+                    engine,
+                    queryResultCache,
+                    factory,
+                    lexer.getContent(),
+                    codeGenerator.getTableNames(),
+                    asm
+            );
+        } catch (Throwable e) {
+            factory.close();
+            throw e;
+        }
+    }
+
     private CompiledQuery insert(ExecutionModel executionModel, SqlExecutionContext executionContext) throws SqlException {
         final InsertModel model = (InsertModel) executionModel;
         final ExpressionNode name = model.getTableName();
@@ -78,7 +78,11 @@ public interface SqlExecutionContext extends Closeable {
             @Nullable RecordSink partitionBySink,
             @Transient @Nullable ColumnTypes keyTypes,
             boolean isOrdered,
-            boolean baseSupportsRandomAccess
+            boolean baseSupportsRandomAccess,
+            int framingMode,
+            long frameLo,
+            long frameHi,
+            int timestampIndex
     );
 
     void initNow();
@@ -152,14 +152,22 @@ public class SqlExecutionContextImpl implements SqlExecutionContext {
             @Nullable RecordSink partitionBySink,
             @Transient @Nullable ColumnTypes partitionByKeyTypes,
             boolean ordered,
-            boolean baseSupportsRandomAccess
+            boolean baseSupportsRandomAccess,
+            int framingMode,
+            long frameLo,
+            long frameHi,
+            int timestampIndex
     ) {
         analyticContext.of(
                 partitionByRecord,
                 partitionBySink,
                 partitionByKeyTypes,
                 ordered,
-                baseSupportsRandomAccess
+                baseSupportsRandomAccess,
+                framingMode,
+                frameLo,
+                frameHi,
+                timestampIndex
         );
     }
 
@@ -454,11 +454,19 @@ public final class SqlParser {
     }
 
     private ExecutionModel parseCreateStatement(GenericLexer lexer, SqlExecutionContext executionContext) throws SqlException {
+        final CharSequence tok = optTok(lexer);
+        if (tok != null && isMaterializedKeyword(tok)) {
+            expectTok(lexer, "view");
+            return parseCreateTable(lexer, executionContext, true);
+        }
+        if (tok != null) {
+            lexer.unparse();
+        }
         expectTok(lexer, "table");
-        return parseCreateTable(lexer, executionContext);
+        return parseCreateTable(lexer, executionContext, false);
     }
 
-    private ExecutionModel parseCreateTable(GenericLexer lexer, SqlExecutionContext executionContext) throws SqlException {
+    private ExecutionModel parseCreateTable(GenericLexer lexer, SqlExecutionContext executionContext, boolean matView) throws SqlException {
         final CreateTableModel model = createTableModelPool.next();
         final CharSequence tableName;
         CharSequence tok = tok(lexer, "table name or 'if'");
@@ -475,13 +483,13 @@ public final class SqlParser {
 
         model.setName(nextLiteral(GenericLexer.assertNoDotsAndSlashes(GenericLexer.unquote(tableName), lexer.lastTokenPosition()), lexer.lastTokenPosition()));
 
-        tok = tok(lexer, "'(' or 'as'");
+        tok = tok(lexer, matView ? "'as'" : "'(' or 'as'");
 
-        if (Chars.equals(tok, '(')) {
+        if (Chars.equals(tok, '(') && !matView) {
             lexer.unparse();
             parseCreateTableColumns(lexer, model);
         } else if (isAsKeyword(tok)) {
-            parseCreateTableAsSelect(lexer, model, executionContext);
+            parseCreateTableAsSelect(lexer, model, executionContext, matView);
         } else {
             throw errUnexpected(lexer, tok);
         }
@@ -551,15 +559,30 @@ public final class SqlParser {
         model.setMaxUncommittedRows(maxUncommittedRows);
         model.setCommitLag(commitLag);
 
+        if (matView && model.getPartitionBy() == PartitionBy.NONE) {
+            // view is refreshed by replacing its most recent partitions
+            throw SqlException.$(lexer.getPosition(), "materialized view must be partitioned");
+        }
+
         if (tok == null || Chars.equals(tok, ';')) {
             return model;
         }
         throw errUnexpected(lexer, tok);
     }
 
-    private void parseCreateTableAsSelect(GenericLexer lexer, CreateTableModel model, SqlExecutionContext executionContext) throws SqlException {
+    private void parseCreateTableAsSelect(GenericLexer lexer, CreateTableModel model, SqlExecutionContext executionContext, boolean matView) throws SqlException {
         expectTok(lexer, '(');
-        QueryModel queryModel = optimiser.optimise(parseDml(lexer, null), executionContext);
+        final int queryLo = lexer.getPosition();
+        final QueryModel parsedModel = parseDml(lexer, null);
+        String baseTableName = null;
+        int baseTableLo = 0;
+        if (matView) {
+            // capture base table before optimiser rewrites the model
+            final ExpressionNode baseTable = validateMatViewQuery(parsedModel);
+            baseTableName = Chars.toString(baseTable.token);
+            baseTableLo = baseTable.position;
+        }
+        QueryModel queryModel = optimiser.optimise(parsedModel, executionContext);
         ObjList<QueryColumn> columns = queryModel.getBottomUpColumns();
         assert columns.size() > 0;
 
@@ -571,6 +594,58 @@ public final class SqlParser {
 
         model.setQueryModel(queryModel);
         expectTok(lexer, ')');
+
+        if (matView) {
+            final CharSequence content = lexer.getContent();
+            final int queryHi = lexer.lastTokenPosition();
+            int baseTableHi = baseTableLo + 1;
+            final char c = content.charAt(baseTableLo);
+            if (c == '\'' || c == '"') {
+                while (baseTableHi < queryHi && content.charAt(baseTableHi) != c) {
+                    baseTableHi++;
+                }
+                baseTableHi++;
+            } else {
+                baseTableHi = baseTableLo + baseTableName.length();
+            }
+            model.setMatView(
+                    baseTableName,
+                    Chars.toString(content, queryLo, queryHi),
+                    baseTableLo - queryLo,
+                    baseTableHi - queryLo
+            );
+        }
+    }
+
+    private ExpressionNode validateMatViewQuery(QueryModel model) throws SqlException {
+        QueryModel sampleByModel = null;
+        QueryModel m = model;
+        while (true) {
+            if (m.getJoinModels().size() > 1) {
+                final ExpressionNode joinTableName = m.getJoinModels().getQuick(1).getTableName();
+                throw SqlException.$(joinTableName != null ? joinTableName.position : 0, "joins are not supported in materialized view");
+            }
+            if (sampleByModel == null && m.getSampleBy() != null) {
+                sampleByModel = m;
+            }
+            if (m.getNestedModel() == null) {
+                break;
+            }
+            m = m.getNestedModel();
+        }
+
+        if (sampleByModel == null) {
+            throw SqlException.$(0, "materialized view query must use SAMPLE BY");
+        }
+        // buckets must not depend on the first row, view is recomputed from the middle of the base table
+        if (sampleByModel.getSampleByOffset() == null) {
+            throw SqlException.$(sampleByModel.getSampleBy().position, "materialized view requires SAMPLE BY with ALIGN TO CALENDAR");
+        }
+        final ExpressionNode tableName = m.getTableName();
+        if (tableName == null || tableName.type != ExpressionNode.LITERAL) {
+            throw SqlException.$(0, "materialized view must select from a table");
+        }
+        return tableName;
     }
 
     private void parseCreateTableCastDef(GenericLexer lexer, CreateTableModel model) throws SqlException {
@@ -1092,7 +1167,8 @@ public final class SqlParser {
                 if (isCalendarKeyword(tok)) {
                     tok = optTok(lexer);
 
-                    if (tok != null && !isSemicolon(tok)) {
+                    // closing bracket ends sample by of a sub-query
+                    if (tok != null && !isSemicolon(tok) && !Chars.equals(tok, ')')) {
                         if (isTimeKeyword(tok)) {
                             expectZone(lexer);
                             model.setSampleByTimezoneName(expectExpr(lexer));
@@ -1453,6 +1529,78 @@ public final class SqlParser {
         throw errUnexpected(lexer, tok);
     }
 
+    private CharSequence parseAnalyticFrame(GenericLexer lexer, AnalyticColumn col, CharSequence tok) throws SqlException {
+        final int framingMode = isRowsKeyword(tok) ? AnalyticColumn.FRAMING_ROWS : AnalyticColumn.FRAMING_RANGE;
+        tok = tok(lexer, "'between', 'unbounded', 'current' or integer");
+        final long lo;
+        final long hi;
+        if (isBetweenKeyword(tok)) {
+            tok = tok(lexer, "'unbounded', 'current' or integer");
+            final int loPosition = lexer.lastTokenPosition();
+            lo = parseAnalyticFrameBound(lexer, tok);
+            expectTok(lexer, "and");
+            tok = tok(lexer, "'unbounded', 'current' or integer");
+            final int hiPosition = lexer.lastTokenPosition();
+            hi = parseAnalyticFrameBound(lexer, tok);
+            if (lo == AnalyticColumn.UNBOUNDED_FOLLOWING) {
+                throw SqlException.$(loPosition, "frame start cannot be UNBOUNDED FOLLOWING");
+            }
+            if (hi == AnalyticColumn.UNBOUNDED_PRECEDING) {
+                throw SqlException.$(hiPosition, "frame end cannot be UNBOUNDED PRECEDING");
+            }
+            if (lo > hi) {
+                throw SqlException.$(hiPosition, "frame end cannot be before frame start");
+            }
+        } else {
+            // short form, frame ends with the current row
+            final int loPosition = lexer.lastTokenPosition();
+            lo = parseAnalyticFrameBound(lexer, tok);
+            if (lo > 0) {
+                throw SqlException.$(loPosition, "frame start cannot be after the current row");
+            }
+            hi = 0;
+        }
+        col.setFrame(framingMode, lo, hi);
+        return tok(lexer, "')'");
+    }
+
+    private long parseAnalyticFrameBound(GenericLexer lexer, CharSequence tok) throws SqlException {
+        if (isUnboundedKeyword(tok)) {
+            tok = tok(lexer, "'preceding' or 'following'");
+            if (isPrecedingKeyword(tok)) {
+                return AnalyticColumn.UNBOUNDED_PRECEDING;
+            }
+            if (isFollowingKeyword(tok)) {
+                return AnalyticColumn.UNBOUNDED_FOLLOWING;
+            }
+            throw SqlException.$(lexer.lastTokenPosition(), "'preceding' or 'following' expected");
+        }
+
+        if (isCurrentKeyword(tok)) {
+            expectTok(lexer, "row");
+            return 0;
+        }
+
+        final long offset;
+        try {
+            offset = Numbers.parseLong(tok);
+        } catch (NumericException e) {
+            throw SqlException.$(lexer.lastTokenPosition(), "'unbounded', 'current' or non-negative integer expected");
+        }
+        if (offset < 0) {
+            throw SqlException.$(lexer.lastTokenPosition(), "'unbounded', 'current' or non-negative integer expected");
+        }
+
+        tok = tok(lexer, "'preceding' or 'following'");
+        if (isPrecedingKeyword(tok)) {
+            return -offset;
+        }
+        if (isFollowingKeyword(tok)) {
+            return offset;
+        }
+        throw SqlException.$(lexer.lastTokenPosition(), "'preceding' or 'following' expected");
+    }
+
     private void parseSelectClause(GenericLexer lexer, QueryModel model) throws SqlException {
         CharSequence tok = tok(lexer, "[distinct] column");
 
@@ -1532,6 +1680,10 @@ public final class SqlParser {
                         }
                     } while (Chars.equals(tok, ','));
                 }
+
+                if (isRowsKeyword(tok) || isRangeKeyword(tok)) {
+                    tok = parseAnalyticFrame(lexer, (AnalyticColumn) col, tok);
+                }
                 expectTok(tok, lexer.lastTokenPosition(), ')');
                 tok = optTok(lexer);
 
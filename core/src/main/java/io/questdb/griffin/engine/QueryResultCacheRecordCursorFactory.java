@@ -0,0 +1,430 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2022 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.griffin.engine;
+
+import io.questdb.cairo.*;
+import io.questdb.cairo.sql.*;
+import io.questdb.cairo.sql.Record;
+import io.questdb.griffin.SqlException;
+import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.std.*;
+import io.questdb.std.str.CharSink;
+import io.questdb.std.str.Path;
+import io.questdb.std.str.StringSink;
+
+/**
+ * Serves query results from {@link QueryResultCache}. The cache key is SQL text followed
+ * by the values of indexed bind variables. A cached result is used only when none of the
+ * tables the query reads committed since the result was materialized. Otherwise rows of
+ * the base cursor are returned to the caller as they come and copied into a new result,
+ * which is cached once the cursor reaches the end. Results larger than the cache memory
+ * limit are abandoned mid-way. Such keys are remembered, so that the following executions
+ * skip copying until tables change.
+ * <p>
+ * Table transactions are read from <code>_txn</code> files mapped once per factory rather than via
+ * table readers. Cached rows keep symbol keys, symbol values are cached per column alongside.
+ */
+public class QueryResultCacheRecordCursorFactory extends AbstractRecordCursorFactory {
+    // oversized keys are forgotten all at once when there are too many of them
+    private static final int MAX_OVERSIZED_KEYS = 1024;
+    private final RecordCursorFactory base;
+    private final CairoEngine engine;
+    private final QueryResultCache cache;
+    private final String sql;
+    private final ObjList<String> tableNames = new ObjList<>();
+    private final ArrayColumnTypes chainColumnTypes = new ArrayColumnTypes();
+    private final RecordSink recordSink;
+    private final StringSink key = new StringSink();
+    private final LongList tableTxns = new LongList();
+    private final LongList tableIds = new LongList();
+    private final ObjList<TxReader> txReaders = new ObjList<>();
+    private final CharSequenceObjHashMap<LongList> oversizedKeys = new CharSequenceObjHashMap<>();
+    private final IntList symbolColumns = new IntList();
+    private final CachedResultRecordCursor cursor = new CachedResultRecordCursor();
+    private final CachingRecordCursor cachingCursor = new CachingRecordCursor();
+    private long tableGeneration = -1;
+
+    public QueryResultCacheRecordCursorFactory(
+            CairoEngine engine,
+            QueryResultCache cache,
+            RecordCursorFactory base,
+            CharSequence sql,
+            ObjList<String> tableNames,
+            BytecodeAssembler asm
+    ) {
+        super(base.getMetadata());
+        this.base = base;
+        this.engine = engine;
+        this.cache = cache;
+        this.sql = Chars.toString(sql);
+        this.tableNames.addAll(tableNames);
+        final RecordMetadata metadata = base.getMetadata();
+        for (int i = 0, n = metadata.getColumnCount(); i < n; i++) {
+            final int type = metadata.getColumnType(i);
+            if (ColumnType.isSymbol(type)) {
+                symbolColumns.add(i);
+            }
+            chainColumnTypes.add(type);
+        }
+        final EntityColumnFilter columnFilter = new EntityColumnFilter();
+        columnFilter.of(metadata.getColumnCount());
+        this.recordSink = RecordSinkFactory.getInstance(asm, metadata, columnFilter, false);
+    }
+
+    @Override
+    public void close() {
+        cursor.close();
+        cachingCursor.close();
+        Misc.freeObjList(txReaders);
+        base.close();
+    }
+
+    @Override
+    public RecordCursor getCursor(SqlExecutionContext executionContext) throws SqlException {
+        key.clear();
+        key.put(sql);
+        if (!appendBindVariables(executionContext.getBindVariableService(), key)) {
+            return base.getCursor(executionContext);
+        }
+
+        readTableTxns(executionContext);
+
+        final int oversizedIndex = oversizedKeys.keyIndex(key);
+        if (oversizedIndex < 0) {
+            if (QueryResultCache.sameTxns(oversizedKeys.valueAtQuick(oversizedIndex), tableTxns)) {
+                return base.getCursor(executionContext);
+            }
+            // tables changed, result may fit now
+            oversizedKeys.removeAt(oversizedIndex);
+        }
+
+        final QueryResultCache.Entry entry = cache.poll(key, tableTxns);
+        if (entry == null) {
+            return cachingCursor.of(base.getCursor(executionContext));
+        }
+        cursor.of(entry);
+        return cursor;
+    }
+
+    @Override
+    public boolean recordCursorSupportsRandomAccess() {
+        return false;
+    }
+
+    @Override
+    public boolean usesCompiledFilter() {
+        return base.usesCompiledFilter();
+    }
+
+    private static boolean appendBindVariables(BindVariableService bindVariableService, CharSink sink) {
+        for (int i = 0, n = bindVariableService.getIndexedVariableCount(); i < n; i++) {
+            final Function function = bindVariableService.getFunction(i);
+            sink.put('\u0000');
+            if (function == null) {
+                continue;
+            }
+            final int type = function.getType();
+            sink.put(type).put(':');
+            switch (ColumnType.tagOf(type)) {
+                case ColumnType.BOOLEAN:
+                    sink.put(function.getBool(null));
+                    break;
+                case ColumnType.BYTE:
+                    sink.put(function.getByte(null));
+                    break;
+                case ColumnType.SHORT:
+                    sink.put(function.getShort(null));
+                    break;
+                case ColumnType.CHAR:
+                    sink.put(function.getChar(null));
+                    break;
+                case ColumnType.INT:
+                    sink.put(function.getInt(null));
+                    break;
+                case ColumnType.LONG:
+                    sink.put(function.getLong(null));
+                    break;
+                case ColumnType.DATE:
+                    sink.put(function.getDate(null));
+                    break;
+                case ColumnType.TIMESTAMP:
+                    sink.put(function.getTimestamp(null));
+                    break;
+                case ColumnType.FLOAT:
+                    sink.put(Float.floatToIntBits(function.getFloat(null)));
+                    break;
+                case ColumnType.DOUBLE:
+                    sink.put(Double.doubleToLongBits(function.getDouble(null)));
+                    break;
+                case ColumnType.STRING:
+                    final CharSequence value = function.getStr(null);
+                    if (value == null) {
+                        sink.put(TableUtils.NULL_LEN);
+                    } else {
+                        sink.put(value.length()).put(':').put(value);
+                    }
+                    break;
+                case ColumnType.LONG256:
+                    function.getLong256(null, sink);
+                    break;
+                case ColumnType.GEOBYTE:
+                    sink.put(function.getGeoByte(null));
+                    break;
+                case ColumnType.GEOSHORT:
+                    sink.put(function.getGeoShort(null));
+                    break;
+                case ColumnType.GEOINT:
+                    sink.put(function.getGeoInt(null));
+                    break;
+                case ColumnType.GEOLONG:
+                    sink.put(function.getGeoLong(null));
+                    break;
+                default:
+                    // binary and other values are not worth keying on
+                    return false;
+            }
+        }
+        return true;
+    }
+
+    private void openTxReaders(SqlExecutionContext executionContext) {
+        Misc.freeObjList(txReaders);
+        txReaders.clear();
+        tableIds.clear();
+        final CairoConfiguration configuration = engine.getConfiguration();
+        try (Path path = new Path()) {
+            for (int i = 0, n = tableNames.size(); i < n; i++) {
+                final CharSequence tableName = tableNames.getQuick(i);
+                final int partitionBy;
+                try (TableReader reader = engine.getReader(executionContext.getCairoSecurityContext(), tableName)) {
+                    tableIds.add(reader.getMetadata().getId());
+                    partitionBy = reader.getPartitionedBy();
+                }
+                path.of(configuration.getRoot()).concat(tableName);
+                txReaders.add(new TxReader(configuration.getFilesFacade()).ofRO(path, partitionBy));
+            }
+        }
+    }
+
+    private void readTableTxns(SqlExecutionContext executionContext) {
+        // tables may have been dropped or renamed since _txn files were mapped
+        final long generation = cache.getTableGeneration();
+        if (generation != tableGeneration) {
+            openTxReaders(executionContext);
+            tableGeneration = generation;
+        }
+
+        final CairoConfiguration configuration = engine.getConfiguration();
+        tableTxns.clear();
+        for (int i = 0, n = txReaders.size(); i < n; i++) {
+            final TxReader txReader = txReaders.getQuick(i);
+            TableUtils.safeReadTxn(txReader, configuration.getMicrosecondClock(), configuration.getSpinLockTimeoutUs());
+            tableTxns.add(tableIds.getQuick(i));
+            tableTxns.add(txReader.getTxn());
+        }
+    }
+
+    private void rememberOversizedKey() {
+        if (oversizedKeys.size() >= MAX_OVERSIZED_KEYS) {
+            oversizedKeys.clear();
+        }
+        final LongList txns = new LongList(tableTxns.size());
+        txns.add(tableTxns);
+        oversizedKeys.put(Chars.toString(key), txns);
+    }
+
+    private class CachedResultRecordCursor implements RecordCursor {
+        private QueryResultCache.Entry entry;
+        private RecordChain chain;
+
+        @Override
+        public void close() {
+            if (entry != null) {
+                cache.push(entry);
+                entry = null;
+                chain = null;
+            }
+        }
+
+        @Override
+        public Record getRecord() {
+            return chain.getRecord();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return chain.hasNext();
+        }
+
+        @Override
+        public Record getRecordB() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public SymbolTable getSymbolTable(int columnIndex) {
+            return entry.getSymbolTable(columnIndex);
+        }
+
+        @Override
+        public void recordAt(Record record, long atRowId) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void toTop() {
+            chain.toTop();
+        }
+
+        @Override
+        public long size() {
+            return entry.getRowCount();
+        }
+
+        private void of(QueryResultCache.Entry entry) {
+            this.entry = entry;
+            this.chain = entry.getChain();
+            chain.setSymbolTableResolver(this);
+            chain.toTop();
+        }
+    }
+
+    // returns rows of the base cursor and copies them into a new result on the way
+    private class CachingRecordCursor implements RecordCursor {
+        private final ObjList<QueryResultCache.CachedSymbolTable> symbolTables = new ObjList<>();
+        private RecordCursor base;
+        private Record record;
+        private RecordChain chain;
+        private long offset;
+        private long rowCount;
+
+        @Override
+        public void close() {
+            chain = Misc.free(chain);
+            base = Misc.free(base);
+        }
+
+        @Override
+        public Record getRecord() {
+            return record;
+        }
+
+        @Override
+        public SymbolTable getSymbolTable(int columnIndex) {
+            return base.getSymbolTable(columnIndex);
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (base.hasNext()) {
+                if (chain != null) {
+                    copyRecord();
+                }
+                return true;
+            }
+            if (chain != null) {
+                cache.push(new QueryResultCache.Entry(key, chain, symbolTables(), tableTxns, rowCount, getMemorySize()));
+                chain = null;
+            }
+            return false;
+        }
+
+        @Override
+        public Record getRecordB() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void recordAt(Record record, long atRowId) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void toTop() {
+            base.toTop();
+            if (chain != null) {
+                // rows are copied again from the top
+                chain.clear();
+                startCopy();
+            }
+        }
+
+        @Override
+        public long size() {
+            return base.size();
+        }
+
+        private void copyRecord() {
+            offset = chain.put(record, offset);
+            rowCount++;
+            for (int i = 0, n = symbolColumns.size(); i < n; i++) {
+                final int columnIndex = symbolColumns.getQuick(i);
+                symbolTables.getQuick(columnIndex).put(record, columnIndex);
+            }
+            if (getMemorySize() > cache.getMemoryLimit()) {
+                chain = Misc.free(chain);
+                rememberOversizedKey();
+            }
+        }
+
+        private long getMemorySize() {
+            long size = chain.getMemorySize();
+            for (int i = 0, n = symbolColumns.size(); i < n; i++) {
+                size += symbolTables.getQuick(symbolColumns.getQuick(i)).getMemorySize();
+            }
+            return size;
+        }
+
+        private CachingRecordCursor of(RecordCursor base) {
+            this.base = base;
+            this.record = base.getRecord();
+            try {
+                chain = new RecordChain(chainColumnTypes, recordSink, cache.getPageSize(), Integer.MAX_VALUE);
+            } catch (Throwable e) {
+                base.close();
+                throw e;
+            }
+            startCopy();
+            return this;
+        }
+
+        private void startCopy() {
+            offset = -1;
+            rowCount = 0;
+            symbolTables.clear();
+            for (int i = 0, n = symbolColumns.size(); i < n; i++) {
+                symbolTables.extendAndSet(symbolColumns.getQuick(i), new QueryResultCache.CachedSymbolTable());
+            }
+        }
+
+        // the cached result owns the symbol tables, the cursor starts new ones for the next result
+        private ObjList<QueryResultCache.CachedSymbolTable> symbolTables() {
+            final ObjList<QueryResultCache.CachedSymbolTable> tables = new ObjList<>(symbolTables.size());
+            tables.addAll(symbolTables);
+            return tables;
+        }
+    }
+}
@@ -38,4 +38,22 @@ public interface AnalyticContext {
     boolean isOrdered();
 
     boolean baseSupportsRandomAccess();
+
+    /**
+     * @return one of {@link io.questdb.griffin.model.AnalyticColumn} framing constants
+     */
+    int getFramingMode();
+
+    /**
+     * @return frame start relative to the current row, negative values are preceding rows or,
+     * for RANGE framing, preceding timestamp interval
+     */
+    long getFrameLo();
+
+    long getFrameHi();
+
+    /**
+     * @return index of ORDER BY timestamp column RANGE frame is measured by, or -1
+     */
+    int getTimestampIndex();
 }
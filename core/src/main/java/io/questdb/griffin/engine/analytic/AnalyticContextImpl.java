@@ -36,6 +36,10 @@ public class AnalyticContextImpl implements AnalyticContext {
     private ColumnTypes partitionByKeyTypes;
     private boolean ordered;
     private boolean baseSupportsRandomAccess;
+    private int framingMode;
+    private long frameLo;
+    private long frameHi;
+    private int timestampIndex;
 
     @Override
     public VirtualRecord getPartitionByRecord() {
@@ -62,17 +66,45 @@ public class AnalyticContextImpl implements AnalyticContext {
         return baseSupportsRandomAccess;
     }
 
+    @Override
+    public int getFramingMode() {
+        return framingMode;
+    }
+
+    @Override
+    public long getFrameLo() {
+        return frameLo;
+    }
+
+    @Override
+    public long getFrameHi() {
+        return frameHi;
+    }
+
+    @Override
+    public int getTimestampIndex() {
+        return timestampIndex;
+    }
+
     public void of(
             VirtualRecord partitionByRecord,
             @Nullable RecordSink partitionBySink,
             @Transient @Nullable ColumnTypes partitionByKeyTypes,
             boolean ordered,
-            boolean baseSupportsRandomAccess
+            boolean baseSupportsRandomAccess,
+            int framingMode,
+            long frameLo,
+            long frameHi,
+            int timestampIndex
     ) {
         this.partitionByRecord = partitionByRecord;
         this.partitionBySink = partitionBySink;
         this.partitionByKeyTypes = partitionByKeyTypes;
         this.ordered = ordered;
         this.baseSupportsRandomAccess = baseSupportsRandomAccess;
+        this.framingMode = framingMode;
+        this.frameLo = frameLo;
+        this.frameHi = frameHi;
+        this.timestampIndex = timestampIndex;
     }
 }
@@ -34,11 +34,20 @@ public interface AnalyticFunction extends Function {
     int TWO_PASS = 2;
     int THREE_PASS = 3;
 
+    /**
+     * @return {@link #STREAM} when value of the row is known once the row and rows before it are seen,
+     * {@link #TWO_PASS} when value depends on the rows that follow, for example when frame is the whole partition
+     * or includes peers of the current row
+     */
+    default int getPassCount() {
+        return STREAM;
+    }
+
     void pass1(Record record, long recordOffset, AnalyticSPI spi);
 
     void preparePass2(RecordCursor cursor);
 
-    void pass2(Record record);
+    void pass2(Record record, long recordOffset, AnalyticSPI spi);
 
     void reset();
 
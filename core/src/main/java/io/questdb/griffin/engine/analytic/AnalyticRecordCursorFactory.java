@@ -0,0 +1,214 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2022 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.griffin.engine.analytic;
+
+import io.questdb.cairo.AbstractRecordCursorFactory;
+import io.questdb.cairo.sql.Function;
+import io.questdb.cairo.sql.Record;
+import io.questdb.cairo.sql.RecordCursor;
+import io.questdb.cairo.sql.RecordCursorFactory;
+import io.questdb.cairo.sql.RecordMetadata;
+import io.questdb.griffin.SqlException;
+import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.griffin.engine.AbstractVirtualFunctionRecordCursor;
+import io.questdb.std.LongList;
+import io.questdb.std.Misc;
+import io.questdb.std.ObjList;
+
+/**
+ * Computes analytic functions in a single pass over the base cursor. This is possible when base cursor
+ * returns rows in the order of analytic ORDER BY clause, which is ascending designated timestamp, and every
+ * function value depends on the current and preceding rows only. Unlike {@link CachedAnalyticRecordCursorFactory}
+ * rows are not copied into memory, functions keep as much state per partition as their frames require.
+ * <p>
+ * RANGE frame includes peers of the current row, i.e. rows with the same timestamp, which follow it. When such
+ * frame is present, rows are held back until their peer group is complete: row ids of the group are collected
+ * while peer functions see its rows, the rows are then returned via random access to the base cursor.
+ */
+public class AnalyticRecordCursorFactory extends AbstractRecordCursorFactory {
+    private final RecordCursorFactory base;
+    private final ObjList<Function> functions;
+    private final ObjList<StreamAnalyticFunction> analyticFunctions;
+    // functions, which frame includes peers of the current row
+    private final ObjList<StreamAnalyticFunction> peerFunctions = new ObjList<>();
+    private final ObjList<StreamAnalyticFunction> rowFunctions = new ObjList<>();
+    private final AnalyticRecordCursor cursor;
+
+    /**
+     * @param timestampIndex index of base timestamp, which rows are ordered by, -1 when there are no peer functions
+     */
+    public AnalyticRecordCursorFactory(
+            RecordMetadata metadata,
+            RecordCursorFactory base,
+            ObjList<Function> functions,
+            ObjList<StreamAnalyticFunction> analyticFunctions,
+            int timestampIndex
+    ) {
+        super(metadata);
+        this.base = base;
+        this.functions = functions;
+        this.analyticFunctions = analyticFunctions;
+        for (int i = 0, n = analyticFunctions.size(); i < n; i++) {
+            final StreamAnalyticFunction function = analyticFunctions.getQuick(i);
+            if (function.isPeerFrame()) {
+                peerFunctions.add(function);
+            } else {
+                rowFunctions.add(function);
+            }
+        }
+        assert peerFunctions.size() == 0 || (timestampIndex > -1 && base.recordCursorSupportsRandomAccess());
+        this.cursor = peerFunctions.size() > 0 ? new PeerAnalyticRecordCursor(functions, timestampIndex) : new AnalyticRecordCursor(functions);
+    }
+
+    @Override
+    public void close() {
+        Misc.freeObjList(functions);
+        Misc.free(base);
+    }
+
+    @Override
+    public RecordCursor getCursor(SqlExecutionContext executionContext) throws SqlException {
+        final RecordCursor baseCursor = base.getCursor(executionContext);
+        try {
+            Function.init(functions, baseCursor, executionContext);
+            for (int i = 0, n = analyticFunctions.size(); i < n; i++) {
+                analyticFunctions.getQuick(i).reset();
+            }
+            cursor.of(baseCursor);
+            return cursor;
+        } catch (Throwable e) {
+            baseCursor.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public boolean recordCursorSupportsRandomAccess() {
+        return false;
+    }
+
+    @Override
+    public boolean usesCompiledFilter() {
+        return base.usesCompiledFilter();
+    }
+
+    private class AnalyticRecordCursor extends AbstractVirtualFunctionRecordCursor {
+        protected Record baseRecord;
+
+        public AnalyticRecordCursor(ObjList<Function> functions) {
+            super(functions, false);
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (baseCursor.hasNext()) {
+                for (int i = 0, n = analyticFunctions.size(); i < n; i++) {
+                    analyticFunctions.getQuick(i).computeNext(baseRecord);
+                }
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public void of(RecordCursor cursor) {
+            super.of(cursor);
+            baseRecord = cursor.getRecord();
+        }
+    }
+
+    private class PeerAnalyticRecordCursor extends AnalyticRecordCursor {
+        private final int timestampIndex;
+        private final LongList groupRowIds = new LongList();
+        private Record peerRecord;
+        private int groupPos;
+        // base cursor is at the first row of the next peer group
+        private boolean pending;
+        private boolean exhausted;
+
+        public PeerAnalyticRecordCursor(ObjList<Function> functions, int timestampIndex) {
+            super(functions);
+            this.timestampIndex = timestampIndex;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (groupPos == groupRowIds.size() && !nextGroup()) {
+                return false;
+            }
+            baseCursor.recordAt(peerRecord, groupRowIds.getQuick(groupPos++));
+            for (int i = 0, n = rowFunctions.size(); i < n; i++) {
+                rowFunctions.getQuick(i).computeNext(peerRecord);
+            }
+            for (int i = 0, n = peerFunctions.size(); i < n; i++) {
+                peerFunctions.getQuick(i).computePeerValue(peerRecord);
+            }
+            return true;
+        }
+
+        @Override
+        public void of(RecordCursor cursor) {
+            super.of(cursor);
+            peerRecord = cursor.getRecordB();
+            // returned rows are positioned via random access
+            recordA.of(peerRecord);
+            resetGroup();
+        }
+
+        @Override
+        public void toTop() {
+            super.toTop();
+            resetGroup();
+        }
+
+        private boolean nextGroup() {
+            groupRowIds.clear();
+            groupPos = 0;
+            if (!pending) {
+                if (exhausted || !baseCursor.hasNext()) {
+                    exhausted = true;
+                    return false;
+                }
+            }
+            final long timestamp = baseRecord.getTimestamp(timestampIndex);
+            do {
+                groupRowIds.add(baseRecord.getRowId());
+                for (int i = 0, n = peerFunctions.size(); i < n; i++) {
+                    peerFunctions.getQuick(i).computeNext(baseRecord);
+                }
+                pending = baseCursor.hasNext();
+            } while (pending && baseRecord.getTimestamp(timestampIndex) == timestamp);
+            exhausted = !pending;
+            return true;
+        }
+
+        private void resetGroup() {
+            groupRowIds.clear();
+            groupPos = 0;
+            pending = false;
+            exhausted = false;
+        }
+    }
+}
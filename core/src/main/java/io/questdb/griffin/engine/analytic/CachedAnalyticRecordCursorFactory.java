@@ -47,6 +47,7 @@ public class CachedAnalyticRecordCursorFactory implements RecordCursorFactory {
     private final ObjList<ObjList<AnalyticFunction>> orderedFunctions;
     @Nullable private final ObjList<AnalyticFunction> unorderedFunctions;
     private final ObjList<AnalyticFunction> allFunctions;
+    private final ObjList<AnalyticFunction> twoPassFunctions;
     private final ObjList<RecordComparator> comparators;
     private final GenericRecordMetadata metadata;
     private final Record recordChainRecord;
@@ -94,6 +95,13 @@ public class CachedAnalyticRecordCursorFactory implements RecordCursorFactory {
         if (unorderedFunctions != null) {
             allFunctions.addAll(unorderedFunctions);
         }
+        this.twoPassFunctions = new ObjList<>();
+        for (int i = 0, n = allFunctions.size(); i < n; i++) {
+            final AnalyticFunction function = allFunctions.getQuick(i);
+            if (function.getPassCount() > AnalyticFunction.STREAM) {
+                twoPassFunctions.add(function);
+            }
+        }
 
         // create our metadata and also flatten functions for our record representation
         this.metadata = metadata;
@@ -120,52 +128,70 @@ public class CachedAnalyticRecordCursorFactory implements RecordCursorFactory {
         resetFunctions();
 
         final RecordCursor baseCursor = base.getCursor(executionContext);
+        // rows are copied into the chain, base cursor is not needed once all functions passed
+        try {
+            // step #1: store source cursor in record list
+            // - add record list' row ids to all trees, which will put these row ids in necessary order
+            // for this we will be using out comparator, which helps tree compare long values
+            // based on record these values are addressing
+            long offset = -1;
+            final Record record = baseCursor.getRecord();
+            final Record chainRightRecord = recordChain.getRecordB();
+            if (orderedGroupCount > 0) {
+                while (baseCursor.hasNext()) {
+                    offset = recordChain.put(record, offset);
+                    recordChain.recordAt(recordChainRecord, offset);
+                    for (int i = 0; i < orderedGroupCount; i++) {
+                        orderedSources.getQuick(i).put(recordChainRecord, recordChain, chainRightRecord, comparators.getQuick(i));
+                    }
+                }
+            } else {
+                while (baseCursor.hasNext()) {
+                    offset = recordChain.put(record, offset);
+                }
+            }
 
-        // step #1: store source cursor in record list
-        // - add record list' row ids to all trees, which will put these row ids in necessary order
-        // for this we will be using out comparator, which helps tree compare long values
-        // based on record these values are addressing
-        long offset = -1;
-        final Record record = baseCursor.getRecord();
-        final Record chainRightRecord = recordChain.getRecordB();
-        if (orderedGroupCount > 0) {
-            while (baseCursor.hasNext()) {
-                offset = recordChain.put(record, offset);
-                recordChain.recordAt(recordChainRecord, offset);
+            if (orderedGroupCount > 0) {
                 for (int i = 0; i < orderedGroupCount; i++) {
-                    orderedSources.getQuick(i).put(recordChainRecord, recordChain, chainRightRecord, comparators.getQuick(i));
+                    final LongTreeChain tree = orderedSources.getQuick(i);
+                    final ObjList<AnalyticFunction> functions = orderedFunctions.getQuick(i);
+                    // step #2: populate all analytic functions with records in order of respective tree
+                    final LongTreeChain.TreeCursor cursor = tree.getCursor();
+                    final int functionCount = functions.size();
+                    while (cursor.hasNext()) {
+                        offset = cursor.next();
+                        recordChain.recordAt(recordChainRecord, offset);
+                        for (int j = 0; j < functionCount; j++) {
+                            functions.getQuick(j).pass1(recordChainRecord, offset, recordChain);
+                        }
+                    }
                 }
             }
-        } else {
-            while (baseCursor.hasNext()) {
-                offset = recordChain.put(record, offset);
-            }
-        }
 
-        if (orderedGroupCount > 0) {
-            for (int i = 0; i < orderedGroupCount; i++) {
-                final LongTreeChain tree = orderedSources.getQuick(i);
-                final ObjList<AnalyticFunction> functions = orderedFunctions.getQuick(i);
-                // step #2: populate all analytic functions with records in order of respective tree
-                final LongTreeChain.TreeCursor cursor = tree.getCursor();
-                final int functionCount = functions.size();
-                while (cursor.hasNext()) {
-                    offset = cursor.next();
-                    recordChain.recordAt(recordChainRecord, offset);
-                    for (int j = 0; j < functionCount; j++) {
-                        functions.getQuick(j).pass1(recordChainRecord, offset, recordChain);
+            // run pass1 for all unordered functions
+            if (unorderedFunctions != null) {
+                for (int j = 0, n = unorderedFunctions.size(); j < n; j++) {
+                    final AnalyticFunction f = unorderedFunctions.getQuick(j);
+                    recordChain.toTop();
+                    while (recordChain.hasNext()) {
+                        f.pass1(recordChainRecord, recordChainRecord.getRowId(), recordChain);
                     }
                 }
             }
+        } finally {
+            baseCursor.close();
         }
 
-        // run pass1 for all unordered functions
-        if (unorderedFunctions != null) {
-            for (int j = 0, n = unorderedFunctions.size(); j < n; j++) {
-                final AnalyticFunction f = unorderedFunctions.getQuick(j);
-                recordChain.toTop();
-                while (recordChain.hasNext()) {
-                    f.pass1(recordChainRecord, recordChainRecord.getRowId(), recordChain);
+        // run pass2 for functions, which have to see the whole partition before they can compute row values
+        final int twoPassFunctionCount = twoPassFunctions.size();
+        if (twoPassFunctionCount > 0) {
+            for (int j = 0; j < twoPassFunctionCount; j++) {
+                twoPassFunctions.getQuick(j).preparePass2(recordChain);
+            }
+            recordChain.toTop();
+            while (recordChain.hasNext()) {
+                for (int j = 0; j < twoPassFunctionCount; j++) {
+                    twoPassFunctions.getQuick(j).pass2(recordChainRecord, recordChainRecord.getRowId(), recordChain);
                 }
             }
         }
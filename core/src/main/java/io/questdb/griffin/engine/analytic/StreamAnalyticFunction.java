@@ -0,0 +1,59 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2022 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.griffin.engine.analytic;
+
+import io.questdb.cairo.sql.Record;
+
+/**
+ * Analytic function, which can compute its value as rows go by, see {@link AnalyticRecordCursorFactory}.
+ */
+public interface StreamAnalyticFunction extends AnalyticFunction {
+
+    /**
+     * Computes function value for the record and keeps it until the next call. Records are passed
+     * in the order of analytic ORDER BY clause. Called only when pass count is {@link #STREAM}.
+     *
+     * @param record current record
+     */
+    void computeNext(Record record);
+
+    /**
+     * Computes value of the record, which frame includes its peers, i.e. rows with the same timestamp. All peers
+     * of the record have been passed to {@link #computeNext(Record)} before this call. Called only when
+     * {@link #isPeerFrame()} is true.
+     *
+     * @param record one of the peers
+     */
+    default void computePeerValue(Record record) {
+    }
+
+    /**
+     * @return true when frame is RANGE ending with CURRENT ROW, which includes peers of the current row
+     */
+    default boolean isPeerFrame() {
+        return false;
+    }
+}
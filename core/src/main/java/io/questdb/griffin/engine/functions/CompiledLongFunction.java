@@ -0,0 +1,58 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2022 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.griffin.engine.functions;
+
+import io.questdb.std.Numbers;
+
+public abstract class CompiledLongFunction extends LongFunction implements CompiledFunction {
+    protected int[] columns;
+    protected double[] doubleConstants;
+    protected long[] longConstants;
+
+    // null aware arithmetic called by generated code, same as in AddLong, SubLong, MulLong and DivLong functions
+
+    public static long add(long l, long r) {
+        return l == Numbers.LONG_NaN || r == Numbers.LONG_NaN ? Numbers.LONG_NaN : l + r;
+    }
+
+    public static long div(long l, long r) {
+        return l == Numbers.LONG_NaN || r == Numbers.LONG_NaN || r == 0 ? Numbers.LONG_NaN : l / r;
+    }
+
+    public static long mul(long l, long r) {
+        return l == Numbers.LONG_NaN || r == Numbers.LONG_NaN ? Numbers.LONG_NaN : l * r;
+    }
+
+    public static long sub(long l, long r) {
+        return l == Numbers.LONG_NaN || r == Numbers.LONG_NaN ? Numbers.LONG_NaN : l - r;
+    }
+
+    @Override
+    public void of(int[] columns, double[] doubleConstants, long[] longConstants) {
+        this.columns = columns;
+        this.doubleConstants = doubleConstants;
+        this.longConstants = longConstants;
+    }
+}
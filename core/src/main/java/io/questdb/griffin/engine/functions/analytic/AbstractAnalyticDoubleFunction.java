@@ -0,0 +1,150 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2022 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.griffin.engine.functions.analytic;
+
+import io.questdb.cairo.CairoConfiguration;
+import io.questdb.cairo.ColumnType;
+import io.questdb.cairo.ColumnTypes;
+import io.questdb.cairo.RecordSink;
+import io.questdb.cairo.SingleColumnType;
+import io.questdb.cairo.map.Map;
+import io.questdb.cairo.map.MapFactory;
+import io.questdb.cairo.map.MapKey;
+import io.questdb.cairo.map.MapValue;
+import io.questdb.cairo.sql.*;
+import io.questdb.cairo.sql.Record;
+import io.questdb.griffin.SqlException;
+import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.griffin.engine.analytic.AnalyticContext;
+import io.questdb.griffin.engine.analytic.AnalyticFunction;
+import io.questdb.griffin.engine.functions.DoubleFunction;
+import io.questdb.griffin.engine.functions.UnaryFunction;
+import io.questdb.std.Misc;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.Closeable;
+
+/**
+ * Analytic function of double argument, which keeps its state per partition in a map. Partition-less
+ * function keeps its state under a single key.
+ */
+public abstract class AbstractAnalyticDoubleFunction extends DoubleFunction implements UnaryFunction, AnalyticFunction, Closeable {
+    private static final SingleColumnType PARTITION_LESS_KEY_TYPE = new SingleColumnType(ColumnType.LONG);
+    protected final Function arg;
+    protected final Map map;
+    @Nullable
+    private final VirtualRecord partitionByRecord;
+    @Nullable
+    private final RecordSink partitionBySink;
+    protected int columnIndex;
+    protected double value;
+
+    protected AbstractAnalyticDoubleFunction(
+            CairoConfiguration configuration,
+            AnalyticContext analyticContext,
+            ColumnTypes valueTypes,
+            Function arg
+    ) {
+        this.arg = arg;
+        this.partitionByRecord = analyticContext.getPartitionByRecord();
+        this.partitionBySink = analyticContext.getPartitionBySink();
+        this.map = MapFactory.createMap(
+                configuration,
+                partitionByRecord != null ? analyticContext.getPartitionByKeyTypes() : PARTITION_LESS_KEY_TYPE,
+                valueTypes
+        );
+    }
+
+    @Override
+    public void close() {
+        Misc.free(map);
+        Misc.free(arg);
+        if (partitionByRecord != null) {
+            Misc.freeObjList(partitionByRecord.getFunctions());
+        }
+    }
+
+    @Override
+    public Function getArg() {
+        return arg;
+    }
+
+    @Override
+    public double getDouble(Record rec) {
+        return value;
+    }
+
+    @Override
+    public void init(SymbolTableSource symbolTableSource, SqlExecutionContext executionContext) throws SqlException {
+        arg.init(symbolTableSource, executionContext);
+        if (partitionByRecord != null) {
+            Function.init(partitionByRecord.getFunctions(), symbolTableSource, executionContext);
+        }
+    }
+
+    @Override
+    public boolean isConstant() {
+        return false;
+    }
+
+    @Override
+    public boolean isRuntimeConstant() {
+        return false;
+    }
+
+    @Override
+    public void pass2(Record record, long recordOffset, AnalyticSPI spi) {
+    }
+
+    @Override
+    public void preparePass2(RecordCursor cursor) {
+    }
+
+    @Override
+    public void reset() {
+        map.clear();
+    }
+
+    @Override
+    public void setColumnIndex(int columnIndex) {
+        this.columnIndex = columnIndex;
+    }
+
+    @Override
+    public void toTop() {
+        reset();
+    }
+
+    protected MapValue findPartitionState(Record record) {
+        final MapKey key = map.withKey();
+        if (partitionByRecord != null) {
+            partitionByRecord.of(record);
+            key.put(partitionByRecord, partitionBySink);
+        } else {
+            key.putLong(0);
+        }
+        return key.createValue();
+    }
+}
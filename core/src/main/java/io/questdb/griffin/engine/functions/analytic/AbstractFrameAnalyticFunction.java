@@ -0,0 +1,332 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2022 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.griffin.engine.functions.analytic;
+
+import io.questdb.cairo.ArrayColumnTypes;
+import io.questdb.cairo.CairoConfiguration;
+import io.questdb.cairo.ColumnType;
+import io.questdb.cairo.map.MapRecord;
+import io.questdb.cairo.map.MapValue;
+import io.questdb.cairo.sql.AnalyticSPI;
+import io.questdb.cairo.sql.Function;
+import io.questdb.cairo.sql.Record;
+import io.questdb.cairo.sql.RecordCursor;
+import io.questdb.cairo.vm.Vm;
+import io.questdb.cairo.vm.api.MemoryARW;
+import io.questdb.griffin.engine.analytic.AnalyticContext;
+import io.questdb.griffin.engine.analytic.StreamAnalyticFunction;
+import io.questdb.griffin.model.AnalyticColumn;
+import io.questdb.std.MemoryTag;
+import io.questdb.std.Misc;
+import io.questdb.std.Unsafe;
+
+/**
+ * Aggregate over the analytic frame, which ends with the current row or, when frame starts with
+ * UNBOUNDED PRECEDING, with the last row of the partition.
+ * <p>
+ * Frame starting with UNBOUNDED PRECEDING is a running aggregate, it needs no memory other than
+ * aggregate value per partition. Bounded frame keeps (timestamp, value) pairs of the frame rows in a ring buffer
+ * per partition. ROWS frame buffer has fixed capacity, RANGE frame buffer grows to fit the widest frame.
+ * <p>
+ * Ordered RANGE frame ends with the last peer of the current row, i.e. the last row with the same timestamp,
+ * so its value is known only when the next timestamp is seen. Streaming cursor holds rows back until their
+ * peer group is complete, see {@link #computePeerValue(Record)}. Over materialized rows pass1 links rows of
+ * the current peer group through their value slots and writes the value of the last peer into all of them
+ * once the group is complete.
+ */
+public abstract class AbstractFrameAnalyticFunction extends AbstractAnalyticDoubleFunction implements StreamAnalyticFunction {
+    protected static final int ACC_INDEX = 4;
+    protected static final int COUNT_INDEX = 5;
+    private static final int BUFFER_OFFSET_INDEX = 0;
+    private static final int BUFFER_CAPACITY_INDEX = 1;
+    private static final int BUFFER_HEAD_INDEX = 2;
+    private static final int BUFFER_SIZE_INDEX = 3;
+    private static final int PEER_TIMESTAMP_INDEX = 6;
+    private static final int PEER_OFFSET_INDEX = 7;
+    private static final int PEER_COUNT_INDEX = 8;
+    private static final int PEER_VALUE_INDEX = 9;
+    private static final int ENTRY_SIZE = 2 * Long.BYTES;
+    private static final int INITIAL_RANGE_CAPACITY = 16;
+    private static final ArrayColumnTypes VALUE_TYPES = new ArrayColumnTypes();
+    private final boolean rangeFrame;
+    private final boolean bounded;
+    private final boolean peers;
+    private final long frameLo;
+    private final int timestampIndex;
+    private final int passCount;
+    private final MemoryARW buffer;
+    private long bufferAppendOffset = 0;
+    // chain, which peer groups are written to when the last of them is complete
+    private AnalyticSPI spi;
+
+    protected AbstractFrameAnalyticFunction(CairoConfiguration configuration, AnalyticContext analyticContext, Function arg) {
+        super(configuration, analyticContext, VALUE_TYPES, arg);
+        this.rangeFrame = analyticContext.getFramingMode() == AnalyticColumn.FRAMING_RANGE;
+        this.frameLo = analyticContext.getFrameLo();
+        this.bounded = frameLo != AnalyticColumn.UNBOUNDED_PRECEDING;
+        this.timestampIndex = analyticContext.getTimestampIndex();
+        if (analyticContext.getFrameHi() == AnalyticColumn.UNBOUNDED_FOLLOWING) {
+            this.peers = false;
+            this.passCount = TWO_PASS;
+        } else {
+            this.peers = rangeFrame && analyticContext.isOrdered();
+            this.passCount = peers ? TWO_PASS : STREAM;
+        }
+        this.buffer = bounded ? Vm.getARWInstance(
+                configuration.getSqlAnalyticStorePageSize(),
+                configuration.getSqlAnalyticStoreMaxPages(),
+                MemoryTag.NATIVE_DEFAULT
+        ) : null;
+    }
+
+    @Override
+    public void close() {
+        super.close();
+        Misc.free(buffer);
+    }
+
+    @Override
+    public void computeNext(Record record) {
+        computeNext(findPartitionState(record), record);
+    }
+
+    @Override
+    public void computePeerValue(Record record) {
+        // frame of the whole peer group is the same
+        value = getResult(findPartitionState(record));
+    }
+
+    @Override
+    public int getPassCount() {
+        return passCount;
+    }
+
+    @Override
+    public boolean isPeerFrame() {
+        return peers;
+    }
+
+    @Override
+    public void pass1(Record record, long recordOffset, AnalyticSPI spi) {
+        if (passCount == STREAM) {
+            computeNext(record);
+            Unsafe.getUnsafe().putDouble(spi.getAddress(recordOffset, columnIndex), value);
+        } else if (peers) {
+            final MapValue state = findPartitionState(record);
+            computeNext(state, record);
+            final long timestamp = record.getTimestamp(timestampIndex);
+            final long address = spi.getAddress(recordOffset, columnIndex);
+            if (state.getLong(PEER_COUNT_INDEX) > 0 && state.getLong(PEER_TIMESTAMP_INDEX) == timestamp) {
+                // slot keeps offset of the previous peer until the group is complete
+                Unsafe.getUnsafe().putLong(address, state.getLong(PEER_OFFSET_INDEX));
+                state.addLong(PEER_COUNT_INDEX, 1);
+            } else {
+                writePeers(state, spi);
+                state.putLong(PEER_TIMESTAMP_INDEX, timestamp);
+                state.putLong(PEER_COUNT_INDEX, 1);
+            }
+            state.putLong(PEER_OFFSET_INDEX, recordOffset);
+            state.putDouble(PEER_VALUE_INDEX, value);
+            this.spi = spi;
+        } else {
+            final MapValue state = findPartitionState(record);
+            if (state.isNew()) {
+                newState(state);
+            }
+            add(state, arg.getDouble(record));
+        }
+    }
+
+    @Override
+    public void pass2(Record record, long recordOffset, AnalyticSPI spi) {
+        if (!peers) {
+            Unsafe.getUnsafe().putDouble(spi.getAddress(recordOffset, columnIndex), getResult(findPartitionState(record)));
+        }
+    }
+
+    @Override
+    public void preparePass2(RecordCursor cursor) {
+        if (peers && spi != null) {
+            // the last peer group of every partition is complete
+            final RecordCursor mapCursor = map.getCursor();
+            final MapRecord mapRecord = (MapRecord) mapCursor.getRecord();
+            while (mapCursor.hasNext()) {
+                writePeers(mapRecord.getValue(), spi);
+            }
+        }
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        if (buffer != null) {
+            buffer.truncate();
+            bufferAppendOffset = 0;
+        }
+        spi = null;
+    }
+
+    /**
+     * Adds value of the row, which entered the frame, to the aggregate.
+     */
+    protected abstract void add(MapValue state, double value);
+
+    protected int bufferSize(MapValue state) {
+        return (int) state.getLong(BUFFER_SIZE_INDEX);
+    }
+
+    /**
+     * @param index index of the frame row, 0 is the oldest row
+     */
+    protected double bufferValue(MapValue state, int index) {
+        return buffer.getDouble(entryOffset(state, index) + Long.BYTES);
+    }
+
+    /**
+     * @return aggregate value of the current frame
+     */
+    protected abstract double getResult(MapValue state);
+
+    protected boolean isBounded() {
+        return bounded;
+    }
+
+    /**
+     * Removes value of the row, which left the frame, from the aggregate.
+     */
+    protected void remove(MapValue state, double value) {
+    }
+
+    /**
+     * Sets initial aggregate value in the new partition state.
+     */
+    protected void resetAcc(MapValue state) {
+        state.putDouble(ACC_INDEX, Double.NaN);
+        state.putLong(COUNT_INDEX, 0);
+    }
+
+    private void computeNext(MapValue state, Record record) {
+        if (state.isNew()) {
+            newState(state);
+        }
+        final double d = arg.getDouble(record);
+        if (bounded) {
+            final long timestamp = rangeFrame ? record.getTimestamp(timestampIndex) : 0;
+            if (rangeFrame) {
+                // frameLo is negative offset from the current timestamp
+                final long lo = timestamp + frameLo;
+                while (bufferSize(state) > 0 && bufferTimestamp(state, 0) < lo) {
+                    remove(state, bufferValue(state, 0));
+                    evict(state);
+                }
+            } else if (bufferSize(state) == state.getLong(BUFFER_CAPACITY_INDEX)) {
+                remove(state, bufferValue(state, 0));
+                evict(state);
+            }
+            push(state, timestamp, d);
+        }
+        add(state, d);
+        value = getResult(state);
+    }
+
+    private long bufferTimestamp(MapValue state, int index) {
+        return buffer.getLong(entryOffset(state, index));
+    }
+
+    private long entryOffset(MapValue state, int index) {
+        final long capacity = state.getLong(BUFFER_CAPACITY_INDEX);
+        return state.getLong(BUFFER_OFFSET_INDEX) + ((state.getLong(BUFFER_HEAD_INDEX) + index) % capacity) * ENTRY_SIZE;
+    }
+
+    private void evict(MapValue state) {
+        state.putLong(BUFFER_HEAD_INDEX, (state.getLong(BUFFER_HEAD_INDEX) + 1) % state.getLong(BUFFER_CAPACITY_INDEX));
+        state.addLong(BUFFER_SIZE_INDEX, -1);
+    }
+
+    private void newState(MapValue state) {
+        resetAcc(state);
+        state.putLong(PEER_COUNT_INDEX, 0);
+        if (bounded) {
+            // ROWS frame holds rows from frameLo preceding row to the current row
+            final long capacity = rangeFrame ? INITIAL_RANGE_CAPACITY : 1 - frameLo;
+            state.putLong(BUFFER_OFFSET_INDEX, allocate(capacity));
+            state.putLong(BUFFER_CAPACITY_INDEX, capacity);
+            state.putLong(BUFFER_HEAD_INDEX, 0);
+            state.putLong(BUFFER_SIZE_INDEX, 0);
+        }
+    }
+
+    private long allocate(long capacity) {
+        final long offset = bufferAppendOffset;
+        bufferAppendOffset += capacity * ENTRY_SIZE;
+        return offset;
+    }
+
+    private void push(MapValue state, long timestamp, double d) {
+        final long size = state.getLong(BUFFER_SIZE_INDEX);
+        final long capacity = state.getLong(BUFFER_CAPACITY_INDEX);
+        if (size == capacity) {
+            // only RANGE frame buffer can be full here, move it to a twice as large region,
+            // old region is released with the rest of the buffer when function is reset
+            final long newCapacity = capacity * 2;
+            final long newOffset = allocate(newCapacity);
+            for (int i = 0; i < size; i++) {
+                final long src = entryOffset(state, i);
+                buffer.putLong(newOffset + (long) i * ENTRY_SIZE, buffer.getLong(src));
+                buffer.putDouble(newOffset + (long) i * ENTRY_SIZE + Long.BYTES, buffer.getDouble(src + Long.BYTES));
+            }
+            state.putLong(BUFFER_OFFSET_INDEX, newOffset);
+            state.putLong(BUFFER_CAPACITY_INDEX, newCapacity);
+            state.putLong(BUFFER_HEAD_INDEX, 0);
+        }
+        final long offset = entryOffset(state, (int) size);
+        buffer.putLong(offset, timestamp);
+        buffer.putDouble(offset + Long.BYTES, d);
+        state.putLong(BUFFER_SIZE_INDEX, size + 1);
+    }
+
+    private void writePeers(MapValue state, AnalyticSPI spi) {
+        final double peerValue = state.getDouble(PEER_VALUE_INDEX);
+        long offset = state.getLong(PEER_OFFSET_INDEX);
+        for (long i = 0, n = state.getLong(PEER_COUNT_INDEX); i < n; i++) {
+            final long address = spi.getAddress(offset, columnIndex);
+            offset = Unsafe.getUnsafe().getLong(address);
+            Unsafe.getUnsafe().putDouble(address, peerValue);
+        }
+    }
+
+    static {
+        VALUE_TYPES.add(ColumnType.LONG);
+        VALUE_TYPES.add(ColumnType.LONG);
+        VALUE_TYPES.add(ColumnType.LONG);
+        VALUE_TYPES.add(ColumnType.LONG);
+        VALUE_TYPES.add(ColumnType.DOUBLE);
+        VALUE_TYPES.add(ColumnType.LONG);
+        VALUE_TYPES.add(ColumnType.LONG);
+        VALUE_TYPES.add(ColumnType.LONG);
+        VALUE_TYPES.add(ColumnType.LONG);
+        VALUE_TYPES.add(ColumnType.DOUBLE);
+    }
+}
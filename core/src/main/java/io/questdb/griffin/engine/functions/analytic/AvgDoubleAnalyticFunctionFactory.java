@@ -0,0 +1,65 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2022 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.griffin.engine.functions.analytic;
+
+import io.questdb.cairo.CairoConfiguration;
+import io.questdb.cairo.map.MapValue;
+import io.questdb.cairo.sql.Function;
+import io.questdb.griffin.FunctionFactory;
+import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.griffin.engine.analytic.AnalyticContext;
+import io.questdb.std.IntList;
+import io.questdb.std.ObjList;
+
+public class AvgDoubleAnalyticFunctionFactory implements FunctionFactory {
+
+    @Override
+    public String getSignature() {
+        return "avg(D)";
+    }
+
+    @Override
+    public boolean isAnalytic() {
+        return true;
+    }
+
+    @Override
+    public Function newInstance(int position, ObjList<Function> args, IntList argPositions, CairoConfiguration configuration, SqlExecutionContext sqlExecutionContext) {
+        return new AvgFunction(configuration, sqlExecutionContext.getAnalyticContext(), args.getQuick(0));
+    }
+
+    private static class AvgFunction extends SumDoubleAnalyticFunctionFactory.SumFunction {
+
+        AvgFunction(CairoConfiguration configuration, AnalyticContext analyticContext, Function arg) {
+            super(configuration, analyticContext, arg);
+        }
+
+        @Override
+        protected double getResult(MapValue state) {
+            final long count = state.getLong(COUNT_INDEX);
+            return count > 0 ? state.getDouble(ACC_INDEX) / count : Double.NaN;
+        }
+    }
+}
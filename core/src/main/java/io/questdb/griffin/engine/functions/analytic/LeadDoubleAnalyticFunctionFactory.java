@@ -0,0 +1,152 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2022 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.griffin.engine.functions.analytic;
+
+import io.questdb.cairo.ArrayColumnTypes;
+import io.questdb.cairo.CairoConfiguration;
+import io.questdb.cairo.ColumnType;
+import io.questdb.cairo.map.MapValue;
+import io.questdb.cairo.sql.AnalyticSPI;
+import io.questdb.cairo.sql.Function;
+import io.questdb.cairo.sql.Record;
+import io.questdb.cairo.vm.Vm;
+import io.questdb.cairo.vm.api.MemoryARW;
+import io.questdb.griffin.FunctionFactory;
+import io.questdb.griffin.SqlException;
+import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.griffin.engine.analytic.AnalyticContext;
+import io.questdb.std.IntList;
+import io.questdb.std.MemoryTag;
+import io.questdb.std.Misc;
+import io.questdb.std.ObjList;
+import io.questdb.std.Unsafe;
+
+/**
+ * lead(value [, offset [, default]]) returns value of the row, which is offset rows after the current row
+ * in the partition, or default when there is no such row. Value is not known until the following rows are
+ * seen, so function works on materialized rows only. Each row gets default value first, which is overwritten
+ * when the row offset rows ahead is passed. Positions of the last offset rows are kept in a fixed size
+ * ring buffer per partition.
+ */
+public class LeadDoubleAnalyticFunctionFactory implements FunctionFactory {
+    private static final ArrayColumnTypes VALUE_TYPES = new ArrayColumnTypes();
+    private static final int BUFFER_OFFSET_INDEX = 0;
+    private static final int BUFFER_HEAD_INDEX = 1;
+    private static final int BUFFER_SIZE_INDEX = 2;
+
+    @Override
+    public String getSignature() {
+        return "lead(DV)";
+    }
+
+    @Override
+    public boolean isAnalytic() {
+        return true;
+    }
+
+    @Override
+    public Function newInstance(int position, ObjList<Function> args, IntList argPositions, CairoConfiguration configuration, SqlExecutionContext sqlExecutionContext) throws SqlException {
+        return new LeadFunction(
+                configuration,
+                sqlExecutionContext.getAnalyticContext(),
+                args.getQuick(0),
+                LagDoubleAnalyticFunctionFactory.getOffset(args, argPositions),
+                LagDoubleAnalyticFunctionFactory.getDefaultValue(args, argPositions)
+        );
+    }
+
+    private static class LeadFunction extends AbstractAnalyticDoubleFunction {
+        private final long offset;
+        private final double defaultValue;
+        private final MemoryARW buffer;
+        private long bufferAppendOffset = 0;
+
+        LeadFunction(CairoConfiguration configuration, AnalyticContext analyticContext, Function arg, long offset, double defaultValue) {
+            super(configuration, analyticContext, VALUE_TYPES, arg);
+            this.offset = offset;
+            this.defaultValue = defaultValue;
+            this.buffer = Vm.getARWInstance(
+                    configuration.getSqlAnalyticStorePageSize(),
+                    configuration.getSqlAnalyticStoreMaxPages(),
+                    MemoryTag.NATIVE_DEFAULT
+            );
+        }
+
+        @Override
+        public void close() {
+            super.close();
+            Misc.free(buffer);
+        }
+
+        @Override
+        public int getPassCount() {
+            return TWO_PASS;
+        }
+
+        @Override
+        public void pass1(Record record, long recordOffset, AnalyticSPI spi) {
+            final double d = arg.getDouble(record);
+            if (offset == 0) {
+                Unsafe.getUnsafe().putDouble(spi.getAddress(recordOffset, columnIndex), d);
+                return;
+            }
+            Unsafe.getUnsafe().putDouble(spi.getAddress(recordOffset, columnIndex), defaultValue);
+
+            final MapValue state = findPartitionState(record);
+            if (state.isNew()) {
+                state.putLong(BUFFER_OFFSET_INDEX, bufferAppendOffset);
+                state.putLong(BUFFER_HEAD_INDEX, 0);
+                state.putLong(BUFFER_SIZE_INDEX, 0);
+                bufferAppendOffset += offset * Long.BYTES;
+            }
+            final long bufferOffset = state.getLong(BUFFER_OFFSET_INDEX);
+            final long head = state.getLong(BUFFER_HEAD_INDEX);
+            final long size = state.getLong(BUFFER_SIZE_INDEX);
+            if (size == offset) {
+                // the oldest row is exactly offset rows behind, current value is its lead
+                final long rowOffset = bufferOffset + head * Long.BYTES;
+                Unsafe.getUnsafe().putDouble(spi.getAddress(buffer.getLong(rowOffset), columnIndex), d);
+                buffer.putLong(rowOffset, recordOffset);
+                state.putLong(BUFFER_HEAD_INDEX, (head + 1) % offset);
+            } else {
+                buffer.putLong(bufferOffset + ((head + size) % offset) * Long.BYTES, recordOffset);
+                state.putLong(BUFFER_SIZE_INDEX, size + 1);
+            }
+        }
+
+        @Override
+        public void reset() {
+            super.reset();
+            buffer.truncate();
+            bufferAppendOffset = 0;
+        }
+    }
+
+    static {
+        VALUE_TYPES.add(ColumnType.LONG);
+        VALUE_TYPES.add(ColumnType.LONG);
+        VALUE_TYPES.add(ColumnType.LONG);
+    }
+}
@@ -35,9 +35,10 @@ import io.questdb.cairo.map.MapValue;
 import io.questdb.cairo.sql.*;
 import io.questdb.cairo.sql.Record;
 import io.questdb.griffin.FunctionFactory;
+import io.questdb.griffin.SqlException;
 import io.questdb.griffin.SqlExecutionContext;
 import io.questdb.griffin.engine.analytic.AnalyticContext;
-import io.questdb.griffin.engine.analytic.AnalyticFunction;
+import io.questdb.griffin.engine.analytic.StreamAnalyticFunction;
 import io.questdb.griffin.engine.functions.LongFunction;
 import io.questdb.std.IntList;
 import io.questdb.std.Misc;
@@ -55,30 +56,33 @@ public class RowNumberFunctionFactory implements FunctionFactory {
         return "row_number()";
     }
 
+    @Override
+    public boolean isAnalytic() {
+        return true;
+    }
+
     @Override
     public Function newInstance(int position, ObjList<Function> args, IntList argPositions, CairoConfiguration configuration, SqlExecutionContext sqlExecutionContext) {
         final AnalyticContext analyticContext = sqlExecutionContext.getAnalyticContext();
-
-        if (analyticContext.getPartitionByRecord() != null) {
-            Map map = MapFactory.createMap(
-                    configuration,
-                    analyticContext.getPartitionByKeyTypes(),
-                    LONG_COLUMN_TYPE
-            );
-            return new RowNumberFunction(
-                    map,
-                    analyticContext.getPartitionByRecord(),
-                    analyticContext.getPartitionBySink()
-            );
-        }
-        return null;
+        final VirtualRecord partitionByRecord = analyticContext.getPartitionByRecord();
+        final Map map = MapFactory.createMap(
+                configuration,
+                partitionByRecord != null ? analyticContext.getPartitionByKeyTypes() : LONG_COLUMN_TYPE,
+                LONG_COLUMN_TYPE
+        );
+        return new RowNumberFunction(
+                map,
+                partitionByRecord,
+                analyticContext.getPartitionBySink()
+        );
     }
 
-    private static class RowNumberFunction extends LongFunction implements ScalarFunction, AnalyticFunction, Closeable {
+    private static class RowNumberFunction extends LongFunction implements ScalarFunction, StreamAnalyticFunction, Closeable {
         private final Map map;
         private final VirtualRecord partitionByRecord;
         private final RecordSink partitionBySink;
         private int columnIndex;
+        private long rowNumber;
 
         public RowNumberFunction(Map map, VirtualRecord partitionByRecord, RecordSink partitionBySink) {
             this.map = map;
@@ -89,37 +93,63 @@ public class RowNumberFunctionFactory implements FunctionFactory {
         @Override
         public void close() {
             Misc.free(map);
-            Misc.free(partitionByRecord.getFunctions());
-        }
-
-        @Override
-        public long getLong(Record rec) {
-            // not called
-            throw new UnsupportedOperationException();
+            if (partitionByRecord != null) {
+                Misc.freeObjList(partitionByRecord.getFunctions());
+            }
         }
 
         @Override
-        public void pass1(Record record, long recordOffset, AnalyticSPI spi) {
-            partitionByRecord.of(record);
+        public void computeNext(Record record) {
             MapKey key = map.withKey();
-            key.put(partitionByRecord, partitionBySink);
+            if (partitionByRecord != null) {
+                partitionByRecord.of(record);
+                key.put(partitionByRecord, partitionBySink);
+            } else {
+                key.putLong(0);
+            }
             MapValue value = key.createValue();
-            long x;
             if (value.isNew()) {
-                x = 0;
+                rowNumber = 0;
             } else {
-                x = value.getLong(0);
+                rowNumber = value.getLong(0);
             }
-            value.putLong(0, x + 1);
-            Unsafe.getUnsafe().putLong(spi.getAddress(recordOffset, columnIndex), x);
+            value.putLong(0, rowNumber + 1);
         }
 
         @Override
-        public void preparePass2(RecordCursor cursor) {
+        public long getLong(Record rec) {
+            return rowNumber;
+        }
+
+        @Override
+        public void init(SymbolTableSource symbolTableSource, SqlExecutionContext executionContext) throws SqlException {
+            if (partitionByRecord != null) {
+                Function.init(partitionByRecord.getFunctions(), symbolTableSource, executionContext);
+            }
+        }
+
+        @Override
+        public boolean isConstant() {
+            return false;
+        }
+
+        @Override
+        public boolean isRuntimeConstant() {
+            return false;
+        }
+
+        @Override
+        public void pass1(Record record, long recordOffset, AnalyticSPI spi) {
+            computeNext(record);
+            Unsafe.getUnsafe().putLong(spi.getAddress(recordOffset, columnIndex), rowNumber);
         }
 
         @Override
-        public void pass2(Record record) {
+        public void pass2(Record record, long recordOffset, AnalyticSPI spi) {
+        }
+
+        @Override
+        public void preparePass2(RecordCursor cursor) {
         }
 
         @Override
@@ -131,5 +161,10 @@ public class RowNumberFunctionFactory implements FunctionFactory {
         public void setColumnIndex(int columnIndex) {
             this.columnIndex = columnIndex;
         }
+
+        @Override
+        public void toTop() {
+            reset();
+        }
     }
 }
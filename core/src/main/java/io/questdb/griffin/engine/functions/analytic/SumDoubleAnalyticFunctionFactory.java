@@ -0,0 +1,91 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2022 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.griffin.engine.functions.analytic;
+
+import io.questdb.cairo.CairoConfiguration;
+import io.questdb.cairo.map.MapValue;
+import io.questdb.cairo.sql.Function;
+import io.questdb.griffin.FunctionFactory;
+import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.griffin.engine.analytic.AnalyticContext;
+import io.questdb.std.IntList;
+import io.questdb.std.ObjList;
+
+public class SumDoubleAnalyticFunctionFactory implements FunctionFactory {
+
+    @Override
+    public String getSignature() {
+        return "sum(D)";
+    }
+
+    @Override
+    public boolean isAnalytic() {
+        return true;
+    }
+
+    @Override
+    public Function newInstance(int position, ObjList<Function> args, IntList argPositions, CairoConfiguration configuration, SqlExecutionContext sqlExecutionContext) {
+        return new SumFunction(configuration, sqlExecutionContext.getAnalyticContext(), args.getQuick(0));
+    }
+
+    static class SumFunction extends AbstractFrameAnalyticFunction {
+
+        SumFunction(CairoConfiguration configuration, AnalyticContext analyticContext, Function arg) {
+            super(configuration, analyticContext, arg);
+        }
+
+        @Override
+        protected void add(MapValue state, double value) {
+            if (value == value) {
+                state.addDouble(ACC_INDEX, value);
+                state.addLong(COUNT_INDEX, 1);
+            }
+        }
+
+        @Override
+        protected double getResult(MapValue state) {
+            return state.getLong(COUNT_INDEX) > 0 ? state.getDouble(ACC_INDEX) : Double.NaN;
+        }
+
+        @Override
+        protected void remove(MapValue state, double value) {
+            if (value == value) {
+                if (state.getLong(COUNT_INDEX) == 1) {
+                    // avoid accumulating rounding errors when frame becomes empty
+                    state.putDouble(ACC_INDEX, 0);
+                } else {
+                    state.addDouble(ACC_INDEX, -value);
+                }
+                state.addLong(COUNT_INDEX, -1);
+            }
+        }
+
+        @Override
+        protected void resetAcc(MapValue state) {
+            state.putDouble(ACC_INDEX, 0);
+            state.putLong(COUNT_INDEX, 0);
+        }
+    }
+}
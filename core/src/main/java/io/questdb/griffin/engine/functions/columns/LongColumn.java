@@ -25,9 +25,14 @@
 package io.questdb.griffin.engine.functions.columns;
 
 import io.questdb.cairo.sql.Record;
+import io.questdb.cairo.sql.RecordBatch;
 import io.questdb.cairo.sql.ScalarFunction;
 import io.questdb.griffin.engine.functions.LongFunction;
+import io.questdb.std.Numbers;
 import io.questdb.std.ObjList;
+import io.questdb.std.Unsafe;
+
+import java.util.Arrays;
 
 import static io.questdb.griffin.engine.functions.columns.ColumnUtils.STATIC_COLUMN_COUNT;
 
@@ -39,6 +44,10 @@ public class LongColumn extends LongFunction implements ScalarFunction {
         this.columnIndex = columnIndex;
     }
 
+    public int getColumnIndex() {
+        return columnIndex;
+    }
+
     public static LongColumn newInstance(int columnIndex) {
         if (columnIndex < STATIC_COLUMN_COUNT) {
             return COLUMNS.getQuick(columnIndex);
@@ -51,6 +60,24 @@ public class LongColumn extends LongFunction implements ScalarFunction {
         return rec.getLong(columnIndex);
     }
 
+    @Override
+    public void getLongBatch(RecordBatch batch, long[] values) {
+        final long address = batch.getColumnAddress(columnIndex);
+        final int n = batch.getSelectedCount();
+        if (address == 0) {
+            Arrays.fill(values, 0, n, Numbers.LONG_NaN);
+        } else if (batch.isDense()) {
+            for (int i = 0; i < n; i++) {
+                values[i] = Unsafe.getUnsafe().getLong(address + ((long) i << 3));
+            }
+        } else {
+            final int[] selection = batch.getSelection();
+            for (int i = 0; i < n; i++) {
+                values[i] = Unsafe.getUnsafe().getLong(address + ((long) selection[i] << 3));
+            }
+        }
+    }
+
     static {
         COLUMNS.setPos(STATIC_COLUMN_COUNT);
         for (int i = 0; i < STATIC_COLUMN_COUNT; i++) {
@@ -25,8 +25,11 @@
 package io.questdb.griffin.engine.functions.constants;
 
 import io.questdb.cairo.sql.Record;
+import io.questdb.cairo.sql.RecordBatch;
 import io.questdb.griffin.engine.functions.DoubleFunction;
 
+import java.util.Arrays;
+
 public class DoubleConstant extends DoubleFunction implements ConstantFunction {
     public static final DoubleConstant NULL = new DoubleConstant(Double.NaN);
 
@@ -44,4 +47,9 @@ public class DoubleConstant extends DoubleFunction implements ConstantFunction {
     public double getDouble(Record rec) {
         return value;
     }
+
+    @Override
+    public void getDoubleBatch(RecordBatch batch, double[] values) {
+        Arrays.fill(values, 0, batch.getSelectedCount(), value);
+    }
 }
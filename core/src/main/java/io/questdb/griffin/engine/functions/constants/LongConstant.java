@@ -25,9 +25,12 @@
 package io.questdb.griffin.engine.functions.constants;
 
 import io.questdb.cairo.sql.Record;
+import io.questdb.cairo.sql.RecordBatch;
 import io.questdb.griffin.engine.functions.LongFunction;
 import io.questdb.std.Numbers;
 
+import java.util.Arrays;
+
 public class LongConstant extends LongFunction implements ConstantFunction {
     public final static LongConstant NULL = new LongConstant(Numbers.LONG_NaN);
     public final static LongConstant ZERO = new LongConstant(0);
@@ -53,4 +56,9 @@ public class LongConstant extends LongFunction implements ConstantFunction {
     public long getLong(Record rec) {
         return value;
     }
+
+    @Override
+    public void getLongBatch(RecordBatch batch, long[] values) {
+        Arrays.fill(values, 0, batch.getSelectedCount(), value);
+    }
 }
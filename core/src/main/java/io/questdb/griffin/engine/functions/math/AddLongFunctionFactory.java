@@ -27,6 +27,7 @@ package io.questdb.griffin.engine.functions.math;
 import io.questdb.cairo.CairoConfiguration;
 import io.questdb.cairo.sql.Function;
 import io.questdb.cairo.sql.Record;
+import io.questdb.cairo.sql.RecordBatch;
 import io.questdb.griffin.FunctionFactory;
 import io.questdb.griffin.SqlExecutionContext;
 import io.questdb.griffin.engine.functions.BinaryFunction;
@@ -49,6 +50,7 @@ public class AddLongFunctionFactory implements FunctionFactory {
     private static class AddLongFunc extends LongFunction implements BinaryFunction {
         final Function left;
         final Function right;
+        private long[] rightValues;
 
         public AddLongFunc(Function left, Function right) {
             this.left = left;
@@ -74,5 +76,19 @@ public class AddLongFunctionFactory implements FunctionFactory {
             }
             return l + r;
         }
+
+        @Override
+        public void getLongBatch(RecordBatch batch, long[] values) {
+            if (rightValues == null) {
+                rightValues = new long[RecordBatch.MAX_SIZE];
+            }
+            left.getLongBatch(batch, values);
+            right.getLongBatch(batch, rightValues);
+            for (int i = 0, n = batch.getSelectedCount(); i < n; i++) {
+                final long l = values[i];
+                final long r = rightValues[i];
+                values[i] = l == Numbers.LONG_NaN || r == Numbers.LONG_NaN ? Numbers.LONG_NaN : l + r;
+            }
+        }
     }
 }
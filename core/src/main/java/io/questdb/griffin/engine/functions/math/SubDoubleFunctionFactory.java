@@ -27,6 +27,7 @@ package io.questdb.griffin.engine.functions.math;
 import io.questdb.cairo.CairoConfiguration;
 import io.questdb.cairo.sql.Function;
 import io.questdb.cairo.sql.Record;
+import io.questdb.cairo.sql.RecordBatch;
 import io.questdb.griffin.FunctionFactory;
 import io.questdb.griffin.SqlExecutionContext;
 import io.questdb.griffin.engine.functions.BinaryFunction;
@@ -48,6 +49,7 @@ public class SubDoubleFunctionFactory implements FunctionFactory {
     private static class Func extends DoubleFunction implements BinaryFunction {
         private final Function left;
         private final Function right;
+        private double[] rightValues;
 
         public Func(Function left, Function right) {
             this.left = left;
@@ -59,6 +61,18 @@ public class SubDoubleFunctionFactory implements FunctionFactory {
             return left.getDouble(rec) - right.getDouble(rec);
         }
 
+        @Override
+        public void getDoubleBatch(RecordBatch batch, double[] values) {
+            if (rightValues == null) {
+                rightValues = new double[RecordBatch.MAX_SIZE];
+            }
+            left.getDoubleBatch(batch, values);
+            right.getDoubleBatch(batch, rightValues);
+            for (int i = 0, n = batch.getSelectedCount(); i < n; i++) {
+                values[i] -= rightValues[i];
+            }
+        }
+
         @Override
         public Function getLeft() {
             return left;
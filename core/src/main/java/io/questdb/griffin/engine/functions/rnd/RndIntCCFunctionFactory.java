@@ -44,6 +44,11 @@ public class RndIntCCFunctionFactory implements FunctionFactory {
         return "rnd_int(iii)";
     }
 
+    @Override
+    public boolean isNonDeterministic() {
+        return true;
+    }
+
     @Override
     public Function newInstance(int position, ObjList<Function> args, IntList argPositions, CairoConfiguration configuration, SqlExecutionContext sqlExecutionContext) throws SqlException {
 
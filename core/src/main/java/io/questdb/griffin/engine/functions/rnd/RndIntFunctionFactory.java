@@ -42,6 +42,11 @@ public class RndIntFunctionFactory implements FunctionFactory {
         return "rnd_int()";
     }
 
+    @Override
+    public boolean isNonDeterministic() {
+        return true;
+    }
+
     @Override
     public Function newInstance(int position, ObjList<Function> args, IntList argPositions, CairoConfiguration configuration, SqlExecutionContext sqlExecutionContext) {
         return new RndFunction();
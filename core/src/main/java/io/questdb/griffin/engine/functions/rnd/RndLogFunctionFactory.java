@@ -47,6 +47,11 @@ public class RndLogFunctionFactory implements FunctionFactory {
         return "rnd_log(ld)";
     }
 
+    @Override
+    public boolean isNonDeterministic() {
+        return true;
+    }
+
     @Override
     public Function newInstance(int position, ObjList<Function> args, IntList argPositions, CairoConfiguration configuration, SqlExecutionContext sqlExecutionContext) throws SqlException {
         return new TestLogFunction(
@@ -43,6 +43,11 @@ public class RndSymbolFunctionFactory implements FunctionFactory {
         return "rnd_symbol(iiii)";
     }
 
+    @Override
+    public boolean isNonDeterministic() {
+        return true;
+    }
+
     @Override
     public Function newInstance(
             int position,
@@ -101,6 +101,9 @@ public class GroupByNotKeyedVectorRecordCursorFactory implements RecordCursorFac
             workerId = 0;
         }
 
+        // frames computed on the fly must be aggregated before the cursor reuses their memory
+        final int frameMemoryWindow = cursor.getFrameMemoryWindow();
+        int windowFrameCount = 0;
         PageFrame frame;
         while ((frame = cursor.next()) != null) {
             for (int i = 0; i < vafCount; i++) {
@@ -135,6 +138,10 @@ public class GroupByNotKeyedVectorRecordCursorFactory implements RecordCursorFac
                 }
                 total++;
             }
+            if (++windowFrameCount == frameMemoryWindow) {
+                reclaimed = runWhatsLeft(queuedCount, reclaimed, workerId, activeEntries, doneLatch);
+                windowFrameCount = 0;
+            }
         }
 
         // all done? great start consuming the queue we just published
@@ -165,13 +172,17 @@ public class GroupByNotKeyedVectorRecordCursorFactory implements RecordCursorFac
     }
 
     static int getRunWhatsLeft(int queuedCount, int reclaimed, int workerId, ObjList<VectorAggregateEntry> activeEntries, SOUnboundedCountDownLatch doneLatch, Log log) {
+        log.info().$("waiting for parts [queuedCount=").$(queuedCount).$(']').$();
+        return runWhatsLeft(queuedCount, reclaimed, workerId, activeEntries, doneLatch);
+    }
+
+    // runs entries not yet picked up by workers and waits for the rest, frames of all queued entries can be released after
+    static int runWhatsLeft(int queuedCount, int reclaimed, int workerId, ObjList<VectorAggregateEntry> activeEntries, SOUnboundedCountDownLatch doneLatch) {
         for (int i = activeEntries.size() - 1; i > -1 && doneLatch.getCount() > -queuedCount; i--) {
             if (activeEntries.getQuick(i).run(workerId)) {
                 reclaimed++;
             }
         }
-
-        log.info().$("waiting for parts [queuedCount=").$(queuedCount).$(']').$();
         doneLatch.await(queuedCount);
         return reclaimed;
     }
@@ -197,6 +197,9 @@ public class GroupByRecordCursorFactory implements RecordCursorFactory {
             workerId = 0;
         }
 
+        // frames computed on the fly must be aggregated before the cursor reuses their memory
+        final int frameMemoryWindow = cursor.getFrameMemoryWindow();
+        int windowFrameCount = 0;
         PageFrame frame;
         while ((frame = cursor.next()) != null) {
             final long keyAddress = frame.getPageAddress(keyColumnIndex);
@@ -242,6 +245,10 @@ public class GroupByRecordCursorFactory implements RecordCursorFactory {
                 }
                 total++;
             }
+            if (++windowFrameCount == frameMemoryWindow) {
+                reclaimed = GroupByNotKeyedVectorRecordCursorFactory.runWhatsLeft(queuedCount, reclaimed, workerId, activeEntries, doneLatch);
+                windowFrameCount = 0;
+            }
         }
 
         // all done? great start consuming the queue we just published
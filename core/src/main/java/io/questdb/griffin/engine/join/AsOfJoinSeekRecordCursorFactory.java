@@ -0,0 +1,320 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2022 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.griffin.engine.join;
+
+import io.questdb.cairo.AbstractRecordCursorFactory;
+import io.questdb.cairo.BinarySearch;
+import io.questdb.cairo.BitmapIndexReader;
+import io.questdb.cairo.ColumnType;
+import io.questdb.cairo.TableReader;
+import io.questdb.cairo.TableUtils;
+import io.questdb.cairo.sql.*;
+import io.questdb.cairo.sql.Record;
+import io.questdb.griffin.SqlException;
+import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.griffin.engine.table.AbstractDataFrameRecordCursor;
+import io.questdb.std.LongList;
+import io.questdb.std.Misc;
+import io.questdb.std.ObjList;
+import io.questdb.std.Rows;
+import io.questdb.std.Unsafe;
+import io.questdb.std.Vect;
+
+/**
+ * ASOF join, which finds slave row for each master row by searching slave designated timestamp
+ * instead of reading slave rows alongside master. Slave data frames are listed once per cursor, then
+ * slave position is moved forward by galloping from the previous position followed by binary search.
+ * When slave is much denser than master most of the slave rows are never read.
+ * <p>
+ * Keyed join is supported on a single indexed SYMBOL slave column. Slave row is looked up in the symbol
+ * bitmap index going backwards from the timestamp position through preceding frames.
+ */
+public class AsOfJoinSeekRecordCursorFactory extends AbstractRecordCursorFactory {
+    private final RecordCursorFactory masterFactory;
+    private final RecordCursorFactory slaveFactory;
+    private final AsOfJoinSeekRecordCursor cursor;
+
+    /**
+     * @param masterKeyIndex index of SYMBOL or STRING master key column, -1 when join is not keyed
+     * @param slaveKeyIndex  index of indexed SYMBOL slave key column, -1 when join is not keyed
+     */
+    public AsOfJoinSeekRecordCursorFactory(
+            RecordMetadata metadata,
+            RecordCursorFactory masterFactory,
+            RecordCursorFactory slaveFactory,
+            int columnSplit,
+            int masterKeyIndex,
+            int slaveKeyIndex
+    ) {
+        super(metadata);
+        this.masterFactory = masterFactory;
+        this.slaveFactory = slaveFactory;
+        this.cursor = new AsOfJoinSeekRecordCursor(
+                columnSplit,
+                NullRecordFactory.getInstance(slaveFactory.getMetadata()),
+                masterFactory.getMetadata().getTimestampIndex(),
+                masterKeyIndex,
+                masterKeyIndex != -1 && ColumnType.isSymbol(masterFactory.getMetadata().getColumnType(masterKeyIndex)),
+                slaveKeyIndex,
+                slaveKeyIndex != -1 ? slaveFactory.getMetadata().getColumnName(slaveKeyIndex) : null
+        );
+    }
+
+    @Override
+    public void close() {
+        ((JoinRecordMetadata) getMetadata()).close();
+        masterFactory.close();
+        slaveFactory.close();
+    }
+
+    @Override
+    public RecordCursor getCursor(SqlExecutionContext executionContext) throws SqlException {
+        RecordCursor masterCursor = masterFactory.getCursor(executionContext);
+        RecordCursor slaveCursor = null;
+        try {
+            slaveCursor = slaveFactory.getCursor(executionContext);
+            cursor.of(masterCursor, slaveCursor);
+            return cursor;
+        } catch (Throwable e) {
+            Misc.free(slaveCursor);
+            Misc.free(masterCursor);
+            throw e;
+        }
+    }
+
+    @Override
+    public boolean recordCursorSupportsRandomAccess() {
+        return false;
+    }
+
+    private static class AsOfJoinSeekRecordCursor implements NoRandomAccessRecordCursor {
+        // frame entries are: timestamp column address, partition index, partition lo, row count, last timestamp
+        private static final int FRAME_ENTRY_SIZE = 5;
+        private final OuterJoinRecord record;
+        private final int columnSplit;
+        private final int masterTimestampIndex;
+        private final int masterKeyIndex;
+        private final boolean masterKeySymbol;
+        private final int slaveKeyIndex;
+        private final CharSequence slaveKeyColumnName;
+        private final LongList frames = new LongList();
+        private final ObjList<BitmapIndexReader> frameIndexReaders = new ObjList<>();
+        private RecordCursor masterCursor;
+        private RecordCursor slaveCursor;
+        private StaticSymbolTable slaveKeySymbolTable;
+        private Record masterRecord;
+        private Record slaveRecord;
+        private int frameCount;
+        // position of the last slave row, which timestamp is not greater than the previous master timestamp
+        private int frameIndex;
+        private long frameRow;
+        private long lastTimestamp;
+
+        public AsOfJoinSeekRecordCursor(
+                int columnSplit,
+                Record nullRecord,
+                int masterTimestampIndex,
+                int masterKeyIndex,
+                boolean masterKeySymbol,
+                int slaveKeyIndex,
+                CharSequence slaveKeyColumnName
+        ) {
+            this.record = new OuterJoinRecord(columnSplit, nullRecord);
+            this.columnSplit = columnSplit;
+            this.masterTimestampIndex = masterTimestampIndex;
+            this.masterKeyIndex = masterKeyIndex;
+            this.masterKeySymbol = masterKeySymbol;
+            this.slaveKeyIndex = slaveKeyIndex;
+            this.slaveKeyColumnName = slaveKeyColumnName;
+        }
+
+        @Override
+        public void close() {
+            masterCursor = Misc.free(masterCursor);
+            slaveCursor = Misc.free(slaveCursor);
+            frameIndexReaders.clear();
+        }
+
+        @Override
+        public Record getRecord() {
+            return record;
+        }
+
+        @Override
+        public SymbolTable getSymbolTable(int columnIndex) {
+            if (columnIndex < columnSplit) {
+                return masterCursor.getSymbolTable(columnIndex);
+            }
+            return slaveCursor.getSymbolTable(columnIndex - columnSplit);
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (masterCursor.hasNext()) {
+                seek(masterRecord.getTimestamp(masterTimestampIndex));
+                final long rowId;
+                if (frameRow == -1) {
+                    rowId = -1;
+                } else if (slaveKeyIndex == -1) {
+                    rowId = Rows.toRowID((int) getFrameLong(frameIndex, 1), getFrameLong(frameIndex, 2) + frameRow);
+                } else {
+                    rowId = findKeyedRowId();
+                }
+                if (rowId != -1) {
+                    record.hasSlave(true);
+                    slaveCursor.recordAt(slaveRecord, rowId);
+                } else {
+                    record.hasSlave(false);
+                }
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public long size() {
+            return masterCursor.size();
+        }
+
+        @Override
+        public void toTop() {
+            masterCursor.toTop();
+            resetPosition();
+        }
+
+        // finds the latest slave row at or before current position, which has master key value
+        private long findKeyedRowId() {
+            final CharSequence key = masterKeySymbol ? masterRecord.getSym(masterKeyIndex) : masterRecord.getStr(masterKeyIndex);
+            final int symbolKey = key != null ? slaveKeySymbolTable.keyOf(key) : SymbolTable.VALUE_IS_NULL;
+            if (symbolKey == SymbolTable.VALUE_NOT_FOUND) {
+                return -1;
+            }
+            final int indexKey = TableUtils.toIndexKey(symbolKey);
+            long hi = getFrameLong(frameIndex, 2) + frameRow;
+            for (int i = frameIndex; i > -1; i--) {
+                final long lo = getFrameLong(i, 2);
+                if (i < frameIndex) {
+                    hi = lo + getFrameLong(i, 3) - 1;
+                }
+                final RowCursor rowCursor = frameIndexReaders.getQuick(i).getCursor(true, indexKey, lo, hi);
+                if (rowCursor.hasNext()) {
+                    return Rows.toRowID((int) getFrameLong(i, 1), rowCursor.next());
+                }
+            }
+            return -1;
+        }
+
+        private long getFrameLong(int frame, int field) {
+            return frames.getQuick(frame * FRAME_ENTRY_SIZE + field);
+        }
+
+        private void of(RecordCursor masterCursor, RecordCursor slaveCursor) {
+            this.masterCursor = masterCursor;
+            this.slaveCursor = slaveCursor;
+            this.masterRecord = masterCursor.getRecord();
+            this.slaveRecord = slaveCursor.getRecordB();
+            this.slaveKeySymbolTable = slaveKeyIndex != -1 ? (StaticSymbolTable) slaveCursor.getSymbolTable(slaveKeyIndex) : null;
+            record.of(masterRecord, slaveRecord);
+
+            // slave cursor is only used to access rows by row id, so we can walk its data frames here
+            final DataFrameCursor dataFrameCursor = ((AbstractDataFrameRecordCursor) slaveCursor).getDataFrameCursor();
+            final TableReader reader = dataFrameCursor.getTableReader();
+            final int timestampIndex = reader.getMetadata().getTimestampIndex();
+            final int keyIndex = slaveKeyIndex != -1 ? reader.getMetadata().getColumnIndex(slaveKeyColumnName) : -1;
+            frames.clear();
+            frameIndexReaders.clear();
+            DataFrame frame;
+            while ((frame = dataFrameCursor.next()) != null) {
+                final long rowLo = frame.getRowLo();
+                final long rowCount = frame.getRowHi() - rowLo;
+                if (rowCount > 0) {
+                    final int partitionIndex = frame.getPartitionIndex();
+                    final long timestampAddress = reader.getColumn(
+                            TableReader.getPrimaryColumnIndex(reader.getColumnBase(partitionIndex), timestampIndex)
+                    ).getPageAddress(0) + rowLo * Long.BYTES;
+                    frames.add(timestampAddress);
+                    frames.add(partitionIndex);
+                    frames.add(rowLo);
+                    frames.add(rowCount);
+                    frames.add(Unsafe.getUnsafe().getLong(timestampAddress + (rowCount - 1) * Long.BYTES));
+                    if (keyIndex != -1) {
+                        frameIndexReaders.add(frame.getBitmapIndexReader(keyIndex, BitmapIndexReader.DIR_BACKWARD));
+                    }
+                }
+            }
+            dataFrameCursor.toTop();
+            frameCount = frames.size() / FRAME_ENTRY_SIZE;
+            resetPosition();
+        }
+
+        private void resetPosition() {
+            frameIndex = 0;
+            frameRow = -1;
+            lastTimestamp = Long.MIN_VALUE;
+            record.hasSlave(false);
+        }
+
+        // moves position to the last slave row, which timestamp is less or equal to the given one
+        private void seek(long timestamp) {
+            if (timestamp < lastTimestamp) {
+                // master is not ordered by timestamp, search from the beginning
+                frameIndex = 0;
+                frameRow = -1;
+            }
+            lastTimestamp = timestamp;
+            if (frameCount == 0) {
+                return;
+            }
+
+            // skip frames that end before the timestamp, the row we need is in the last of them or after
+            while (frameIndex < frameCount - 1 && getFrameLong(frameIndex, 4) <= timestamp) {
+                frameIndex++;
+                frameRow = -1;
+            }
+
+            final long timestampAddress = getFrameLong(frameIndex, 0);
+            final long rowCount = getFrameLong(frameIndex, 3);
+            long lo = Math.max(frameRow, 0);
+            if (Unsafe.getUnsafe().getLong(timestampAddress + lo * Long.BYTES) > timestamp) {
+                if (frameRow == -1 && frameIndex > 0) {
+                    // all rows of this frame are after the timestamp, it's the last row of previous frame
+                    frameIndex--;
+                    frameRow = getFrameLong(frameIndex, 3) - 1;
+                }
+                return;
+            }
+
+            // gallop forward to find range that contains the position and then search it
+            long step = 1;
+            long hi = lo + step;
+            while (hi < rowCount && Unsafe.getUnsafe().getLong(timestampAddress + hi * Long.BYTES) <= timestamp) {
+                lo = hi;
+                step <<= 1;
+                hi = lo + step;
+            }
+            frameRow = Vect.boundedBinarySearch64Bit(timestampAddress, timestamp, lo, Math.min(hi, rowCount - 1), BinarySearch.SCAN_DOWN);
+        }
+    }
+}
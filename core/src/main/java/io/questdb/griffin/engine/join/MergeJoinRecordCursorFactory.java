@@ -0,0 +1,248 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2022 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.griffin.engine.join;
+
+import io.questdb.cairo.AbstractRecordCursorFactory;
+import io.questdb.cairo.CairoConfiguration;
+import io.questdb.cairo.sql.*;
+import io.questdb.cairo.sql.Record;
+import io.questdb.cairo.vm.Vm;
+import io.questdb.cairo.vm.api.MemoryARW;
+import io.questdb.griffin.SqlException;
+import io.questdb.griffin.SqlExecutionCircuitBreaker;
+import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.std.MemoryTag;
+import io.questdb.std.Misc;
+
+/**
+ * Inner or outer equi-join of two cursors, which are both ordered by the join key. Here the key is
+ * designated timestamp on both sides. Cursors are read in lockstep and only row ids of the current run
+ * of slave rows with equal key are kept in memory, whereas hash join would store the entire slave.
+ * Row ids are subject to the same memory limits as hash join light values.
+ */
+public class MergeJoinRecordCursorFactory extends AbstractRecordCursorFactory {
+    private final RecordCursorFactory masterFactory;
+    private final RecordCursorFactory slaveFactory;
+    private final MergeJoinRecordCursor cursor;
+
+    public MergeJoinRecordCursorFactory(
+            CairoConfiguration configuration,
+            RecordMetadata metadata,
+            RecordCursorFactory masterFactory,
+            RecordCursorFactory slaveFactory,
+            int columnSplit,
+            int masterKeyIndex,
+            int slaveKeyIndex,
+            boolean outer
+    ) {
+        super(metadata);
+        this.masterFactory = masterFactory;
+        this.slaveFactory = slaveFactory;
+        this.cursor = new MergeJoinRecordCursor(
+                Vm.getARWInstance(
+                        configuration.getSqlHashJoinLightValuePageSize(),
+                        configuration.getSqlHashJoinLightValueMaxPages(),
+                        MemoryTag.NATIVE_DEFAULT
+                ),
+                columnSplit,
+                NullRecordFactory.getInstance(slaveFactory.getMetadata()),
+                masterKeyIndex,
+                slaveKeyIndex,
+                outer
+        );
+    }
+
+    @Override
+    public void close() {
+        ((JoinRecordMetadata) getMetadata()).close();
+        masterFactory.close();
+        slaveFactory.close();
+        Misc.free(cursor.slaveRowIds);
+    }
+
+    @Override
+    public RecordCursor getCursor(SqlExecutionContext executionContext) throws SqlException {
+        RecordCursor masterCursor = masterFactory.getCursor(executionContext);
+        RecordCursor slaveCursor = null;
+        try {
+            slaveCursor = slaveFactory.getCursor(executionContext);
+            cursor.of(masterCursor, slaveCursor, executionContext.getCircuitBreaker());
+            return cursor;
+        } catch (Throwable e) {
+            Misc.free(slaveCursor);
+            Misc.free(masterCursor);
+            throw e;
+        }
+    }
+
+    @Override
+    public boolean recordCursorSupportsRandomAccess() {
+        return false;
+    }
+
+    @Override
+    public boolean supportsUpdateRowId(CharSequence tableName) {
+        return !cursor.outer && masterFactory.supportsUpdateRowId(tableName);
+    }
+
+    private static class MergeJoinRecordCursor implements NoRandomAccessRecordCursor {
+        private final OuterJoinRecord record;
+        private final MemoryARW slaveRowIds;
+        private final int columnSplit;
+        private final int masterKeyIndex;
+        private final int slaveKeyIndex;
+        private final boolean outer;
+        private RecordCursor masterCursor;
+        private RecordCursor slaveCursor;
+        private Record masterRecord;
+        private Record slaveRecordA;
+        private Record slaveRecordB;
+        private SqlExecutionCircuitBreaker circuitBreaker;
+        // key of the slave run in slaveRowIds
+        private long runKey;
+        // number of slave rows in the run
+        private long runSize;
+        // index of the next slave row of the run to join with current master row
+        private long runIndex;
+        // slave record A is positioned at the first row after the run
+        private boolean slaveHasNext;
+        private long slaveKey;
+
+        public MergeJoinRecordCursor(
+                MemoryARW slaveRowIds,
+                int columnSplit,
+                Record nullRecord,
+                int masterKeyIndex,
+                int slaveKeyIndex,
+                boolean outer
+        ) {
+            this.slaveRowIds = slaveRowIds;
+            this.record = new OuterJoinRecord(columnSplit, nullRecord);
+            this.columnSplit = columnSplit;
+            this.masterKeyIndex = masterKeyIndex;
+            this.slaveKeyIndex = slaveKeyIndex;
+            this.outer = outer;
+        }
+
+        @Override
+        public void close() {
+            masterCursor = Misc.free(masterCursor);
+            slaveCursor = Misc.free(slaveCursor);
+        }
+
+        @Override
+        public Record getRecord() {
+            return record;
+        }
+
+        @Override
+        public SymbolTable getSymbolTable(int columnIndex) {
+            if (columnIndex < columnSplit) {
+                return masterCursor.getSymbolTable(columnIndex);
+            }
+            return slaveCursor.getSymbolTable(columnIndex - columnSplit);
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (runIndex < runSize) {
+                slaveCursor.recordAt(slaveRecordB, slaveRowIds.getLong(runIndex++ * Long.BYTES));
+                return true;
+            }
+
+            while (masterCursor.hasNext()) {
+                final long masterKey = masterRecord.getTimestamp(masterKeyIndex);
+                if (masterKey != runKey) {
+                    nextRun(masterKey);
+                }
+                if (runSize > 0) {
+                    slaveCursor.recordAt(slaveRecordB, slaveRowIds.getLong(0));
+                    runIndex = 1;
+                    record.hasSlave(true);
+                    return true;
+                }
+                if (outer) {
+                    record.hasSlave(false);
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public long size() {
+            return -1;
+        }
+
+        @Override
+        public void toTop() {
+            masterCursor.toTop();
+            slaveCursor.toTop();
+            resetRun();
+        }
+
+        private void nextSlave() {
+            slaveHasNext = slaveCursor.hasNext();
+            if (slaveHasNext) {
+                slaveKey = slaveRecordA.getTimestamp(slaveKeyIndex);
+            }
+        }
+
+        // collects row ids of slave rows with the given key, slave rows with lesser keys are skipped
+        private void nextRun(long key) {
+            runSize = 0;
+            runIndex = 0;
+            runKey = key;
+            while (slaveHasNext && slaveKey < key) {
+                circuitBreaker.test();
+                nextSlave();
+            }
+            while (slaveHasNext && slaveKey == key) {
+                circuitBreaker.test();
+                slaveRowIds.putLong(runSize++ * Long.BYTES, slaveRecordA.getRowId());
+                nextSlave();
+            }
+        }
+
+        private void of(RecordCursor masterCursor, RecordCursor slaveCursor, SqlExecutionCircuitBreaker circuitBreaker) {
+            this.masterCursor = masterCursor;
+            this.slaveCursor = slaveCursor;
+            this.circuitBreaker = circuitBreaker;
+            this.masterRecord = masterCursor.getRecord();
+            this.slaveRecordA = slaveCursor.getRecord();
+            this.slaveRecordB = slaveCursor.getRecordB();
+            record.of(masterRecord, slaveRecordB);
+            resetRun();
+        }
+
+        private void resetRun() {
+            runSize = 0;
+            runIndex = 0;
+            // designated timestamp cannot be null, so this key never matches master row
+            runKey = Long.MIN_VALUE;
+            nextSlave();
+        }
+    }
+}
@@ -28,6 +28,7 @@ import io.questdb.cairo.sql.DataFrameCursor;
 import io.questdb.griffin.SqlException;
 import io.questdb.griffin.SqlExecutionContext;
 import io.questdb.std.DirectLongList;
+import io.questdb.std.Files;
 import io.questdb.std.IntList;
 import io.questdb.std.Rows;
 import org.jetbrains.annotations.NotNull;
@@ -68,6 +69,8 @@ abstract class AbstractRecordListCursor extends AbstractDataFrameRecordCursor {
     @Override
     void of(DataFrameCursor dataFrameCursor, SqlExecutionContext executionContext) throws SqlException {
         this.dataFrameCursor = dataFrameCursor;
+        // rows are located via index
+        this.dataFrameCursor.setMemoryAdvice(Files.MADV_RANDOM);
         this.recordA.of(dataFrameCursor.getTableReader());
         this.recordB.of(dataFrameCursor.getTableReader());
         rows.clear();
@@ -24,9 +24,12 @@
 
 package io.questdb.griffin.engine.table;
 
+import io.questdb.cairo.CairoConfiguration;
+import io.questdb.cairo.SqlIOMode;
 import io.questdb.cairo.sql.*;
 import io.questdb.griffin.SqlException;
 import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.std.Files;
 import io.questdb.std.IntList;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -41,6 +44,8 @@ class DataFrameRecordCursor extends AbstractDataFrameRecordCursor {
     private final BooleanSupplier nextRow = this::nextRow;
     private final BooleanSupplier nextFrame = this::nextFrame;
     private final Function filter;
+    // reads ahead column values at rows located via bitmap index, null when read ahead is off
+    private IndexPrefetchRowCursor prefetchRowCursor;
 
     public DataFrameRecordCursor(
             RowCursorFactory rowCursorFactory,
@@ -90,6 +95,21 @@ class DataFrameRecordCursor extends AbstractDataFrameRecordCursor {
         this.recordA.of(dataFrameCursor.getTableReader());
         this.recordB.of(dataFrameCursor.getTableReader());
         this.rowCursorFactory.prepareCursor(dataFrameCursor.getTableReader(), sqlExecutionContext);
+        if (rowCursorFactory.isUsingIndex()) {
+            dataFrameCursor.setMemoryAdvice(Files.MADV_RANDOM);
+            final CairoConfiguration configuration = sqlExecutionContext.getCairoEngine().getConfiguration();
+            if (configuration.getSqlIOMode() == SqlIOMode.IO_MODE_PREFETCH && configuration.getSqlIOPrefetchRowCount() > 0) {
+                if (prefetchRowCursor == null) {
+                    prefetchRowCursor = new IndexPrefetchRowCursor(
+                            configuration.getFilesFacade(),
+                            configuration.getSqlIOPrefetchRowCount(),
+                            columnIndexes
+                    );
+                }
+            } else {
+                prefetchRowCursor = null;
+            }
+        }
         this.next = nextFrame;
     }
 
@@ -102,6 +122,9 @@ class DataFrameRecordCursor extends AbstractDataFrameRecordCursor {
         DataFrame dataFrame;
         while ((dataFrame = dataFrameCursor.next()) != null) {
             rowCursor = rowCursorFactory.getCursor(dataFrame);
+            if (prefetchRowCursor != null) {
+                rowCursor = prefetchRowCursor.of(rowCursor, dataFrameCursor.getTableReader(), dataFrame.getPartitionIndex());
+            }
             if (rowCursor.hasNext()) {
                 recordA.jumpTo(dataFrame.getPartitionIndex(), rowCursor.next());
                 next = nextRow;
@@ -30,10 +30,7 @@ import io.questdb.cairo.vm.NullMemoryMR;
 import io.questdb.cairo.vm.api.MemoryR;
 import io.questdb.griffin.SqlException;
 import io.questdb.griffin.SqlExecutionContext;
-import io.questdb.std.IntList;
-import io.questdb.std.LongList;
-import io.questdb.std.Misc;
-import io.questdb.std.Unsafe;
+import io.questdb.std.*;
 import io.questdb.std.str.CharSink;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -46,7 +43,11 @@ public class DataFrameRecordCursorFactory extends AbstractDataFrameRecordCursorF
     private final IntList columnIndexes;
     private final IntList columnSizes;
     protected final int pageFrameMaxSize;
+    protected final int pageFramePrefetchCount;
+    protected final FilesFacade ff;
+    private final CairoConfiguration configuration;
     private TableReaderPageFrameCursor pageFrameCursor;
+    private PageFrameBatchCursor batchCursor;
 
     public DataFrameRecordCursorFactory(
             @NotNull CairoConfiguration configuration,
@@ -69,6 +70,9 @@ public class DataFrameRecordCursorFactory extends AbstractDataFrameRecordCursorF
         this.columnIndexes = columnIndexes;
         this.columnSizes = columnSizes;
         this.pageFrameMaxSize = configuration.getSqlPageFrameMaxSize();
+        this.pageFramePrefetchCount = configuration.getSqlIOMode() == SqlIOMode.IO_MODE_PREFETCH ? configuration.getSqlIOPrefetchFrameCount() : 0;
+        this.ff = configuration.getFilesFacade();
+        this.configuration = configuration;
     }
 
     @Override
@@ -86,13 +90,25 @@ public class DataFrameRecordCursorFactory extends AbstractDataFrameRecordCursorF
         return followsOrderByAdvice;
     }
 
+    @Override
+    public BatchCursor getBatchCursor(SqlExecutionContext executionContext) throws SqlException {
+        final PageFrameCursor pageFrameCursor = getPageFrameCursor(executionContext);
+        if (pageFrameCursor == null) {
+            return null;
+        }
+        if (batchCursor == null) {
+            batchCursor = new PageFrameBatchCursor(configuration);
+        }
+        return batchCursor.of(pageFrameCursor, getMetadata());
+    }
+
     @Override
     public PageFrameCursor getPageFrameCursor(SqlExecutionContext executionContext) throws SqlException {
         DataFrameCursor dataFrameCursor = dataFrameCursorFactory.getCursor(executionContext);
         if (pageFrameCursor != null) {
             return pageFrameCursor.of(dataFrameCursor);
         } else if (framingSupported) {
-            pageFrameCursor = new TableReaderPageFrameCursor(columnIndexes, columnSizes, pageFrameMaxSize);
+            pageFrameCursor = new TableReaderPageFrameCursor(columnIndexes, columnSizes, pageFrameMaxSize, ff, pageFramePrefetchCount);
             return pageFrameCursor.of(dataFrameCursor);
         } else {
             return null;
@@ -104,6 +120,11 @@ public class DataFrameRecordCursorFactory extends AbstractDataFrameRecordCursorF
         return true;
     }
 
+    @Override
+    public boolean supportBatchCursor() {
+        return supportPageFrameCursor();
+    }
+
     @Override
     public boolean supportPageFrameCursor() {
         return framingSupported;
@@ -145,18 +166,28 @@ public class DataFrameRecordCursorFactory extends AbstractDataFrameRecordCursorF
         private final LongList pageRowsRemaining = new LongList();
         private final LongList pageSizes = new LongList();
         private final int pageFrameMaxSize;
+        private final FilesFacade ff;
+        private final int prefetchFrameCount;
         private TableReader reader;
         private int reenterPartitionIndex;
         private DataFrameCursor dataFrameCursor;
         private long reenterPartitionLo;
         private long reenterPartitionHi;
         private boolean reenterDataFrame = false;
-
-        public TableReaderPageFrameCursor(IntList columnIndexes, IntList columnSizes, int pageFrameMaxSize) {
+        // partition row up to which column ranges have been read ahead
+        private long prefetchHi;
+
+        /**
+         * @param prefetchFrameCount number of page frames, following the current one, that are read ahead
+         *                           asynchronously, 0 disables read ahead and columns are read via page faults
+         */
+        public TableReaderPageFrameCursor(IntList columnIndexes, IntList columnSizes, int pageFrameMaxSize, FilesFacade ff, int prefetchFrameCount) {
             this.columnIndexes = columnIndexes;
             this.columnSizes = columnSizes;
             this.columnCount = columnIndexes.size();
             this.pageFrameMaxSize = pageFrameMaxSize;
+            this.ff = ff;
+            this.prefetchFrameCount = prefetchFrameCount;
         }
 
         @Override
@@ -172,6 +203,7 @@ public class DataFrameRecordCursorFactory extends AbstractDataFrameRecordCursorF
             DataFrame dataFrame = dataFrameCursor.next();
             if (dataFrame != null) {
                 this.reenterPartitionIndex = dataFrame.getPartitionIndex();
+                this.prefetchHi = dataFrame.getRowLo();
                 return computeFrame(dataFrame.getRowLo(), dataFrame.getRowHi());
             }
             return null;
@@ -261,6 +293,10 @@ public class DataFrameRecordCursorFactory extends AbstractDataFrameRecordCursorF
                 }
             }
 
+            if (prefetchFrameCount > 0) {
+                prefetchColumns(base, Math.min(partitionHi, adjustedHi + (long) prefetchFrameCount * pageFrameMaxSize));
+            }
+
             // it is possible that all columns in data frame are empty, but it doesn't mean
             // the data frame size is 0; sometimes we may want to imply nulls
             if (adjustedHi < partitionHi) {
@@ -277,6 +313,54 @@ public class DataFrameRecordCursorFactory extends AbstractDataFrameRecordCursorF
             return frame;
         }
 
+        private void prefetch(long address, long size) {
+            if (size > 0) {
+                final long alignedAddress = Files.floorPageSize(address);
+                ff.madvise(alignedAddress, address + size - alignedAddress, Files.MADV_WILLNEED);
+            }
+        }
+
+        // Asks kernel to read column ranges of upcoming frames of current partition, so that
+        // by the time frames are processed their pages are in page cache. Ranges that have
+        // been read ahead by previous frames are not requested again.
+        private void prefetchColumns(int base, long rowHi) {
+            final long rowLo = prefetchHi;
+            if (rowLo >= rowHi) {
+                return;
+            }
+            prefetchHi = rowHi;
+            for (int i = 0; i < columnCount; i++) {
+                final int columnIndex = columnIndexes.getQuick(i);
+                final int readerColIndex = TableReader.getPrimaryColumnIndex(base, columnIndex);
+                final MemoryR col = reader.getColumn(readerColIndex);
+                if (col instanceof NullMemoryMR) {
+                    continue;
+                }
+                final long top = reader.getColumnTop(base, columnIndex);
+                final long lo = Math.max(rowLo - top, 0);
+                final long hi = rowHi - top;
+                if (hi <= lo) {
+                    continue;
+                }
+                final int sh = columnSizes.getQuick(i);
+                if (sh > -1) {
+                    final long address = col.getPageAddress(0);
+                    if (address != 0) {
+                        prefetch(address + (lo << sh), (hi - lo) << sh);
+                    }
+                } else {
+                    final long fixAddress = reader.getColumn(readerColIndex + 1).getPageAddress(0);
+                    final long varAddress = col.getPageAddress(0);
+                    if (fixAddress != 0 && varAddress != 0) {
+                        prefetch(fixAddress + (lo << 3), (hi - lo) << 3);
+                        final long varLo = Unsafe.getUnsafe().getLong(fixAddress + (lo << 3));
+                        final long varHi = Unsafe.getUnsafe().getLong(fixAddress + (hi << 3));
+                        prefetch(varAddress + varLo, varHi - varLo);
+                    }
+                }
+            }
+        }
+
         private class TableReaderPageFrame implements PageFrame {
             private long partitionLo;
             private long partitionHi;
@@ -0,0 +1,108 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2022 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.griffin.engine.table;
+
+import io.questdb.cairo.sql.*;
+import io.questdb.cairo.sql.Record;
+import io.questdb.griffin.SqlException;
+import io.questdb.griffin.SqlExecutionContext;
+
+/**
+ * Filters base rows a batch at a time. Filter narrows selection of each batch, selected rows
+ * are then returned one by one via the batch record.
+ */
+class FilteredBatchRecordCursor implements RecordCursor {
+    private final Function filter;
+    private BatchCursor base;
+    private Record record;
+    private RecordBatch batch;
+    private int selectedCount;
+    private int pos;
+
+    public FilteredBatchRecordCursor(Function filter) {
+        this.filter = filter;
+    }
+
+    @Override
+    public void close() {
+        base.close();
+    }
+
+    @Override
+    public Record getRecord() {
+        return record;
+    }
+
+    @Override
+    public SymbolTable getSymbolTable(int columnIndex) {
+        return base.getSymbolTable(columnIndex);
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (pos >= selectedCount) {
+            batch = base.next();
+            if (batch == null) {
+                return false;
+            }
+            selectedCount = filter.filterBatch(batch);
+            pos = 0;
+        }
+        batch.getRecord(batch.getSelection()[pos++]);
+        return true;
+    }
+
+    @Override
+    public Record getRecordB() {
+        return base.getRecordB();
+    }
+
+    @Override
+    public void recordAt(Record record, long atRowId) {
+        base.recordAt(record, atRowId);
+    }
+
+    @Override
+    public long size() {
+        return -1;
+    }
+
+    @Override
+    public void toTop() {
+        base.toTop();
+        filter.toTop();
+        selectedCount = 0;
+        pos = 0;
+    }
+
+    void of(BatchCursor base, SqlExecutionContext executionContext) throws SqlException {
+        this.base = base;
+        this.record = base.getRecord();
+        this.selectedCount = 0;
+        this.pos = 0;
+        filter.init(this, executionContext);
+    }
+}
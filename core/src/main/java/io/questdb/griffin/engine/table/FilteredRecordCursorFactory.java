@@ -24,6 +24,7 @@
 
 package io.questdb.griffin.engine.table;
 
+import io.questdb.cairo.sql.BatchCursor;
 import io.questdb.cairo.sql.Function;
 import io.questdb.cairo.sql.RecordCursor;
 import io.questdb.cairo.sql.RecordCursorFactory;
@@ -35,12 +36,15 @@ import io.questdb.std.Misc;
 public class FilteredRecordCursorFactory implements RecordCursorFactory {
     private final RecordCursorFactory base;
     private final FilteredRecordCursor cursor;
+    // filters batches of base rows when base provides them, batches go in ascending row order only
+    private final FilteredBatchRecordCursor batchCursor;
     private final Function filter;
 
     public FilteredRecordCursorFactory(RecordCursorFactory base, Function filter) {
         assert !(base instanceof FilteredRecordCursorFactory);
         this.base = base;
         this.cursor = new FilteredRecordCursor(filter);
+        this.batchCursor = base.supportBatchCursor() && !base.hasDescendingOrder() ? new FilteredBatchRecordCursor(filter) : null;
         this.filter = filter;
     }
 
@@ -52,6 +56,18 @@ public class FilteredRecordCursorFactory implements RecordCursorFactory {
 
     @Override
     public RecordCursor getCursor(SqlExecutionContext executionContext) throws SqlException {
+        if (batchCursor != null) {
+            final BatchCursor cursor = base.getBatchCursor(executionContext);
+            if (cursor != null) {
+                try {
+                    batchCursor.of(cursor, executionContext);
+                    return batchCursor;
+                } catch (Throwable e) {
+                    Misc.free(cursor);
+                    throw e;
+                }
+            }
+        }
         RecordCursor cursor = base.getCursor(executionContext);
         try {
             this.cursor.of(cursor, executionContext);
@@ -29,4 +29,9 @@ import io.questdb.cairo.sql.RowCursorFactory;
 
 public interface FunctionBasedRowCursorFactory extends RowCursorFactory {
     Function getFunction();
+
+    @Override
+    default boolean isUsingIndex() {
+        return true;
+    }
 }
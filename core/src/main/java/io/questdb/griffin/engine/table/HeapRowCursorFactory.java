@@ -48,6 +48,16 @@ public class HeapRowCursorFactory implements RowCursorFactory {
         return false;
     }
 
+    @Override
+    public boolean isUsingIndex() {
+        for (int i = 0, n = cursorFactories.size(); i < n; i++) {
+            if (cursorFactories.getQuick(i).isUsingIndex()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     @Override
     public RowCursor getCursor(DataFrame dataFrame) {
         for (int i = 0, n = cursorFactories.size(); i < n; i++) {
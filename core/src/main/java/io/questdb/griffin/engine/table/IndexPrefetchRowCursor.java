@@ -0,0 +1,147 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2022 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.griffin.engine.table;
+
+import io.questdb.cairo.ColumnType;
+import io.questdb.cairo.TableReader;
+import io.questdb.cairo.sql.RowCursor;
+import io.questdb.cairo.vm.api.MemoryR;
+import io.questdb.std.*;
+
+/**
+ * Reads row ids of a bitmap index cursor ahead of the consumer and asks the kernel to read
+ * column pages at those rows. Rows located via index are scattered across column files, without
+ * read ahead each of them costs a synchronous page fault. With read ahead the faults of a batch
+ * of rows are served concurrently.
+ * <p>
+ * When kernel cannot be advised, e.g. native library does not support madvise(), the pages of
+ * the batch are read here instead, one column at a time in file order. Faults are then still
+ * synchronous, but each column file is faulted in ascending order rather than interleaved with
+ * the other columns, which keeps kernel readahead of the file effective.
+ * <p>
+ * Values of variable length columns are not read ahead, only their offsets are. The offset has
+ * to be read to locate the value, and reading it here would fault synchronously.
+ */
+class IndexPrefetchRowCursor implements RowCursor {
+    private final FilesFacade ff;
+    private final int batchSize;
+    private final IntList columnIndexes;
+    private final LongList rows = new LongList();
+    // per selected column: address and size of the mapping, column top and value size shift,
+    // columns that are not in the partition have zero address
+    private final LongList columnAddresses = new LongList();
+    private final LongList columnSizes = new LongList();
+    private final LongList columnTops = new LongList();
+    private final IntList columnShifts = new IntList();
+    private RowCursor base;
+    private int pos;
+
+    IndexPrefetchRowCursor(FilesFacade ff, int batchSize, IntList columnIndexes) {
+        this.ff = ff;
+        this.batchSize = batchSize;
+        this.columnIndexes = columnIndexes;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (pos < rows.size()) {
+            return true;
+        }
+        nextBatch();
+        return pos < rows.size();
+    }
+
+    @Override
+    public long next() {
+        return rows.getQuick(pos++);
+    }
+
+    RowCursor of(RowCursor base, TableReader reader, int partitionIndex) {
+        this.base = base;
+        this.rows.clear();
+        this.pos = 0;
+
+        final int columnBase = reader.getColumnBase(partitionIndex);
+        columnAddresses.clear();
+        columnSizes.clear();
+        columnTops.clear();
+        columnShifts.clear();
+        for (int i = 0, n = columnIndexes.size(); i < n; i++) {
+            final int columnIndex = columnIndexes.getQuick(i);
+            final int columnType = reader.getMetadata().getColumnType(columnIndex);
+            final int readerColIndex = TableReader.getPrimaryColumnIndex(columnBase, columnIndex);
+            final MemoryR col;
+            final int shift;
+            if (ColumnType.isVariableLength(columnType)) {
+                col = reader.getColumn(readerColIndex + 1);
+                shift = 3;
+            } else {
+                col = reader.getColumn(readerColIndex);
+                shift = ColumnType.pow2SizeOf(columnType);
+            }
+            final long size = col != null ? col.size() : 0;
+            columnAddresses.add(size > 0 ? col.getPageAddress(0) : 0);
+            columnSizes.add(size);
+            columnTops.add(reader.getColumnTop(columnBase, columnIndex));
+            columnShifts.add(shift);
+        }
+        return this;
+    }
+
+    private void nextBatch() {
+        rows.clear();
+        pos = 0;
+        while (rows.size() < batchSize && base.hasNext()) {
+            rows.add(base.next());
+        }
+
+        for (int i = 0, n = columnAddresses.size(); i < n; i++) {
+            final long address = columnAddresses.getQuick(i);
+            if (address == 0) {
+                continue;
+            }
+            final long size = columnSizes.getQuick(i);
+            final long top = columnTops.getQuick(i);
+            final int shift = columnShifts.getQuick(i);
+            long lastPage = 0;
+            for (int j = 0, m = rows.size(); j < m; j++) {
+                final long row = rows.getQuick(j);
+                final long offset = (row - top) << shift;
+                if (row < top || offset >= size) {
+                    continue;
+                }
+                // rows come in index order, neighbouring rows often share a page
+                final long page = Files.floorPageSize(address + offset);
+                if (page != lastPage) {
+                    if (ff.madvise(page, Files.PAGE_SIZE, Files.MADV_WILLNEED) != 0) {
+                        // volatile read so that the read is not eliminated
+                        Unsafe.getUnsafe().getByteVolatile(null, Math.max(page, address));
+                    }
+                    lastPage = page;
+                }
+            }
+        }
+    }
+}
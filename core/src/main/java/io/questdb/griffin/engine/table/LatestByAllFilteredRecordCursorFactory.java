@@ -24,6 +24,7 @@
 
 package io.questdb.griffin.engine.table;
 
+import io.questdb.cairo.ArrayColumnTypes;
 import io.questdb.cairo.CairoConfiguration;
 import io.questdb.cairo.ColumnTypes;
 import io.questdb.cairo.RecordSink;
@@ -33,12 +34,14 @@ import io.questdb.cairo.sql.DataFrameCursorFactory;
 import io.questdb.cairo.sql.Function;
 import io.questdb.cairo.sql.RecordMetadata;
 import io.questdb.std.IntList;
+import io.questdb.std.Misc;
 import io.questdb.std.Transient;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 public class LatestByAllFilteredRecordCursorFactory extends AbstractTreeSetRecordCursorFactory {
     private final Map map;
+    private final LatestByFrameScanner scanner;
 
     public LatestByAllFilteredRecordCursorFactory(
             @NotNull RecordMetadata metadata,
@@ -52,8 +55,17 @@ public class LatestByAllFilteredRecordCursorFactory extends AbstractTreeSetRecor
         super(metadata, dataFrameCursorFactory, configuration);
         this.map = MapFactory.createMap(configuration, columnTypes);
         if (filter == null) {
-            this.cursor = new LatestByAllRecordCursor(map, rows, recordSink, columnIndexes);
+            // key types are transient, frame scans are created lazily and need own copy
+            final ArrayColumnTypes scanKeyTypes = new ArrayColumnTypes();
+            for (int i = 0, n = columnTypes.getColumnCount(); i < n; i++) {
+                scanKeyTypes.add(columnTypes.getColumnType(i));
+            }
+            this.scanner = new LatestByFrameScanner(
+                    () -> new LatestByAllRecordCursor.MapKeyFrameScan(configuration, scanKeyTypes, recordSink, columnIndexes)
+            );
+            this.cursor = new LatestByAllRecordCursor(map, rows, recordSink, columnIndexes, scanner);
         } else {
+            this.scanner = null;
             this.cursor = new LatestByAllFilteredRecordCursor(map, rows, recordSink, filter, columnIndexes);
         }
     }
@@ -62,6 +74,7 @@ public class LatestByAllFilteredRecordCursorFactory extends AbstractTreeSetRecor
     public void close() {
         super.close();
         map.close();
+        Misc.free(scanner);
     }
 
     @Override
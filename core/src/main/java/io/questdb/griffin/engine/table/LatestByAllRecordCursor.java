@@ -24,47 +24,108 @@
 
 package io.questdb.griffin.engine.table;
 
+import io.questdb.cairo.CairoConfiguration;
+import io.questdb.cairo.ColumnTypes;
 import io.questdb.cairo.RecordSink;
 import io.questdb.cairo.map.Map;
+import io.questdb.cairo.map.MapFactory;
 import io.questdb.cairo.map.MapKey;
 import io.questdb.cairo.sql.DataFrame;
+import io.questdb.cairo.sql.Record;
 import io.questdb.griffin.SqlExecutionContext;
 import io.questdb.std.DirectLongList;
 import io.questdb.std.IntList;
 import io.questdb.std.Rows;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 class LatestByAllRecordCursor extends AbstractDescendingRecordListCursor {
 
     private final Map map;
     private final RecordSink recordSink;
+    private final LatestByFrameScanner scanner;
+    private final LatestByFrameScanner.Merger merger = this::merge;
 
-    public LatestByAllRecordCursor(Map map, DirectLongList rows, RecordSink recordSink, @NotNull IntList columnIndexes) {
+    public LatestByAllRecordCursor(
+            Map map,
+            DirectLongList rows,
+            RecordSink recordSink,
+            @NotNull IntList columnIndexes,
+            @Nullable LatestByFrameScanner scanner
+    ) {
         super(rows, columnIndexes);
         this.map = map;
         this.recordSink = recordSink;
+        this.scanner = scanner;
     }
 
     @Override
     protected void buildTreeMap(SqlExecutionContext executionContext) {
-        DataFrame frame;
         try {
-            while ((frame = this.dataFrameCursor.next()) != null) {
-                final int partitionIndex = frame.getPartitionIndex();
-                final long rowLo = frame.getRowLo();
-                final long rowHi = frame.getRowHi() - 1;
+            if (scanner != null && executionContext.getWorkerCount() > 1) {
+                scanner.scan(dataFrameCursor, executionContext, -1, merger);
+            } else {
+                scan();
+            }
+        } finally {
+            map.clear();
+        }
+    }
+
+    private boolean merge(long rowId) {
+        recordA.jumpTo(Rows.toPartitionIndex(rowId), Rows.toLocalRowID(rowId));
+        MapKey key = map.withKey();
+        key.put(recordA, recordSink);
+        if (key.create()) {
+            rows.add(rowId);
+        }
+        return false;
+    }
+
+    private void scan() {
+        DataFrame frame;
+        while ((frame = this.dataFrameCursor.next()) != null) {
+            final int partitionIndex = frame.getPartitionIndex();
+            final long rowLo = frame.getRowLo();
+            final long rowHi = frame.getRowHi() - 1;
 
-                recordA.jumpTo(frame.getPartitionIndex(), rowHi);
-                for (long row = rowHi; row >= rowLo; row--) {
-                    recordA.setRecordIndex(row);
-                    MapKey key = map.withKey();
-                    key.put(recordA, recordSink);
-                    if (key.create()) {
-                        rows.add(Rows.toRowID(partitionIndex, row));
-                    }
+            recordA.jumpTo(frame.getPartitionIndex(), rowHi);
+            for (long row = rowHi; row >= rowLo; row--) {
+                recordA.setRecordIndex(row);
+                MapKey key = map.withKey();
+                key.put(recordA, recordSink);
+                if (key.create()) {
+                    rows.add(Rows.toRowID(partitionIndex, row));
                 }
             }
-        } finally {
+        }
+    }
+
+    static class MapKeyFrameScan extends LatestByFrameScan {
+        private final Map map;
+        private final RecordSink recordSink;
+
+        MapKeyFrameScan(CairoConfiguration configuration, ColumnTypes keyTypes, RecordSink recordSink, @NotNull IntList columnIndexes) {
+            super(columnIndexes, configuration.getSqlLatestByRowCount());
+            this.map = MapFactory.createMap(configuration, keyTypes);
+            this.recordSink = recordSink;
+        }
+
+        @Override
+        public void close() {
+            super.close();
+            map.close();
+        }
+
+        @Override
+        protected boolean addKey(Record record) {
+            MapKey key = map.withKey();
+            key.put(record, recordSink);
+            return key.create();
+        }
+
+        @Override
+        protected void clearKeys() {
             map.clear();
         }
     }
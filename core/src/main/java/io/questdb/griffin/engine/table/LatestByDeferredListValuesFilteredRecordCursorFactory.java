@@ -30,6 +30,7 @@ import io.questdb.griffin.SqlException;
 import io.questdb.griffin.SqlExecutionContext;
 import io.questdb.std.IntHashSet;
 import io.questdb.std.IntList;
+import io.questdb.std.Misc;
 import io.questdb.std.ObjList;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -44,6 +45,7 @@ public class LatestByDeferredListValuesFilteredRecordCursorFactory extends Abstr
     private final Function filter;
     private final LatestByValueListRecordCursor cursor;
     private final int frameSymbolIndex;
+    private final LatestByFrameScanner scanner;
 
     public LatestByDeferredListValuesFilteredRecordCursorFactory(
             @NotNull CairoConfiguration configuration,
@@ -58,7 +60,15 @@ public class LatestByDeferredListValuesFilteredRecordCursorFactory extends Abstr
         this.symbolFunctions = symbolFunctions;
         this.filter = filter;
         this.frameSymbolIndex = columnIndexes.getQuick(columnIndex);
-        this.cursor = new LatestByValueListRecordCursor(columnIndex, filter, columnIndexes, configuration.getDefaultSymbolCapacity(), symbolFunctions != null);
+        final int symbolCapacity = configuration.getDefaultSymbolCapacity();
+        if (symbolFunctions == null && filter == null) {
+            this.scanner = new LatestByFrameScanner(
+                    () -> new LatestByValueListRecordCursor.SymbolKeyFrameScan(columnIndex, columnIndexes, symbolCapacity)
+            );
+        } else {
+            this.scanner = null;
+        }
+        this.cursor = new LatestByValueListRecordCursor(columnIndex, filter, columnIndexes, symbolCapacity, symbolFunctions != null, scanner);
     }
 
     public LatestByDeferredListValuesFilteredRecordCursorFactory(
@@ -79,6 +89,7 @@ public class LatestByDeferredListValuesFilteredRecordCursorFactory extends Abstr
             filter.close();
         }
         this.cursor.destroy();
+        Misc.free(scanner);
     }
 
     @Override
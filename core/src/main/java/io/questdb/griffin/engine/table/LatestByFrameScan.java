@@ -0,0 +1,113 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2022 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.griffin.engine.table;
+
+import io.questdb.cairo.TableReader;
+import io.questdb.cairo.TableReaderSelectedColumnRecord;
+import io.questdb.cairo.sql.DataFrame;
+import io.questdb.cairo.sql.Record;
+import io.questdb.mp.CountDownLatchSPI;
+import io.questdb.std.DirectLongList;
+import io.questdb.std.IntList;
+import io.questdb.std.MemoryTag;
+import io.questdb.std.Misc;
+import io.questdb.std.Rows;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.Closeable;
+
+/**
+ * Scans single data frame backwards and collects row ids of the latest row for each key found in the frame.
+ * Row ids are collected in the order of the scan, so that merging frames newest-first yields the same rows
+ * as sequential scan of the table. Each worker thread uses own instance with own record and set of keys.
+ */
+public abstract class LatestByFrameScan implements Closeable {
+    protected final TableReaderSelectedColumnRecord record;
+    private final DirectLongList rows;
+    private int partitionIndex;
+    private long rowLo;
+    private long rowHi;
+    private int keyCount;
+    private CountDownLatchSPI doneLatch;
+
+    protected LatestByFrameScan(@NotNull IntList columnIndexes, long rowCapacity) {
+        this.record = new TableReaderSelectedColumnRecord(columnIndexes);
+        this.rows = new DirectLongList(rowCapacity, MemoryTag.NATIVE_LATEST_BY_LONG_LIST);
+    }
+
+    @Override
+    public void close() {
+        Misc.free(rows);
+    }
+
+    public DirectLongList getRows() {
+        return rows;
+    }
+
+    /**
+     * @param reader    reader of the table, partition of the frame must be open
+     * @param frame     frame to scan
+     * @param keyCount  number of distinct keys in the table, scan stops when all of them are found;
+     *                  -1 when the number is not known
+     * @param doneLatch latch to count down when the scan is done
+     */
+    public void of(TableReader reader, DataFrame frame, int keyCount, CountDownLatchSPI doneLatch) {
+        this.record.of(reader);
+        this.partitionIndex = frame.getPartitionIndex();
+        this.rowLo = frame.getRowLo();
+        this.rowHi = frame.getRowHi();
+        this.keyCount = keyCount;
+        this.doneLatch = doneLatch;
+    }
+
+    public void run() {
+        try {
+            rows.clear();
+            clearKeys();
+            record.jumpTo(partitionIndex, 0);
+            int foundCount = 0;
+            for (long row = rowHi - 1; row >= rowLo; row--) {
+                record.setRecordIndex(row);
+                if (addKey(record)) {
+                    rows.add(Rows.toRowID(partitionIndex, row));
+                    if (++foundCount == keyCount) {
+                        break;
+                    }
+                }
+            }
+        } finally {
+            doneLatch.countDown();
+        }
+    }
+
+    /**
+     * @param record record positioned at the row
+     * @return true when key of the record has not been seen in this frame yet
+     */
+    protected abstract boolean addKey(Record record);
+
+    protected abstract void clearKeys();
+}
@@ -0,0 +1,130 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2022 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.griffin.engine.table;
+
+import io.questdb.MessageBus;
+import io.questdb.cairo.TableReader;
+import io.questdb.cairo.sql.DataFrame;
+import io.questdb.cairo.sql.DataFrameCursor;
+import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.mp.RingQueue;
+import io.questdb.mp.SOUnboundedCountDownLatch;
+import io.questdb.mp.Sequence;
+import io.questdb.std.DirectLongList;
+import io.questdb.std.Misc;
+import io.questdb.std.ObjList;
+import io.questdb.std.ObjectFactory;
+import io.questdb.tasks.LatestByScanTask;
+
+import java.io.Closeable;
+
+/**
+ * Scans data frames of a backward data frame cursor in parallel. Frames are dispatched in rounds of
+ * one frame per worker, each frame is scanned by {@link LatestByFrameScan} with own set of keys.
+ * Round takes at most one frame of each partition, because workers read var-size and long256 values
+ * through flyweights of partition columns, which frames of the same partition share.
+ * Once the round is done row ids found in each frame are passed to the merger newest frame first, which
+ * keeps the first row id of each key. Scan terminates early when the merger reports that all keys are found.
+ */
+class LatestByFrameScanner implements Closeable {
+    private final ObjectFactory<LatestByFrameScan> scanFactory;
+    private final ObjList<LatestByFrameScan> scans = new ObjList<>();
+    private final SOUnboundedCountDownLatch doneLatch = new SOUnboundedCountDownLatch();
+
+    LatestByFrameScanner(ObjectFactory<LatestByFrameScan> scanFactory) {
+        this.scanFactory = scanFactory;
+    }
+
+    @Override
+    public void close() {
+        Misc.freeObjList(scans);
+        scans.clear();
+    }
+
+    void scan(DataFrameCursor dataFrameCursor, SqlExecutionContext executionContext, int keyCount, Merger merger) {
+        final MessageBus bus = executionContext.getMessageBus();
+        final RingQueue<LatestByScanTask> queue = bus.getLatestByScanQueue();
+        final Sequence pubSeq = bus.getLatestByScanPubSeq();
+        final Sequence subSeq = bus.getLatestByScanSubSeq();
+
+        final int workerCount = Math.max(1, executionContext.getWorkerCount());
+        while (scans.size() < workerCount) {
+            scans.add(scanFactory.newInstance());
+        }
+
+        final TableReader reader = dataFrameCursor.getTableReader();
+        DataFrame frame = dataFrameCursor.next();
+        while (frame != null) {
+            doneLatch.reset();
+            int frameCount = 0;
+            int partitionIndex = -1;
+            // frames of a partition are adjacent, interval cursor can return more than one of them
+            while (frame != null && frameCount < workerCount && frame.getPartitionIndex() != partitionIndex) {
+                partitionIndex = frame.getPartitionIndex();
+                final LatestByFrameScan scan = scans.getQuick(frameCount++);
+                scan.of(reader, frame, keyCount, doneLatch);
+                final long seq = pubSeq.next();
+                if (seq < 0) {
+                    scan.run();
+                } else {
+                    queue.get(seq).scan = scan;
+                    pubSeq.done(seq);
+                }
+                frame = dataFrameCursor.next();
+            }
+
+            // process our own queue
+            // this should fix deadlock with 1 worker configuration
+            while (doneLatch.getCount() > -frameCount) {
+                final long seq = subSeq.next();
+                if (seq > -1) {
+                    final LatestByFrameScan scan = queue.get(seq).scan;
+                    subSeq.done(seq);
+                    scan.run();
+                }
+            }
+            doneLatch.await(frameCount);
+
+            for (int i = 0; i < frameCount; i++) {
+                final DirectLongList rows = scans.getQuick(i).getRows();
+                for (long j = 0, n = rows.size(); j < n; j++) {
+                    if (merger.merge(rows.get(j))) {
+                        return;
+                    }
+                }
+            }
+        }
+    }
+
+    @FunctionalInterface
+    interface Merger {
+        /**
+         * @param rowId row id of the latest row of a key within scanned frame
+         * @return true when all keys have been found and the scan can stop
+         */
+        boolean merge(long rowId);
+    }
+}
@@ -0,0 +1,205 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2022 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.griffin.engine.table;
+
+import io.questdb.cairo.TableReader;
+import io.questdb.cairo.TxReader;
+import io.questdb.cairo.sql.DataFrame;
+import io.questdb.cairo.sql.DataFrameCursor;
+import io.questdb.cairo.sql.StaticSymbolTable;
+import io.questdb.cairo.sql.SymbolTable;
+import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.std.*;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Keeps latest row id for every value of symbol column between cursor executions.
+ * When table has only been appended to since the previous execution, the state is refreshed
+ * from the new rows in the last partitions and historical partitions are not touched. Any change
+ * to the partition table, truncate, UPDATE or column change makes the cursor rebuild the state
+ * by scanning table backwards.
+ */
+class LatestByStateRecordCursor extends AbstractDataFrameRecordCursor {
+    private static final long NO_ROW = -1L;
+    private final int columnIndex;
+    // latest row id by symbol key, null key is kept at slot 0
+    private final DirectLongList latestRows;
+    private final DirectLongList rowIds;
+    private long partitionTableVersion = -1;
+    private long truncateVersion;
+    private long columnVersion;
+    private long structureVersion;
+    private int partitionCount;
+    private long lastPartitionSize;
+    private int currentRow;
+
+    public LatestByStateRecordCursor(int columnIndex, @NotNull IntList columnIndexes, int symbolCapacity) {
+        super(columnIndexes);
+        this.columnIndex = columnIndex;
+        this.latestRows = new DirectLongList(symbolCapacity, MemoryTag.NATIVE_LATEST_BY_LONG_LIST);
+        this.rowIds = new DirectLongList(symbolCapacity, MemoryTag.NATIVE_LATEST_BY_LONG_LIST);
+    }
+
+    public void destroy() {
+        Misc.free(latestRows);
+        Misc.free(rowIds);
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (currentRow < rowIds.size()) {
+            recordAt(recordA, rowIds.get(currentRow++));
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public long size() {
+        return rowIds.size();
+    }
+
+    @Override
+    public void toTop() {
+        currentRow = 0;
+    }
+
+    private static int toSlot(int key) {
+        return key == SymbolTable.VALUE_IS_NULL ? 0 : key + 1;
+    }
+
+    private void ensureSlots(long slotCount) {
+        final long size = latestRows.size();
+        if (slotCount > size) {
+            if (slotCount > latestRows.getCapacity()) {
+                latestRows.extend(slotCount);
+            }
+            latestRows.setPos(slotCount);
+            for (long i = size; i < slotCount; i++) {
+                latestRows.set(i, NO_ROW);
+            }
+        }
+    }
+
+    private boolean isStateValid(TableReader reader) {
+        final TxReader txFile = reader.getTxFile();
+        if (txFile.getPartitionTableVersion() != partitionTableVersion
+                || txFile.getTruncateVersion() != truncateVersion
+                || txFile.getColumnVersion() != columnVersion
+                || reader.getVersion() != structureVersion
+                || reader.getPartitionCount() < partitionCount) {
+            return false;
+        }
+        // rows can only be appended to the last partition when partition table version is unchanged
+        return partitionCount == 0 || reader.openPartition(partitionCount - 1) >= lastPartitionSize;
+    }
+
+    private void rebuild(int distinctCount) {
+        if (distinctCount == 0) {
+            return;
+        }
+
+        int foundCount = 0;
+        DataFrame frame;
+        while ((frame = dataFrameCursor.next()) != null) {
+            final int partitionIndex = frame.getPartitionIndex();
+            final long rowLo = frame.getRowLo();
+            long row = frame.getRowHi();
+            recordA.jumpTo(partitionIndex, 0);
+
+            while (row-- > rowLo) {
+                recordA.setRecordIndex(row);
+                final int slot = toSlot(recordA.getInt(columnIndex));
+                ensureSlots(slot + 1);
+                if (latestRows.get(slot) == NO_ROW) {
+                    latestRows.set(slot, Rows.toRowID(partitionIndex, row));
+                    if (++foundCount == distinctCount) {
+                        return;
+                    }
+                }
+            }
+        }
+    }
+
+    private void refresh(TableReader reader) {
+        final int lastPartitionIndex = Math.max(0, partitionCount - 1);
+        for (int partitionIndex = lastPartitionIndex, n = reader.getPartitionCount(); partitionIndex < n; partitionIndex++) {
+            final long rowHi = reader.openPartition(partitionIndex);
+            long row = partitionIndex < partitionCount ? lastPartitionSize : 0;
+            if (row < rowHi) {
+                recordA.jumpTo(partitionIndex, 0);
+                for (; row < rowHi; row++) {
+                    recordA.setRecordIndex(row);
+                    final int slot = toSlot(recordA.getInt(columnIndex));
+                    ensureSlots(slot + 1);
+                    latestRows.set(slot, Rows.toRowID(partitionIndex, row));
+                }
+            }
+        }
+    }
+
+    private void saveState(TableReader reader) {
+        final TxReader txFile = reader.getTxFile();
+        partitionTableVersion = txFile.getPartitionTableVersion();
+        truncateVersion = txFile.getTruncateVersion();
+        columnVersion = txFile.getColumnVersion();
+        structureVersion = reader.getVersion();
+        partitionCount = reader.getPartitionCount();
+        lastPartitionSize = partitionCount > 0 ? reader.openPartition(partitionCount - 1) : 0;
+    }
+
+    @Override
+    void of(DataFrameCursor dataFrameCursor, SqlExecutionContext executionContext) {
+        this.dataFrameCursor = dataFrameCursor;
+        final TableReader reader = dataFrameCursor.getTableReader();
+        this.recordA.of(reader);
+        this.recordB.of(reader);
+
+        final StaticSymbolTable symbolTable = dataFrameCursor.getSymbolTable(columnIndexes.getQuick(columnIndex));
+        final int symbolCount = symbolTable.getSymbolCount();
+        if (isStateValid(reader)) {
+            ensureSlots(symbolCount + 1);
+            refresh(reader);
+        } else {
+            latestRows.clear();
+            ensureSlots(symbolCount + 1);
+            dataFrameCursor.toTop();
+            rebuild(symbolTable.containsNullValue() ? symbolCount + 1 : symbolCount);
+        }
+        saveState(reader);
+
+        // return rows in ascending timestamp order, same as the other latest by cursors
+        rowIds.clear();
+        for (long i = 0, n = latestRows.size(); i < n; i++) {
+            final long rowId = latestRows.get(i);
+            if (rowId != NO_ROW) {
+                rowIds.add(rowId);
+            }
+        }
+        rowIds.sortAsUnsigned();
+        toTop();
+    }
+}
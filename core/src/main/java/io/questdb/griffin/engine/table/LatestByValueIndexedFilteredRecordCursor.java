@@ -31,6 +31,7 @@ import io.questdb.cairo.sql.Function;
 import io.questdb.cairo.sql.RowCursor;
 import io.questdb.griffin.SqlException;
 import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.std.Files;
 import io.questdb.std.IntList;
 import org.jetbrains.annotations.NotNull;
 
@@ -101,6 +102,7 @@ class LatestByValueIndexedFilteredRecordCursor extends AbstractDataFrameRecordCu
     @Override
     void of(DataFrameCursor dataFrameCursor, SqlExecutionContext executionContext) throws SqlException {
         this.dataFrameCursor = dataFrameCursor;
+        this.dataFrameCursor.setMemoryAdvice(Files.MADV_RANDOM);
         this.recordA.of(dataFrameCursor.getTableReader());
         this.recordB.of(dataFrameCursor.getTableReader());
         filter.init(this, executionContext);
@@ -27,6 +27,7 @@ package io.questdb.griffin.engine.table;
 import io.questdb.cairo.sql.DataFrame;
 import io.questdb.cairo.sql.DataFrameCursor;
 import io.questdb.cairo.sql.Function;
+import io.questdb.cairo.sql.Record;
 import io.questdb.cairo.sql.StaticSymbolTable;
 import io.questdb.griffin.SqlException;
 import io.questdb.griffin.SqlExecutionContext;
@@ -44,9 +45,21 @@ class LatestByValueListRecordCursor extends AbstractDataFrameRecordCursor {
     private final boolean restrictedByValues;
     private DirectLongList rowIds;
     private int currentRow;
+    private final LatestByFrameScanner scanner;
+    private final LatestByFrameScanner.Merger merger = this::merge;
+    private int distinctCount;
+    private int foundCount;
 
-    public LatestByValueListRecordCursor(int columnIndex, @Nullable Function filter, @NotNull IntList columnIndexes, int shrinkToCapacity, boolean restrictedByValues) {
+    public LatestByValueListRecordCursor(
+            int columnIndex,
+            @Nullable Function filter,
+            @NotNull IntList columnIndexes,
+            int shrinkToCapacity,
+            boolean restrictedByValues,
+            @Nullable LatestByFrameScanner scanner
+    ) {
         super(columnIndexes);
+        this.scanner = scanner;
         this.shrinkToCapacity = shrinkToCapacity;
         this.columnIndex = columnIndex;
         this.filter = filter;
@@ -110,6 +123,10 @@ class LatestByValueListRecordCursor extends AbstractDataFrameRecordCursor {
                     filter.init(this, executionContext);
                     filter.toTop();
                     findAllWithFilter(filter, distinctSymbols);
+                } else if (scanner != null && executionContext.getWorkerCount() > 1) {
+                    distinctCount = distinctSymbols;
+                    foundCount = 0;
+                    scanner.scan(dataFrameCursor, executionContext, distinctSymbols, merger);
                 } else {
                     findAllNoFilter(distinctSymbols);
                 }
@@ -165,6 +182,15 @@ class LatestByValueListRecordCursor extends AbstractDataFrameRecordCursor {
         }
     }
 
+    private boolean merge(long rowId) {
+        recordAt(recordA, rowId);
+        if (foundKeys.add(recordA.getInt(columnIndex))) {
+            rowIds.add(rowId);
+            return ++foundCount == distinctCount;
+        }
+        return false;
+    }
+
     private void findAllWithFilter(Function filter, int distinctCount) {
         DataFrame frame = dataFrameCursor.next();
         int foundSize = 0;
@@ -237,4 +263,25 @@ class LatestByValueListRecordCursor extends AbstractDataFrameRecordCursor {
     public void toTop() {
         currentRow = (int) rowIds.size();
     }
+
+    static class SymbolKeyFrameScan extends LatestByFrameScan {
+        private final int columnIndex;
+        private final IntHashSet keys;
+
+        SymbolKeyFrameScan(int columnIndex, @NotNull IntList columnIndexes, int keyCapacity) {
+            super(columnIndexes, keyCapacity);
+            this.columnIndex = columnIndex;
+            this.keys = new IntHashSet(keyCapacity);
+        }
+
+        @Override
+        protected boolean addKey(Record record) {
+            return keys.add(record.getInt(columnIndex));
+        }
+
+        @Override
+        protected void clearKeys() {
+            keys.clear();
+        }
+    }
 }
@@ -0,0 +1,190 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2022 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.griffin.engine.table;
+
+import io.questdb.cairo.CairoConfiguration;
+import io.questdb.cairo.sql.*;
+import io.questdb.cairo.sql.Record;
+import io.questdb.std.Misc;
+import io.questdb.std.Rows;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Splits page frames of the base cursor into batches of up to {@link RecordBatch#MAX_SIZE} rows.
+ * Fixed size columns are exposed as addresses within the frame, so that functions read them without
+ * copying. Rows are addressed by the record for functions that have no batch implementation.
+ * Batches never span page frames.
+ */
+public class PageFrameBatchCursor implements BatchCursor, RecordBatch {
+    private final CompiledFilterRecordCursor.PageFrameRecord record = new CompiledFilterRecordCursor.PageFrameRecord();
+    private final CompiledFilterRecordCursor.PageFrameRecord recordB = new CompiledFilterRecordCursor.PageFrameRecord();
+    private final CompiledFilterRecordCursor.PageAddressCache pageAddressCache;
+    private final int[] selection = new int[MAX_SIZE];
+    private PageFrameCursor pageFrameCursor;
+    private PageFrame frame;
+    private int frameIndex;
+    private long frameRowCount;
+    // position of the batch within current frame
+    private long batchLo;
+    private int rowCount;
+    private int selectedCount;
+
+    public PageFrameBatchCursor(CairoConfiguration configuration) {
+        this.pageAddressCache = new CompiledFilterRecordCursor.PageAddressCache(configuration);
+    }
+
+    @Override
+    public void close() {
+        pageAddressCache.clear();
+        pageFrameCursor = Misc.free(pageFrameCursor);
+        frame = null;
+    }
+
+    /**
+     * @return row of the current batch within current page frame
+     */
+    public long getBatchLo() {
+        return batchLo;
+    }
+
+    @Override
+    public long getColumnAddress(int columnIndex) {
+        final long pageAddress = frame.getPageAddress(columnIndex);
+        if (pageAddress == 0) {
+            return 0;
+        }
+        return pageAddress + (batchLo << frame.getColumnShiftBits(columnIndex));
+    }
+
+    /**
+     * @return page frame of the current batch
+     */
+    public PageFrame getFrame() {
+        return frame;
+    }
+
+    @Override
+    public Record getRecord() {
+        return record;
+    }
+
+    @Override
+    public Record getRecord(int row) {
+        // record may have been moved to another frame via recordAt()
+        record.jumpTo(frameIndex);
+        record.setIndex(batchLo + row);
+        return record;
+    }
+
+    @Override
+    public Record getRecordB() {
+        return recordB;
+    }
+
+    @Override
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public int getSelectedCount() {
+        return selectedCount;
+    }
+
+    @Override
+    public int[] getSelection() {
+        return selection;
+    }
+
+    @Override
+    public SymbolTable getSymbolTable(int columnIndex) {
+        return pageFrameCursor.getSymbolMapReader(columnIndex);
+    }
+
+    /**
+     * @return true when current batch ends its page frame
+     */
+    public boolean isLastBatchOfFrame() {
+        return batchLo + rowCount >= frameRowCount;
+    }
+
+    @Override
+    public @Nullable RecordBatch next() {
+        if (frame != null && batchLo + rowCount < frameRowCount) {
+            batchLo += rowCount;
+            return nextBatch();
+        }
+        while ((frame = pageFrameCursor.next()) != null) {
+            // frame index has to match position of the frame in the cache, row ids refer to it
+            pageAddressCache.add(++frameIndex, frame);
+            frameRowCount = frame.getPartitionHi() - frame.getPartitionLo();
+            if (frameRowCount > 0) {
+                batchLo = 0;
+                return nextBatch();
+            }
+        }
+        return null;
+    }
+
+    public PageFrameBatchCursor of(PageFrameCursor pageFrameCursor, RecordMetadata metadata) {
+        this.pageFrameCursor = pageFrameCursor;
+        pageAddressCache.of(metadata);
+        record.of(pageFrameCursor, pageAddressCache);
+        recordB.of(pageFrameCursor, pageAddressCache);
+        toTop();
+        return this;
+    }
+
+    @Override
+    public void recordAt(Record record, long atRowId) {
+        final CompiledFilterRecordCursor.PageFrameRecord pageFrameRecord = (CompiledFilterRecordCursor.PageFrameRecord) record;
+        pageFrameRecord.jumpTo(Rows.toPartitionIndex(atRowId));
+        pageFrameRecord.setIndex(Rows.toLocalRowID(atRowId));
+    }
+
+    @Override
+    public void setSelectedCount(int count) {
+        this.selectedCount = count;
+    }
+
+    @Override
+    public void toTop() {
+        pageFrameCursor.toTop();
+        frame = null;
+        frameIndex = -1;
+        rowCount = 0;
+        selectedCount = 0;
+    }
+
+    private RecordBatch nextBatch() {
+        rowCount = (int) Math.min(MAX_SIZE, frameRowCount - batchLo);
+        for (int i = 0; i < rowCount; i++) {
+            selection[i] = i;
+        }
+        selectedCount = rowCount;
+        return this;
+    }
+}
@@ -97,6 +97,11 @@ public class SortedSymbolIndexRowCursorFactory implements RowCursorFactory {
         return false;
     }
 
+    @Override
+    public boolean isUsingIndex() {
+        return true;
+    }
+
     // this is a thread-local contraption used for sorting symbol values. We ought to think of something better
     private static class SymbolTableEntry {
         private String value;
@@ -0,0 +1,235 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2022 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.griffin.engine.table;
+
+import io.questdb.cairo.BitmapIndexReader;
+import io.questdb.cairo.CairoConfiguration;
+import io.questdb.cairo.ColumnType;
+import io.questdb.cairo.SymbolMapReader;
+import io.questdb.cairo.sql.*;
+import io.questdb.std.*;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Page frame cursor over projection of base page frames. Columns are either passed through
+ * from the base frame or computed by functions of base columns. Computed columns are evaluated
+ * a batch of rows at a time, see {@link Function#getDoubleBatch(RecordBatch, double[])}, into
+ * native buffers. Buffers are organised in slots, which are taken in turns by subsequent frames,
+ * so that consumers can aggregate as many frames in parallel as there are slots, see
+ * {@link #getFrameMemoryWindow()}. Cursor is the frame, frame addresses are to be read before calling next().
+ */
+public class VirtualPageFrameCursor implements PageFrameCursor, PageFrame {
+    // frames span whole batches and are small enough to stay in CPU cache
+    private static final long MAX_FRAME_ROWS = 16 * RecordBatch.MAX_SIZE;
+    private static final long BUFFER_SIZE = MAX_FRAME_ROWS << 3;
+    // index of column in base frame for pass-through columns, -1 for computed columns
+    private final IntList baseColumnIndexes = new IntList();
+    // function of computed column, null for pass-through columns
+    private final ObjList<Function> functions = new ObjList<>();
+    private final IntList bufferIndexes = new IntList();
+    private final PageFrameBatchCursor batchCursor;
+    private final double[] doubleValues = new double[RecordBatch.MAX_SIZE];
+    private final long[] longValues = new long[RecordBatch.MAX_SIZE];
+    private final int slotCount;
+    private int computedColumnCount;
+    private int slot;
+    private PageFrameCursor baseCursor;
+    private PageFrame baseFrame;
+    private long frameRowLo;
+    private long frameRowCount;
+    private long buffers;
+    private long frameBuffers;
+
+    /**
+     * @param configuration configuration of batch cursor over base frames
+     * @param slotCount     number of frames that keep their computed columns in memory at the same time,
+     *                      typically the number of workers aggregating frames
+     */
+    public VirtualPageFrameCursor(CairoConfiguration configuration, int slotCount) {
+        this.batchCursor = new PageFrameBatchCursor(configuration);
+        this.slotCount = Math.max(1, slotCount);
+    }
+
+    public void addColumn(int baseColumnIndex) {
+        baseColumnIndexes.add(baseColumnIndex);
+        functions.add(null);
+        bufferIndexes.add(-1);
+    }
+
+    /**
+     * @param function function of base columns, which is either DOUBLE or LONG
+     */
+    public void addFunction(Function function) {
+        baseColumnIndexes.add(-1);
+        functions.add(function);
+        bufferIndexes.add(computedColumnCount++);
+    }
+
+    @Override
+    public void close() {
+        // batch cursor owns base cursor
+        Misc.free(batchCursor);
+        baseCursor = null;
+        baseFrame = null;
+        if (buffers != 0) {
+            Unsafe.free(buffers, getBufferSize(), MemoryTag.NATIVE_DEFAULT);
+            buffers = 0;
+            frameBuffers = 0;
+        }
+    }
+
+    @Override
+    public BitmapIndexReader getBitmapIndexReader(int columnIndex, int dirForward) {
+        final int baseIndex = baseColumnIndexes.getQuick(columnIndex);
+        return baseIndex > -1 ? baseFrame.getBitmapIndexReader(baseIndex, dirForward) : null;
+    }
+
+    @Override
+    public int getColumnShiftBits(int columnIndex) {
+        final int baseIndex = baseColumnIndexes.getQuick(columnIndex);
+        return baseIndex > -1 ? baseFrame.getColumnShiftBits(baseIndex) : 3;
+    }
+
+    @Override
+    public long getIndexPageAddress(int columnIndex) {
+        return 0;
+    }
+
+    @Override
+    public long getPageAddress(int columnIndex) {
+        final int baseIndex = baseColumnIndexes.getQuick(columnIndex);
+        if (baseIndex > -1) {
+            final long address = baseFrame.getPageAddress(baseIndex);
+            return address != 0 ? address + (frameRowLo << baseFrame.getColumnShiftBits(baseIndex)) : 0;
+        }
+        return frameBuffers + bufferIndexes.getQuick(columnIndex) * BUFFER_SIZE;
+    }
+
+    @Override
+    public long getPageSize(int columnIndex) {
+        return frameRowCount << getColumnShiftBits(columnIndex);
+    }
+
+    @Override
+    public int getFrameMemoryWindow() {
+        return Math.min(slotCount, baseCursor.getFrameMemoryWindow());
+    }
+
+    @Override
+    public int getPartitionIndex() {
+        return baseFrame.getPartitionIndex();
+    }
+
+    @Override
+    public long getPartitionLo() {
+        return baseFrame.getPartitionLo() + frameRowLo;
+    }
+
+    @Override
+    public long getPartitionHi() {
+        return getPartitionLo() + frameRowCount;
+    }
+
+    @Override
+    public SymbolMapReader getSymbolMapReader(int columnIndex) {
+        final int baseIndex = baseColumnIndexes.getQuick(columnIndex);
+        return baseIndex > -1 ? baseCursor.getSymbolMapReader(baseIndex) : null;
+    }
+
+    @Override
+    public @Nullable PageFrame next() {
+        RecordBatch batch = batchCursor.next();
+        if (batch == null) {
+            return null;
+        }
+        baseFrame = batchCursor.getFrame();
+        frameRowLo = batchCursor.getBatchLo();
+        frameBuffers = buffers + slot * computedColumnCount * BUFFER_SIZE;
+        slot = (slot + 1) % slotCount;
+        frameRowCount = 0;
+        while (true) {
+            compute(batch, frameRowCount);
+            frameRowCount += batch.getRowCount();
+            // all batches but the last one of base frame are full, so frame fills up exactly
+            if (batchCursor.isLastBatchOfFrame() || frameRowCount == MAX_FRAME_ROWS) {
+                return this;
+            }
+            batch = batchCursor.next();
+            assert batch != null;
+        }
+    }
+
+    public VirtualPageFrameCursor of(PageFrameCursor baseCursor, RecordMetadata baseMetadata) {
+        this.baseCursor = baseCursor;
+        this.baseFrame = null;
+        this.slot = 0;
+        batchCursor.of(baseCursor, baseMetadata);
+        if (buffers == 0) {
+            buffers = Unsafe.malloc(getBufferSize(), MemoryTag.NATIVE_DEFAULT);
+        }
+        return this;
+    }
+
+    @Override
+    public long size() {
+        return baseCursor.size();
+    }
+
+    @Override
+    public void toTop() {
+        batchCursor.toTop();
+        baseFrame = null;
+        slot = 0;
+    }
+
+    // evaluates computed columns for rows of the batch, which follow frameOffset rows of the frame
+    private void compute(RecordBatch batch, long frameOffset) {
+        final int rowCount = batch.getRowCount();
+        for (int i = 0, n = functions.size(); i < n; i++) {
+            final Function function = functions.getQuick(i);
+            if (function == null) {
+                continue;
+            }
+            final long dst = frameBuffers + bufferIndexes.getQuick(i) * BUFFER_SIZE + (frameOffset << 3);
+            if (function.getType() == ColumnType.DOUBLE) {
+                function.getDoubleBatch(batch, doubleValues);
+                for (int j = 0; j < rowCount; j++) {
+                    // overflow and division by zero yield infinity, row-by-row aggregates skip it along with nulls
+                    final double value = doubleValues[j];
+                    Unsafe.getUnsafe().putDouble(dst + ((long) j << 3), Numbers.isFinite(value) ? value : Double.NaN);
+                }
+            } else {
+                function.getLongBatch(batch, longValues);
+                for (int j = 0; j < rowCount; j++) {
+                    Unsafe.getUnsafe().putLong(dst + ((long) j << 3), longValues[j]);
+                }
+            }
+        }
+    }
+
+    private long getBufferSize() {
+        return slotCount * computedColumnCount * BUFFER_SIZE;
+    }
+}
@@ -0,0 +1,86 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2022 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.griffin.engine.table;
+
+import io.questdb.cairo.AbstractRecordCursorFactory;
+import io.questdb.cairo.sql.Function;
+import io.questdb.cairo.sql.PageFrameCursor;
+import io.questdb.cairo.sql.RecordCursor;
+import io.questdb.cairo.sql.RecordCursorFactory;
+import io.questdb.griffin.SqlException;
+import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.std.Misc;
+import io.questdb.std.ObjList;
+
+/**
+ * Extends page frames of the base factory with computed columns, which follow base columns in
+ * the frame. Metadata is that of the base factory, computed columns are addressed by frame index only.
+ * Record cursor is therefore that of the base factory.
+ */
+public class VirtualPageFrameRecordCursorFactory extends AbstractRecordCursorFactory {
+    private final RecordCursorFactory base;
+    private final ObjList<Function> functions;
+    private final VirtualPageFrameCursor cursor;
+
+    public VirtualPageFrameRecordCursorFactory(RecordCursorFactory base, ObjList<Function> functions, VirtualPageFrameCursor cursor) {
+        super(base.getMetadata());
+        this.base = base;
+        this.functions = functions;
+        this.cursor = cursor;
+    }
+
+    @Override
+    public void close() {
+        Misc.free(cursor);
+        Misc.freeObjList(functions);
+        Misc.free(base);
+    }
+
+    @Override
+    public RecordCursor getCursor(SqlExecutionContext executionContext) throws SqlException {
+        return base.getCursor(executionContext);
+    }
+
+    @Override
+    public PageFrameCursor getPageFrameCursor(SqlExecutionContext executionContext) throws SqlException {
+        return cursor.of(base.getPageFrameCursor(executionContext), base.getMetadata());
+    }
+
+    @Override
+    public boolean recordCursorSupportsRandomAccess() {
+        return base.recordCursorSupportsRandomAccess();
+    }
+
+    @Override
+    public boolean supportPageFrameCursor() {
+        return true;
+    }
+
+    @Override
+    public boolean usesCompiledFilter() {
+        return base.usesCompiledFilter();
+    }
+}
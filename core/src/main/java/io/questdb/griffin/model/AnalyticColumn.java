@@ -30,9 +30,18 @@ import io.questdb.std.ObjectFactory;
 
 public final class AnalyticColumn extends QueryColumn {
     public final static ObjectFactory<AnalyticColumn> FACTORY = AnalyticColumn::new;
+    public static final int FRAMING_DEFAULT = 0;
+    public static final int FRAMING_ROWS = 1;
+    public static final int FRAMING_RANGE = 2;
+    // frame bounds are offsets from the current row, negative offsets are preceding rows
+    public static final long UNBOUNDED_PRECEDING = Long.MIN_VALUE;
+    public static final long UNBOUNDED_FOLLOWING = Long.MAX_VALUE;
     private final ObjList<ExpressionNode> partitionBy = new ObjList<>(2);
     private final ObjList<ExpressionNode> orderBy = new ObjList<>(2);
     private final IntList orderByDirection = new IntList(2);
+    private int framingMode = FRAMING_DEFAULT;
+    private long frameLo = UNBOUNDED_PRECEDING;
+    private long frameHi = 0;
 
     private AnalyticColumn() {
     }
@@ -48,6 +57,25 @@ public final class AnalyticColumn extends QueryColumn {
         partitionBy.clear();
         orderBy.clear();
         orderByDirection.clear();
+        framingMode = FRAMING_DEFAULT;
+        frameLo = UNBOUNDED_PRECEDING;
+        frameHi = 0;
+    }
+
+    /**
+     * @return frame end, relative to the current row; frame without ORDER BY ends with the partition
+     * unless it is ROWS frame, all rows of the partition are peers of the current row
+     */
+    public long getFrameHi() {
+        return framingMode != FRAMING_ROWS && orderBy.size() == 0 ? UNBOUNDED_FOLLOWING : frameHi;
+    }
+
+    public long getFrameLo() {
+        return frameLo;
+    }
+
+    public int getFramingMode() {
+        return framingMode;
     }
 
     public ObjList<ExpressionNode> getPartitionBy() {
@@ -62,6 +90,12 @@ public final class AnalyticColumn extends QueryColumn {
         return orderByDirection;
     }
 
+    public void setFrame(int framingMode, long frameLo, long frameHi) {
+        this.framingMode = framingMode;
+        this.frameLo = frameLo;
+        this.frameHi = frameHi;
+    }
+
     @Override
     public AnalyticColumn of(CharSequence alias, ExpressionNode ast) {
         return (AnalyticColumn) super.of(alias, ast);
@@ -46,6 +46,11 @@ public class CreateTableModel implements Mutable, ExecutionModel, Sinkable, Tabl
     private int maxUncommittedRows;
     private long commitLag;
     private boolean ignoreIfExists = false;
+    // materialized view definition, base table name position is relative to the view query text
+    private String matViewBaseTableName;
+    private String matViewSql;
+    private int matViewBaseTableLo;
+    private int matViewBaseTableHi;
 
     private CreateTableModel() {
     }
@@ -96,6 +101,8 @@ public class CreateTableModel implements Mutable, ExecutionModel, Sinkable, Tabl
         columnHashes.clear();
         columnNameIndexMap.clear();
         ignoreIfExists = false;
+        matViewBaseTableName = null;
+        matViewSql = null;
     }
 
     public CharSequenceObjHashMap<ColumnCastModel> getColumnCastModels() {
@@ -181,6 +188,33 @@ public class CreateTableModel implements Mutable, ExecutionModel, Sinkable, Tabl
         this.name = name;
     }
 
+    public String getMatViewBaseTableName() {
+        return matViewBaseTableName;
+    }
+
+    public int getMatViewBaseTableHi() {
+        return matViewBaseTableHi;
+    }
+
+    public int getMatViewBaseTableLo() {
+        return matViewBaseTableLo;
+    }
+
+    public String getMatViewSql() {
+        return matViewSql;
+    }
+
+    public boolean isMatView() {
+        return matViewSql != null;
+    }
+
+    public void setMatView(String baseTableName, String sql, int baseTableLo, int baseTableHi) {
+        this.matViewBaseTableName = baseTableName;
+        this.matViewSql = sql;
+        this.matViewBaseTableLo = baseTableLo;
+        this.matViewBaseTableHi = baseTableHi;
+    }
+
     public QueryModel getQueryModel() {
         return queryModel;
     }
@@ -950,6 +950,20 @@ public class QueryModel implements Mutable, ExecutionModel, AliasTranslator, Sin
         }
     }
 
+    private static void frameBoundToSink(long bound, CharSink sink) {
+        if (bound == AnalyticColumn.UNBOUNDED_PRECEDING) {
+            sink.put("unbounded preceding");
+        } else if (bound == AnalyticColumn.UNBOUNDED_FOLLOWING) {
+            sink.put("unbounded following");
+        } else if (bound == 0) {
+            sink.put("current row");
+        } else if (bound < 0) {
+            sink.put(-bound).put(" preceding");
+        } else {
+            sink.put(bound).put(" following");
+        }
+    }
+
     private String getSelectModelTypeText() {
         return modelTypeName.get(selectModelType);
     }
@@ -1001,6 +1015,17 @@ public class QueryModel implements Mutable, ExecutionModel, AliasTranslator, Sin
                             }
                         }
                     }
+
+                    if (ac.getFramingMode() != AnalyticColumn.FRAMING_DEFAULT) {
+                        if (partitionBy.size() > 0 || orderBy.size() > 0) {
+                            sink.put(' ');
+                        }
+                        sink.put(ac.getFramingMode() == AnalyticColumn.FRAMING_ROWS ? "rows" : "range");
+                        sink.put(" between ");
+                        frameBoundToSink(ac.getFrameLo(), sink);
+                        sink.put(" and ");
+                        frameBoundToSink(ac.getFrameHi(), sink);
+                    }
                     sink.put(')');
                 }
             } else {
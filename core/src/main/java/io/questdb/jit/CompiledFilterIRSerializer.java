@@ -35,6 +35,7 @@ import io.questdb.griffin.engine.functions.bind.NamedParameterLinkFunction;
 import io.questdb.griffin.engine.functions.constants.ConstantFunction;
 import io.questdb.griffin.engine.functions.constants.SymbolConstant;
 import io.questdb.griffin.model.ExpressionNode;
+import io.questdb.griffin.model.IntervalUtils;
 import io.questdb.std.*;
 
 import java.util.Arrays;
@@ -94,6 +95,8 @@ public class CompiledFilterIRSerializer implements PostOrderTreeTraversalAlgo.Vi
     // contains <memory_offset, constant_node> pairs for backfilling purposes
     private final LongObjHashMap<ExpressionNode> backfillNodes = new LongObjHashMap<>();
     private final LongObjHashMap.LongObjConsumer<ExpressionNode> backfillNodeConsumer = this::backfillNode;
+    // nodes of the "in" and "between" expansions, see expand()
+    private final ObjectPool<ExpressionNode> expansionNodePool = new ObjectPool<>(ExpressionNode.FACTORY, 16);
 
     // internal flag used to forcefully enable scalar mode based on filter's contents
     private boolean forceScalarMode;
@@ -142,7 +145,7 @@ public class CompiledFilterIRSerializer implements PostOrderTreeTraversalAlgo.Vi
      * @throws SqlException thrown when IR serialization failed.
      */
     public int serialize(ExpressionNode node, boolean scalar, boolean debug, boolean nullChecks) throws SqlException {
-        traverseAlgo.traverse(node, this);
+        traverseAlgo.traverse(expand(node), this);
         putOperator(RET);
 
         TypesObserver typesObserver = predicateContext.globalTypesObserver;
@@ -171,6 +174,7 @@ public class CompiledFilterIRSerializer implements PostOrderTreeTraversalAlgo.Vi
         forceScalarMode = false;
         predicateContext.clear();
         backfillNodes.clear();
+        expansionNodePool.clear();
     }
 
     @Override
@@ -242,6 +246,185 @@ public class CompiledFilterIRSerializer implements PostOrderTreeTraversalAlgo.Vi
         }
     }
 
+    /**
+     * Rewrites "in" lists and "between" ranges found under boolean operators into
+     * equivalent trees of comparisons that the JIT backend understands:
+     * <pre>
+     * x in (a, b, c)      -> x = a or x = b or x = c
+     * x between a and b   -> x >= min(a, b) and x <= max(a, b)
+     * </pre>
+     * Symbol list values become separate symbol key comparisons, so they are resolved
+     * against the symbol table like any other symbol constant. The original tree is
+     * left intact; the new nodes come from a pool that is reset in {@link #clear()}.
+     */
+    private ExpressionNode expand(ExpressionNode node) throws SqlException {
+        if (node == null) {
+            return null;
+        }
+        final CharSequence token = node.token;
+        if (token == null) {
+            return node;
+        }
+        // the parser turns "in" and "between" operators into functions once their arguments are absorbed
+        if (node.type == ExpressionNode.FUNCTION || node.type == ExpressionNode.SET_OPERATION) {
+            if (SqlKeywords.isInKeyword(token)) {
+                return expandIn(node);
+            }
+            if (SqlKeywords.isBetweenKeyword(token)) {
+                return expandBetween(node);
+            }
+            return node;
+        }
+        if (node.type != ExpressionNode.OPERATION || node.paramCount > 2 || !(SqlKeywords.isNotKeyword(token) || SqlKeywords.isAndKeyword(token) || SqlKeywords.isOrKeyword(token))) {
+            return node;
+        }
+        final ExpressionNode lhs = expand(node.lhs);
+        final ExpressionNode rhs = expand(node.rhs);
+        if (lhs == node.lhs && rhs == node.rhs) {
+            return node;
+        }
+        return newExpansionNode(node.type, token, node.position, node.paramCount, lhs, rhs);
+    }
+
+    private ExpressionNode expandIn(ExpressionNode node) throws SqlException {
+        final int valueCount = node.paramCount - 1;
+        if (valueCount < 1) {
+            throw SqlException.position(node.position).put("unsupported 'in' operand count: ").put(node.paramCount);
+        }
+        final ExpressionNode column = valueCount == 1 ? node.lhs : node.args.getQuick(valueCount);
+        final int columnTypeTag = expandableColumnTypeTag(node, column);
+        if (columnTypeTag != ColumnType.SYMBOL && columnTypeTag != ColumnType.CHAR && valueCount == 1 && isStringConstant(node.rhs)) {
+            // single string value stands for an interval, e.g. ts in '2022-01'
+            throw SqlException.position(node.rhs.position).put("unsupported interval constant: ").put(node.rhs.token);
+        }
+
+        ExpressionNode result = null;
+        // args are stored in reverse order, so walk them backwards to keep the list order
+        for (int i = valueCount - 1; i > -1; i--) {
+            ExpressionNode value = valueCount == 1 ? node.rhs : node.args.getQuick(i);
+            if (columnTypeTag != ColumnType.SYMBOL && columnTypeTag != ColumnType.CHAR && isStringConstant(value)) {
+                value = timestampConstant(value, parseTimestamp(value));
+            }
+            ExpressionNode eq = newExpansionNode(ExpressionNode.OPERATION, "=", node.position, 2, column, value);
+            result = result == null ? eq : newExpansionNode(ExpressionNode.OPERATION, "or", node.position, 2, result, eq);
+        }
+        if (columnTypeTag == ColumnType.SYMBOL || columnTypeTag == ColumnType.CHAR) {
+            return result;
+        }
+        // null timestamp never matches the list, even if the list has a null in it
+        ExpressionNode nullNode = newExpansionNode(ExpressionNode.CONSTANT, "null", node.position, 0, null, null);
+        ExpressionNode notNull = newExpansionNode(ExpressionNode.OPERATION, "<>", node.position, 2, column, nullNode);
+        return newExpansionNode(ExpressionNode.OPERATION, "and", node.position, 2, notNull, result);
+    }
+
+    private ExpressionNode expandBetween(ExpressionNode node) throws SqlException {
+        if (node.paramCount != 3) {
+            throw SqlException.position(node.position).put("unsupported 'between' operand count: ").put(node.paramCount);
+        }
+        final ExpressionNode column = node.args.getQuick(2);
+        final int columnTypeTag = expandableColumnTypeTag(node, column);
+        if (columnTypeTag != ColumnType.TIMESTAMP && columnTypeTag != ColumnType.LONG) {
+            throw SqlException.position(column.position).put("unsupported 'between' column type: ").put(ColumnType.nameOf(columnTypeTag));
+        }
+        final ExpressionNode from = node.args.getQuick(1);
+        final ExpressionNode to = node.args.getQuick(0);
+        final long fromValue = parseTimestamp(from);
+        final long toValue = parseTimestamp(to);
+        ExpressionNode lo = newExpansionNode(
+                ExpressionNode.OPERATION,
+                ">=",
+                node.position,
+                2,
+                column,
+                timestampConstant(from, Math.min(fromValue, toValue))
+        );
+        ExpressionNode hi = newExpansionNode(
+                ExpressionNode.OPERATION,
+                "<=",
+                node.position,
+                2,
+                column,
+                timestampConstant(to, Math.max(fromValue, toValue))
+        );
+        return newExpansionNode(ExpressionNode.OPERATION, "and", node.position, 2, lo, hi);
+    }
+
+    private int expandableColumnTypeTag(ExpressionNode node, ExpressionNode column) throws SqlException {
+        if (column == null || column.type != ExpressionNode.LITERAL) {
+            throw SqlException.position(node.position).put("column expected on the left of: ").put(node.token);
+        }
+        final int index = metadata.getColumnIndexQuiet(column.token);
+        if (index == -1) {
+            throw SqlException.invalidColumn(column.position, column.token);
+        }
+        final int columnTypeTag = ColumnType.tagOf(metadata.getColumnType(index));
+        switch (columnTypeTag) {
+            case ColumnType.SYMBOL:
+            case ColumnType.CHAR:
+            case ColumnType.LONG:
+            case ColumnType.TIMESTAMP:
+                return columnTypeTag;
+            default:
+                // other types are implicitly cast to timestamp by the "in" and "between"
+                // functions, which has null and unit semantics of its own
+                throw SqlException.position(column.position)
+                        .put("unsupported '").put(node.token).put("' column type: ")
+                        .put(ColumnType.nameOf(columnTypeTag));
+        }
+    }
+
+    /**
+     * Parses timestamp constant the same way "in" and "between" functions do:
+     * numbers are taken as is and strings are parsed as partial dates.
+     */
+    private static long parseTimestamp(ExpressionNode node) throws SqlException {
+        boolean negated = false;
+        ExpressionNode constant = node;
+        if (node.type == ExpressionNode.OPERATION && node.paramCount == 1 && Chars.equals(node.token, "-")) {
+            constant = node.lhs != null ? node.lhs : node.rhs;
+            negated = true;
+        }
+        if (constant == null || constant.type != ExpressionNode.CONSTANT || SqlKeywords.isNullKeyword(constant.token)) {
+            throw SqlException.position(node.position).put("timestamp constant expected: ").put(node.token);
+        }
+        final CharSequence token = constant.token;
+        try {
+            if (Chars.isQuoted(token)) {
+                if (negated) {
+                    throw SqlException.position(node.position).put("unsupported timestamp constant: ").put(token);
+                }
+                return IntervalUtils.parseFloorPartialDate(token, 1, token.length() - 1);
+            }
+            final long value = Numbers.parseLong(token);
+            return negated ? -value : value;
+        } catch (NumericException e) {
+            throw SqlException.position(constant.position).put("could not parse timestamp constant: ").put(token);
+        }
+    }
+
+    private static boolean isStringConstant(ExpressionNode node) {
+        return node.type == ExpressionNode.CONSTANT && Chars.isQuoted(node.token);
+    }
+
+    private ExpressionNode timestampConstant(ExpressionNode node, long value) {
+        return newExpansionNode(ExpressionNode.CONSTANT, Long.toString(value), node.position, 0, null, null);
+    }
+
+    private ExpressionNode newExpansionNode(
+            int type,
+            CharSequence token,
+            int position,
+            int paramCount,
+            ExpressionNode lhs,
+            ExpressionNode rhs
+    ) {
+        final ExpressionNode node = expansionNodePool.next().of(type, token, 0, position);
+        node.paramCount = paramCount;
+        node.lhs = lhs;
+        node.rhs = rhs;
+        return node;
+    }
+
     private void backfillNode(long key, ExpressionNode value) {
         try {
             switch (value.type) {
@@ -0,0 +1,62 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2022 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.jit;
+
+import io.questdb.metrics.Counter;
+import io.questdb.metrics.MetricsRegistry;
+import org.jetbrains.annotations.TestOnly;
+
+/**
+ * JIT filter coverage: filters compiled to native code vs filters that were
+ * rejected by the IR serializer or compiler and run via the Java function tree.
+ */
+public class CompiledFilterMetrics {
+
+    private final Counter compiledCounter;
+    private final Counter fallbackCounter;
+
+    public CompiledFilterMetrics(MetricsRegistry metricsRegistry) {
+        this.compiledCounter = metricsRegistry.newCounter("jit_filters_compiled");
+        this.fallbackCounter = metricsRegistry.newCounter("jit_filters_fallback");
+    }
+
+    @TestOnly
+    public long compiledCount() {
+        return compiledCounter.get();
+    }
+
+    @TestOnly
+    public long fallbackCount() {
+        return fallbackCounter.get();
+    }
+
+    public void markCompiled() {
+        compiledCounter.inc();
+    }
+
+    public void markFallback() {
+        fallbackCounter.inc();
+    }
+}
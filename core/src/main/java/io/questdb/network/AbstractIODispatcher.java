@@ -141,6 +141,11 @@ public abstract class AbstractIODispatcher<C extends IOContext> extends Synchron
         return connectionCount.get();
     }
 
+    @Override
+    public long getQueueDepth() {
+        return Math.max(0, ioEventPubSeq.current() - ioEventSubSeq.current());
+    }
+
     @Override
     public void registerChannel(C context, int operation) {
         long cursor = interestPubSeq.nextBully();
@@ -298,6 +303,20 @@ public abstract class AbstractIODispatcher<C extends IOContext> extends Synchron
         }
     }
 
+    /**
+     * Publishes read operation straight away when network facade has already buffered input for
+     * the context. OS would not report such fd as readable until more bytes arrive.
+     *
+     * @return true when operation was published and fd must not be registered with the OS
+     */
+    protected boolean publishBufferedRead(int operation, C context) {
+        if (operation == IOOperation.READ && nf.hasBufferedInput(context.getFd())) {
+            publishOperation(IOOperation.READ, context);
+            return true;
+        }
+        return false;
+    }
+
     protected void publishOperation(int operation, C context) {
         long cursor = ioEventPubSeq.nextBully();
         IOEvent<C> evt = ioEventQueue.get(cursor);
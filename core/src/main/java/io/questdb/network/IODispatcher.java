@@ -56,6 +56,11 @@ public interface IODispatcher<C extends IOContext> extends Closeable, Job {
 
     int getConnectionCount();
 
+    /**
+     * @return number of IO events published to the queue, which workers have not picked up yet
+     */
+    long getQueueDepth();
+
     boolean processIOQueue(IORequestProcessor<C> processor);
 
     boolean isListening();
@@ -76,12 +76,18 @@ public class IODispatcherLinux<C extends IOContext> extends AbstractIODispatcher
     private boolean processRegistrations(long timestamp) {
         long cursor;
         int offset = 0;
+        boolean published = false;
         while ((cursor = interestSubSeq.next()) > -1) {
             IOEvent<C> evt = interestQueue.get(cursor);
             C context = evt.context;
             int operation = evt.operation;
             interestSubSeq.done(cursor);
 
+            if (publishBufferedRead(operation, context)) {
+                published = true;
+                continue;
+            }
+
             int fd = (int) context.getFd();
             final long id = fdid++;
             // we re-arm epoll globally, in that even when we disconnect
@@ -103,7 +109,7 @@ public class IODispatcherLinux<C extends IOContext> extends AbstractIODispatcher
         if (offset > 0) {
             LOG.debug().$("reg").$();
         }
-        return offset > 0;
+        return offset > 0 || published;
     }
 
     @Override
@@ -104,6 +104,10 @@ public class IODispatcherOsx<C extends IOContext> extends AbstractIODispatcher<C
             int operation = evt.operation;
             interestSubSeq.done(cursor);
 
+            if (publishBufferedRead(operation, context)) {
+                continue;
+            }
+
             long id = fdid++;
             final int fd = (int) context.getFd();
             LOG.debug().$("registered [fd=").$(fd).$(", op=").$(operation).$(']').$();
@@ -74,6 +74,10 @@ public class IODispatcherWindows<C extends IOContext> extends AbstractIODispatch
             int operation = evt.operation;
             interestSubSeq.done(cursor);
 
+            if (publishBufferedRead(operation, context)) {
+                continue;
+            }
+
             int r = pending.addRow();
             pending.set(r, M_TIMESTAMP, timestamp);
             pending.set(r, M_FD, context.getFd());
@@ -56,6 +56,12 @@ public interface NetworkFacade {
 
     int recv(long fd, long buffer, int bufferLen);
 
+    /**
+     * Returns true when input has already been read from the socket and is waiting to be consumed
+     * by {@link #recv(long, long, int)}. Such fd will not be reported as readable by the OS.
+     */
+    boolean hasBufferedInput(long fd);
+
     int peek(long fd, long buffer, int bufferLen);
 
     int send(long fd, long buffer, int bufferLen);
@@ -107,6 +107,11 @@ public class NetworkFacadeImpl implements NetworkFacade {
         return Net.recv(fd, buffer, bufferLen);
     }
 
+    @Override
+    public boolean hasBufferedInput(long fd) {
+        return false;
+    }
+
     @Override
     public int peek(long fd, long buffer, int bufferLen) {
         return Net.peek(fd, buffer, bufferLen);
@@ -0,0 +1,105 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2022 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.network;
+
+import io.questdb.metrics.Counter;
+import io.questdb.metrics.MetricsRegistry;
+import org.jetbrains.annotations.TestOnly;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+public class TlsMetrics {
+
+    private final Counter handshakeCounter;
+    private final Counter resumedHandshakeCounter;
+    private final Counter failedHandshakeCounter;
+    private final Counter handshakeTimeCounter;
+    private final Counter cryptoTimeCounter;
+    private final AtomicLong sessionCount = new AtomicLong();
+
+    public TlsMetrics(MetricsRegistry metricsRegistry) {
+        this.handshakeCounter = metricsRegistry.newCounter("tls_handshakes");
+        this.resumedHandshakeCounter = metricsRegistry.newCounter("tls_handshakes_resumed");
+        this.failedHandshakeCounter = metricsRegistry.newCounter("tls_handshakes_failed");
+        this.handshakeTimeCounter = metricsRegistry.newCounter("tls_handshake_time_micros");
+        this.cryptoTimeCounter = metricsRegistry.newCounter("tls_crypto_time_micros");
+        metricsRegistry.newVirtualGauge("tls_sessions", sessionCount::get);
+    }
+
+    public void addCryptoTime(long micros) {
+        cryptoTimeCounter.add(micros);
+    }
+
+    public void markHandshake(long micros, boolean resumed) {
+        handshakeCounter.inc();
+        handshakeTimeCounter.add(micros);
+        if (resumed) {
+            resumedHandshakeCounter.inc();
+        }
+    }
+
+    public void markHandshakeFailure() {
+        failedHandshakeCounter.inc();
+    }
+
+    public void markSessionClosed() {
+        sessionCount.decrementAndGet();
+    }
+
+    public void markSessionOpened() {
+        sessionCount.incrementAndGet();
+    }
+
+    @TestOnly
+    public long cryptoTimeMicros() {
+        return cryptoTimeCounter.get();
+    }
+
+    @TestOnly
+    public long failedHandshakeCount() {
+        return failedHandshakeCounter.get();
+    }
+
+    @TestOnly
+    public long handshakeCount() {
+        return handshakeCounter.get();
+    }
+
+    @TestOnly
+    public long handshakeTimeMicros() {
+        return handshakeTimeCounter.get();
+    }
+
+    @TestOnly
+    public long resumedHandshakeCount() {
+        return resumedHandshakeCounter.get();
+    }
+
+    @TestOnly
+    public long sessionCount() {
+        return sessionCount.get();
+    }
+}
@@ -0,0 +1,357 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2022 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.network;
+
+import io.questdb.log.Log;
+import io.questdb.log.LogFactory;
+import io.questdb.std.Misc;
+import io.questdb.std.Numbers;
+
+import javax.net.ssl.KeyManagerFactory;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.SSLException;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.GeneralSecurityException;
+import java.security.KeyStore;
+
+/**
+ * Terminates TLS for connections accepted through this facade. Every accepted fd gets its own
+ * {@link SSLEngine} session, {@link #recv(long, long, int)} and {@link #send(long, long, int)} then
+ * exchange plain text with the caller and cipher text with the socket. Fds this facade did not
+ * accept, such as client sockets or fds accepted by another dispatcher sharing the same
+ * connection context configuration, are passed through to the delegate unencrypted.
+ * <p>
+ * Session resumption is served by the server session cache of the {@link SSLContext}.
+ */
+public class TlsNetworkFacade implements NetworkFacade {
+    private static final Log LOG = LogFactory.getLog(TlsNetworkFacade.class);
+    private final NetworkFacade delegate;
+    private final SSLContext sslContext;
+    private final Object lock = new Object();
+    private volatile TlsSession[] sessions = new TlsSession[64];
+    private volatile TlsMetrics metrics;
+
+    public TlsNetworkFacade(NetworkFacade delegate, SSLContext sslContext, TlsMetrics metrics) {
+        this.delegate = delegate;
+        this.sslContext = sslContext;
+        this.metrics = metrics;
+    }
+
+    public static SSLContext createSslContext(
+            CharSequence keyStorePath,
+            CharSequence keyStorePassword,
+            int sessionCacheSize,
+            int sessionTimeout
+    ) throws GeneralSecurityException, IOException {
+        final char[] password = keyStorePassword == null ? null : keyStorePassword.toString().toCharArray();
+        final KeyStore keyStore = KeyStore.getInstance(KeyStore.getDefaultType());
+        try (InputStream is = new FileInputStream(keyStorePath.toString())) {
+            keyStore.load(is, password);
+        }
+        final KeyManagerFactory keyManagerFactory = KeyManagerFactory.getInstance(KeyManagerFactory.getDefaultAlgorithm());
+        keyManagerFactory.init(keyStore, password);
+        final SSLContext sslContext = SSLContext.getInstance("TLS");
+        sslContext.init(keyManagerFactory.getKeyManagers(), null, null);
+        sslContext.getServerSessionContext().setSessionCacheSize(sessionCacheSize);
+        sslContext.getServerSessionContext().setSessionTimeout(sessionTimeout);
+        return sslContext;
+    }
+
+    /**
+     * Binds server metrics to the facade when the facade terminates TLS. Servers call this
+     * once they have metrics, which are not available when configuration is created.
+     */
+    public static void setMetrics(NetworkFacade nf, TlsMetrics metrics) {
+        if (nf instanceof TlsNetworkFacade) {
+            ((TlsNetworkFacade) nf).metrics = metrics;
+        }
+    }
+
+    @Override
+    public long accept(long serverFd) {
+        final long fd = delegate.accept(serverFd);
+        if (fd > -1) {
+            final SSLEngine engine = sslContext.createSSLEngine();
+            engine.setUseClientMode(false);
+            try {
+                addSession(fd, new TlsSession(fd, engine, delegate, metrics));
+                metrics.markSessionOpened();
+            } catch (SSLException e) {
+                LOG.error().$("could not start TLS session [fd=").$(fd).$(", msg=").$(e.getMessage()).I$();
+                delegate.close(fd, LOG);
+                return -1;
+            }
+        }
+        return fd;
+    }
+
+    @Override
+    public int close(long fd) {
+        closeSession(fd);
+        return delegate.close(fd);
+    }
+
+    @Override
+    public void close(long fd, Log logger) {
+        closeSession(fd);
+        delegate.close(fd, logger);
+    }
+
+    @Override
+    public boolean hasBufferedInput(long fd) {
+        final TlsSession session = getSession(fd);
+        return session != null ? session.hasBufferedInput() : delegate.hasBufferedInput(fd);
+    }
+
+    @Override
+    public int peek(long fd, long buffer, int bufferLen) {
+        // for TLS connections this is cipher text, callers only peek to detect disconnects
+        return delegate.peek(fd, buffer, bufferLen);
+    }
+
+    @Override
+    public int recv(long fd, long buffer, int bufferLen) {
+        final TlsSession session = getSession(fd);
+        return session != null ? session.recv(buffer, bufferLen) : delegate.recv(fd, buffer, bufferLen);
+    }
+
+    @Override
+    public int send(long fd, long buffer, int bufferLen) {
+        final TlsSession session = getSession(fd);
+        return session != null ? session.send(buffer, bufferLen) : delegate.send(fd, buffer, bufferLen);
+    }
+
+    @Override
+    public void abortAccept(long fd) {
+        delegate.abortAccept(fd);
+    }
+
+    @Override
+    public boolean bindTcp(long fd, int address, int port) {
+        return delegate.bindTcp(fd, address, port);
+    }
+
+    @Override
+    public boolean bindTcp(long fd, CharSequence ipv4Address, int port) {
+        return delegate.bindTcp(fd, ipv4Address, port);
+    }
+
+    @Override
+    public void configureNoLinger(long fd) {
+        delegate.configureNoLinger(fd);
+    }
+
+    @Override
+    public int configureLinger(long fd, int seconds) {
+        return delegate.configureLinger(fd, seconds);
+    }
+
+    @Override
+    public int configureNonBlocking(long fd) {
+        return delegate.configureNonBlocking(fd);
+    }
+
+    @Override
+    public long connect(long fd, long sockaddr) {
+        return delegate.connect(fd, sockaddr);
+    }
+
+    @Override
+    public void freeSockAddr(long socketAddress) {
+        delegate.freeSockAddr(socketAddress);
+    }
+
+    @Override
+    public long getPeerIP(long fd) {
+        return delegate.getPeerIP(fd);
+    }
+
+    @Override
+    public void listen(long serverFd, int backlog) {
+        delegate.listen(serverFd, backlog);
+    }
+
+    @Override
+    public int errno() {
+        return delegate.errno();
+    }
+
+    @Override
+    public long sockaddr(int address, int port) {
+        return delegate.sockaddr(address, port);
+    }
+
+    @Override
+    public int sendTo(long fd, long lo, int len, long socketAddress) {
+        return delegate.sendTo(fd, lo, len, socketAddress);
+    }
+
+    @Override
+    public long socketTcp(boolean blocking) {
+        return delegate.socketTcp(blocking);
+    }
+
+    @Override
+    public long socketUdp() {
+        return delegate.socketUdp();
+    }
+
+    @Override
+    public boolean bindUdp(long fd, int ipv4Address, int port) {
+        return delegate.bindUdp(fd, ipv4Address, port);
+    }
+
+    @Override
+    public boolean join(long fd, CharSequence bindIPv4Address, CharSequence groupIPv4Address) {
+        return delegate.join(fd, bindIPv4Address, groupIPv4Address);
+    }
+
+    @Override
+    public boolean join(long fd, int bindIPv4, int groupIPv4) {
+        return delegate.join(fd, bindIPv4, groupIPv4);
+    }
+
+    @Override
+    public long sockaddr(CharSequence address, int port) {
+        return delegate.sockaddr(address, port);
+    }
+
+    @Override
+    public int setMulticastInterface(long fd, CharSequence address) {
+        return delegate.setMulticastInterface(fd, address);
+    }
+
+    @Override
+    public int setMulticastInterface(long fd, int ipv4Address) {
+        return delegate.setMulticastInterface(fd, ipv4Address);
+    }
+
+    @Override
+    public int setMulticastLoop(long fd, boolean loop) {
+        return delegate.setMulticastLoop(fd, loop);
+    }
+
+    @Override
+    public int shutdown(long fd, int how) {
+        return delegate.shutdown(fd, how);
+    }
+
+    @Override
+    public int parseIPv4(CharSequence ipv4Address) {
+        return delegate.parseIPv4(ipv4Address);
+    }
+
+    @Override
+    public int setReusePort(long fd) {
+        return delegate.setReusePort(fd);
+    }
+
+    @Override
+    public int setTcpNoDelay(long fd, boolean noDelay) {
+        return delegate.setTcpNoDelay(fd, noDelay);
+    }
+
+    @Override
+    public int setRcvBuf(long fd, int size) {
+        return delegate.setRcvBuf(fd, size);
+    }
+
+    @Override
+    public void freeMsgHeaders(long msgVec) {
+        delegate.freeMsgHeaders(msgVec);
+    }
+
+    @Override
+    public long getMMsgBuf(long msg) {
+        return delegate.getMMsgBuf(msg);
+    }
+
+    @Override
+    public long getMMsgBufLen(long msg) {
+        return delegate.getMMsgBufLen(msg);
+    }
+
+    @Override
+    public long msgHeaders(int msgBufferSize, int msgCount) {
+        return delegate.msgHeaders(msgBufferSize, msgCount);
+    }
+
+    @SuppressWarnings("SpellCheckingInspection")
+    @Override
+    public int recvmmsg(long fd, long msgVec, int msgCount) {
+        return delegate.recvmmsg(fd, msgVec, msgCount);
+    }
+
+    @Override
+    public boolean setSndBuf(long fd, int size) {
+        return delegate.setSndBuf(fd, size);
+    }
+
+    @Override
+    public int getSndBuf(long fd) {
+        return delegate.getSndBuf(fd);
+    }
+
+    @Override
+    public int setMulticastTtl(long fd, int ttl) {
+        return delegate.setMulticastTtl(fd, ttl);
+    }
+
+    private void addSession(long fd, TlsSession session) {
+        synchronized (lock) {
+            TlsSession[] sessions = this.sessions;
+            if (fd >= sessions.length) {
+                final TlsSession[] grown = new TlsSession[Numbers.ceilPow2((int) fd + 1)];
+                System.arraycopy(sessions, 0, grown, 0, sessions.length);
+                sessions = grown;
+            }
+            sessions[(int) fd] = session;
+            this.sessions = sessions;
+        }
+    }
+
+    private void closeSession(long fd) {
+        final TlsSession session;
+        synchronized (lock) {
+            final TlsSession[] sessions = this.sessions;
+            if (fd < 0 || fd >= sessions.length || (session = sessions[(int) fd]) == null) {
+                return;
+            }
+            sessions[(int) fd] = null;
+            this.sessions = sessions;
+        }
+        Misc.free(session);
+        metrics.markSessionClosed();
+    }
+
+    private TlsSession getSession(long fd) {
+        final TlsSession[] sessions = this.sessions;
+        return fd > -1 && fd < sessions.length ? sessions[(int) fd] : null;
+    }
+}
@@ -0,0 +1,364 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2022 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.network;
+
+import io.questdb.log.Log;
+import io.questdb.log.LogFactory;
+import io.questdb.std.MemoryTag;
+import io.questdb.std.Os;
+import io.questdb.std.Unsafe;
+import io.questdb.std.Vect;
+
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.SSLEngineResult;
+import javax.net.ssl.SSLException;
+import java.io.Closeable;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+
+/**
+ * TLS state of a single connection. Cipher text is kept in native buffers owned by the session,
+ * plain text is decrypted straight into and encrypted straight from the caller's native
+ * buffers, which are presented to {@link SSLEngine} as direct byte buffer views.
+ * <p>
+ * Session is not thread-safe, it follows the connection context from one worker to another.
+ */
+final class TlsSession implements Closeable {
+    static final int HANDSHAKE_DONE = 1;
+    static final int HANDSHAKE_FAILED = -1;
+    static final int HANDSHAKE_PENDING = 0;
+    private static final long BUFFER_ADDRESS_OFFSET = Unsafe.getFieldOffset(Buffer.class, "address");
+    private static final long BUFFER_CAPACITY_OFFSET = Unsafe.getFieldOffset(Buffer.class, "capacity");
+    private static final ByteBuffer EMPTY = ByteBuffer.allocateDirect(0);
+    private static final Log LOG = LogFactory.getLog(TlsSession.class);
+    private final long fd;
+    private final SSLEngine engine;
+    private final NetworkFacade nf;
+    private final TlsMetrics metrics;
+    // cipher text received from the socket and not yet decrypted, kept in "read" mode
+    private final ByteBuffer netIn;
+    private final long netInAddress;
+    private final int netInSize;
+    // cipher text produced by the engine and not yet sent, kept in "read" mode
+    private final ByteBuffer netOut;
+    private final long netOutAddress;
+    private final int netOutSize;
+    // plain text that did not fit caller's buffer, kept in "read" mode
+    private final ByteBuffer plainIn;
+    private final long plainInAddress;
+    private final int plainInSize;
+    private final ByteBuffer callerView = newView();
+    private final long handshakeStart;
+    private boolean handshakeDone;
+    // number of plain text bytes, which cipher text is still sitting in netOut
+    private int pendingPlainBytes;
+    private long cryptoNanos;
+    private long bytesIn;
+    private long bytesOut;
+
+    TlsSession(long fd, SSLEngine engine, NetworkFacade nf, TlsMetrics metrics) throws SSLException {
+        this.fd = fd;
+        this.engine = engine;
+        this.nf = nf;
+        this.metrics = metrics;
+        this.netInSize = engine.getSession().getPacketBufferSize();
+        this.netOutSize = netInSize;
+        this.plainInSize = engine.getSession().getApplicationBufferSize();
+        this.netInAddress = Unsafe.malloc(netInSize, MemoryTag.NATIVE_DEFAULT);
+        this.netOutAddress = Unsafe.malloc(netOutSize, MemoryTag.NATIVE_DEFAULT);
+        this.plainInAddress = Unsafe.malloc(plainInSize, MemoryTag.NATIVE_DEFAULT);
+        this.netIn = of(newView(), netInAddress, netInSize).flip();
+        this.netOut = of(newView(), netOutAddress, netOutSize).flip();
+        this.plainIn = of(newView(), plainInAddress, plainInSize).flip();
+        this.handshakeStart = Os.currentTimeMicros();
+        engine.beginHandshake();
+    }
+
+    @Override
+    public void close() {
+        if (!engine.isOutboundDone()) {
+            // best effort close_notify, peer may already be gone
+            engine.closeOutbound();
+            try {
+                netOut.compact();
+                engine.wrap(EMPTY, netOut);
+                netOut.flip();
+                flush();
+            } catch (SSLException ignore) {
+            }
+        }
+        Unsafe.free(netInAddress, netInSize, MemoryTag.NATIVE_DEFAULT);
+        Unsafe.free(netOutAddress, netOutSize, MemoryTag.NATIVE_DEFAULT);
+        Unsafe.free(plainInAddress, plainInSize, MemoryTag.NATIVE_DEFAULT);
+        LOG.info().$("closed [fd=").$(fd)
+                .$(", cryptoMicros=").$(cryptoNanos / 1000)
+                .$(", bytesIn=").$(bytesIn)
+                .$(", bytesOut=").$(bytesOut)
+                .I$();
+    }
+
+    /**
+     * Advances handshake as far as the socket allows. Handshake tasks run on the calling thread
+     * and count towards handshake time.
+     *
+     * @return {@link #HANDSHAKE_DONE}, {@link #HANDSHAKE_PENDING} when socket has to become
+     * readable first or {@link #HANDSHAKE_FAILED} when connection must be closed
+     */
+    int handshake() {
+        try {
+            while (true) {
+                switch (engine.getHandshakeStatus()) {
+                    case NEED_TASK:
+                        Runnable task;
+                        while ((task = engine.getDelegatedTask()) != null) {
+                            task.run();
+                        }
+                        break;
+                    case NEED_WRAP:
+                        netOut.compact();
+                        final SSLEngineResult wrapResult = engine.wrap(EMPTY, netOut);
+                        netOut.flip();
+                        if (wrapResult.getStatus() == SSLEngineResult.Status.CLOSED || flush() < 0) {
+                            return failHandshake();
+                        }
+                        if (netOut.hasRemaining()) {
+                            // handshake flights are tiny compared to socket buffers,
+                            // we will retry on next read
+                            return HANDSHAKE_PENDING;
+                        }
+                        break;
+                    case NEED_UNWRAP:
+                    case NEED_UNWRAP_AGAIN:
+                        plainIn.compact();
+                        final SSLEngineResult unwrapResult = engine.unwrap(netIn, plainIn);
+                        plainIn.flip();
+                        switch (unwrapResult.getStatus()) {
+                            case BUFFER_UNDERFLOW:
+                                final int n = fill();
+                                if (n < 0) {
+                                    return failHandshake();
+                                }
+                                if (n == 0) {
+                                    return HANDSHAKE_PENDING;
+                                }
+                                break;
+                            case CLOSED:
+                                return failHandshake();
+                            default:
+                                break;
+                        }
+                        break;
+                    default:
+                        if (!handshakeDone) {
+                            handshakeDone = true;
+                            // resumed sessions are taken from the cache and pre-date this connection
+                            final boolean resumed = engine.getSession().getCreationTime() * 1000 < handshakeStart;
+                            metrics.markHandshake(Os.currentTimeMicros() - handshakeStart, resumed);
+                            LOG.info().$("handshake [fd=").$(fd)
+                                    .$(", protocol=").$(engine.getSession().getProtocol())
+                                    .$(", cipher=").$(engine.getSession().getCipherSuite())
+                                    .$(", resumed=").$(resumed)
+                                    .I$();
+                        }
+                        return HANDSHAKE_DONE;
+                }
+            }
+        } catch (SSLException e) {
+            LOG.error().$("handshake failed [fd=").$(fd).$(", msg=").$(e.getMessage()).I$();
+            return failHandshake();
+        }
+    }
+
+    boolean hasBufferedInput() {
+        return plainIn.hasRemaining();
+    }
+
+    int recv(long buffer, int bufferLen) {
+        if (!handshakeDone) {
+            final int status = handshake();
+            if (status != HANDSHAKE_DONE) {
+                return status == HANDSHAKE_FAILED ? Net.EPEERDISCONNECT : Net.ERETRY;
+            }
+        }
+
+        int n = drainPlainIn(buffer, bufferLen);
+        try {
+            while (n < bufferLen) {
+                if (netIn.hasRemaining()) {
+                    final int room = bufferLen - n;
+                    // decrypt in place when the whole record is guaranteed to fit
+                    final boolean direct = room >= plainInSize;
+                    final ByteBuffer dst = direct ? of(callerView, buffer + n, room) : plainIn.compact();
+                    final long t = Os.currentTimeNanos();
+                    final SSLEngineResult result = engine.unwrap(netIn, dst);
+                    cryptoNanos(t);
+                    if (direct) {
+                        n += result.bytesProduced();
+                    } else {
+                        plainIn.flip();
+                        n += drainPlainIn(buffer + n, room);
+                    }
+
+                    final SSLEngineResult.Status status = result.getStatus();
+                    if (status == SSLEngineResult.Status.OK) {
+                        if (result.getHandshakeStatus() != SSLEngineResult.HandshakeStatus.NOT_HANDSHAKING
+                                && result.getHandshakeStatus() != SSLEngineResult.HandshakeStatus.FINISHED
+                                && handshake() == HANDSHAKE_FAILED) {
+                            return n > 0 ? n : Net.EPEERDISCONNECT;
+                        }
+                        continue;
+                    }
+                    if (status == SSLEngineResult.Status.CLOSED) {
+                        return n > 0 ? n : Net.EPEERDISCONNECT;
+                    }
+                    if (status == SSLEngineResult.Status.BUFFER_OVERFLOW) {
+                        // plainIn is sized to a full record, we cannot run out of space
+                        LOG.error().$("unexpected buffer overflow [fd=").$(fd).I$();
+                        return Net.EPEERDISCONNECT;
+                    }
+                    // BUFFER_UNDERFLOW, partial record, read more
+                }
+
+                final int r = fill();
+                if (r < 0) {
+                    return n > 0 ? n : r;
+                }
+                if (r == 0) {
+                    break;
+                }
+            }
+        } catch (SSLException e) {
+            LOG.error().$("could not decrypt [fd=").$(fd).$(", msg=").$(e.getMessage()).I$();
+            return Net.EPEERDISCONNECT;
+        }
+        bytesIn += n;
+        return n;
+    }
+
+    /**
+     * Encrypts and sends caller's buffer. Cipher text the socket could not take stays in the session,
+     * the plain text it was produced from is reported as not sent. Callers retry from the first
+     * unsent byte, at which point the cipher text is flushed and the plain text acknowledged
+     * without being encrypted again.
+     */
+    int send(long buffer, int bufferLen) {
+        if (!handshakeDone) {
+            final int status = handshake();
+            if (status != HANDSHAKE_DONE) {
+                return status == HANDSHAKE_FAILED ? Net.EPEERDISCONNECT : Net.ERETRY;
+            }
+        }
+
+        int sent = 0;
+        if (netOut.hasRemaining()) {
+            final int r = flush();
+            if (r < 0) {
+                return r;
+            }
+            if (netOut.hasRemaining()) {
+                return Net.ERETRY;
+            }
+            sent = pendingPlainBytes;
+            pendingPlainBytes = 0;
+        }
+
+        try {
+            while (sent < bufferLen) {
+                netOut.compact();
+                final long t = Os.currentTimeNanos();
+                final SSLEngineResult result = engine.wrap(of(callerView, buffer + sent, bufferLen - sent), netOut);
+                cryptoNanos(t);
+                netOut.flip();
+                if (result.getStatus() != SSLEngineResult.Status.OK) {
+                    return sent > 0 ? sent : Net.EPEERDISCONNECT;
+                }
+                final int r = flush();
+                if (r < 0) {
+                    return sent > 0 ? sent : r;
+                }
+                if (netOut.hasRemaining()) {
+                    pendingPlainBytes = result.bytesConsumed();
+                    break;
+                }
+                sent += result.bytesConsumed();
+            }
+        } catch (SSLException e) {
+            LOG.error().$("could not encrypt [fd=").$(fd).$(", msg=").$(e.getMessage()).I$();
+            return Net.EPEERDISCONNECT;
+        }
+        bytesOut += sent;
+        return sent;
+    }
+
+    private static ByteBuffer newView() {
+        return ByteBuffer.allocateDirect(0);
+    }
+
+    private static ByteBuffer of(ByteBuffer view, long address, int size) {
+        Unsafe.getUnsafe().putLong(view, BUFFER_ADDRESS_OFFSET, address);
+        Unsafe.getUnsafe().putInt(view, BUFFER_CAPACITY_OFFSET, size);
+        view.clear();
+        return view;
+    }
+
+    private void cryptoNanos(long start) {
+        final long nanos = Os.currentTimeNanos() - start;
+        cryptoNanos += nanos;
+        metrics.addCryptoTime(nanos / 1000);
+    }
+
+    private int drainPlainIn(long buffer, int bufferLen) {
+        final int n = Math.min(plainIn.remaining(), bufferLen);
+        if (n > 0) {
+            Vect.memcpy(buffer, plainInAddress + plainIn.position(), n);
+            plainIn.position(plainIn.position() + n);
+        }
+        return n;
+    }
+
+    private int failHandshake() {
+        metrics.markHandshakeFailure();
+        return HANDSHAKE_FAILED;
+    }
+
+    private int fill() {
+        netIn.compact();
+        final int n = nf.recv(fd, netInAddress + netIn.position(), netIn.remaining());
+        if (n > 0) {
+            netIn.position(netIn.position() + n);
+        }
+        netIn.flip();
+        return n;
+    }
+
+    private int flush() {
+        final int n = nf.send(fd, netOutAddress + netOut.position(), netOut.remaining());
+        if (n > 0) {
+            netOut.position(netOut.position() + n);
+        }
+        return n;
+    }
+}
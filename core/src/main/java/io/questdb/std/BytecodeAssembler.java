@@ -117,10 +117,22 @@ public class BytecodeAssembler {
         putShort(0x8F);
     }
 
+    public void dadd() {
+        putByte(0x63);
+    }
+
+    public void daload() {
+        putByte(0x31);
+    }
+
     public void dcmpg() {
         putByte(0x98);
     }
 
+    public void ddiv() {
+        putByte(0x6f);
+    }
+
     public void defineClass(int thisClassIndex) {
         defineClass(thisClassIndex, objectClassIndex);
     }
@@ -162,6 +174,18 @@ public class BytecodeAssembler {
         putShort(0);
     }
 
+    public void dmul() {
+        putByte(0x6b);
+    }
+
+    public void dreturn() {
+        putByte(0xaf);
+    }
+
+    public void dsub() {
+        putByte(0x67);
+    }
+
     public void dump(String path) {
         try (FileOutputStream fos = new FileOutputStream(path)) {
             int p = buf.position();
@@ -262,6 +286,10 @@ public class BytecodeAssembler {
         putByte(0x60);
     }
 
+    public void iaload() {
+        putByte(0x2e);
+    }
+
     public void iconst(int v) {
         if (v == -1) {
             putByte(iconst_m1);
@@ -379,6 +407,10 @@ public class BytecodeAssembler {
         putShort(0x88);
     }
 
+    public void laload() {
+        putByte(0x2f);
+    }
+
     public void lcmp() {
         putByte(0x94);
     }
@@ -29,8 +29,10 @@ import io.questdb.std.str.Path;
 import io.questdb.std.str.StringSink;
 
 import java.io.File;
+import java.io.IOException;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
 import java.util.concurrent.atomic.AtomicLong;
 
 public final class Files {
@@ -39,11 +41,19 @@ public final class Files {
     public static final long PAGE_SIZE;
     public static final int DT_FILE = 8;
     public static final int DT_DIR = 4;
+    public static final int DT_LNK = 10;
     public static final int MAP_RO = 1;
     public static final int MAP_RW = 2;
+    // memory access pattern hints, see madvise()
+    public static final int MADV_NORMAL = 0;
+    public static final int MADV_RANDOM = 1;
+    public static final int MADV_SEQUENTIAL = 2;
+    public static final int MADV_WILLNEED = 3;
+    public static final int MADV_DONTNEED = 4;
     public static final char SEPARATOR;
 
     static final AtomicLong OPEN_FILE_COUNT = new AtomicLong();
+    private static final boolean MADVISE_SUPPORTED;
     private static LongHashSet openFds;
 
     private Files() {
@@ -175,6 +185,10 @@ public final class Files {
         return type == DT_DIR && notDots(pUtf8NameZ);
     }
 
+    public static boolean isDirOrSoftLink(long pUtf8NameZ, long type, StringSink nameSink) {
+        return isDir(pUtf8NameZ, type, nameSink) || (type == DT_LNK && notDots(pUtf8NameZ, nameSink));
+    }
+
     public static boolean isDots(CharSequence name) {
         return Chars.equals(name, '.') || Chars.equals(name, "..");
     }
@@ -217,6 +231,32 @@ public final class Files {
         return 0;
     }
 
+    /**
+     * @return true when native library exports madvise(), otherwise memory access hints are ignored
+     */
+    public static boolean isMadviseSupported() {
+        return MADVISE_SUPPORTED;
+    }
+
+    /**
+     * Advises kernel on how mapped memory is going to be accessed, so that it can pick readahead
+     * appropriate for the access pattern. Advice is a hint, it does not change semantics of the
+     * mapping and failure to apply it is not an error for the caller. Native libraries built before
+     * this method was introduced do not export it, in which case advice is ignored, see
+     * {@link #isMadviseSupported()}.
+     *
+     * @param address page aligned address of mapped memory
+     * @param len     length of memory region
+     * @param advice  one of MADV_* constants
+     * @return 0 on success or when there is nothing to advise on, -1 when advice is not supported
+     */
+    public static int madvise(long address, long len, int advice) {
+        if (address == 0 || len <= 0) {
+            return 0;
+        }
+        return MADVISE_SUPPORTED ? madvise0(address, len, advice) : -1;
+    }
+
     public static long mmap(long fd, long len, long offset, int flags, int memoryTag) {
         return mmap(fd, len, offset, flags, 0, memoryTag);
     }
@@ -334,7 +374,13 @@ public final class Files {
             if (rmdir(path.trimTo(len).$().address())) {
                 return 0;
             }
-            return Os.errno();
+            errno = Os.errno();
+            // directory can be a soft link to another volume, e.g. partition on cold storage tier,
+            // its content is already removed, remove the directory it points to and the link itself
+            if (isSoftLink(path)) {
+                return removeSoftLinkedDir(path);
+            }
+            return errno;
         }
 
         return errno;
@@ -344,6 +390,19 @@ public final class Files {
         return setLastModified(lpsz.address(), millis);
     }
 
+    public static boolean isSoftLink(LPSZ lpsz) {
+        return java.nio.file.Files.isSymbolicLink(Paths.get(lpsz.toString()));
+    }
+
+    public static int softLink(LPSZ src, LPSZ softLink) {
+        try {
+            java.nio.file.Files.createSymbolicLink(Paths.get(softLink.toString()), Paths.get(src.toString()));
+            return 0;
+        } catch (IOException | UnsupportedOperationException | SecurityException e) {
+            return -1;
+        }
+    }
+
     public static boolean touch(LPSZ lpsz) {
         long fd = openRW(lpsz);
         boolean result = fd > 0;
@@ -374,6 +433,8 @@ public final class Files {
         return Unsafe.getUnsafe().getByte(lpsz + len) == 0;
     }
 
+    private static native int madvise0(long address, long len, int advice);
+
     private static native int munmap0(long address, long len);
 
     private static native long mremap0(long fd, long address, long previousSize, long newSize, long offset, int flags);
@@ -386,6 +447,23 @@ public final class Files {
 
     private native static boolean rmdir(long lpsz);
 
+    private static boolean notDots(long pUtf8NameZ, StringSink nameSink) {
+        nameSink.clear();
+        Chars.utf8DecodeZ(pUtf8NameZ, nameSink);
+        return notDots(nameSink);
+    }
+
+    private static int removeSoftLinkedDir(Path path) {
+        final java.nio.file.Path link = Paths.get(path.toString());
+        try {
+            java.nio.file.Files.delete(link.resolveSibling(java.nio.file.Files.readSymbolicLink(link)));
+            java.nio.file.Files.delete(link);
+            return 0;
+        } catch (IOException | SecurityException e) {
+            return -1;
+        }
+    }
+
     private native static long getLastModified(long lpszName);
 
     private native static long length0(long lpszName);
@@ -412,5 +490,13 @@ public final class Files {
         UTF_8 = StandardCharsets.UTF_8;
         PAGE_SIZE = getPageSize();
         SEPARATOR = Os.type == Os.WINDOWS ? '\\' : '/';
+        boolean madviseSupported;
+        try {
+            madvise0(0, 0, MADV_NORMAL);
+            madviseSupported = true;
+        } catch (UnsatisfiedLinkError e) {
+            madviseSupported = false;
+        }
+        MADVISE_SUPPORTED = madviseSupported;
     }
 }
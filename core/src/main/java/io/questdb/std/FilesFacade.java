@@ -54,6 +54,8 @@ public interface FilesFacade {
 
     long getLastModified(LPSZ path);
 
+    int madvise(long address, long len, int advice);
+
     int msync(long addr, long len, boolean async);
 
     int fsync(long fd);
@@ -68,6 +70,8 @@ public interface FilesFacade {
 
     boolean isRestrictedFileSystem();
 
+    boolean isSoftLink(LPSZ path);
+
     void iterateDir(LPSZ path, FindVisitor func);
 
     long length(long fd);
@@ -106,6 +110,8 @@ public interface FilesFacade {
 
     int rmdir(Path name);
 
+    int softLink(LPSZ src, LPSZ softLink);
+
     boolean touch(LPSZ path);
 
     boolean truncate(long fd, long size);
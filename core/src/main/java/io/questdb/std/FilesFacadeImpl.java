@@ -102,6 +102,11 @@ public class FilesFacadeImpl implements FilesFacade {
         return Files.getLastModified(path);
     }
 
+    @Override
+    public int madvise(long address, long len, int advice) {
+        return Files.madvise(address, len, advice);
+    }
+
     @Override
     public int msync(long addr, long len, boolean async) {
         return Files.msync(addr, len, async);
@@ -140,6 +145,11 @@ public class FilesFacadeImpl implements FilesFacade {
         return Os.type == Os.WINDOWS;
     }
 
+    @Override
+    public boolean isSoftLink(LPSZ path) {
+        return Files.isSoftLink(path);
+    }
+
     @Override
     public void iterateDir(LPSZ path, FindVisitor func) {
         long p = findFirst(path);
@@ -252,6 +262,11 @@ public class FilesFacadeImpl implements FilesFacade {
         return Files.rmdir(name);
     }
 
+    @Override
+    public int softLink(LPSZ src, LPSZ softLink) {
+        return Files.softLink(src, softLink);
+    }
+
     @Override
     public boolean touch(LPSZ path) {
         return Files.touch(path);
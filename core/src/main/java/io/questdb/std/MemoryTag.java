@@ -48,7 +48,8 @@ public final class MemoryTag {
     public static final int NATIVE_JIT_LONG_LIST = 20;
     public static final int NATIVE_LONG_LIST = 21;
     public static final int NATIVE_JIT = 22;
-    public static final int SIZE = NATIVE_JIT + 1;
+    public static final int NATIVE_TABLE_WRITER = 23;
+    public static final int SIZE = NATIVE_TABLE_WRITER + 1;
     private static final ObjList<String> tagNameMap = new ObjList<>(SIZE);
 
     public static String nameOf(int tag) {
@@ -79,5 +80,6 @@ public final class MemoryTag {
         tagNameMap.extendAndSet(NATIVE_JIT_LONG_LIST, "NATIVE_JIT_LONG_LIST");
         tagNameMap.extendAndSet(NATIVE_LONG_LIST, "NATIVE_LONG_LIST");
         tagNameMap.extendAndSet(NATIVE_JIT, "NATIVE_JIT");
+        tagNameMap.extendAndSet(NATIVE_TABLE_WRITER, "NATIVE_TABLE_WRITER");
     }
 }
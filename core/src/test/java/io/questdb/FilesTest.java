@@ -245,6 +245,59 @@ public class FilesTest {
         });
     }
 
+    @Test
+    public void testMadvise() throws Exception {
+        assertMemoryLeak(() -> {
+            File temp = temporaryFolder.newFile();
+            final long len = 2 * Files.PAGE_SIZE;
+            try (Path path = new Path().of(temp.getAbsolutePath()).$()) {
+                long fd = Files.openRW(path);
+                Assert.assertTrue(fd > -1);
+                try {
+                    Assert.assertTrue(Files.allocate(fd, len));
+                    long address = Files.mmap(fd, len, 0, Files.MAP_RW, MemoryTag.MMAP_DEFAULT);
+                    try {
+                        for (long i = 0; i < len; i += Long.BYTES) {
+                            Unsafe.getUnsafe().putLong(address + i, i);
+                        }
+                        Files.msync(address, len, false);
+
+                        // advice is a hint, it must not change content of the mapping regardless
+                        // of whether native library supports it, including pages that kernel
+                        // is allowed to drop and read back from the file
+                        final int[] advices = {
+                                Files.MADV_SEQUENTIAL,
+                                Files.MADV_RANDOM,
+                                Files.MADV_WILLNEED,
+                                Files.MADV_DONTNEED,
+                                Files.MADV_NORMAL
+                        };
+                        for (int advice : advices) {
+                            Files.madvise(address, len, advice);
+                            for (long i = 0; i < len; i += Long.BYTES) {
+                                Assert.assertEquals(i, Unsafe.getUnsafe().getLong(address + i));
+                            }
+                        }
+                    } finally {
+                        Files.munmap(address, len, MemoryTag.MMAP_DEFAULT);
+                    }
+
+                    long buf = Unsafe.malloc(Long.BYTES, MemoryTag.NATIVE_DEFAULT);
+                    try {
+                        for (long i = 0; i < len; i += Files.PAGE_SIZE / 2) {
+                            Assert.assertEquals(Long.BYTES, Files.read(fd, buf, Long.BYTES, i));
+                            Assert.assertEquals(i, Unsafe.getUnsafe().getLong(buf));
+                        }
+                    } finally {
+                        Unsafe.free(buf, Long.BYTES, MemoryTag.NATIVE_DEFAULT);
+                    }
+                } finally {
+                    Files.close(fd);
+                }
+            }
+        });
+    }
+
     @Test
     public void testMkdirs() throws Exception {
         assertMemoryLeak(() -> {
@@ -28,6 +28,7 @@ import io.questdb.cairo.CairoConfiguration;
 import io.questdb.cairo.ColumnType;
 import io.questdb.cairo.CommitMode;
 import io.questdb.cairo.PartitionBy;
+import io.questdb.cairo.SqlIOMode;
 import io.questdb.cairo.SqlJitMode;
 import io.questdb.cairo.security.AllowAllCairoSecurityContext;
 import io.questdb.cutlass.json.JsonException;
@@ -36,11 +37,14 @@ import io.questdb.log.Log;
 import io.questdb.log.LogFactory;
 import io.questdb.network.EpollFacadeImpl;
 import io.questdb.network.IOOperation;
+import io.questdb.network.NetworkFacade;
 import io.questdb.network.NetworkFacadeImpl;
 import io.questdb.network.SelectFacadeImpl;
+import io.questdb.network.TlsNetworkFacade;
 import io.questdb.std.Files;
 import io.questdb.std.FilesFacadeImpl;
 import io.questdb.std.Misc;
+import io.questdb.std.Numbers;
 import io.questdb.std.datetime.microtime.MicrosecondClockImpl;
 import io.questdb.std.datetime.millitime.MillisecondClockImpl;
 import io.questdb.test.tools.TestUtils;
@@ -148,6 +152,16 @@ public class PropServerConfigurationTest {
         Assert.assertEquals("fast", configuration.getCairoConfiguration().getDefaultMapType());
         Assert.assertTrue(configuration.getCairoConfiguration().getDefaultSymbolCacheFlag());
         Assert.assertEquals(256, configuration.getCairoConfiguration().getDefaultSymbolCapacity());
+        Assert.assertEquals(2.0, configuration.getCairoConfiguration().getSymbolMapMaxLoadFactor(), 0.000001);
+        Assert.assertEquals(SqlIOMode.IO_MODE_MMAP, configuration.getCairoConfiguration().getSqlIOMode());
+        Assert.assertEquals(2, configuration.getCairoConfiguration().getSqlIOPrefetchFrameCount());
+        Assert.assertEquals(64, configuration.getCairoConfiguration().getSqlIOPrefetchRowCount());
+        Assert.assertEquals(0, configuration.getCairoConfiguration().getO3PartitionMaxConcurrency());
+        Assert.assertEquals(64 * Numbers.SIZE_1MB, configuration.getCairoConfiguration().getO3CopySplitSize());
+        Assert.assertEquals(0, configuration.getCairoConfiguration().getDataAppendStagingPageSize());
+        Assert.assertNull(configuration.getCairoConfiguration().getColdTierRoot());
+        Assert.assertEquals(60_000, configuration.getCairoConfiguration().getTierMoveCheckInterval());
+        Assert.assertEquals(1000, configuration.getCairoConfiguration().getMatViewRefreshInterval());
         Assert.assertEquals(30, configuration.getCairoConfiguration().getFileOperationRetryCount());
         Assert.assertEquals(300000, configuration.getCairoConfiguration().getIdleCheckInterval());
         Assert.assertEquals(120_000, configuration.getCairoConfiguration().getInactiveReaderTTL());
@@ -220,6 +234,9 @@ public class PropServerConfigurationTest {
         Assert.assertEquals(1024 * 1024, configuration.getCairoConfiguration().getSqlJitRowsThreshold());
         Assert.assertEquals(1024 * 1024, configuration.getCairoConfiguration().getSqlJitPageAddressCacheThreshold());
         Assert.assertFalse(configuration.getCairoConfiguration().isSqlJitDebugEnabled());
+        Assert.assertFalse(configuration.getCairoConfiguration().isSqlFunctionCompilerEnabled());
+        Assert.assertEquals(1024, configuration.getCairoConfiguration().getSqlFunctionCompilerCacheCapacity());
+        Assert.assertFalse(configuration.getCairoConfiguration().isSqlLatestByStateEnabled());
 
         Assert.assertEquals(8192, configuration.getCairoConfiguration().getRndFunctionMemoryPageSize());
         Assert.assertEquals(128, configuration.getCairoConfiguration().getRndFunctionMemoryMaxPages());
@@ -299,6 +316,12 @@ public class PropServerConfigurationTest {
         Assert.assertFalse(configuration.getMetricsConfiguration().isEnabled());
 
         Assert.assertEquals(4, configuration.getCairoConfiguration().getQueryCacheEventQueueCapacity());
+        Assert.assertFalse(configuration.getCairoConfiguration().isQueryFactoryCacheEnabled());
+        Assert.assertEquals(256, configuration.getCairoConfiguration().getQueryFactoryCacheCapacity());
+        Assert.assertEquals(8, configuration.getCairoConfiguration().getQueryFactoryCacheInstancesPerKey());
+        Assert.assertFalse(configuration.getCairoConfiguration().isQueryResultCacheEnabled());
+        Assert.assertEquals(64 * 1024 * 1024, configuration.getCairoConfiguration().getQueryResultCacheMemoryLimit());
+        Assert.assertEquals(64 * 1024, configuration.getCairoConfiguration().getQueryResultCachePageSize());
         Assert.assertEquals(16777216, configuration.getCairoConfiguration().getDataAppendPageSize());
         Assert.assertEquals(524288, configuration.getCairoConfiguration().getDataIndexKeyAppendPageSize());
         Assert.assertEquals(16777216, configuration.getCairoConfiguration().getDataIndexValueAppendPageSize());
@@ -432,6 +455,13 @@ public class PropServerConfigurationTest {
         new PropServerConfiguration(root, properties, null, LOG, new BuildInformationHolder());
     }
 
+    @Test(expected = ServerConfigurationException.class)
+    public void testInvalidSqlIOMode() throws ServerConfigurationException, JsonException {
+        Properties properties = new Properties();
+        properties.setProperty("cairo.sql.io.mode", "uring");
+        new PropServerConfiguration(root, properties, null, LOG, new BuildInformationHolder());
+    }
+
     @Test
     public void testLineUdpTimestamp() throws ServerConfigurationException, JsonException {
         Properties properties = new Properties();
@@ -662,6 +692,16 @@ public class PropServerConfigurationTest {
             Assert.assertEquals("compact", configuration.getCairoConfiguration().getDefaultMapType());
             Assert.assertTrue(configuration.getCairoConfiguration().getDefaultSymbolCacheFlag());
             Assert.assertEquals(512, configuration.getCairoConfiguration().getDefaultSymbolCapacity());
+            Assert.assertEquals(3.5, configuration.getCairoConfiguration().getSymbolMapMaxLoadFactor(), 0.000001);
+            Assert.assertEquals(SqlIOMode.IO_MODE_PREFETCH, configuration.getCairoConfiguration().getSqlIOMode());
+            Assert.assertEquals(4, configuration.getCairoConfiguration().getSqlIOPrefetchFrameCount());
+            Assert.assertEquals(128, configuration.getCairoConfiguration().getSqlIOPrefetchRowCount());
+            Assert.assertEquals(4, configuration.getCairoConfiguration().getO3PartitionMaxConcurrency());
+            Assert.assertEquals(Numbers.SIZE_1MB, configuration.getCairoConfiguration().getO3CopySplitSize());
+            Assert.assertEquals(64 * 1024, configuration.getCairoConfiguration().getDataAppendStagingPageSize());
+            Assert.assertEquals("/tmp/cold", configuration.getCairoConfiguration().getColdTierRoot());
+            Assert.assertEquals(10_000, configuration.getCairoConfiguration().getTierMoveCheckInterval());
+            Assert.assertEquals(500, configuration.getCairoConfiguration().getMatViewRefreshInterval());
             Assert.assertEquals(10, configuration.getCairoConfiguration().getFileOperationRetryCount());
             Assert.assertEquals(20_000, configuration.getCairoConfiguration().getIdleCheckInterval());
             Assert.assertEquals(600_000, configuration.getCairoConfiguration().getInactiveReaderTTL());
@@ -744,6 +784,9 @@ public class PropServerConfigurationTest {
             Assert.assertEquals(1024, configuration.getCairoConfiguration().getSqlJitRowsThreshold());
             Assert.assertEquals(1024, configuration.getCairoConfiguration().getSqlJitPageAddressCacheThreshold());
             Assert.assertTrue(configuration.getCairoConfiguration().isSqlJitDebugEnabled());
+            Assert.assertTrue(configuration.getCairoConfiguration().isSqlFunctionCompilerEnabled());
+            Assert.assertEquals(128, configuration.getCairoConfiguration().getSqlFunctionCompilerCacheCapacity());
+            Assert.assertTrue(configuration.getCairoConfiguration().isSqlLatestByStateEnabled());
 
             Assert.assertEquals(16384, configuration.getCairoConfiguration().getRndFunctionMemoryPageSize());
             Assert.assertEquals(32, configuration.getCairoConfiguration().getRndFunctionMemoryMaxPages());
@@ -788,6 +831,12 @@ public class PropServerConfigurationTest {
             Assert.assertFalse(configuration.getHttpServerConfiguration().getHttpContextConfiguration().getServerKeepAlive());
             Assert.assertEquals("HTTP/1.0 ", configuration.getHttpServerConfiguration().getHttpContextConfiguration().getHttpVersion());
             Assert.assertEquals(32, configuration.getCairoConfiguration().getQueryCacheEventQueueCapacity());
+            Assert.assertTrue(configuration.getCairoConfiguration().isQueryFactoryCacheEnabled());
+            Assert.assertEquals(64, configuration.getCairoConfiguration().getQueryFactoryCacheCapacity());
+            Assert.assertEquals(4, configuration.getCairoConfiguration().getQueryFactoryCacheInstancesPerKey());
+            Assert.assertTrue(configuration.getCairoConfiguration().isQueryResultCacheEnabled());
+            Assert.assertEquals(16 * 1024 * 1024, configuration.getCairoConfiguration().getQueryResultCacheMemoryLimit());
+            Assert.assertEquals(128 * 1024, configuration.getCairoConfiguration().getQueryResultCachePageSize());
             Assert.assertEquals(1048576, configuration.getCairoConfiguration().getDataAppendPageSize());
             Assert.assertEquals(Files.PAGE_SIZE, configuration.getCairoConfiguration().getDataIndexKeyAppendPageSize());
             Assert.assertEquals(262144, configuration.getCairoConfiguration().getDataIndexValueAppendPageSize());
@@ -893,6 +942,41 @@ public class PropServerConfigurationTest {
         Assert.assertEquals(SqlJitMode.JIT_MODE_DISABLED, configuration.getCairoConfiguration().getSqlJitMode());
     }
 
+    @Test
+    public void testTlsEnabled() throws ServerConfigurationException, JsonException {
+        Properties properties = new Properties();
+        properties.setProperty("http.tls.enabled", "true");
+        properties.setProperty("pg.tls.enabled", "true");
+        properties.setProperty("tls.keystore.path", PropServerConfigurationTest.class.getResource("/tls/server.p12").getFile());
+        properties.setProperty("tls.keystore.password", "questdb");
+        PropServerConfiguration configuration = new PropServerConfiguration(root, properties, null, LOG, new BuildInformationHolder());
+
+        final NetworkFacade nf = configuration.getHttpServerConfiguration().getDispatcherConfiguration().getNetworkFacade();
+        Assert.assertTrue(nf instanceof TlsNetworkFacade);
+        Assert.assertSame(nf, configuration.getHttpServerConfiguration().getHttpContextConfiguration().getNetworkFacade());
+        Assert.assertSame(nf, configuration.getPGWireConfiguration().getDispatcherConfiguration().getNetworkFacade());
+        Assert.assertSame(nf, configuration.getPGWireConfiguration().getNetworkFacade());
+        Assert.assertSame(NetworkFacadeImpl.INSTANCE, configuration.getHttpMinServerConfiguration().getDispatcherConfiguration().getNetworkFacade());
+        Assert.assertSame(NetworkFacadeImpl.INSTANCE, configuration.getLineTcpReceiverConfiguration().getDispatcherConfiguration().getNetworkFacade());
+        Assert.assertSame(NetworkFacadeImpl.INSTANCE, configuration.getLineTcpReceiverConfiguration().getNetworkFacade());
+    }
+
+    @Test(expected = ServerConfigurationException.class)
+    public void testTlsInvalidKeyStorePassword() throws ServerConfigurationException, JsonException {
+        Properties properties = new Properties();
+        properties.setProperty("line.tcp.tls.enabled", "true");
+        properties.setProperty("tls.keystore.path", PropServerConfigurationTest.class.getResource("/tls/server.p12").getFile());
+        properties.setProperty("tls.keystore.password", "nope");
+        new PropServerConfiguration(root, properties, null, LOG, new BuildInformationHolder());
+    }
+
+    @Test(expected = ServerConfigurationException.class)
+    public void testTlsMissingKeyStore() throws ServerConfigurationException, JsonException {
+        Properties properties = new Properties();
+        properties.setProperty("http.tls.enabled", "true");
+        new PropServerConfiguration(root, properties, null, LOG, new BuildInformationHolder());
+    }
+
     @Test
     public void testDefaultAddColumnTypeForFloat() throws ServerConfigurationException, JsonException {
         Properties properties = new Properties();
@@ -70,6 +70,7 @@ public class AbstractCairoTest {
     protected static String inputRoot = null;
     protected static FilesFacade ff;
     protected static CharSequence backupDir;
+    protected static CharSequence coldTierRoot;
     protected static DateFormat backupDirTimestampFormat;
     protected static long configOverrideCommitLagMicros = -1;
     protected static int configOverrideMaxUncommittedRows = -1;
@@ -79,6 +80,7 @@ public class AbstractCairoTest {
     protected static int binaryEncodingMaxLength = -1;
     protected static CharSequence defaultMapType;
     protected static int pageFrameMaxSize = -1;
+    protected static int sqlIOMode = -1;
     protected static int rndFunctionMemoryPageSize = -1;
     protected static int rndFunctionMemoryMaxPages = -1;
     protected static String snapshotInstanceId = null;
@@ -138,6 +140,14 @@ public class AbstractCairoTest {
                 return super.getBackupRoot();
             }
 
+            @Override
+            public CharSequence getColdTierRoot() {
+                if (coldTierRoot != null) {
+                    return coldTierRoot;
+                }
+                return super.getColdTierRoot();
+            }
+
             @Override
             public DateFormat getBackupDirTimestampFormat() {
                 if (backupDirTimestampFormat != null) {
@@ -225,6 +235,11 @@ public class AbstractCairoTest {
                 return pageFrameMaxSize < 0 ? super.getSqlPageFrameMaxSize() : pageFrameMaxSize;
             }
 
+            @Override
+            public int getSqlIOMode() {
+                return sqlIOMode < 0 ? super.getSqlIOMode() : sqlIOMode;
+            }
+
             @Override
             public int getPartitionPurgeListCapacity() {
                 // Bump it to high number so that test don't fail with memory leak if LongList
@@ -313,11 +328,13 @@ public class AbstractCairoTest {
         writerAsyncCommandBusyWaitTimeout = -1;
         writerAsyncCommandMaxTimeout = -1;
         pageFrameMaxSize = -1;
+        sqlIOMode = -1;
         spinLockTimeoutUs = -1;
         snapshotInstanceId = null;
         snapshotRecoveryEnabled = null;
         hideTelemetryTable = false;
         writerCommandQueueCapacity = 4;
+        coldTierRoot = null;
     }
 
     protected static void configureForBackups() throws IOException {
@@ -1041,6 +1041,35 @@ public class BitmapIndexTest extends AbstractCairoTest {
         });
     }
 
+    @Test
+    public void testRollbackConditionallyBoundaryRow() throws Exception {
+        TestUtils.assertMemoryLeak(() -> {
+            LongList list = new LongList();
+            create(configuration, path.trimTo(plen), "x", 4);
+            try (BitmapIndexWriter writer = new BitmapIndexWriter(configuration, path, "x", COLUMN_NAME_TXN_NONE)) {
+                for (int i = 0; i < 10; i++) {
+                    writer.add(i % 2, i);
+                }
+                writer.setMaxValue(9);
+
+                // re-indexing from the row after the last indexed one keeps the index intact
+                writer.rollbackConditionally(10);
+                Assert.assertEquals(9, writer.getMaxValue());
+                assertThat("[8,6,4,2,0]", writer.getCursor(0), list);
+                assertThat("[9,7,5,3,1]", writer.getCursor(1), list);
+
+                // re-indexing from the last indexed row removes it, it must not be indexed twice
+                writer.rollbackConditionally(9);
+                Assert.assertEquals(8, writer.getMaxValue());
+                assertThat("[7,5,3,1]", writer.getCursor(1), list);
+                writer.add(1, 9);
+                writer.setMaxValue(9);
+                assertThat("[8,6,4,2,0]", writer.getCursor(0), list);
+                assertThat("[9,7,5,3,1]", writer.getCursor(1), list);
+            }
+        });
+    }
+
     @Test
     public void testSimpleRollback() throws Exception {
         TestUtils.assertMemoryLeak(() -> {
@@ -26,6 +26,7 @@ package io.questdb.cairo;
 
 import io.questdb.cairo.vm.MemoryCMRImpl;
 import io.questdb.cairo.vm.MemoryPMARImpl;
+import io.questdb.cairo.vm.MemoryPMARWCImpl;
 import io.questdb.cairo.vm.MemorySRImpl;
 import io.questdb.cairo.vm.Vm;
 import io.questdb.cairo.vm.api.MemoryARW;
@@ -211,6 +212,56 @@ public class CairoMemoryTest {
         );
     }
 
+    @Test
+    public void testAppendStagedMemory() throws Exception {
+        TestUtils.assertMemoryLeak(() -> {
+            final int n = 100_000;
+            try (Path path = new Path().of(temp.newFile().getAbsolutePath()).$()) {
+                try (MemoryMA mem = Vm.getWCMAInstance(FF.getPageSize())) {
+                    mem.of(FF, path, FF.getMapPageSize(), MemoryTag.MMAP_DEFAULT, CairoConfiguration.O_NONE);
+                    for (int i = 0; i < n; i++) {
+                        mem.putLong(i);
+                        mem.putBool(i % 2 == 0);
+                    }
+                    mem.flush();
+
+                    // staged data is in the file after flush
+                    try (MemoryMR roMem = new MemoryCMRImpl(FF, path, n * 9L, MemoryTag.MMAP_DEFAULT)) {
+                        for (int i = 0; i < n; i++) {
+                            Assert.assertEquals(i, roMem.getLong(i * 9L));
+                            Assert.assertEquals(i % 2 == 0, roMem.getBool(i * 9L + 8));
+                        }
+                    }
+
+                    // re-write second half after a jump back
+                    mem.jumpTo(n / 2 * 9L);
+                    for (int i = n / 2; i < n; i++) {
+                        mem.putLong(-i);
+                        mem.putBool(i % 2 != 0);
+                    }
+                    // jump forward to the end of file should not lose anything
+                    mem.jumpTo(n * 9L);
+                }
+
+                try (MemoryMR roMem = new MemoryCMRImpl(FF, path, n * 9L, MemoryTag.MMAP_DEFAULT)) {
+                    for (int i = 0; i < n; i++) {
+                        Assert.assertEquals(i < n / 2 ? i : -i, roMem.getLong(i * 9L));
+                        Assert.assertEquals(i < n / 2 ? i % 2 == 0 : i % 2 != 0, roMem.getBool(i * 9L + 8));
+                    }
+                }
+            }
+        });
+    }
+
+    @Test
+    public void testAppendStagedMemoryJump() throws Exception {
+        testVirtualMemoryJump(path -> {
+            MemoryPMARWCImpl mem = new MemoryPMARWCImpl(FF.getPageSize());
+            mem.of(FF, path, FF.getPageSize(), MemoryTag.MMAP_DEFAULT, CairoConfiguration.O_NONE);
+            return mem;
+        });
+    }
+
     @Test
     public void testReadWriteCannotOpenFile() {
         long used = Unsafe.getMemUsed();
@@ -0,0 +1,161 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2022 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.cairo;
+
+import io.questdb.Metrics;
+import io.questdb.cairo.sql.RecordCursor;
+import io.questdb.cairo.sql.RecordCursorFactory;
+import io.questdb.cairo.sql.RecordMetadata;
+import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.std.IntList;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class QueryFactoryCacheTest {
+
+    @Test
+    public void testLeaseIsExclusive() {
+        final QueryFactoryCacheMetrics metrics = Metrics.enabled().queryFactoryCache();
+        try (QueryFactoryCache cache = new QueryFactoryCache(4, 2, metrics)) {
+            final TestFactory f1 = new TestFactory();
+            final TestFactory f2 = new TestFactory();
+            cache.push("select 1", f1, null);
+            cache.push("select 1", f2, null);
+            Assert.assertEquals(2, cache.getInstanceCount());
+
+            final RecordCursorFactory l1 = cache.poll("select 1", null);
+            final RecordCursorFactory l2 = cache.poll("select 1", null);
+            Assert.assertNotNull(l1);
+            Assert.assertNotNull(l2);
+            Assert.assertNotSame(l1, l2);
+            Assert.assertNull(cache.poll("select 1", null));
+            Assert.assertEquals(0, cache.getInstanceCount());
+
+            Assert.assertEquals(2, metrics.hitCount());
+            Assert.assertEquals(1, metrics.missCount());
+
+            cache.push("select 1", l1, null);
+            cache.push("select 1", l2, null);
+        }
+    }
+
+    @Test
+    public void testInstancesPerKeyBounded() {
+        try (QueryFactoryCache cache = new QueryFactoryCache(4, 2, Metrics.disabled().queryFactoryCache())) {
+            final TestFactory f1 = new TestFactory();
+            final TestFactory f2 = new TestFactory();
+            final TestFactory f3 = new TestFactory();
+            cache.push("x", f1, null);
+            cache.push("x", f2, null);
+            cache.push("x", f3, null);
+            Assert.assertEquals(2, cache.getInstanceCount());
+            Assert.assertFalse(f1.closed);
+            Assert.assertFalse(f2.closed);
+            Assert.assertTrue(f3.closed);
+            cache.clear();
+            Assert.assertTrue(f1.closed);
+            Assert.assertTrue(f2.closed);
+            Assert.assertEquals(0, cache.getKeyCount());
+        }
+    }
+
+    @Test
+    public void testLruEviction() {
+        final QueryFactoryCacheMetrics metrics = Metrics.enabled().queryFactoryCache();
+        final TestFactory a = new TestFactory();
+        final TestFactory b = new TestFactory();
+        final TestFactory c = new TestFactory();
+        try (QueryFactoryCache cache = new QueryFactoryCache(2, 4, metrics)) {
+            cache.push("a", a, null);
+            cache.push("b", b, null);
+            // touch "a" so that "b" becomes least recently used
+            Assert.assertSame(a, cache.poll("a", null));
+            cache.push("a", a, null);
+            cache.push("c", c, null);
+
+            Assert.assertEquals(2, cache.getKeyCount());
+            Assert.assertTrue(b.closed);
+            Assert.assertFalse(a.closed);
+            Assert.assertFalse(c.closed);
+            Assert.assertNull(cache.poll("b", null));
+            Assert.assertEquals(1, metrics.evictionCount());
+        }
+        Assert.assertTrue(c.closed);
+    }
+
+    @Test
+    public void testBindVariableTypes() {
+        try (QueryFactoryCache cache = new QueryFactoryCache(2, 4, Metrics.disabled().queryFactoryCache())) {
+            final IntList types = new IntList();
+            types.add(ColumnType.LONG);
+            types.add(ColumnType.STRING);
+            final TestFactory f = new TestFactory();
+            cache.push("select $1, $2", f, types);
+
+            final IntList sink = new IntList();
+            sink.add(ColumnType.INT);
+            Assert.assertSame(f, cache.poll("select $1, $2", sink));
+            Assert.assertEquals(types, sink);
+            cache.push("select $1, $2", f, sink);
+        }
+    }
+
+    @Test
+    public void testRemove() {
+        try (QueryFactoryCache cache = new QueryFactoryCache(2, 4, Metrics.disabled().queryFactoryCache())) {
+            final TestFactory f = new TestFactory();
+            cache.push("x", f, null);
+            cache.remove("x");
+            Assert.assertTrue(f.closed);
+            Assert.assertEquals(0, cache.getKeyCount());
+            Assert.assertEquals(0, cache.getInstanceCount());
+        }
+    }
+
+    private static class TestFactory implements RecordCursorFactory {
+        private boolean closed;
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+
+        @Override
+        public RecordCursor getCursor(SqlExecutionContext executionContext) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public RecordMetadata getMetadata() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean recordCursorSupportsRandomAccess() {
+            return false;
+        }
+    }
+}
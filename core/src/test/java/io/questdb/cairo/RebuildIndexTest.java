@@ -24,6 +24,7 @@
 
 package io.questdb.cairo;
 
+import io.questdb.MessageBus;
 import io.questdb.cairo.security.AllowAllCairoSecurityContext;
 import io.questdb.cairo.sql.RecordCursor;
 import io.questdb.cairo.sql.RecordCursorFactory;
@@ -182,6 +183,29 @@ public class RebuildIndexTest extends AbstractCairoTest {
         );
     }
 
+    @Test
+    public void testPartitionedDailyParallel() throws Exception {
+        String createTableSql = "create table xxx as (" +
+                "select " +
+                "rnd_symbol('A', 'B', 'C') as sym1," +
+                "rnd_symbol(4,4,4,2) as sym2," +
+                "x," +
+                "timestamp_sequence(0, 100000000) ts " +
+                "from long_sequence(10000)" +
+                "), index(sym1), index(sym2) timestamp(ts) PARTITION BY DAY";
+
+        // there are no workers, partitions that make it to the indexer queue are stolen back
+        checkRebuildIndexes(
+                createTableSql,
+                (tablePath) -> {
+                    removeFileAtPartition("sym1.v", PartitionBy.DAY, tablePath, 0);
+                    removeFileAtPartition("sym2.k", PartitionBy.DAY, tablePath, 0);
+                },
+                RebuildIndex::rebuildAll,
+                engine.getMessageBus()
+        );
+    }
+
     @Test
     public void testPartitionedNone() throws Exception {
         String createTableSql = "create table xxx as (" +
@@ -508,6 +532,15 @@ public class RebuildIndexTest extends AbstractCairoTest {
     }
 
     private void checkRebuildIndexes(String createTableSql, Action<String> changeTable, Action<RebuildIndex> rebuildIndexAction) throws Exception {
+        checkRebuildIndexes(createTableSql, changeTable, rebuildIndexAction, null);
+    }
+
+    private void checkRebuildIndexes(
+            String createTableSql,
+            Action<String> changeTable,
+            Action<RebuildIndex> rebuildIndexAction,
+            MessageBus messageBus
+    ) throws Exception {
         assertMemoryLeak(ff, () -> {
             for (String sql : createTableSql.split(";")) {
                 compiler.compile(sql, sqlExecutionContext).execute(null).await();
@@ -524,7 +557,7 @@ public class RebuildIndexTest extends AbstractCairoTest {
             changeTable.run(tablePath);
 
             rebuildIndex.clear();
-            rebuildIndex.of(tablePath, configuration);
+            rebuildIndex.of(tablePath, configuration, messageBus);
             rebuildIndexAction.run(rebuildIndex);
 
             int sym1A2 = countByFullScan("select * from xxx where sym1 = 'A'");
@@ -28,6 +28,7 @@ import io.questdb.cairo.sql.SymbolTable;
 import io.questdb.cairo.vm.Vm;
 import io.questdb.cairo.vm.api.MemoryCMARW;
 import io.questdb.std.Chars;
+import io.questdb.std.FilesFacade;
 import io.questdb.std.MemoryTag;
 import io.questdb.std.ObjList;
 import io.questdb.std.Rnd;
@@ -237,6 +238,167 @@ public class SymbolMapTest extends AbstractCairoTest {
         });
     }
 
+    @Test
+    public void testRehash() throws Exception {
+        TestUtils.assertMemoryLeak(() -> {
+            int N = 1000;
+            try (Path path = new Path().of(configuration.getRoot())) {
+                create(path, "x", 8, false);
+                final long indexNameTxn = 5;
+                try (
+                        SymbolMapWriter writer = new SymbolMapWriter(
+                                configuration,
+                                path,
+                                "x",
+                                COLUMN_NAME_TXN_NONE,
+                                0,
+                                -1,
+                                NOOP_COLLECTOR
+                        )
+                ) {
+                    Rnd rnd = new Rnd();
+                    for (int i = 0; i < N; i++) {
+                        Assert.assertEquals(i, writer.put(rnd.nextChars(10)));
+                    }
+                    Assert.assertTrue(writer.isRehashRequired());
+                    Assert.assertFalse(writer.isIndexRehashed());
+                    Assert.assertEquals(N, writer.getLookupCount());
+                    // 4 hash buckets in the index of capacity 8
+                    Assert.assertTrue(writer.getChainLength() > 100L * N);
+
+                    try (SymbolMapReaderImpl reader = new SymbolMapReaderImpl(configuration, path, "x", COLUMN_NAME_TXN_NONE, N)) {
+                        Assert.assertFalse(reader.isIndexStale());
+                        Assert.assertEquals(COLUMN_NAME_TXN_NONE, writer.rehash(path, "x", indexNameTxn));
+                        // reader opened before rehash keeps using the previous index
+                        Assert.assertTrue(reader.isIndexStale());
+                        Assert.assertEquals(COLUMN_NAME_TXN_NONE, reader.getIndexNameTxn());
+                        Assert.assertEquals(0, reader.keyOf(new Rnd().nextChars(10)));
+                    }
+                    Assert.assertFalse(writer.isRehashRequired());
+                    Assert.assertTrue(writer.isIndexRehashed());
+                    Assert.assertEquals(2048, writer.getIndexCapacity());
+                    Assert.assertEquals(indexNameTxn, writer.getIndexNameTxn());
+
+                    writer.resetLookupStats();
+                    rnd.reset();
+                    for (int i = 0; i < N; i++) {
+                        Assert.assertEquals(i, writer.put(rnd.nextChars(10)));
+                    }
+                    Assert.assertEquals(N, writer.getLookupCount());
+                    Assert.assertTrue(writer.getChainLength() < 2L * N);
+                    Assert.assertEquals(N, writer.put("new"));
+                }
+
+                // new reader opens index recorded in the header
+                try (SymbolMapReaderImpl reader = new SymbolMapReaderImpl(configuration, path, "x", COLUMN_NAME_TXN_NONE, N + 1)) {
+                    Assert.assertFalse(reader.isIndexStale());
+                    Assert.assertEquals(indexNameTxn, reader.getIndexNameTxn());
+                    Assert.assertEquals(8, reader.getSymbolCapacity());
+                    Rnd rnd = new Rnd();
+                    for (int i = 0; i < N; i++) {
+                        CharSequence cs = rnd.nextChars(10);
+                        Assert.assertEquals(i, reader.keyOf(cs));
+                        TestUtils.assertEquals(cs, reader.valueOf(i));
+                    }
+                    Assert.assertEquals(N, reader.keyOf("new"));
+                }
+
+                // writer reopens rehashed index
+                try (
+                        SymbolMapWriter writer = new SymbolMapWriter(
+                                configuration,
+                                path,
+                                "x",
+                                COLUMN_NAME_TXN_NONE,
+                                N + 1,
+                                -1,
+                                NOOP_COLLECTOR
+                        )
+                ) {
+                    Assert.assertFalse(writer.isRehashRequired());
+                    Assert.assertEquals(2048, writer.getIndexCapacity());
+                    Assert.assertEquals(indexNameTxn, writer.getIndexNameTxn());
+                    Assert.assertEquals(N, writer.put("new"));
+                    Assert.assertEquals(N + 1, writer.put("newer"));
+                    Assert.assertEquals(2, writer.getLookupCount());
+                }
+            }
+        });
+    }
+
+    @Test
+    public void testRehashOnCommit() throws Exception {
+        TestUtils.assertMemoryLeak(() -> {
+            int N = 1000;
+            try (TableModel model = new TableModel(configuration, "x", PartitionBy.NONE).col("sym", ColumnType.SYMBOL).symbolCapacity(8)) {
+                CairoTestUtils.create(model);
+            }
+
+            final long rehashCount = metrics.tableWriter().symbolMapRehashCount();
+            try (
+                    TableWriter writer = new TableWriter(configuration, "x", metrics);
+                    TableReader reader = new TableReader(configuration, "x");
+                    Path path = new Path().of(configuration.getRoot()).concat("x")
+            ) {
+                for (int i = 0; i < N; i++) {
+                    TableWriter.Row row = writer.newRow();
+                    row.putSym(0, "sym" + i);
+                    row.append();
+                }
+                writer.commit();
+                Assert.assertEquals(rehashCount + 1, metrics.tableWriter().symbolMapRehashCount());
+
+                reader.reload();
+                final SymbolMapReaderImpl symbolMapReader = (SymbolMapReaderImpl) reader.getSymbolMapReader(0);
+                final long indexNameTxn = symbolMapReader.getIndexNameTxn();
+                Assert.assertEquals(writer.getTxn(), indexNameTxn);
+                Assert.assertEquals(2048, ((SymbolMapWriter) writer.getSymbolMapWriter(0)).getIndexCapacity());
+
+                for (int i = 0; i < N; i++) {
+                    Assert.assertEquals(i, symbolMapReader.keyOf("sym" + i));
+                }
+
+                // reader was at previous txn, replaced index is removed on the next commit
+                final FilesFacade ff = configuration.getFilesFacade();
+                final int plen = path.length();
+                Assert.assertTrue(ff.exists(BitmapIndexUtils.keyFileName(path, "sym", COLUMN_NAME_TXN_NONE)));
+                TableWriter.Row row = writer.newRow();
+                row.putSym(0, "sym0");
+                row.append();
+                writer.commit();
+                Assert.assertFalse(ff.exists(BitmapIndexUtils.keyFileName(path.trimTo(plen), "sym", COLUMN_NAME_TXN_NONE)));
+                Assert.assertFalse(ff.exists(BitmapIndexUtils.valueFileName(path.trimTo(plen), "sym", COLUMN_NAME_TXN_NONE)));
+                Assert.assertTrue(ff.exists(BitmapIndexUtils.keyFileName(path.trimTo(plen), "sym", indexNameTxn)));
+                Assert.assertEquals(rehashCount + 1, metrics.tableWriter().symbolMapRehashCount());
+            }
+
+            // reopened writer resolves existing symbols via rehashed index
+            try (TableWriter writer = new TableWriter(configuration, "x", metrics)) {
+                final MapWriter symbolMapWriter = writer.getSymbolMapWriter(0);
+                for (int i = 0; i < N; i++) {
+                    Assert.assertEquals(i, symbolMapWriter.put("sym" + i));
+                }
+                Assert.assertEquals(N, symbolMapWriter.put("new"));
+                writer.rollback();
+
+                // rehashed index survives table truncate
+                writer.truncate();
+                TableWriter.Row row = writer.newRow();
+                row.putSym(0, "sym1");
+                row.append();
+                writer.commit();
+                Assert.assertEquals(0, symbolMapWriter.put("sym1"));
+            }
+
+            try (TableReader reader = new TableReader(configuration, "x")) {
+                final SymbolMapReaderImpl symbolMapReader = (SymbolMapReaderImpl) reader.getSymbolMapReader(0);
+                Assert.assertNotEquals(COLUMN_NAME_TXN_NONE, symbolMapReader.getIndexNameTxn());
+                Assert.assertEquals(0, symbolMapReader.keyOf("sym1"));
+                Assert.assertEquals(SymbolTable.VALUE_NOT_FOUND, symbolMapReader.keyOf("sym0"));
+            }
+        });
+    }
+
     @Test
     public void testRollback() throws Exception {
         TestUtils.assertMemoryLeak(() -> {
@@ -26,16 +26,109 @@ package io.questdb.cairo;
 
 import io.questdb.cairo.sql.Record;
 import io.questdb.cairo.sql.RecordCursor;
-import io.questdb.std.MemoryTag;
-import io.questdb.std.Os;
-import io.questdb.std.Rnd;
-import io.questdb.std.Unsafe;
+import io.questdb.cairo.security.AllowAllCairoSecurityContext;
+import io.questdb.std.*;
+import io.questdb.std.datetime.microtime.Timestamps;
+import io.questdb.std.str.LPSZ;
 import io.questdb.test.tools.TestUtils;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 public class TableReaderReloadTest extends AbstractCairoTest {
 
+    @Test
+    public void testReaderPoolRecordsReloadLatency() throws Exception {
+        assertMemoryLeak(() -> {
+            try (TableModel model = new TableModel(configuration, "x", PartitionBy.DAY)) {
+                model.col("i", ColumnType.INT).timestamp();
+                CairoTestUtils.create(model);
+            }
+
+            final long reloadCount = metrics.tableReader().reloadCount();
+            try (TableReader reader = engine.getReader(AllowAllCairoSecurityContext.INSTANCE, "x")) {
+                Assert.assertEquals(0, reader.size());
+            }
+            // first get creates the reader, it is not a reload
+            Assert.assertEquals(reloadCount, metrics.tableReader().reloadCount());
+
+            try (TableWriter writer = engine.getWriter(AllowAllCairoSecurityContext.INSTANCE, "x", "testing")) {
+                TableWriter.Row row = writer.newRow(0);
+                row.putInt(0, 1);
+                row.append();
+                writer.commit();
+            }
+
+            try (TableReader reader = engine.getReader(AllowAllCairoSecurityContext.INSTANCE, "x")) {
+                Assert.assertEquals(1, reader.size());
+            }
+            Assert.assertEquals(reloadCount + 1, metrics.tableReader().reloadCount());
+        });
+    }
+
+    @Test
+    public void testReloadAfterO3DoesNotOpenUnusedPartitions() throws Exception {
+        final AtomicInteger firstPartitionOpenCount = new AtomicInteger();
+        final FilesFacade ff = new FilesFacadeImpl() {
+            @Override
+            public long openRO(LPSZ name) {
+                if (Chars.contains(name, "1970-01-01")) {
+                    firstPartitionOpenCount.incrementAndGet();
+                }
+                return super.openRO(name);
+            }
+        };
+
+        assertMemoryLeak(ff, () -> {
+            try (TableModel model = new TableModel(configuration, "x", PartitionBy.DAY)) {
+                model.col("i", ColumnType.INT).col("l", ColumnType.LONG).timestamp();
+                CairoTestUtils.create(model);
+            }
+
+            final long day = Timestamps.DAY_MICROS;
+            try (TableWriter writer = new TableWriter(configuration, "x", metrics)) {
+                for (int i = 0; i < 3; i++) {
+                    TableWriter.Row row = writer.newRow(i * day + 1000);
+                    row.putInt(0, i);
+                    row.putLong(1, i);
+                    row.append();
+                }
+                writer.commit();
+
+                try (TableReader reader = new TableReader(configuration, "x")) {
+                    // only the last partition is in use
+                    reader.openPartition(2);
+                    Assert.assertEquals(0, firstPartitionOpenCount.get());
+
+                    // rewrites the first partition and appends to the last one
+                    TableWriter.Row row = writer.newRow(10);
+                    row.putInt(0, 10);
+                    row.putLong(1, 10);
+                    row.append();
+                    row = writer.newRow(2 * day + 2000);
+                    row.putInt(0, 11);
+                    row.putLong(1, 11);
+                    row.append();
+                    writer.commit();
+
+                    Assert.assertTrue(reader.reload());
+                    Assert.assertEquals(0, firstPartitionOpenCount.get());
+                    Assert.assertEquals(2, reader.getPartitionRowCount(2));
+
+                    long sum = 0;
+                    RecordCursor cursor = reader.getCursor();
+                    Record record = cursor.getRecord();
+                    while (cursor.hasNext()) {
+                        sum += record.getLong(1);
+                    }
+                    Assert.assertEquals(24, sum);
+                    Assert.assertTrue(firstPartitionOpenCount.get() > 0);
+                }
+            }
+        });
+    }
+
     @Test
     public void testReloadTruncateByDay() {
         testReloadAfterTruncate(PartitionBy.DAY, 3000000000L);
@@ -1937,6 +1937,47 @@ public class TableWriterTest extends AbstractCairoTest {
         });
     }
 
+    @Test
+    public void testO3CommitUpdatesMetrics() throws Exception {
+        TestUtils.assertMemoryLeak(() -> {
+            try (TableModel model = new TableModel(configuration, "weather", PartitionBy.DAY)
+                    .col("windspeed", ColumnType.DOUBLE)
+                    .timestamp()) {
+                CairoTestUtils.create(model);
+            }
+
+            final TableWriterMetrics writerMetrics = metrics.tableWriter();
+            try (TableWriter writer = new TableWriter(configuration, "weather", metrics)) {
+                long ts = IntervalUtils.parseFloorPartialDate("2021-01-30");
+                for (int i = 0; i < 72; i++) {
+                    TableWriter.Row r = writer.newRow(ts + i * Timestamps.HOUR_MICROS);
+                    r.putDouble(0, i);
+                    r.append();
+                }
+                writer.commit();
+
+                final long o3RowCount = writerMetrics.o3RowCount();
+                final long o3BytesWritten = writerMetrics.o3BytesWritten();
+                final long o3Tasks = writerMetrics.o3TasksQueued() + writerMetrics.o3TasksStolen();
+
+                // merges into the middle of 2021-01-31
+                ts = IntervalUtils.parseFloorPartialDate("2021-01-31");
+                for (int i = 0; i < 10; i++) {
+                    TableWriter.Row r = writer.newRow(ts + i * Timestamps.HOUR_MICROS + 1);
+                    r.putDouble(0, -i);
+                    r.append();
+                }
+                writer.commit();
+
+                Assert.assertEquals(82, writer.size());
+                Assert.assertEquals(o3RowCount + 10, writerMetrics.o3RowCount());
+                // at the very least windspeed and timestamp of the whole partition are rewritten
+                Assert.assertTrue(writerMetrics.o3BytesWritten() - o3BytesWritten >= 34 * 2 * Long.BYTES);
+                Assert.assertTrue(writerMetrics.o3TasksQueued() + writerMetrics.o3TasksStolen() > o3Tasks);
+            }
+        });
+    }
+
     @Test
     public void testO3WithCancelRow() throws Exception {
         TestUtils.assertMemoryLeak(() -> {
@@ -3745,14 +3786,16 @@ public class TableWriterTest extends AbstractCairoTest {
                     path.of(root).concat(model.getName());
                     final int plen = path.length();
                     if (columnTypeTag == ColumnType.SYMBOL) {
-                        Assert.assertFalse(FF.exists(path.trimTo(plen).concat("supplier.v").$()));
+                        // symbol map index could have been rehashed into files with different name txn
+                        final long indexNameTxn = ((SymbolMapWriter) writer.getSymbolMapWriter(writer.getMetadata().getColumnIndex("sup"))).getIndexNameTxn();
+                        Assert.assertFalse(FF.exists(BitmapIndexUtils.valueFileName(path.trimTo(plen), "supplier", indexNameTxn)));
                         Assert.assertFalse(FF.exists(path.trimTo(plen).concat("supplier.o").$()));
                         Assert.assertFalse(FF.exists(path.trimTo(plen).concat("supplier.c").$()));
-                        Assert.assertFalse(FF.exists(path.trimTo(plen).concat("supplier.k").$()));
-                        Assert.assertTrue(FF.exists(path.trimTo(plen).concat("sup.v").$()));
+                        Assert.assertFalse(FF.exists(BitmapIndexUtils.keyFileName(path.trimTo(plen), "supplier", indexNameTxn)));
+                        Assert.assertTrue(FF.exists(BitmapIndexUtils.valueFileName(path.trimTo(plen), "sup", indexNameTxn)));
                         Assert.assertTrue(FF.exists(path.trimTo(plen).concat("sup.o").$()));
                         Assert.assertTrue(FF.exists(path.trimTo(plen).concat("sup.c").$()));
-                        Assert.assertTrue(FF.exists(path.trimTo(plen).concat("sup.k").$()));
+                        Assert.assertTrue(FF.exists(BitmapIndexUtils.keyFileName(path.trimTo(plen), "sup", indexNameTxn)));
                     }
                     path.trimTo(plen);
                     FF.iterateDir(path.$(), (pUtf8NameZ, type) -> {
@@ -0,0 +1,245 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2022 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.cutlass.http;
+
+import io.questdb.Metrics;
+import io.questdb.network.NetworkFacadeImpl;
+import io.questdb.network.TlsMetrics;
+import io.questdb.network.TlsNetworkFacade;
+import io.questdb.std.Chars;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import javax.net.ssl.*;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.security.cert.X509Certificate;
+
+public class HttpTlsTest {
+    private static final String KEY_STORE_PASSWORD = "questdb";
+    private static final String KEY_STORE_PATH = HttpTlsTest.class.getResource("/tls/server.p12").getFile();
+    @Rule
+    public TemporaryFolder temp = new TemporaryFolder();
+
+    @Test
+    public void testLargeResponse() throws Exception {
+        final Metrics metrics = Metrics.enabled();
+        new HttpQueryTestBuilder()
+                .withTempFolder(temp)
+                .withWorkerCount(2)
+                .withMetrics(metrics)
+                .withHttpServerConfigBuilder(new HttpServerConfigurationBuilder()
+                        .withNetwork(newTlsNetworkFacade())
+                        .withSendBufferSize(4096)
+                )
+                .run(engine -> {
+                    final SSLContext client = newClientContext();
+                    final String response = query(client, null, "select x from long_sequence(100000)");
+                    Assert.assertTrue(response.startsWith("HTTP/1.1 200 OK"));
+                    Assert.assertTrue(response.contains("[99999],[100000]],\"count\":100000}"));
+                    Assert.assertTrue(metrics.tls().cryptoTimeMicros() > 0);
+                });
+    }
+
+    @Test
+    public void testLargeUpload() throws Exception {
+        new HttpQueryTestBuilder()
+                .withTempFolder(temp)
+                .withWorkerCount(2)
+                .withHttpServerConfigBuilder(new HttpServerConfigurationBuilder()
+                        .withNetwork(newTlsNetworkFacade())
+                        // smaller than a TLS record, every record is staged in the session before it is copied out
+                        .withReceiveBufferSize(4096)
+                )
+                .run(engine -> {
+                    final StringBuilder csv = new StringBuilder();
+                    for (int i = 0; i < 10_000; i++) {
+                        csv.append(i).append(",sym").append(i % 10).append("\r\n");
+                    }
+                    final String response = exchange(newClientContext(), null, "POST /upload?fmt=json&name=tls_upload HTTP/1.1\r\n" +
+                            "Host: localhost:9001\r\n" +
+                            "Content-Type: multipart/form-data; boundary=----TlsBoundary\r\n" +
+                            "\r\n" +
+                            "------TlsBoundary\r\n" +
+                            "Content-Disposition: form-data; name=\"data\"\r\n" +
+                            "\r\n" +
+                            csv +
+                            "\r\n" +
+                            "------TlsBoundary--");
+                    Assert.assertTrue(response, response.startsWith("HTTP/1.1 200 OK"));
+                    Assert.assertTrue(response, response.contains("\"rowsImported\":10000"));
+
+                    Assert.assertTrue(query(newClientContext(), null, "select sum(f0) from tls_upload").contains("\"dataset\":[[49995000]]"));
+                });
+    }
+
+    @Test
+    public void testPlainTextClientIsDisconnected() throws Exception {
+        final Metrics metrics = Metrics.enabled();
+        new HttpQueryTestBuilder()
+                .withTempFolder(temp)
+                .withWorkerCount(1)
+                .withMetrics(metrics)
+                .withHttpServerConfigBuilder(new HttpServerConfigurationBuilder().withNetwork(newTlsNetworkFacade()))
+                .run(engine -> {
+                    try (java.net.Socket socket = new java.net.Socket("127.0.0.1", 9001)) {
+                        socket.getOutputStream().write("GET /exec?query=select+1 HTTP/1.1\r\n\r\n".getBytes(StandardCharsets.UTF_8));
+                        // the server answers with TLS alert record and closes the connection
+                        final InputStream in = socket.getInputStream();
+                        int b = in.read();
+                        if (b > -1) {
+                            Assert.assertEquals(21, b);
+                            while (b > -1) {
+                                b = in.read();
+                            }
+                        }
+                    } catch (IOException e) {
+                        // connection reset is fine too
+                    }
+                    Assert.assertEquals(1, metrics.tls().failedHandshakeCount());
+                    Assert.assertEquals(0, metrics.tls().handshakeCount());
+                });
+    }
+
+    @Test
+    public void testQuery() throws Exception {
+        final Metrics metrics = Metrics.enabled();
+        new HttpQueryTestBuilder()
+                .withTempFolder(temp)
+                .withWorkerCount(1)
+                .withMetrics(metrics)
+                .withHttpServerConfigBuilder(new HttpServerConfigurationBuilder().withNetwork(newTlsNetworkFacade()))
+                .run(engine -> {
+                    final SSLContext client = newClientContext();
+                    final String response = query(client, null, "select 42 answer");
+                    Assert.assertTrue(response.startsWith("HTTP/1.1 200 OK"));
+                    Assert.assertTrue(response.contains("\"dataset\":[[42]]"));
+
+                    final TlsMetrics tls = metrics.tls();
+                    Assert.assertEquals(1, tls.handshakeCount());
+                    Assert.assertEquals(0, tls.failedHandshakeCount());
+                    Assert.assertTrue(tls.handshakeTimeMicros() > 0);
+                });
+    }
+
+    @Test
+    public void testSessionResumption() throws Exception {
+        final Metrics metrics = Metrics.enabled();
+        new HttpQueryTestBuilder()
+                .withTempFolder(temp)
+                .withWorkerCount(1)
+                .withMetrics(metrics)
+                .withHttpServerConfigBuilder(new HttpServerConfigurationBuilder().withNetwork(newTlsNetworkFacade()))
+                .run(engine -> {
+                    // session ids of the client context are reused for the same host and port
+                    final SSLContext client = newClientContext();
+                    for (int i = 0; i < 3; i++) {
+                        Assert.assertTrue(query(client, "TLSv1.2", "select " + i + " i").contains("\"dataset\":[[" + i + "]]"));
+                    }
+                    Assert.assertEquals(3, metrics.tls().handshakeCount());
+                    Assert.assertEquals(2, metrics.tls().resumedHandshakeCount());
+                });
+    }
+
+    public static SSLContext newClientContext() {
+        try {
+            final SSLContext context = SSLContext.getInstance("TLS");
+            context.init(null, new TrustManager[]{new X509TrustManager() {
+                @Override
+                public void checkClientTrusted(X509Certificate[] chain, String authType) {
+                }
+
+                @Override
+                public void checkServerTrusted(X509Certificate[] chain, String authType) {
+                }
+
+                @Override
+                public X509Certificate[] getAcceptedIssuers() {
+                    return new X509Certificate[0];
+                }
+            }}, null);
+            return context;
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    public static TlsNetworkFacade newTlsNetworkFacade() {
+        try {
+            return new TlsNetworkFacade(
+                    NetworkFacadeImpl.INSTANCE,
+                    TlsNetworkFacade.createSslContext(KEY_STORE_PATH, KEY_STORE_PASSWORD, 16, 60),
+                    Metrics.disabled().tls()
+            );
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static String exchange(SSLContext client, String protocol, String request) {
+        try (SSLSocket socket = (SSLSocket) client.getSocketFactory().createSocket("localhost", 9001)) {
+            if (protocol != null) {
+                socket.setEnabledProtocols(new String[]{protocol});
+            }
+            final OutputStream out = socket.getOutputStream();
+            out.write(request.getBytes(StandardCharsets.UTF_8));
+            out.flush();
+
+            final InputStream in = socket.getInputStream();
+            final ByteArrayOutputStream response = new ByteArrayOutputStream();
+            final byte[] buf = new byte[8192];
+            while (true) {
+                final int n = in.read(buf);
+                if (n < 0) {
+                    break;
+                }
+                response.write(buf, 0, n);
+                if (Chars.endsWith(response.toString("UTF-8"), "\r\n00\r\n\r\n")) {
+                    break;
+                }
+            }
+            return response.toString("UTF-8");
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static String query(SSLContext client, String protocol, String query) {
+        try {
+            return exchange(client, protocol, "GET /exec?query=" + URLEncoder.encode(query, "UTF-8") + " HTTP/1.1\r\n" +
+                    "Host: localhost:9001\r\n" +
+                    "\r\n");
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
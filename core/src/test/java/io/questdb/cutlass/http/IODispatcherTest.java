@@ -2446,6 +2446,54 @@ public class IODispatcherTest {
         );
     }
 
+    @Test
+    public void testJsonQueryPipelinedRequests() throws Exception {
+        final Metrics pipelineMetrics = Metrics.enabled();
+        new HttpQueryTestBuilder()
+                .withWorkerCount(1)
+                .withTempFolder(temp)
+                .withMetrics(pipelineMetrics)
+                .withHttpServerConfigBuilder(new HttpServerConfigurationBuilder().withSendBufferSize(16 * 1024))
+                .run(engine -> {
+                            final String createRequest = "GET /query?query=create+table+xx+(value+long,+ts+timestamp)+timestamp(ts) HTTP/1.1\r\n" +
+                                    "Host: localhost:9000\r\n" +
+                                    "Connection: keep-alive\r\n" +
+                                    "Accept: */*\r\n" +
+                                    "\r\n";
+                            final String insertRequest = "GET /query?query=insert+into+xx+values(1,+0) HTTP/1.1\r\n" +
+                                    "Host: localhost:9000\r\n" +
+                                    "Connection: keep-alive\r\n" +
+                                    "Accept: */*\r\n" +
+                                    "\r\n";
+                            final String ddlResponse = "HTTP/1.1 200 OK\r\n" +
+                                    "Server: questDB/1.0\r\n" +
+                                    "Date: Thu, 1 Jan 1970 00:00:00 GMT\r\n" +
+                                    "Transfer-Encoding: chunked\r\n" +
+                                    "Content-Type: application/json; charset=utf-8\r\n" +
+                                    "Keep-Alive: timeout=5, max=10000\r\n" +
+                                    "\r\n" +
+                                    JSON_DDL_RESPONSE;
+
+                            // all three requests are sent in one go, server must
+                            // respond to each of them in order without disconnecting
+                            sendAndReceive(
+                                    NetworkFacadeImpl.INSTANCE,
+                                    createRequest + insertRequest + insertRequest,
+                                    ddlResponse + ddlResponse + ddlResponse,
+                                    1,
+                                    0,
+                                    false
+                            );
+
+                            try (TableReader reader = engine.getReader(AllowAllCairoSecurityContext.INSTANCE, "xx")) {
+                                Assert.assertEquals(2, reader.size());
+                            }
+                            // second and third requests were read ahead of their turn
+                            Assert.assertEquals(2, pipelineMetrics.httpConnection().pipelinedRequestCount());
+                            Assert.assertEquals(0, pipelineMetrics.httpConnection().getQueueDepth());
+                });
+    }
+
     @Test
     public void testJsonQueryCreateInsertNull() throws Exception {
         testJsonQuery0(1, engine -> {
@@ -3337,6 +3385,57 @@ public class IODispatcherTest {
         );
     }
 
+    @Test
+    public void testJsonQueryMiddleLimitNoMetaColumnar() throws Exception {
+        testJsonQuery(
+                20,
+                "GET /query?query=x&limit=10,14&nm=true&cols=a,c,h&fmt=columns HTTP/1.1\r\n" +
+                        "Host: localhost:9001\r\n" +
+                        "Connection: keep-alive\r\n" +
+                        "Cache-Control: max-age=0\r\n" +
+                        "Upgrade-Insecure-Requests: 1\r\n" +
+                        "User-Agent: Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/74.0.3729.169 Safari/537.36\r\n" +
+                        "Accept: text/html,application/xhtml+xml,application/xml;q=0.9,image/webp,image/apng,*/*;q=0.8,application/signed-exchange;v=b3\r\n" +
+                        "Accept-Encoding: gzip, deflate, br\r\n" +
+                        "Accept-Language: en-GB,en-US;q=0.9,en;q=0.8\r\n" +
+                        "\r\n",
+                "HTTP/1.1 200 OK\r\n" +
+                        "Server: questDB/1.0\r\n" +
+                        "Date: Thu, 1 Jan 1970 00:00:00 GMT\r\n" +
+                        "Transfer-Encoding: chunked\r\n" +
+                        "Content-Type: application/json; charset=utf-8\r\n" +
+                        "Keep-Alive: timeout=5, max=10000\r\n" +
+                        "\r\n" +
+                        "c5\r\n" +
+                        "{\"dataset\":[[37,109,-44,17,-104],[null,-485549586,-1604266757,-861621212,1772084256],[0.8001632261203552,0.18586435581637295,0.11591855759299885,0.11296257318851766,0.5764439692141042]],\"count\":14}\r\n" +
+                        "00\r\n" +
+                        "\r\n"
+        );
+    }
+
+    @Test
+    public void testJsonQueryColumnarNoRandomAccess() throws Exception {
+        testJsonQuery(
+                20,
+                "GET /query?query=x+union+all+x&fmt=columns HTTP/1.1\r\n" +
+                        "Host: localhost:9001\r\n" +
+                        "Connection: keep-alive\r\n" +
+                        "Accept: */*\r\n" +
+                        "\r\n",
+                "HTTP/1.1 400 Bad request\r\n" +
+                        "Server: questDB/1.0\r\n" +
+                        "Date: Thu, 1 Jan 1970 00:00:00 GMT\r\n" +
+                        "Transfer-Encoding: chunked\r\n" +
+                        "Content-Type: application/json; charset=utf-8\r\n" +
+                        "\r\n" +
+                        "4f\r\n" +
+                        "{\"query\":\"x union all x\",\"error\":\"fmt=columns is not supported for this query\"}\r\n" +
+                        "00\r\n" +
+                        "\r\n",
+                20
+        );
+    }
+
     @Test
     public void testJsonQueryMultiThreaded() throws Exception {
         final int threadCount = 4;
@@ -37,6 +37,8 @@ import io.questdb.mp.WorkerPoolConfiguration;
 import io.questdb.network.DefaultIODispatcherConfiguration;
 import io.questdb.network.IODispatcherConfiguration;
 import io.questdb.network.Net;
+import io.questdb.network.NetworkFacade;
+import io.questdb.network.NetworkFacadeImpl;
 import io.questdb.std.*;
 import io.questdb.std.datetime.microtime.MicrosecondClock;
 import io.questdb.std.str.Path;
@@ -90,7 +92,13 @@ class AbstractLineTcpReceiverTest extends AbstractCairoTest {
         public int getBindPort() {
             return bindPort;
         }
+
+        @Override
+        public NetworkFacade getNetworkFacade() {
+            return nf;
+        }
     };
+    protected NetworkFacade nf = NetworkFacadeImpl.INSTANCE;
     protected int maxMeasurementSize = 256;
     protected String authKeyId = null;
     protected int msgBufferSize = 256 * 1024;
@@ -112,6 +120,11 @@ class AbstractLineTcpReceiverTest extends AbstractCairoTest {
             return msgBufferSize;
         }
 
+        @Override
+        public NetworkFacade getNetworkFacade() {
+            return nf;
+        }
+
         @Override
         public int getMaxMeasurementSize() {
             return maxMeasurementSize;
@@ -330,6 +330,11 @@ abstract class BaseLineTcpContextTest extends AbstractCairoTest {
                 return disconnected ? 0 : 1;
             }
 
+            @Override
+            public long getQueueDepth() {
+                return 0;
+            }
+
             @Override
             public boolean processIOQueue(IORequestProcessor<LineTcpConnectionContext> processor) {
                 return false;
@@ -0,0 +1,82 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2022 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.cutlass.line.tcp;
+
+import io.questdb.cairo.TableReader;
+import io.questdb.cairo.security.AllowAllCairoSecurityContext;
+import io.questdb.cairo.sql.Record;
+import io.questdb.cairo.sql.RecordCursor;
+import io.questdb.cutlass.http.HttpTlsTest;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.net.ssl.SSLSocket;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+public class LineTcpTlsTest extends AbstractLineTcpReceiverTest {
+
+    @Before
+    public void setUp() {
+        nf = HttpTlsTest.newTlsNetworkFacade();
+        // smaller than a TLS record, every record is staged in the session before it is copied out
+        msgBufferSize = 4096;
+    }
+
+    @Test
+    public void testLargeBatch() throws Exception {
+        runInContext(receiver -> {
+            send(receiver, "tls_ilp", WAIT_ENGINE_TABLE_RELEASE, () -> {
+                final StringBuilder lines = new StringBuilder();
+                for (int i = 0; i < 10_000; i++) {
+                    lines.append("tls_ilp,sym=s").append(i % 10).append(" v=").append(i).append("i ").append(i * 1000L).append('\n');
+                }
+                try (SSLSocket socket = (SSLSocket) HttpTlsTest.newClientContext().getSocketFactory().createSocket("127.0.0.1", bindPort)) {
+                    final OutputStream out = socket.getOutputStream();
+                    out.write(lines.toString().getBytes(StandardCharsets.UTF_8));
+                    out.flush();
+                } catch (Exception e) {
+                    throw new RuntimeException(e);
+                }
+            });
+
+            try (TableReader reader = engine.getReader(AllowAllCairoSecurityContext.INSTANCE, "tls_ilp")) {
+                final RecordCursor cursor = reader.getCursor();
+                final Record record = cursor.getRecord();
+                final int v = reader.getMetadata().getColumnIndex("v");
+                long count = 0;
+                long sum = 0;
+                while (cursor.hasNext()) {
+                    count++;
+                    sum += record.getLong(v);
+                }
+                Assert.assertEquals(10_000, count);
+                Assert.assertEquals(49_995_000, sum);
+            }
+        });
+    }
+}
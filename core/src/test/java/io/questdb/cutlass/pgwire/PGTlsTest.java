@@ -0,0 +1,157 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2022 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.cutlass.pgwire;
+
+import io.questdb.cutlass.http.HttpTlsTest;
+import io.questdb.network.DefaultIODispatcherConfiguration;
+import io.questdb.network.IODispatcherConfiguration;
+import io.questdb.network.NetworkFacade;
+import io.questdb.std.Chars;
+import org.junit.Assert;
+import org.junit.Test;
+
+import javax.net.SocketFactory;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.sql.*;
+import java.util.Properties;
+
+import static io.questdb.test.tools.TestUtils.assertMemoryLeak;
+
+public class PGTlsTest extends BasePGTest {
+
+    @Test
+    public void testLargeMessages() throws Exception {
+        final NetworkFacade nf = HttpTlsTest.newTlsNetworkFacade();
+        final IODispatcherConfiguration dispatcherConfiguration = new DefaultIODispatcherConfiguration() {
+            @Override
+            public int getBindPort() {
+                return 8812;
+            }
+
+            @Override
+            public NetworkFacade getNetworkFacade() {
+                return nf;
+            }
+        };
+        final PGWireConfiguration configuration = new DefaultPGWireConfiguration() {
+            @Override
+            public IODispatcherConfiguration getDispatcherConfiguration() {
+                return dispatcherConfiguration;
+            }
+
+            @Override
+            public NetworkFacade getNetworkFacade() {
+                return nf;
+            }
+
+            @Override
+            public int getRecvBufferSize() {
+                // smaller than a TLS record, every record is staged in the session before it is copied out
+                return 8 * 1024;
+            }
+        };
+
+        assertMemoryLeak(() -> {
+            try (
+                    final PGWireServer ignored = createPGServer(configuration);
+                    final Connection connection = getTlsConnection()
+            ) {
+                final String value = Chars.repeat("a", 6_000).toString();
+                try (PreparedStatement statement = connection.prepareStatement("select length(?) len")) {
+                    statement.setString(1, value);
+                    try (ResultSet rs = statement.executeQuery()) {
+                        Assert.assertTrue(rs.next());
+                        Assert.assertEquals(value.length(), rs.getInt(1));
+                    }
+                }
+
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("create table x (a int, s string)");
+                }
+                connection.setAutoCommit(false);
+                try (PreparedStatement insert = connection.prepareStatement("insert into x values (?, ?)")) {
+                    for (int i = 0; i < 10_000; i++) {
+                        insert.setInt(1, i);
+                        insert.setString(2, "value" + i);
+                        insert.addBatch();
+                    }
+                    insert.executeBatch();
+                }
+                connection.commit();
+
+                try (
+                        Statement statement = connection.createStatement();
+                        ResultSet rs = statement.executeQuery("select count(), sum(a) from x")
+                ) {
+                    Assert.assertTrue(rs.next());
+                    Assert.assertEquals(10_000, rs.getLong(1));
+                    Assert.assertEquals(49_995_000, rs.getLong(2));
+                }
+            }
+        });
+    }
+
+    private static Connection getTlsConnection() throws SQLException {
+        final Properties properties = new Properties();
+        properties.setProperty("user", "admin");
+        properties.setProperty("password", "quest");
+        // the server expects TLS from the first byte, the driver must not negotiate it with SSLRequest
+        properties.setProperty("sslmode", "disable");
+        properties.setProperty("socketFactory", TlsSocketFactory.class.getName());
+        return DriverManager.getConnection("jdbc:postgresql://127.0.0.1:8812/qdb", properties);
+    }
+
+    public static class TlsSocketFactory extends SocketFactory {
+        private final SocketFactory delegate = HttpTlsTest.newClientContext().getSocketFactory();
+
+        @Override
+        public Socket createSocket() throws IOException {
+            return delegate.createSocket();
+        }
+
+        @Override
+        public Socket createSocket(String host, int port) throws IOException {
+            return delegate.createSocket(host, port);
+        }
+
+        @Override
+        public Socket createSocket(String host, int port, InetAddress localHost, int localPort) throws IOException {
+            return delegate.createSocket(host, port, localHost, localPort);
+        }
+
+        @Override
+        public Socket createSocket(InetAddress host, int port) throws IOException {
+            return delegate.createSocket(host, port);
+        }
+
+        @Override
+        public Socket createSocket(InetAddress address, int port, InetAddress localAddress, int localPort) throws IOException {
+            return delegate.createSocket(address, port, localAddress, localPort);
+        }
+    }
+}
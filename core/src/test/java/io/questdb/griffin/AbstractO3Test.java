@@ -55,6 +55,8 @@ public class AbstractO3Test {
     public static TemporaryFolder temp = new TemporaryFolder();
     protected static CharSequence root;
     protected static int dataAppendPageSize = -1;
+    protected static long o3CopySplitSize = -1;
+    protected static long dataAppendStagingPageSize = -1;
 
     @BeforeClass
     public static void setupStatic() {
@@ -78,6 +80,8 @@ public class AbstractO3Test {
     public void tearDown() {
         TestUtils.removeTestPath(root);
         dataAppendPageSize = -1;
+        o3CopySplitSize = -1;
+        dataAppendStagingPageSize = -1;
     }
 
     protected static void assertIndexConsistency(
@@ -264,6 +268,11 @@ public class AbstractO3Test {
                         return dataAppendPageSize > 0 ? dataAppendPageSize : super.getDataAppendPageSize();
                     }
 
+                    @Override
+                    public long getDataAppendStagingPageSize() {
+                        return dataAppendStagingPageSize > 0 ? dataAppendStagingPageSize : super.getDataAppendStagingPageSize();
+                    }
+
                     @Override
                     public FilesFacade getFilesFacade() {
                         return ff;
@@ -273,6 +282,11 @@ public class AbstractO3Test {
                     public int getO3ColumnMemorySize() {
                         return dataAppendPageSize > 0 ? dataAppendPageSize : super.getO3ColumnMemorySize();
                     }
+
+                    @Override
+                    public long getO3CopySplitSize() {
+                        return o3CopySplitSize > 0 ? o3CopySplitSize : super.getO3CopySplitSize();
+                    }
                 };
 
                 execute(pool, runnable, configuration);
@@ -284,6 +298,11 @@ public class AbstractO3Test {
                         return dataAppendPageSize > 0 ? dataAppendPageSize : super.getDataAppendPageSize();
                     }
 
+                    @Override
+                    public long getDataAppendStagingPageSize() {
+                        return dataAppendStagingPageSize > 0 ? dataAppendStagingPageSize : super.getDataAppendStagingPageSize();
+                    }
+
                     @Override
                     public FilesFacade getFilesFacade() {
                         return ff;
@@ -299,6 +318,11 @@ public class AbstractO3Test {
                         return dataAppendPageSize > 0 ? dataAppendPageSize : super.getO3ColumnMemorySize();
                     }
 
+                    @Override
+                    public long getO3CopySplitSize() {
+                        return o3CopySplitSize > 0 ? o3CopySplitSize : super.getO3CopySplitSize();
+                    }
+
                     @Override
                     public int getO3CopyQueueCapacity() {
                         return 0;
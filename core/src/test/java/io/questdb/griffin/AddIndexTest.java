@@ -30,6 +30,28 @@ import org.junit.Test;
 
 public class AddIndexTest extends AbstractGriffinTest {
 
+    @Test
+    public void testAddIndexManyPartitions() throws Exception {
+        assertMemoryLeak(() -> {
+            // more partitions than indexer queue capacity, index is built in several batches
+            compiler.compile(
+                    "create table trades as (\n" +
+                            "    select \n" +
+                            "        rnd_symbol('ABB', 'HBC', 'DXR') sym, \n" +
+                            "        rnd_double() price, \n" +
+                            "        timestamp_sequence(172800000000, 3600000000) ts \n" +
+                            "    from long_sequence(5000)\n" +
+                            ") timestamp(ts) partition by DAY",
+                    sqlExecutionContext
+            );
+            compiler.compile("create table trades_copy as (select * from trades)", sqlExecutionContext);
+            compile("alter table trades alter column sym add index", sqlExecutionContext);
+
+            TestUtils.assertSqlCursors(compiler, sqlExecutionContext, "trades_copy where sym = 'ABB'", "trades where sym = 'ABB'", LOG);
+            TestUtils.assertSqlCursors(compiler, sqlExecutionContext, "trades_copy where sym = 'DXR'", "trades where sym = 'DXR'", LOG);
+        });
+    }
+
     @Test
     public void testAddIndexToIndexedColumn() throws Exception {
         assertMemoryLeak(() -> {
@@ -0,0 +1,242 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2022 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.griffin;
+
+import io.questdb.cairo.*;
+import io.questdb.cairo.security.AllowAllCairoSecurityContext;
+import io.questdb.std.Files;
+import io.questdb.std.str.Path;
+import io.questdb.std.datetime.microtime.Timestamps;
+import io.questdb.test.tools.TestUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class AlterTableSetTierTest extends AbstractGriffinTest {
+
+    @Test
+    public void testMovePartitionsToColdTier() throws Exception {
+        assertMemoryLeak(() -> {
+            coldTierRoot = temp.newFolder().getAbsolutePath();
+            createX();
+            compile("alter table x set tier 'cold' after 1d");
+
+            try (PartitionTierJob job = new PartitionTierJob(engine)) {
+                Assert.assertTrue(job.run(0));
+            }
+
+            assertX(72, 2628);
+            assertColdPartitions(true, true, false);
+            final int tableId;
+            try (TableReader reader = engine.getReader(AllowAllCairoSecurityContext.INSTANCE, "x")) {
+                tableId = reader.getMetadata().getId();
+                final TxReader txFile = reader.getTxFile();
+
+                try (Path path = new Path()) {
+                    path.of(root).concat("x").concat("1970-01-01");
+                    final int len = path.length();
+                    Assert.assertFalse(Files.exists(path.$()));
+                    TableUtils.txnPartition(path.trimTo(len), txFile.getPartitionNameTxn(0));
+                    Assert.assertTrue(Files.isSoftLink(path.$()));
+
+                    TableUtils.setColdTierTablePath(path.of(coldTierRoot), tableId).concat("1970-01-01");
+                    TableUtils.txnPartition(path, txFile.getPartitionNameTxn(0));
+                    Assert.assertTrue(Files.exists(path.$()));
+                }
+            }
+
+            // job does not copy partitions again
+            try (PartitionTierJob job = new PartitionTierJob(engine)) {
+                Assert.assertFalse(job.run(0));
+            }
+
+            // out of order insert rewrites partition on hot tier
+            executeInsert("insert into x values(73, '1970-01-01T00:30')");
+            assertX(73, 2701);
+            assertColdPartitions(false, true, false);
+
+            compile("drop table x");
+            try (Path path = new Path()) {
+                Assert.assertFalse(Files.exists(TableUtils.setColdTierTablePath(path.of(coldTierRoot), tableId).$()));
+            }
+        });
+    }
+
+    @Test
+    public void testMovePartitionsWriterBusy() throws Exception {
+        assertMemoryLeak(() -> {
+            coldTierRoot = temp.newFolder().getAbsolutePath();
+            createX();
+            compile("alter table x set tier 'cold' after 1d");
+
+            try (TableWriter writer = engine.getWriter(AllowAllCairoSecurityContext.INSTANCE, "x", "test")) {
+                try (PartitionTierJob job = new PartitionTierJob(engine)) {
+                    Assert.assertTrue(job.run(0));
+                }
+                assertColdPartitions(false, false, false);
+
+                // partition changes after it has been copied, move is discarded
+                TableWriter.Row row = writer.newRow(Timestamps.HOUR_MICROS / 2);
+                row.putLong(0, 73);
+                row.append();
+                writer.commit();
+
+                writer.tick();
+                assertColdPartitions(false, true, false);
+
+                try (Path path = new Path()) {
+                    TableUtils.setColdTierTablePath(path.of(coldTierRoot), writer.getMetadata().getId()).concat("1970-01-01").put(TableUtils.COLD_TIER_COPY_MARKER);
+                    Assert.assertFalse(Files.exists(path.$()));
+                }
+            }
+            assertX(73, 2701);
+        });
+    }
+
+    @Test
+    public void testMovePartitionsWriterBusyAppend() throws Exception {
+        assertMemoryLeak(() -> {
+            coldTierRoot = temp.newFolder().getAbsolutePath();
+            createX();
+            compile("alter table x set tier 'cold' after 1d");
+
+            try (TableWriter writer = engine.getWriter(AllowAllCairoSecurityContext.INSTANCE, "x", "test")) {
+                final long nameTxn;
+                try (TableReader reader = engine.getReader(AllowAllCairoSecurityContext.INSTANCE, "x")) {
+                    nameTxn = reader.getTxFile().getPartitionNameTxn(0);
+                }
+
+                try (PartitionTierJob job = new PartitionTierJob(engine)) {
+                    Assert.assertTrue(job.run(0));
+                }
+
+                // rows after the last row of the partition are appended to it in place, name txn stays the same
+                TableWriter.Row row = writer.newRow(Timestamps.DAY_MICROS - Timestamps.HOUR_MICROS / 2);
+                row.putLong(0, 73);
+                row.append();
+                writer.commit();
+
+                writer.tick();
+                assertColdPartitions(false, true, false);
+                try (TableReader reader = engine.getReader(AllowAllCairoSecurityContext.INSTANCE, "x")) {
+                    Assert.assertEquals(nameTxn, reader.getTxFile().getPartitionNameTxn(0));
+                }
+            }
+            assertX(73, 2701);
+
+            // partition is moved with the appended row on the next check
+            try (PartitionTierJob job = new PartitionTierJob(engine)) {
+                Assert.assertTrue(job.run(0));
+            }
+            assertColdPartitions(true, true, false);
+            assertX(73, 2701);
+        });
+    }
+
+    @Test
+    public void testSetTier() throws Exception {
+        assertMemoryLeak(() -> {
+            coldTierRoot = temp.newFolder().getAbsolutePath();
+            createX();
+            compile("alter table x set tier 'cold' after 30d");
+            try (TableReader reader = engine.getReader(AllowAllCairoSecurityContext.INSTANCE, "x")) {
+                Assert.assertEquals(30 * Timestamps.DAY_MICROS, reader.getMetadata().getColdTierAfter());
+
+                // setting survives other metadata changes
+                compile("alter table x add column s symbol");
+                reader.reload();
+                Assert.assertEquals(30 * Timestamps.DAY_MICROS, reader.getMetadata().getColdTierAfter());
+
+                compile("alter table x set tier hot");
+                reader.reload();
+                Assert.assertEquals(0, reader.getMetadata().getColdTierAfter());
+            }
+        });
+    }
+
+    @Test
+    public void testSetTierColdDisabled() throws Exception {
+        assertFailure(
+                "alter table x set tier 'cold' after 30d",
+                "create table x (ts timestamp) timestamp(ts) partition by DAY",
+                23,
+                "cold storage tier is disabled"
+        );
+    }
+
+    @Test
+    public void testSetTierInvalidInterval() throws Exception {
+        coldTierRoot = temp.newFolder().getAbsolutePath();
+        assertFailure(
+                "alter table x set tier 'cold' after 30",
+                "create table x (ts timestamp) timestamp(ts) partition by DAY",
+                38,
+                "expected interval qualifier"
+        );
+    }
+
+    @Test
+    public void testSetTierMissingAfter() throws Exception {
+        coldTierRoot = temp.newFolder().getAbsolutePath();
+        assertFailure(
+                "alter table x set tier 'cold' before 30d",
+                "create table x (ts timestamp) timestamp(ts) partition by DAY",
+                30,
+                "'after' expected"
+        );
+    }
+
+    @Test
+    public void testSetTierUnknown() throws Exception {
+        assertFailure(
+                "alter table x set tier 'warm'",
+                "create table x (ts timestamp) timestamp(ts) partition by DAY",
+                23,
+                "'hot' or 'cold' expected"
+        );
+    }
+
+    private void assertColdPartitions(boolean... expected) {
+        try (TableReader reader = engine.getReader(AllowAllCairoSecurityContext.INSTANCE, "x")) {
+            Assert.assertEquals(expected.length, reader.getPartitionCount());
+            for (int i = 0; i < expected.length; i++) {
+                Assert.assertEquals(expected[i], reader.getTxFile().isPartitionCold(i));
+            }
+        }
+    }
+
+    private void assertX(long count, long sum) throws SqlException {
+        TestUtils.assertSql(
+                compiler,
+                sqlExecutionContext,
+                "select count(), sum(x) from x",
+                sink,
+                "count\tsum\n" + count + "\t" + sum + "\n"
+        );
+    }
+
+    private void createX() throws SqlException {
+        compile("create table x as (select x, timestamp_sequence(0, 3600000000) ts from long_sequence(72)) timestamp(ts) partition by DAY");
+    }
+}
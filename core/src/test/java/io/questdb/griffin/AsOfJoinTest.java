@@ -24,10 +24,39 @@
 
 package io.questdb.griffin;
 
+import io.questdb.test.tools.TestUtils;
 import org.junit.Test;
 
 public class AsOfJoinTest extends AbstractGriffinTest {
 
+    @Test
+    public void testAsOfJoinSeekKeyedOnString() throws Exception {
+        // filter on slave makes the join fall back to scanning slave rows
+        assertAsOfJoinSeek(
+                "select x.i, x.s, y.j, y.s, y.ts from x asof join y on (s)",
+                "select x.i, x.s, y.j, y.s, y.ts from x asof join (y where j > 0) y on (s)",
+                "rnd_str('a', 'b', 'z', null) s"
+        );
+    }
+
+    @Test
+    public void testAsOfJoinSeekKeyedOnSymbol() throws Exception {
+        assertAsOfJoinSeek(
+                "select x.i, x.s, y.j, y.s, y.ts from x asof join y on (s)",
+                "select x.i, x.s, y.j, y.s, y.ts from x asof join (y where j > 0) y on (s)",
+                "rnd_symbol('a', 'b', 'c', 'z', null) s"
+        );
+    }
+
+    @Test
+    public void testAsOfJoinSeekNoKey() throws Exception {
+        assertAsOfJoinSeek(
+                "select x.i, y.j, y.s, y.ts from x asof join y",
+                "select x.i, y.j, y.s, y.ts from x asof join (y where j > 0) y",
+                "rnd_symbol('a', 'b') s"
+        );
+    }
+
     @Test
     public void testAsOfJoinForSelectWithoutTimestampAndWithWhereStatementAsOuter() throws Exception {
         final String expected = "hi\tlo\n" +
@@ -661,5 +690,26 @@ public class AsOfJoinTest extends AbstractGriffinTest {
         });
     }
 
+    private void assertAsOfJoinSeek(String query, String scanQuery, String masterKeyColumn) throws Exception {
+        assertMemoryLeak(() -> {
+            // slave spans several partitions, has duplicate timestamps and starts after the first master rows
+            compiler.compile(
+                    "create table y as (" +
+                            "select cast(x as int) j," +
+                            " rnd_symbol('a', 'b', 'c', null) s," +
+                            " cast(3000000 + (x / 2) * 1500000 as timestamp) ts" +
+                            " from long_sequence(10000)" +
+                            "), index(s) timestamp(ts) partition by HOUR",
+                    sqlExecutionContext
+            );
+            compiler.compile(
+                    "create table x as (" +
+                            "select cast(x as int) i, " + masterKeyColumn + ", timestamp_sequence(0, 6000000) ts" +
+                            " from long_sequence(2000)" +
+                            ") timestamp(ts) partition by HOUR",
+                    sqlExecutionContext
+            );
+            TestUtils.assertSqlCursors(compiler, sqlExecutionContext, scanQuery, query, LOG);
+        });
+    }
 }
-
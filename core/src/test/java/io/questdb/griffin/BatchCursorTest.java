@@ -0,0 +1,337 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2022 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.griffin;
+
+import io.questdb.cairo.ColumnType;
+import io.questdb.cairo.sql.*;
+import io.questdb.cairo.sql.Record;
+import io.questdb.griffin.engine.functions.BooleanFunction;
+import io.questdb.griffin.engine.functions.DoubleFunction;
+import io.questdb.griffin.engine.functions.UnaryFunction;
+import io.questdb.griffin.engine.table.FilteredRecordCursorFactory;
+import io.questdb.griffin.engine.table.VirtualPageFrameCursor;
+import io.questdb.griffin.engine.table.VirtualPageFrameRecordCursorFactory;
+import io.questdb.griffin.model.QueryModel;
+import io.questdb.std.LongList;
+import io.questdb.std.Numbers;
+import io.questdb.std.ObjList;
+import io.questdb.std.Unsafe;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class BatchCursorTest extends AbstractGriffinTest {
+    private static final int ROW_COUNT = 15000;
+
+    @Test
+    public void testDoubleExpression() throws Exception {
+        assertBatchSameAsRows("d * 2.5 - l / 3.0 + i", "i > 10");
+    }
+
+    @Test
+    public void testFilterUsesBatches() throws Exception {
+        assertMemoryLeak(() -> {
+            createTable();
+            final FunctionParser functionParser = new FunctionParser(configuration, compiler.getFunctionFactoryCache());
+            final QueryModel model = QueryModel.FACTORY.newInstance();
+            final RecordCursorFactory base = compiler.compile("x", sqlExecutionContext).getRecordCursorFactory();
+            final int columnIndex = base.getMetadata().getColumnIndex("l");
+            final CountingFilter filter;
+            try {
+                filter = new CountingFilter(functionParser.parseFunction(compiler.testParseExpression("i > 10 and k < 3", model), base.getMetadata(), sqlExecutionContext));
+            } catch (Throwable e) {
+                base.close();
+                throw e;
+            }
+
+            final LongList expected = new LongList();
+            try (RecordCursor cursor = base.getCursor(sqlExecutionContext)) {
+                final Record record = cursor.getRecord();
+                while (cursor.hasNext()) {
+                    if (filter.getBool(record)) {
+                        expected.add(record.getLong(columnIndex));
+                    }
+                }
+            }
+            Assert.assertTrue(expected.size() > 0);
+
+            try (RecordCursorFactory factory = new FilteredRecordCursorFactory(base, filter)) {
+                final LongList rowIds = new LongList();
+                try (RecordCursor cursor = factory.getCursor(sqlExecutionContext)) {
+                    final Record record = cursor.getRecord();
+                    for (int pass = 0; pass < 2; pass++) {
+                        filter.batchCount = 0;
+                        filter.rowCount = 0;
+                        rowIds.clear();
+                        int i = 0;
+                        while (cursor.hasNext()) {
+                            Assert.assertEquals(expected.getQuick(i++), record.getLong(columnIndex));
+                            rowIds.add(record.getRowId());
+                        }
+                        Assert.assertEquals(expected.size(), i);
+                        // filter is applied to batches rather than rows
+                        Assert.assertTrue(filter.batchCount > 0);
+                        Assert.assertEquals(0, filter.rowCount);
+                        cursor.toTop();
+                    }
+
+                    final Record recordB = cursor.getRecordB();
+                    for (int i = rowIds.size() - 1; i > -1; i--) {
+                        cursor.recordAt(recordB, rowIds.getQuick(i));
+                        Assert.assertEquals(expected.getQuick(i), recordB.getLong(columnIndex));
+                    }
+                }
+            }
+        });
+    }
+
+    @Test
+    public void testLongExpression() throws Exception {
+        assertBatchSameAsRows("l * 3 - i + k", "l < 0");
+    }
+
+    @Test
+    public void testUnsupported() throws Exception {
+        assertMemoryLeak(() -> {
+            compiler.compile("create table x as (select rnd_int() i from long_sequence(10))", sqlExecutionContext);
+            try (RecordCursorFactory factory = compiler.compile("select i from x order by i", sqlExecutionContext).getRecordCursorFactory()) {
+                Assert.assertFalse(factory.supportBatchCursor());
+                Assert.assertNull(factory.getBatchCursor(sqlExecutionContext));
+            }
+        });
+    }
+
+    @Test
+    public void testVirtualPageFrameUsesBatches() throws Exception {
+        assertMemoryLeak(() -> {
+            createTable();
+            final FunctionParser functionParser = new FunctionParser(configuration, compiler.getFunctionFactoryCache());
+            final QueryModel model = QueryModel.FACTORY.newInstance();
+            final RecordCursorFactory base = compiler.compile("x", sqlExecutionContext).getRecordCursorFactory();
+            final RecordMetadata metadata = base.getMetadata();
+            final ObjList<Function> functions = new ObjList<>();
+            final CountingDoubleFunction function;
+            try {
+                function = new CountingDoubleFunction(functionParser.parseFunction(compiler.testParseExpression("d * 2.5 - k / 3.0 + i", model), metadata, sqlExecutionContext));
+                functions.add(function);
+            } catch (Throwable e) {
+                base.close();
+                throw e;
+            }
+
+            final double[] expected = new double[ROW_COUNT];
+            try (RecordCursor cursor = base.getCursor(sqlExecutionContext)) {
+                final Record record = cursor.getRecord();
+                int row = 0;
+                while (cursor.hasNext()) {
+                    final double value = function.getDouble(record);
+                    expected[row++] = Numbers.isFinite(value) ? value : Double.NaN;
+                }
+                Assert.assertEquals(ROW_COUNT, row);
+            }
+
+            final VirtualPageFrameCursor virtualCursor = new VirtualPageFrameCursor(configuration, 2);
+            for (int i = 0, n = metadata.getColumnCount(); i < n; i++) {
+                virtualCursor.addColumn(i);
+            }
+            virtualCursor.addFunction(function);
+            final int computedColumnIndex = metadata.getColumnCount();
+
+            try (RecordCursorFactory factory = new VirtualPageFrameRecordCursorFactory(base, functions, virtualCursor)) {
+                try (PageFrameCursor cursor = factory.getPageFrameCursor(sqlExecutionContext)) {
+                    Assert.assertEquals(2, cursor.getFrameMemoryWindow());
+                    int row = 0;
+                    int frameCount = 0;
+                    long prevAddress = 0;
+                    long prevRowCount = 0;
+                    PageFrame frame;
+                    while ((frame = cursor.next()) != null) {
+                        final long address = frame.getPageAddress(computedColumnIndex);
+                        final long rowCount = frame.getPartitionHi() - frame.getPartitionLo();
+                        Assert.assertEquals(rowCount << 3, frame.getPageSize(computedColumnIndex));
+                        for (long i = 0; i < rowCount; i++) {
+                            Assert.assertEquals(expected[row++], Unsafe.getUnsafe().getDouble(address + (i << 3)), 0.0000001);
+                        }
+                        // previous frame is within the window, its values are intact
+                        if (prevAddress != 0) {
+                            Assert.assertNotEquals(prevAddress, address);
+                            final long prevRowLo = row - rowCount - prevRowCount;
+                            for (long i = 0; i < prevRowCount; i++) {
+                                Assert.assertEquals(expected[(int) (prevRowLo + i)], Unsafe.getUnsafe().getDouble(prevAddress + (i << 3)), 0.0000001);
+                            }
+                        }
+                        prevAddress = address;
+                        prevRowCount = rowCount;
+                        frameCount++;
+                    }
+                    Assert.assertEquals(ROW_COUNT, row);
+                    Assert.assertTrue(frameCount > 2);
+                }
+                Assert.assertTrue(function.batchCount > 0);
+            }
+        });
+    }
+
+    private static void createTable() throws SqlException {
+        compiler.compile(
+                "create table x as (" +
+                        "select rnd_int(0, 100, 2) i, rnd_long(-1000, 1000, 2) l, rnd_double(2) d, timestamp_sequence(0, 100000000) ts" +
+                        " from long_sequence(10000)" +
+                        ") timestamp(ts) partition by DAY",
+                sqlExecutionContext
+        );
+        // column top in the earlier partitions
+        compile("alter table x add column k long");
+        compiler.compile(
+                "insert into x select rnd_int(0, 100, 2) i, rnd_long(-1000, 1000, 2) l, rnd_double(2) d," +
+                        " timestamp_sequence(1000000000000, 100000000) ts, rnd_long(-5, 5, 2) k" +
+                        " from long_sequence(5000)",
+                sqlExecutionContext
+        );
+    }
+
+    private static void assertBatchSameAsRows(String expression, String filterExpression) throws Exception {
+        assertMemoryLeak(() -> {
+            createTable();
+
+            final FunctionParser functionParser = new FunctionParser(configuration, compiler.getFunctionFactoryCache());
+            final QueryModel model = QueryModel.FACTORY.newInstance();
+            try (RecordCursorFactory factory = compiler.compile("x", sqlExecutionContext).getRecordCursorFactory()) {
+                Assert.assertTrue(factory.supportBatchCursor());
+                final RecordMetadata metadata = factory.getMetadata();
+                try (
+                        Function function = functionParser.parseFunction(compiler.testParseExpression(expression, model), metadata, sqlExecutionContext);
+                        Function filter = functionParser.parseFunction(compiler.testParseExpression(filterExpression, model), metadata, sqlExecutionContext)
+                ) {
+                    final boolean isDouble = function.getType() == ColumnType.DOUBLE;
+                    final int expectedRowCount = ROW_COUNT;
+                    final boolean[] expectedSelection = new boolean[expectedRowCount];
+                    final double[] expectedDoubles = new double[expectedRowCount];
+                    final long[] expectedLongs = new long[expectedRowCount];
+                    try (RecordCursor cursor = factory.getCursor(sqlExecutionContext)) {
+                        final Record record = cursor.getRecord();
+                        int row = 0;
+                        while (cursor.hasNext()) {
+                            expectedSelection[row] = filter.getBool(record);
+                            if (isDouble) {
+                                expectedDoubles[row] = function.getDouble(record);
+                            } else {
+                                expectedLongs[row] = function.getLong(record);
+                            }
+                            row++;
+                        }
+                        Assert.assertEquals(expectedRowCount, row);
+                    }
+
+                    final double[] doubles = new double[RecordBatch.MAX_SIZE];
+                    final long[] longs = new long[RecordBatch.MAX_SIZE];
+                    try (BatchCursor batchCursor = factory.getBatchCursor(sqlExecutionContext)) {
+                        int batchLo = 0;
+                        RecordBatch batch;
+                        while ((batch = batchCursor.next()) != null) {
+                            final int rows = batch.getRowCount();
+                            Assert.assertTrue(rows <= RecordBatch.MAX_SIZE);
+                            Assert.assertTrue(batch.isDense());
+
+                            filter.filterBatch(batch);
+                            int selectedCount = 0;
+                            for (int i = 0; i < rows; i++) {
+                                if (expectedSelection[batchLo + i]) {
+                                    Assert.assertEquals(i, batch.getSelection()[selectedCount++]);
+                                }
+                            }
+                            Assert.assertEquals(selectedCount, batch.getSelectedCount());
+
+                            if (isDouble) {
+                                function.getDoubleBatch(batch, doubles);
+                                for (int i = 0; i < selectedCount; i++) {
+                                    Assert.assertEquals(expectedDoubles[batchLo + batch.getSelection()[i]], doubles[i], 0.0000001);
+                                }
+                            } else {
+                                function.getLongBatch(batch, longs);
+                                for (int i = 0; i < selectedCount; i++) {
+                                    Assert.assertEquals(expectedLongs[batchLo + batch.getSelection()[i]], longs[i]);
+                                }
+                            }
+                            batchLo += rows;
+                        }
+                        Assert.assertEquals(expectedRowCount, batchLo);
+                    }
+                }
+            }
+        });
+    }
+
+    private static class CountingDoubleFunction extends DoubleFunction implements UnaryFunction {
+        private final Function arg;
+        private int batchCount;
+
+        private CountingDoubleFunction(Function arg) {
+            this.arg = arg;
+        }
+
+        @Override
+        public Function getArg() {
+            return arg;
+        }
+
+        @Override
+        public double getDouble(Record rec) {
+            return arg.getDouble(rec);
+        }
+
+        @Override
+        public void getDoubleBatch(RecordBatch batch, double[] values) {
+            batchCount++;
+            arg.getDoubleBatch(batch, values);
+        }
+    }
+
+    private static class CountingFilter extends BooleanFunction implements UnaryFunction {
+        private final Function arg;
+        private int batchCount;
+        private int rowCount;
+
+        private CountingFilter(Function arg) {
+            this.arg = arg;
+        }
+
+        @Override
+        public int filterBatch(RecordBatch batch) {
+            batchCount++;
+            return arg.filterBatch(batch);
+        }
+
+        @Override
+        public Function getArg() {
+            return arg;
+        }
+
+        @Override
+        public boolean getBool(Record rec) {
+            rowCount++;
+            return arg.getBool(rec);
+        }
+    }
+}
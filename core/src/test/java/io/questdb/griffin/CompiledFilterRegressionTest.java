@@ -376,6 +376,74 @@ public class CompiledFilterRegressionTest extends AbstractGriffinTest {
         assertQueryNullable(query, ddl);
     }
 
+    @Test
+    public void testSymbolInList() throws Exception {
+        final String query = "select price, sym from x where sym in ('HBC', 'DXR', 'XYZ') or not sym in ('ABB', 'HBC')";
+        final String ddl = "create table x as " +
+                "(select rnd_symbol('ABB','HBC','DXR') sym, \n" +
+                " rnd_double() price, \n" +
+                " timestamp_sequence(172800000000, 360000000) ts \n" +
+                "from long_sequence(" + N_SIMD_WITH_SCALAR_TAIL + ")) timestamp (ts)";
+        assertQueryNotNull(query, ddl);
+    }
+
+    @Test
+    public void testSymbolInListNull() throws Exception {
+        final String query = "select * from x where sym in (null, 'XYZ')";
+        final String ddl = "create table x as " +
+                "(select timestamp_sequence(400000000000, 500000000) as k," +
+                " rnd_symbol(10,1,3,5) sym" +
+                " from long_sequence(" + N_SIMD_WITH_SCALAR_TAIL + ")) timestamp(k)";
+        assertQueryNullable(query, ddl);
+    }
+
+    @Test
+    public void testCharInList() throws Exception {
+        final String query = "select * from x where ch in ('A', 'C', 'X') and not ch in ('B', 'Y')";
+        final String ddl = "create table x as " +
+                "(select timestamp_sequence(400000000000, 500000000) as k," +
+                " rnd_char() ch" +
+                " from long_sequence(" + N_SIMD_WITH_SCALAR_TAIL + ")) timestamp(k)";
+        assertQueryNotNull(query, ddl);
+    }
+
+    @Test
+    public void testTimestampInList() throws Exception {
+        final String ddl = "create table x as " +
+                "(select timestamp_sequence(400000000000, 500000000) as k," +
+                " cast(x as long) i64," +
+                " rnd_timestamp(to_timestamp('2020', 'yyyy'), to_timestamp('2020-01-02', 'yyyy-MM-dd'), 5) t" +
+                " from long_sequence(" + N_SIMD_WITH_SCALAR_TAIL + ")) timestamp(k)";
+        FilterGenerator gen = new FilterGenerator()
+                .withOptionalNot()
+                .withAnyOf(
+                        "i64 in (1, 3, -5, 42)",
+                        "i64 in (null, 7)",
+                        "t in (null, '2020-01-01T12:00:00.000000Z')",
+                        "t in ('2020-01-01', '2020-01-02', 1577877000000000)"
+                );
+        assertGeneratedQueryNullable("select * from x", ddl, gen);
+    }
+
+    @Test
+    public void testTimestampBetween() throws Exception {
+        final String ddl = "create table x as " +
+                "(select timestamp_sequence(400000000000, 500000000) as k," +
+                " cast(x as long) i64," +
+                " rnd_timestamp(to_timestamp('2020', 'yyyy'), to_timestamp('2020-01-02', 'yyyy-MM-dd'), 5) t" +
+                " from long_sequence(" + N_SIMD_WITH_SCALAR_TAIL + ")) timestamp(k)";
+        FilterGenerator gen = new FilterGenerator()
+                .withOptionalNot()
+                .withAnyOf(
+                        "t between '2020-01-01T06' and '2020-01-01T18'",
+                        "t between '2020-01-01T18' and '2020-01-01T06'",
+                        "t between 1577858400000000 and 1577901600000000",
+                        "i64 between 100 and 0",
+                        "i64 between 10 and 500"
+                );
+        assertGeneratedQueryNullable("select * from x", ddl, gen);
+    }
+
     @Test
     public void testDate() throws Exception {
         final String query = "select * from x where d1 != d2";
@@ -31,6 +31,7 @@ import io.questdb.cairo.sql.Record;
 import io.questdb.cairo.sql.RecordCursor;
 import io.questdb.cairo.sql.RecordCursorFactory;
 import io.questdb.griffin.engine.functions.bind.BindVariableServiceImpl;
+import io.questdb.jit.CompiledFilterMetrics;
 import io.questdb.jit.JitUtil;
 import io.questdb.std.Numbers;
 import io.questdb.std.Rnd;
@@ -181,6 +182,31 @@ public class CompiledFilterTest extends AbstractGriffinTest {
         });
     }
 
+    @Test
+    public void testCoverageMetrics() throws Exception {
+        assertMemoryLeak(() -> {
+            compiler.compile("create table x as (select" +
+                    " rnd_symbol('A','B','C') sym," +
+                    " rnd_str('a','b') str," +
+                    " timestamp_sequence(400000000000, 500000000) ts" +
+                    " from long_sequence(5)) timestamp(ts)", sqlExecutionContext);
+
+            final CompiledFilterMetrics metrics = engine.getMetrics().compiledFilter();
+            final long compiledCount = metrics.compiledCount();
+            final long fallbackCount = metrics.fallbackCount();
+
+            try (RecordCursorFactory factory = compiler.compile("x where sym in ('A', 'C')", sqlExecutionContext).getRecordCursorFactory()) {
+                Assert.assertTrue(factory.usesCompiledFilter());
+            }
+            try (RecordCursorFactory factory = compiler.compile("x where str = 'a'", sqlExecutionContext).getRecordCursorFactory()) {
+                Assert.assertFalse(factory.usesCompiledFilter());
+            }
+
+            Assert.assertEquals(compiledCount + 1, metrics.compiledCount());
+            Assert.assertEquals(fallbackCount + 1, metrics.fallbackCount());
+        });
+    }
+
     @Test
     public void testDeferredSymbolConstants() throws Exception {
         assertMemoryLeak(() -> {
@@ -0,0 +1,141 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2022 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.griffin;
+
+import io.questdb.cairo.CairoConfiguration;
+import io.questdb.cairo.CairoEngine;
+import io.questdb.cairo.ColumnType;
+import io.questdb.cairo.DefaultCairoConfiguration;
+import io.questdb.cairo.sql.Function;
+import io.questdb.cairo.sql.RecordCursor;
+import io.questdb.cairo.sql.RecordCursorFactory;
+import io.questdb.griffin.engine.functions.CompiledFunction;
+import io.questdb.griffin.model.QueryModel;
+import io.questdb.test.tools.TestUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class FunctionTreeCompilerTest extends AbstractGriffinTest {
+
+    @Test
+    public void testCompiledClassIsReusedForSameShape() throws Exception {
+        assertMemoryLeak(() -> {
+            compiler.compile("create table x (i int, j int, l long, m long)", sqlExecutionContext);
+            final CairoConfiguration compilingConfiguration = newCompilingConfiguration();
+            try (
+                    CairoEngine compilingEngine = new CairoEngine(compilingConfiguration);
+                    SqlCompiler compilingCompiler = new SqlCompiler(compilingEngine)
+            ) {
+                final FunctionParser functionParser = new FunctionParser(compilingConfiguration, compilingCompiler.getFunctionFactoryCache());
+                final QueryModel model = QueryModel.FACTORY.newInstance();
+                try (RecordCursorFactory factory = compiler.compile("x", sqlExecutionContext).getRecordCursorFactory()) {
+                    try (Function f1 = functionParser.parseFunction(compilingCompiler.testParseExpression("i * l + 2", model), factory.getMetadata(), sqlExecutionContext)) {
+                        Assert.assertTrue(f1 instanceof CompiledFunction);
+                        Assert.assertEquals(ColumnType.LONG, f1.getType());
+                    }
+                    model.clear();
+                    try (Function f2 = functionParser.parseFunction(compilingCompiler.testParseExpression("j * m + 7", model), factory.getMetadata(), sqlExecutionContext)) {
+                        Assert.assertTrue(f2 instanceof CompiledFunction);
+                    }
+                    Assert.assertEquals(1, compilingCompiler.getFunctionFactoryCache().getCompiledFunctionClassCount());
+
+                    // single operation is left to the interpreted function
+                    model.clear();
+                    try (Function f3 = functionParser.parseFunction(compilingCompiler.testParseExpression("i + l", model), factory.getMetadata(), sqlExecutionContext)) {
+                        Assert.assertFalse(f3 instanceof CompiledFunction);
+                    }
+                    Assert.assertEquals(1, compilingCompiler.getFunctionFactoryCache().getCompiledFunctionClassCount());
+                }
+            }
+        });
+    }
+
+    @Test
+    public void testDoubleArithmetic() throws Exception {
+        assertCompiledSameAsInterpreted(
+                "create table x as (" +
+                        "select rnd_int(0, 100, 2) i, rnd_long(-50, 50, 2) l, rnd_double(2) d" +
+                        " from long_sequence(1000)" +
+                        ")",
+                "select d * 2.5 - i / 3.0, d / (l + 1) + d, (d - 1) * (i + 0.5) * l from x"
+        );
+    }
+
+    @Test
+    public void testLongArithmeticWithNulls() throws Exception {
+        assertCompiledSameAsInterpreted(
+                "create table x as (" +
+                        "select rnd_int(-10, 10, 2) i, rnd_long(-10, 10, 2) l, rnd_long(0, 3, 2) k" +
+                        " from long_sequence(1000)" +
+                        ")",
+                // includes division by zero and int to long conversion
+                "select i * l + k, l / k - i, (i - 1) * (k + 2) / (l - 3) from x"
+        );
+    }
+
+    @Test
+    public void testMixedFunctionsKeepInterpretedParent() throws Exception {
+        assertCompiledSameAsInterpreted(
+                "create table x as (" +
+                        "select rnd_int(-10, 10, 2) i, rnd_double(2) d" +
+                        " from long_sequence(100)" +
+                        ")",
+                "select abs(i * 2 - d), case when i * 3 + 1 > 0 then d * d + 1 else 0 end from x"
+        );
+    }
+
+    private static void assertCompiledSameAsInterpreted(String ddl, String query) throws Exception {
+        assertMemoryLeak(() -> {
+            compiler.compile(ddl, sqlExecutionContext);
+            try (
+                    CairoEngine compilingEngine = new CairoEngine(newCompilingConfiguration());
+                    SqlCompiler compilingCompiler = new SqlCompiler(compilingEngine);
+                    SqlExecutionContextImpl compilingContext = new SqlExecutionContextImpl(compilingEngine, 1)
+            ) {
+                try (
+                        RecordCursorFactory expectedFactory = compiler.compile(query, sqlExecutionContext).getRecordCursorFactory();
+                        RecordCursorFactory actualFactory = compilingCompiler.compile(query, compilingContext).getRecordCursorFactory()
+                ) {
+                    try (
+                            RecordCursor expectedCursor = expectedFactory.getCursor(sqlExecutionContext);
+                            RecordCursor actualCursor = actualFactory.getCursor(compilingContext)
+                    ) {
+                        TestUtils.assertEquals(expectedCursor, expectedFactory.getMetadata(), actualCursor, actualFactory.getMetadata());
+                    }
+                }
+                Assert.assertTrue(compilingCompiler.getFunctionFactoryCache().getCompiledFunctionClassCount() > 0);
+            }
+        });
+    }
+
+    private static CairoConfiguration newCompilingConfiguration() {
+        return new DefaultCairoConfiguration(root) {
+            @Override
+            public boolean isSqlFunctionCompilerEnabled() {
+                return true;
+            }
+        };
+    }
+}
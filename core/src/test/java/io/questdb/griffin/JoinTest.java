@@ -2087,6 +2087,38 @@ public class JoinTest extends AbstractGriffinTest {
         });
     }
 
+    @Test
+    public void testJoinInnerOnTimestampMerge() throws Exception {
+        assertMergeJoinSameAsHashJoin("select x.i, x.ts, y.j, y.ts from x join y on (ts)");
+    }
+
+    @Test
+    public void testJoinOuterOnTimestampMerge() throws Exception {
+        assertMergeJoinSameAsHashJoin("select x.i, x.ts, y.j, y.ts from x left join y on (ts)");
+    }
+
+    @Test
+    public void testJoinOuterOnTimestampMergeDuplicates() throws Exception {
+        assertMemoryLeak(() -> {
+            compiler.compile("create table x (i int, ts timestamp) timestamp(ts)", sqlExecutionContext);
+            compiler.compile("create table y (j int, ts timestamp) timestamp(ts)", sqlExecutionContext);
+            executeInsert("insert into x values (1, 1000), (2, 2000), (3, 2000), (4, 3000), (5, 5000)");
+            executeInsert("insert into y values (10, 0), (20, 2000), (30, 2000), (40, 4000), (50, 5000)");
+
+            assertSql(
+                    "select x.i, y.j, x.ts from x left join y on (ts)",
+                    "i\tj\tts\n" +
+                            "1\tNaN\t1970-01-01T00:00:00.001000Z\n" +
+                            "2\t20\t1970-01-01T00:00:00.002000Z\n" +
+                            "2\t30\t1970-01-01T00:00:00.002000Z\n" +
+                            "3\t20\t1970-01-01T00:00:00.002000Z\n" +
+                            "3\t30\t1970-01-01T00:00:00.002000Z\n" +
+                            "4\tNaN\t1970-01-01T00:00:00.003000Z\n" +
+                            "5\t50\t1970-01-01T00:00:00.005000Z\n"
+            );
+        });
+    }
+
     @Test
     public void testJoinInnerAllTypes() throws Exception {
         assertMemoryLeak(() -> {
@@ -3947,4 +3979,35 @@ public class JoinTest extends AbstractGriffinTest {
     private interface TestMethod {
         void run() throws Exception;
     }
-}
\ No newline at end of file
+
+    private void assertMergeJoinSameAsHashJoin(String query) throws Exception {
+        assertMemoryLeak(() -> {
+            // both sides have runs of equal timestamps and keys missing from the other side
+            compiler.compile(
+                    "create table x as (" +
+                            "select cast(x as int) i, cast((x / 3) * 1000000 as timestamp) ts" +
+                            " from long_sequence(3000)" +
+                            ") timestamp(ts) partition by HOUR",
+                    sqlExecutionContext
+            );
+            compiler.compile(
+                    "create table y as (" +
+                            "select cast(x as int) j, cast((x / 2) * 1500000 as timestamp) ts" +
+                            " from long_sequence(2000)" +
+                            ") timestamp(ts) partition by HOUR",
+                    sqlExecutionContext
+            );
+
+            final String expected;
+            compiler.setFullFatJoins(true);
+            try {
+                TestUtils.printSql(compiler, sqlExecutionContext, query, sink);
+                expected = sink.toString();
+            } finally {
+                compiler.setFullFatJoins(false);
+            }
+            TestUtils.printSql(compiler, sqlExecutionContext, query, sink);
+            TestUtils.assertEquals(expected, sink);
+        });
+    }
+}
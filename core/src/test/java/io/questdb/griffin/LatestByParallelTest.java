@@ -33,6 +33,7 @@ import io.questdb.cairo.sql.RecordCursor;
 import io.questdb.cairo.sql.RecordCursorFactory;
 import io.questdb.griffin.engine.functions.rnd.SharedRandom;
 import io.questdb.griffin.engine.table.LatestByAllIndexedJob;
+import io.questdb.griffin.engine.table.LatestByScanJob;
 import io.questdb.log.Log;
 import io.questdb.log.LogFactory;
 import io.questdb.mp.WorkerPool;
@@ -119,6 +120,66 @@ public class LatestByParallelTest {
         executeVanilla(LatestByParallelTest::testLatestByFiltered);
     }
 
+    @Test
+    public void testLatestByIntervalStringParallel1() throws Exception {
+        executeWithPool(4, 8, LatestByParallelTest::testLatestByIntervalString);
+    }
+
+    @Test
+    public void testLatestByIntervalStringParallel2() throws Exception {
+        executeWithPool(8, 4, LatestByParallelTest::testLatestByIntervalString);
+    }
+
+    @Test
+    public void testLatestByIntervalStringParallel3() throws Exception {
+        executeWithPool(4, 0, LatestByParallelTest::testLatestByIntervalString);
+    }
+
+    @Test
+    public void testLatestByIntervalStringVanilla() throws Exception {
+        executeVanilla(LatestByParallelTest::testLatestByIntervalString);
+    }
+
+    @Test
+    public void testLatestByMultipleKeysParallel1() throws Exception {
+        executeWithPool(4, 8, LatestByParallelTest::testLatestByMultipleKeys);
+    }
+
+    @Test
+    public void testLatestByMultipleKeysParallel2() throws Exception {
+        executeWithPool(8, 4, LatestByParallelTest::testLatestByMultipleKeys);
+    }
+
+    @Test
+    public void testLatestByMultipleKeysParallel3() throws Exception {
+        executeWithPool(4, 0, LatestByParallelTest::testLatestByMultipleKeys);
+    }
+
+    @Test
+    public void testLatestByMultipleKeysVanilla() throws Exception {
+        executeVanilla(LatestByParallelTest::testLatestByMultipleKeys);
+    }
+
+    @Test
+    public void testLatestByNonIndexedSymbolParallel1() throws Exception {
+        executeWithPool(4, 8, LatestByParallelTest::testLatestByNonIndexedSymbol);
+    }
+
+    @Test
+    public void testLatestByNonIndexedSymbolParallel2() throws Exception {
+        executeWithPool(8, 4, LatestByParallelTest::testLatestByNonIndexedSymbol);
+    }
+
+    @Test
+    public void testLatestByNonIndexedSymbolParallel3() throws Exception {
+        executeWithPool(4, 0, LatestByParallelTest::testLatestByNonIndexedSymbol);
+    }
+
+    @Test
+    public void testLatestByNonIndexedSymbolVanilla() throws Exception {
+        executeVanilla(LatestByParallelTest::testLatestByNonIndexedSymbol);
+    }
+
     @Test
     public void testLatestByTimestampParallel1() throws Exception {
         executeWithPool(4, 8, LatestByParallelTest::testLatestByTimestamp);
@@ -196,6 +257,98 @@ public class LatestByParallelTest {
         assertQuery(compiler, sqlExecutionContext, expected, ddl, query);
     }
 
+    private static void testLatestByIntervalString(
+            CairoEngine engine,
+            SqlCompiler compiler,
+            SqlExecutionContext sqlExecutionContext
+    ) throws SqlException {
+
+        final String expected = "a\ts\tk\n" +
+                "47.08579084047213\tEEEE\t1970-01-07T08:30:00.000000Z\n" +
+                "21.566833520966643\tBBBB\t1970-01-07T10:10:00.000000Z\n" +
+                "28.21338131725436\tFFFF\t1970-01-07T12:10:00.000000Z\n" +
+                "64.04084219785263\tCCCC\t1970-01-07T14:10:00.000000Z\n" +
+                "64.22122631195735\tAAAA\t1970-01-07T14:20:00.000000Z\n" +
+                "16.7764345042567\tDDDD\t1970-01-07T14:30:00.000000Z\n";
+
+        final String ddl = "create table x as " +
+                "(" +
+                "select" +
+                " rnd_double(0)*100 a," +
+                " rnd_str('AAAA','BBBB','CCCC','DDDD','EEEE','FFFF') s," +
+                " timestamp_sequence(0, 600000000) k" +
+                " from" +
+                " long_sequence(1000)" +
+                ") timestamp(k) partition by DAY";
+
+        // intervals yield several frames of each partition, string keys of the same partition
+        // are read through the same column flyweight
+        final String query = "select * from x where k in '1970-01-01T00:00;30m;2h;80' latest on k partition by s";
+
+        assertQuery(compiler, sqlExecutionContext, expected, ddl, query);
+    }
+
+    private static void testLatestByMultipleKeys(
+            CairoEngine engine,
+            SqlCompiler compiler,
+            SqlExecutionContext sqlExecutionContext
+    ) throws SqlException {
+
+        final String expected = "a\tb\tc\tk\n" +
+                "57.807462765433336\tHYRX\t1\t1970-01-27T01:00:00.000000Z\n" +
+                "11.371841836123952\tHYRX\t0\t1970-01-27T14:53:20.000000Z\n" +
+                "74.04912278395418\t\t0\t1970-01-31T16:06:40.000000Z\n" +
+                "84.39276969435359\tVTJW\t1\t1970-02-01T06:00:00.000000Z\n" +
+                "18.852800970933203\tVTJW\t0\t1970-02-02T09:46:40.000000Z\n" +
+                "71.95457109208118\tCPSW\t1\t1970-02-02T23:40:00.000000Z\n" +
+                "51.502292802179475\tCPSW\t0\t1970-02-03T13:33:20.000000Z\n" +
+                "77.07249647497967\t\t1\t1970-02-04T03:26:40.000000Z\n";
+
+        final String ddl = "create table x as " +
+                "(" +
+                "select" +
+                " rnd_double(0)*100 a," +
+                " rnd_symbol(3,4,4,1) b," +
+                " rnd_int(0, 1, 0) c," +
+                " timestamp_sequence(0, 50000000000) k" +
+                " from" +
+                " long_sequence(60)" +
+                ") timestamp(k) partition by DAY";
+
+        final String query = "select * from x latest on k partition by b, c";
+
+        assertQuery(compiler, sqlExecutionContext, expected, ddl, query);
+    }
+
+    private static void testLatestByNonIndexedSymbol(
+            CairoEngine engine,
+            SqlCompiler compiler,
+            SqlExecutionContext sqlExecutionContext
+    ) throws SqlException {
+
+        final String expected = "a\tb\tk\n" +
+                "66.97969295620055\tVTJW\t1970-01-22T23:46:40.000000Z\n" +
+                "73.65115215570027\tPEHN\t1970-01-29T22:26:40.000000Z\n" +
+                "69.40904779678792\tCPSW\t1970-02-01T06:00:00.000000Z\n" +
+                "5.158459929273784\tHYRX\t1970-02-02T09:46:40.000000Z\n" +
+                "65.90829275055245\tRXGZ\t1970-02-02T23:40:00.000000Z\n" +
+                "5.758228485190853\t\t1970-02-04T03:26:40.000000Z\n";
+
+        final String ddl = "create table x as " +
+                "(" +
+                "select" +
+                " rnd_double(0)*100 a," +
+                " rnd_symbol(5,4,4,1) b," +
+                " timestamp_sequence(0, 50000000000) k" +
+                " from" +
+                " long_sequence(60)" +
+                ") timestamp(k) partition by DAY";
+
+        final String query = "select * from x latest on k partition by b";
+
+        assertQuery(compiler, sqlExecutionContext, expected, ddl, query);
+    }
+
     private static void testLatestByTimestamp(
             CairoEngine engine,
             SqlCompiler compiler,
@@ -322,6 +475,7 @@ public class LatestByParallelTest {
                     if (pool != null) {
                         pool.assignCleaner(Path.CLEANER);
                         pool.assign(new LatestByAllIndexedJob(engine.getMessageBus()));
+                        pool.assign(new LatestByScanJob(engine.getMessageBus()));
                         pool.start(LOG);
                     }
 
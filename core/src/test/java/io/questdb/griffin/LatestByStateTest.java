@@ -0,0 +1,136 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2022 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.griffin;
+
+import io.questdb.cairo.CairoConfiguration;
+import io.questdb.cairo.CairoEngine;
+import io.questdb.cairo.DefaultCairoConfiguration;
+import io.questdb.cairo.sql.RecordCursor;
+import io.questdb.cairo.sql.RecordCursorFactory;
+import io.questdb.griffin.engine.table.LatestByStateRecordCursorFactory;
+import io.questdb.test.tools.TestUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class LatestByStateTest extends AbstractGriffinTest {
+
+    @Test
+    public void testAppendToLastAndNewPartitions() throws Exception {
+        assertStateSameAsScan(
+                "insert into x select rnd_symbol('a','b','c','d','new1','new2') s, rnd_double() v, timestamp_sequence(500000000000, 1000000000) ts from long_sequence(300)",
+                "insert into x select rnd_symbol('new3', null) s, rnd_double() v, timestamp_sequence(900000000000, 1000000000) ts from long_sequence(10)"
+        );
+    }
+
+    @Test
+    public void testDropPartition() throws Exception {
+        assertStateSameAsScan(
+                "insert into x select rnd_symbol('a','b') s, rnd_double() v, timestamp_sequence(500000000000, 1000000000) ts from long_sequence(50)",
+                "alter table x drop partition list '1970-01-02'"
+        );
+    }
+
+    @Test
+    public void testIndexedColumn() throws Exception {
+        assertMemoryLeak(() -> {
+            compiler.compile(
+                    "create table x as (" +
+                            "select rnd_symbol('a','b','c',null) s, rnd_double() v, timestamp_sequence(0, 1000000000) ts from long_sequence(500)" +
+                            "), index(s) timestamp(ts) partition by DAY",
+                    sqlExecutionContext
+            );
+            assertWithStateEngine(
+                    "insert into x select rnd_symbol('a','d') s, rnd_double() v, timestamp_sequence(600000000000, 1000000000) ts from long_sequence(20)"
+            );
+        });
+    }
+
+    @Test
+    public void testOutOfOrderInsert() throws Exception {
+        assertStateSameAsScan(
+                "insert into x select rnd_symbol('a','b','c','d') s, rnd_double() v, timestamp_sequence(500000000000, 1000000000) ts from long_sequence(20)",
+                // rows land in the middle of existing partitions and some of them are the latest for their key
+                "insert into x select rnd_symbol('a','b','e') s, rnd_double() v, timestamp_sequence(100000000000, 2000000000) ts from long_sequence(250)"
+        );
+    }
+
+    @Test
+    public void testTruncate() throws Exception {
+        assertStateSameAsScan(
+                "truncate table x",
+                "insert into x select rnd_symbol('z','y') s, rnd_double() v, timestamp_sequence(0, 1000000000) ts from long_sequence(10)"
+        );
+    }
+
+    private static void assertStateSameAsScan(String... changes) throws Exception {
+        assertMemoryLeak(() -> {
+            compiler.compile(
+                    "create table x as (" +
+                            "select rnd_symbol('a','b','c','d',null) s, rnd_double() v, timestamp_sequence(0, 1000000000) ts from long_sequence(500)" +
+                            ") timestamp(ts) partition by DAY",
+                    sqlExecutionContext
+            );
+            assertWithStateEngine(changes);
+        });
+    }
+
+    private static void assertWithStateEngine(String... changes) throws SqlException {
+        final String query = "select * from x latest by s";
+        final CairoConfiguration stateConfiguration = new DefaultCairoConfiguration(root) {
+            @Override
+            public boolean isSqlLatestByStateEnabled() {
+                return true;
+            }
+        };
+        try (
+                CairoEngine stateEngine = new CairoEngine(stateConfiguration);
+                SqlCompiler stateCompiler = new SqlCompiler(stateEngine);
+                SqlExecutionContextImpl stateContext = new SqlExecutionContextImpl(stateEngine, 1);
+                RecordCursorFactory factory = stateCompiler.compile(query, stateContext).getRecordCursorFactory()
+        ) {
+            Assert.assertTrue(factory instanceof LatestByStateRecordCursorFactory);
+            assertSameAsScan(query, factory, stateContext);
+            // second execution over unchanged table reuses the state
+            assertSameAsScan(query, factory, stateContext);
+            for (int i = 0, n = changes.length; i < n; i++) {
+                compiler.compile(changes[i], sqlExecutionContext);
+                assertSameAsScan(query, factory, stateContext);
+            }
+        }
+    }
+
+    private static void assertSameAsScan(String query, RecordCursorFactory factory, SqlExecutionContext stateContext) throws SqlException {
+        try (RecordCursorFactory expectedFactory = compiler.compile(query, sqlExecutionContext).getRecordCursorFactory()) {
+            Assert.assertFalse(expectedFactory instanceof LatestByStateRecordCursorFactory);
+            try (
+                    RecordCursor expectedCursor = expectedFactory.getCursor(sqlExecutionContext);
+                    RecordCursor actualCursor = factory.getCursor(stateContext)
+            ) {
+                TestUtils.assertEquals(expectedCursor, expectedFactory.getMetadata(), actualCursor, factory.getMetadata());
+            }
+        }
+    }
+}
@@ -0,0 +1,144 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2022 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.griffin;
+
+import io.questdb.test.tools.TestUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class MatViewTest extends AbstractGriffinTest {
+
+    private static final String VIEW_QUERY = "select k, sum(v) v, count() c, ts from base sample by 1h align to calendar";
+
+    @Test
+    public void testAppend() throws Exception {
+        assertViewSameAsQuery(
+                "insert into base select rnd_symbol('a','b','c') k, rnd_double() v, timestamp_sequence(345600000000, 60000000) ts from long_sequence(100)",
+                "insert into base select rnd_symbol('a','d') k, rnd_double() v, timestamp_sequence(351600000000, 600000000) ts from long_sequence(300)"
+        );
+    }
+
+    @Test
+    public void testDropPartition() throws Exception {
+        assertViewSameAsQuery("alter table base drop partition list '1970-01-02'");
+    }
+
+    @Test
+    public void testFailsOnJoin() throws Exception {
+        assertFailure(
+                "create materialized view v as (select b.k, sum(b.v) v, b.ts from base b join base c on (k) sample by 1h align to calendar) timestamp(ts) partition by DAY",
+                "create table base (k symbol, v double, ts timestamp) timestamp(ts) partition by DAY",
+                77,
+                "joins are not supported in materialized view"
+        );
+    }
+
+    @Test
+    public void testFailsWithoutAlignToCalendar() throws Exception {
+        assertFailure(
+                "create materialized view v as (select k, sum(v) v, ts from base sample by 1h) timestamp(ts) partition by DAY",
+                "create table base (k symbol, v double, ts timestamp) timestamp(ts) partition by DAY",
+                74,
+                "materialized view requires SAMPLE BY with ALIGN TO CALENDAR"
+        );
+    }
+
+    @Test
+    public void testFailsWithoutPartitionBy() throws Exception {
+        assertFailure(
+                "create materialized view v as (" + VIEW_QUERY + ") timestamp(ts)",
+                "create table base (k symbol, v double, ts timestamp) timestamp(ts) partition by DAY",
+                120,
+                "materialized view must be partitioned"
+        );
+    }
+
+    @Test
+    public void testFailsWithoutSampleBy() throws Exception {
+        assertFailure(
+                "create materialized view v as (select k, v, ts from base) timestamp(ts) partition by DAY",
+                "create table base (k symbol, v double, ts timestamp) timestamp(ts) partition by DAY",
+                0,
+                "materialized view query must use SAMPLE BY"
+        );
+    }
+
+    @Test
+    public void testOutOfOrderInsert() throws Exception {
+        assertViewSameAsQuery(
+                "insert into base select rnd_symbol('a','b','e') k, rnd_double() v, timestamp_sequence(100000000000, 700000000) ts from long_sequence(200)"
+        );
+    }
+
+    @Test
+    public void testRefreshSkipsUnchangedBaseTable() throws Exception {
+        assertMemoryLeak(() -> {
+            createBaseTableAndView();
+            final long refreshCount = engine.getMetrics().matView().refreshCount();
+            try (MatViewRefreshJob job = new MatViewRefreshJob(engine, null)) {
+                Assert.assertTrue(job.refresh());
+                Assert.assertFalse(job.refresh());
+                compile("insert into base values ('a', 1.0, 400000000000)");
+                Assert.assertTrue(job.refresh());
+                TestUtils.assertSqlCursors(compiler, sqlExecutionContext, VIEW_QUERY, "v", LOG);
+            }
+            Assert.assertEquals(refreshCount + 2, engine.getMetrics().matView().refreshCount());
+        });
+    }
+
+    @Test
+    public void testTruncate() throws Exception {
+        assertViewSameAsQuery(
+                "truncate table base",
+                "insert into base select rnd_symbol('x','y') k, rnd_double() v, timestamp_sequence(0, 60000000) ts from long_sequence(100)"
+        );
+    }
+
+    private static void assertViewSameAsQuery(String... changes) throws Exception {
+        assertMemoryLeak(() -> {
+            createBaseTableAndView();
+            TestUtils.assertSqlCursors(compiler, sqlExecutionContext, VIEW_QUERY, "v", LOG);
+            try (MatViewRefreshJob job = new MatViewRefreshJob(engine, null)) {
+                // first refresh after start recomputes the whole view
+                job.refresh();
+                TestUtils.assertSqlCursors(compiler, sqlExecutionContext, VIEW_QUERY, "v", LOG);
+                for (int i = 0, n = changes.length; i < n; i++) {
+                    compile(changes[i]);
+                    job.refresh();
+                    TestUtils.assertSqlCursors(compiler, sqlExecutionContext, VIEW_QUERY, "v", LOG);
+                }
+            }
+        });
+    }
+
+    private static void createBaseTableAndView() throws SqlException {
+        compile(
+                "create table base as (" +
+                        "select rnd_symbol('a','b','c',null) k, rnd_double() v, timestamp_sequence(0, 600000000) ts from long_sequence(500)" +
+                        ") timestamp(ts) partition by DAY"
+        );
+        compile("create materialized view v as (" + VIEW_QUERY + ") timestamp(ts) partition by DAY");
+    }
+}
@@ -124,6 +124,12 @@ public class O3CommitLagTest extends AbstractO3Test {
         executeWithPool(2, this::testCommitLagEndingAtPartitionBoundaryPlus1WithRollback0);
     }
 
+    @Test
+    public void testCommitLagEndingAtPartitionBoundaryPlus1WithRollbackStagedContended() throws Exception {
+        dataAppendStagingPageSize = Files.PAGE_SIZE;
+        executeWithPool(0, this::testCommitLagEndingAtPartitionBoundaryPlus1WithRollback0);
+    }
+
     @Test
     public void testCommitLagEndingAtPartitionBoundaryWithRollbackContended() throws Exception {
         executeWithPool(0, this::testCommitLagEndingAtPartitionBoundaryWithRollback0);
@@ -198,6 +198,12 @@ public class O3Test extends AbstractO3Test {
         executeWithPool(0, O3Test::testColumnTopLastAppendColumn0);
     }
 
+    @Test
+    public void testColumnTopLastAppendStagedContended() throws Exception {
+        dataAppendStagingPageSize = Files.PAGE_SIZE;
+        executeWithPool(0, O3Test::testColumnTopLastAppendColumn0);
+    }
+
     @Test
     public void testColumnTopLastDataMerge() throws Exception {
         executeVanilla(O3Test::testColumnTopLastDataMergeData0);
@@ -288,6 +294,12 @@ public class O3Test extends AbstractO3Test {
         executeVanilla(O3Test::testColumnTopMidAppendBlankColumn0);
     }
 
+    @Test
+    public void testColumnTopMidAppendBlankStaged() throws Exception {
+        dataAppendStagingPageSize = Files.PAGE_SIZE;
+        executeVanilla(O3Test::testColumnTopMidAppendBlankColumn0);
+    }
+
     @Test
     public void testColumnTopMidAppendBlankContended() throws Exception {
         executeWithPool(0, O3Test::testColumnTopMidAppendBlankColumn0);
@@ -544,6 +556,19 @@ public class O3Test extends AbstractO3Test {
         executeWithPool(4, O3Test::testPartitionedDataAppendOODataIndexed0);
     }
 
+    @Test
+    public void testPartitionedDataAppendOODataIndexedStagedContended() throws Exception {
+        // appended column values go through staging pages of OS page size
+        dataAppendStagingPageSize = Files.PAGE_SIZE;
+        executeWithPool(0, O3Test::testPartitionedDataAppendOODataIndexed0);
+    }
+
+    @Test
+    public void testPartitionedDataAppendOODataIndexedStagedParallel() throws Exception {
+        dataAppendStagingPageSize = Files.PAGE_SIZE;
+        executeWithPool(4, O3Test::testPartitionedDataAppendOODataIndexed0);
+    }
+
     @Test
     public void testPartitionedDataAppendOODataNotNullStrTail() throws Exception {
         executeVanilla(O3Test::testPartitionedDataAppendOODataNotNullStrTail0);
@@ -594,6 +619,50 @@ public class O3Test extends AbstractO3Test {
         executeWithPool(4, O3Test::testPartitionedDataMergeData0);
     }
 
+    @Test
+    public void testPartitionedDataMergeMidIndexed() throws Exception {
+        executeVanilla(O3Test::testPartitionedDataMergeMidIndexed0);
+    }
+
+    @Test
+    public void testPartitionedDataMergeMidIndexedContended() throws Exception {
+        final AtomicInteger copyCount = new AtomicInteger();
+        final FilesFacade ff = new FilesFacadeImpl() {
+            @Override
+            public int copy(LPSZ from, LPSZ to) {
+                copyCount.incrementAndGet();
+                return super.copy(from, to);
+            }
+        };
+        executeWithPool(0, O3Test::testPartitionedDataMergeMidIndexed0, ff);
+        // key and value files of the index
+        Assert.assertEquals(2, copyCount.get());
+    }
+
+    @Test
+    public void testPartitionedDataMergeMidIndexedParallel() throws Exception {
+        executeWithPool(4, O3Test::testPartitionedDataMergeMidIndexed0);
+    }
+
+    @Test
+    public void testPartitionedDataMergeMidSplitCopyContended() throws Exception {
+        // existing rows are copied in ranges of 128 longs
+        o3CopySplitSize = 1024;
+        executeWithPool(0, O3Test::testPartitionedDataMergeMidIndexed0);
+    }
+
+    @Test
+    public void testPartitionedDataMergeMidSplitCopyParallel() throws Exception {
+        o3CopySplitSize = 1024;
+        executeWithPool(4, O3Test::testPartitionedDataMergeMidIndexed0);
+    }
+
+    @Test
+    public void testPartitionedDataMergeMidStagedContended() throws Exception {
+        dataAppendStagingPageSize = Files.PAGE_SIZE;
+        executeWithPool(0, O3Test::testPartitionedDataMergeMidIndexed0);
+    }
+
     @Test
     public void testPartitionedDataMergeEnd() throws Exception {
         executeVanilla(O3Test::testPartitionedDataMergeEnd0);
@@ -3587,6 +3656,54 @@ public class O3Test extends AbstractO3Test {
         );
     }
 
+    private static void testPartitionedDataMergeMidIndexed0(
+            CairoEngine engine,
+            SqlCompiler compiler,
+            SqlExecutionContext sqlExecutionContext
+    ) throws SqlException {
+        // 1970-01-06T18:53:20 to 1970-01-09
+        compiler.compile(
+                "create table x as (" +
+                        "select" +
+                        " cast(x as int) i," +
+                        " rnd_symbol('msft','ibm', 'googl') sym," +
+                        " rnd_str(5,16,2) n," +
+                        " rnd_long() j," +
+                        " timestamp_sequence(500000000000L,100000000L) ts" +
+                        " from long_sequence(2000)" +
+                        "), index(sym) timestamp (ts) partition by DAY",
+                sqlExecutionContext
+        );
+
+        // lands in the middle of 1970-01-07, which is neither the first nor the last partition
+        compiler.compile(
+                "create table append as (" +
+                        "select" +
+                        " cast(x as int) i," +
+                        " rnd_symbol('msft','ibm', 'googl') sym," +
+                        " rnd_str(5,16,2) n," +
+                        " rnd_long() j," +
+                        " timestamp_sequence(561600000007L,1000000L) ts" +
+                        " from long_sequence(50)" +
+                        ") timestamp (ts) partition by DAY",
+                sqlExecutionContext
+        );
+
+        assertO3DataCursors(
+                engine,
+                compiler,
+                sqlExecutionContext,
+                "create table y as (x union all append)",
+                "y where sym = 'googl' order by ts",
+                "insert into x select * from append",
+                "x where sym = 'googl'",
+                "y where sym = 'googl'",
+                "x where sym = 'googl'"
+        );
+
+        assertIndexConsistency(compiler, sqlExecutionContext, engine);
+    }
+
     private static void testPartitionedDataAppendOODataIndexed0(
             CairoEngine engine,
             SqlCompiler compiler,
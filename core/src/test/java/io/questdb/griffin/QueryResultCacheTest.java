@@ -0,0 +1,282 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2022 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.griffin;
+
+import io.questdb.Metrics;
+import io.questdb.cairo.CairoEngine;
+import io.questdb.cairo.DefaultCairoConfiguration;
+import io.questdb.cairo.ColumnType;
+import io.questdb.cairo.QueryResultCacheMetrics;
+import io.questdb.cairo.security.AllowAllCairoSecurityContext;
+import io.questdb.cairo.sql.ReaderOutOfDateException;
+import io.questdb.cairo.sql.Record;
+import io.questdb.cairo.sql.RecordCursor;
+import io.questdb.cairo.sql.RecordCursorFactory;
+import io.questdb.cairo.sql.SymbolTable;
+import io.questdb.griffin.engine.QueryResultCacheRecordCursorFactory;
+import io.questdb.griffin.engine.functions.bind.BindVariableServiceImpl;
+import io.questdb.test.tools.TestUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class QueryResultCacheTest extends AbstractGriffinTest {
+
+    @Test
+    public void testBindVariablesArePartOfKey() throws Exception {
+        assertWithCache(64 * 1024 * 1024, (engine, compiler, context, metrics) -> {
+            compiler.compile("create table x as (select cast(x as int) v, timestamp_sequence(0, 1000000) ts from long_sequence(5)) timestamp(ts)", context);
+
+            context.getBindVariableService().setInt(0, 3);
+            TestUtils.assertSql(compiler, context, "x where v > $1", sink, "v\tts\n" +
+                    "4\t1970-01-01T00:00:03.000000Z\n" +
+                    "5\t1970-01-01T00:00:04.000000Z\n");
+
+            context.getBindVariableService().setInt(0, 4);
+            TestUtils.assertSql(compiler, context, "x where v > $1", sink, "v\tts\n" +
+                    "5\t1970-01-01T00:00:04.000000Z\n");
+
+            context.getBindVariableService().setInt(0, 3);
+            TestUtils.assertSql(compiler, context, "x where v > $1", sink, "v\tts\n" +
+                    "4\t1970-01-01T00:00:03.000000Z\n" +
+                    "5\t1970-01-01T00:00:04.000000Z\n");
+
+            Assert.assertEquals(2, engine.getQueryResultCache().getEntryCount());
+            Assert.assertEquals(1, metrics.hitCount());
+            Assert.assertEquals(2, metrics.missCount());
+        });
+    }
+
+    @Test
+    public void testDroppedTableIsNotServedFromCache() throws Exception {
+        assertWithCache(64 * 1024 * 1024, (engine, compiler, context, metrics) -> {
+            compiler.compile("create table x as (select x v from long_sequence(3))", context);
+            try (RecordCursorFactory factory = compiler.compile("select sum(v) from x", context).getRecordCursorFactory()) {
+                assertCursor(factory, context, "sum\n6\n");
+                assertCursor(factory, context, "sum\n6\n");
+                Assert.assertEquals(1, metrics.hitCount());
+
+                compiler.compile("drop table x", context);
+                compiler.compile("create table x as (select x v from long_sequence(4))", context);
+                try {
+                    assertCursor(factory, context, "sum\n10\n");
+                    Assert.fail();
+                } catch (ReaderOutOfDateException ignore) {
+                    // factory has to be recompiled
+                }
+                Assert.assertEquals(1, metrics.hitCount());
+            }
+        });
+    }
+
+    @Test
+    public void testNonDeterministicQueryIsNotCached() throws Exception {
+        assertWithCache(64 * 1024 * 1024, (engine, compiler, context, metrics) -> {
+            compiler.compile("create table x as (select x from long_sequence(5))", context);
+            assertNotCached(compiler, context, "select rnd_int() from x");
+            assertNotCached(compiler, context, "select systimestamp() from x");
+            assertNotCached(compiler, context, "select x from x where x > now()");
+            assertNotCached(compiler, context, "select x from long_sequence(3)");
+            try (RecordCursorFactory factory = compiler.compile("select x from x", context).getRecordCursorFactory()) {
+                Assert.assertTrue(factory instanceof QueryResultCacheRecordCursorFactory);
+            }
+        });
+    }
+
+    @Test
+    public void testResultIsReusedUntilCommit() throws Exception {
+        assertWithCache(64 * 1024 * 1024, (engine, compiler, context, metrics) -> {
+            compiler.compile("create table x as (" +
+                    "select rnd_symbol('a','b') sym, x v, timestamp_sequence(0, 1000000) ts from long_sequence(10)" +
+                    ") timestamp(ts) partition by DAY", context);
+
+            final String query = "select sym, sum(v) from x order by sym";
+            final String expected = "sym\tsum\n" +
+                    "a\t29\n" +
+                    "b\t26\n";
+            TestUtils.assertSql(compiler, context, query, sink, expected);
+            TestUtils.assertSql(compiler, context, query, sink, expected);
+            Assert.assertEquals(1, metrics.hitCount());
+            Assert.assertEquals(1, metrics.missCount());
+            Assert.assertTrue(engine.getQueryResultCache().getMemoryUsed() > 0);
+
+            compiler.compile("insert into x select 'a', 100L, cast(20000000 as timestamp) from long_sequence(1)", context);
+            TestUtils.assertSql(compiler, context, "select count() from x", sink, "count\n11\n");
+            TestUtils.assertSql(compiler, context, query, sink, "sym\tsum\n" +
+                    "a\t129\n" +
+                    "b\t26\n");
+            Assert.assertEquals(1, metrics.hitCount());
+            Assert.assertEquals(3, metrics.missCount());
+        });
+    }
+
+    @Test
+    public void testResultLargerThanMemoryLimitIsNotCached() throws Exception {
+        assertWithCache(1024, (engine, compiler, context, metrics) -> {
+            compiler.compile("create table x as (select x from long_sequence(1000))", context);
+            TestUtils.assertSql(compiler, context, "select sum(x) from (x)", sink, "sum\n500500\n");
+            TestUtils.assertSql(compiler, context, "select count() from (select x from x)", sink, "count\n1000\n");
+            TestUtils.assertSql(compiler, context, "select x from x limit 3", sink, "x\n1\n2\n3\n");
+            TestUtils.assertSql(compiler, context, "select x from x limit 3", sink, "x\n1\n2\n3\n");
+            Assert.assertEquals(1, metrics.hitCount());
+
+            TestUtils.printSql(compiler, context, "select x from x", sink);
+            Assert.assertEquals(1000, sink.toString().split("\n").length - 1);
+            Assert.assertTrue(engine.getQueryResultCache().getMemoryUsed() <= 1024);
+        });
+    }
+
+    @Test
+    public void testOversizedResultIsNotMaterializedUntilCommit() throws Exception {
+        assertWithCache(1024, (engine, compiler, context, metrics) -> {
+            compiler.compile("create table x as (select rnd_symbol('a','b',null) sym, x from long_sequence(1000))", context);
+            try (RecordCursorFactory factory = compiler.compile("select sym, x from x", context).getRecordCursorFactory()) {
+                Assert.assertTrue(factory instanceof QueryResultCacheRecordCursorFactory);
+                for (int i = 0; i < 3; i++) {
+                    try (RecordCursor cursor = factory.getCursor(context)) {
+                        TestUtils.printCursor(cursor, factory.getMetadata(), true, sink, TestUtils.printer);
+                    }
+                    Assert.assertEquals(1000, sink.toString().split("\n").length - 1);
+                }
+                // cache is not even looked up while the result is known to be too large
+                Assert.assertEquals(1, metrics.missCount());
+
+                compiler.compile("insert into x select 'a', 1001L from long_sequence(1)", context);
+                try (RecordCursor cursor = factory.getCursor(context)) {
+                    TestUtils.printCursor(cursor, factory.getMetadata(), true, sink, TestUtils.printer);
+                }
+                Assert.assertEquals(1001, sink.toString().split("\n").length - 1);
+                Assert.assertEquals(2, metrics.missCount());
+            }
+        });
+    }
+
+    @Test
+    public void testPartiallyReadResultIsNotCached() throws Exception {
+        assertWithCache(64 * 1024 * 1024, (engine, compiler, context, metrics) -> {
+            compiler.compile("create table x as (select x v from long_sequence(5))", context);
+            try (RecordCursorFactory factory = compiler.compile("select v from x", context).getRecordCursorFactory()) {
+                try (RecordCursor cursor = factory.getCursor(context)) {
+                    // rows are returned while the result is being copied
+                    Assert.assertTrue(cursor.hasNext());
+                    Assert.assertEquals(1, cursor.getRecord().getLong(0));
+                    Assert.assertEquals(0, engine.getQueryResultCache().getEntryCount());
+                }
+                Assert.assertEquals(0, engine.getQueryResultCache().getEntryCount());
+
+                try (RecordCursor cursor = factory.getCursor(context)) {
+                    Assert.assertTrue(cursor.hasNext());
+                    Assert.assertTrue(cursor.hasNext());
+                    cursor.toTop();
+                    TestUtils.assertCursor("v\n1\n2\n3\n4\n5\n", cursor, factory.getMetadata(), true, sink);
+                }
+                Assert.assertEquals(1, engine.getQueryResultCache().getEntryCount());
+                assertCursor(factory, context, "v\n1\n2\n3\n4\n5\n");
+                Assert.assertEquals(1, metrics.hitCount());
+                Assert.assertEquals(2, metrics.missCount());
+            }
+        });
+    }
+
+    @Test
+    public void testSymbolsArePassedThrough() throws Exception {
+        assertWithCache(64 * 1024 * 1024, (engine, compiler, context, metrics) -> {
+            compiler.compile("create table x as (select rnd_symbol('a','b',null) sym, x v from long_sequence(5))", context);
+            try (RecordCursorFactory factory = compiler.compile("select sym, v from x", context).getRecordCursorFactory()) {
+                Assert.assertEquals(ColumnType.SYMBOL, factory.getMetadata().getColumnType(0));
+                final String expected = "sym\tv\n" +
+                        "a\t1\n" +
+                        "a\t2\n" +
+                        "b\t3\n" +
+                        "\t4\n" +
+                        "\t5\n";
+                assertCursor(factory, context, expected);
+                assertCursor(factory, context, expected);
+                Assert.assertEquals(1, metrics.hitCount());
+
+                try (RecordCursor cursor = factory.getCursor(context)) {
+                    final SymbolTable symbolTable = cursor.getSymbolTable(0);
+                    final Record record = cursor.getRecord();
+                    while (cursor.hasNext()) {
+                        TestUtils.assertEquals(record.getSym(0), symbolTable.valueOf(record.getInt(0)));
+                    }
+                }
+                Assert.assertEquals(2, metrics.hitCount());
+            }
+        });
+    }
+
+    private static void assertCursor(RecordCursorFactory factory, SqlExecutionContext context, String expected) throws SqlException {
+        try (RecordCursor cursor = factory.getCursor(context)) {
+            TestUtils.assertCursor(expected, cursor, factory.getMetadata(), true, sink);
+        }
+    }
+
+    private static void assertNotCached(SqlCompiler compiler, SqlExecutionContext context, String query) throws SqlException {
+        try (RecordCursorFactory factory = compiler.compile(query, context).getRecordCursorFactory()) {
+            Assert.assertFalse(factory instanceof QueryResultCacheRecordCursorFactory);
+        }
+    }
+
+    private void assertWithCache(long memoryLimit, CacheTestCode code) throws Exception {
+        assertMemoryLeak(() -> {
+            final DefaultCairoConfiguration cacheConfiguration = new DefaultCairoConfiguration(root) {
+                @Override
+                public long getQueryResultCacheMemoryLimit() {
+                    return memoryLimit;
+                }
+
+                @Override
+                public long getQueryResultCachePageSize() {
+                    return 256;
+                }
+
+                @Override
+                public boolean isQueryResultCacheEnabled() {
+                    return true;
+                }
+            };
+            final Metrics metrics = Metrics.enabled();
+            try (
+                    CairoEngine engine = new CairoEngine(cacheConfiguration, metrics);
+                    SqlCompiler compiler = new SqlCompiler(engine)
+            ) {
+                final SqlExecutionContextImpl context = new SqlExecutionContextImpl(engine, 1).with(
+                        AllowAllCairoSecurityContext.INSTANCE,
+                        new BindVariableServiceImpl(cacheConfiguration),
+                        null,
+                        -1,
+                        null
+                );
+                code.run(engine, compiler, context, metrics.queryResultCache());
+            }
+        });
+    }
+
+    @FunctionalInterface
+    private interface CacheTestCode {
+        void run(CairoEngine engine, SqlCompiler compiler, SqlExecutionContext context, QueryResultCacheMetrics metrics) throws SqlException;
+    }
+}
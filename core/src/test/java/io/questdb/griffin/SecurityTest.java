@@ -71,6 +71,16 @@ public class SecurityTest extends AbstractGriffinTest {
                 return 2;
             }
 
+            @Override
+            public int getSqlHashJoinLightValuePageSize() {
+                return 1024;
+            }
+
+            @Override
+            public int getSqlHashJoinLightValueMaxPages() {
+                return 2;
+            }
+
             @Override
             public int getSqlJoinMetadataPageSize() {
                 return 64;
@@ -715,11 +725,12 @@ public class SecurityTest extends AbstractGriffinTest {
                     " rnd_double(2) d1," +
                     " timestamp_sequence(0, 1000000000) ts1" +
                     " from long_sequence(10)) timestamp(ts1)", sqlExecutionContext);
+            // tb2 has no designated timestamp, otherwise join on timestamps would not use hash map
             compiler.compile("create table tb2 as (select" +
                     " rnd_symbol(3,3,3,20000) sym2," +
                     " rnd_double(2) d2," +
                     " timestamp_sequence(0, 1000000000) ts2" +
-                    " from long_sequence(10)) timestamp(ts2)", sqlExecutionContext);
+                    " from long_sequence(10))", sqlExecutionContext);
             assertQuery(
                     "sym1\tsym2\nVTJW\tFJG\nVTJW\tULO\n",
                     "select sym1, sym2 from tb1 inner join tb2 on tb2.ts2=tb1.ts1 where d1 < 0.3",
@@ -752,7 +763,7 @@ public class SecurityTest extends AbstractGriffinTest {
                     " rnd_symbol(3,3,3,20000) sym2," +
                     " rnd_double(2) d2," +
                     " timestamp_sequence(0, 1000000000) ts2" +
-                    " from long_sequence(10)) timestamp(ts2)", sqlExecutionContext);
+                    " from long_sequence(10))", sqlExecutionContext);
             assertQuery(
                     "sym1\tsym2\nVTJW\tFJG\nVTJW\tULO\n",
                     "select sym1, sym2 from tb1 outer join tb2 on tb2.ts2=tb1.ts1 where d1 < 0.3",
@@ -772,6 +783,51 @@ public class SecurityTest extends AbstractGriffinTest {
         });
     }
 
+    @Test
+    public void testMemoryRestrictionsWithMergeJoin() throws Exception {
+        assertMemoryLeak(() -> {
+            compiler.compile("create table tb1 as (select" +
+                    " x i1," +
+                    " timestamp_sequence(0, 1000000000) ts1" +
+                    " from long_sequence(10)) timestamp(ts1)", sqlExecutionContext);
+            compiler.compile("create table tb2 as (select" +
+                    " x i2," +
+                    " timestamp_sequence(0, 1000000000) ts2" +
+                    " from long_sequence(1000)) timestamp(ts2)", sqlExecutionContext);
+            // all tb3 rows join the first tb1 row
+            compiler.compile("create table tb3 as (select" +
+                    " x i3," +
+                    " timestamp_sequence(0, 0) ts3" +
+                    " from long_sequence(1000)) timestamp(ts3)", sqlExecutionContext);
+
+            // hash join would store every tb2 row, merge join keeps one row id at a time
+            assertQuery(
+                    memoryRestrictedCompiler,
+                    "count\n10\n",
+                    "select count() from tb1 inner join tb2 on tb2.ts2=tb1.ts1",
+                    null,
+                    false, readOnlyExecutionContext, true);
+
+            assertQuery(
+                    compiler,
+                    "count\n1000\n",
+                    "select count() from tb1 inner join tb3 on tb3.ts3=tb1.ts1",
+                    null,
+                    false, sqlExecutionContext, true);
+            try {
+                assertQuery(
+                        memoryRestrictedCompiler,
+                        "count\n1000\n",
+                        "select count() from tb1 inner join tb3 on tb3.ts3=tb1.ts1",
+                        null,
+                        false, readOnlyExecutionContext, true);
+                Assert.fail();
+            } catch (Exception ex) {
+                Assert.assertTrue(ex.toString().contains("Maximum number of pages (2) breached"));
+            }
+        });
+    }
+
     @Test
     public void testMemoryRestrictionsWithFullFatInnerJoin() throws Exception {
         assertMemoryLeak(() -> {
@@ -788,6 +844,7 @@ public class SecurityTest extends AbstractGriffinTest {
                     " from long_sequence(10)) timestamp(ts2)", sqlExecutionContext);
             try {
                 compiler.setFullFatJoins(true);
+                memoryRestrictedCompiler.setFullFatJoins(true);
                 assertQuery(
                         "sym1\tsym2\nVTJW\tFJG\nVTJW\tULO\n",
                         "select sym1, sym2 from tb1 inner join tb2 on tb2.ts2=tb1.ts1 where d1 < 0.3",
@@ -806,6 +863,7 @@ public class SecurityTest extends AbstractGriffinTest {
                 }
             } finally {
                 compiler.setFullFatJoins(false);
+                memoryRestrictedCompiler.setFullFatJoins(false);
             }
         });
     }
@@ -826,6 +884,7 @@ public class SecurityTest extends AbstractGriffinTest {
                     " from long_sequence(10)) timestamp(ts2)", sqlExecutionContext);
             try {
                 compiler.setFullFatJoins(true);
+                memoryRestrictedCompiler.setFullFatJoins(true);
                 assertQuery(
                         "sym1\tsym2\nVTJW\tFJG\nVTJW\tULO\n",
                         "select sym1, sym2 from tb1 outer join tb2 on tb2.ts2=tb1.ts1 where d1 < 0.3",
@@ -844,6 +903,7 @@ public class SecurityTest extends AbstractGriffinTest {
                 }
             } finally {
                 compiler.setFullFatJoins(false);
+                memoryRestrictedCompiler.setFullFatJoins(false);
             }
         });
     }
@@ -31,10 +31,15 @@ import io.questdb.cairo.sql.RecordCursor;
 import io.questdb.cairo.sql.RecordCursorFactory;
 import io.questdb.griffin.engine.functions.test.TestMatchFunctionFactory;
 import io.questdb.griffin.engine.groupby.vect.GroupByJob;
+import io.questdb.griffin.engine.groupby.vect.GroupByNotKeyedVectorRecordCursorFactory;
+import io.questdb.griffin.engine.groupby.vect.GroupByRecordCursorFactory;
 import io.questdb.mp.SOCountDownLatch;
 import io.questdb.std.Chars;
+import io.questdb.std.Files;
 import io.questdb.std.FilesFacade;
 import io.questdb.std.FilesFacadeImpl;
+import io.questdb.std.IntList;
+import io.questdb.std.LongList;
 import io.questdb.std.str.LPSZ;
 import io.questdb.test.tools.TestUtils;
 import org.junit.Assert;
@@ -5423,6 +5428,55 @@ public class SqlCodeGeneratorTest extends AbstractGriffinTest {
         }
     }
 
+    @Test
+    public void testMemoryAdviceFollowsAccessPattern() throws Exception {
+        final IntList advices = new IntList();
+        final FilesFacade ff = new FilesFacadeImpl() {
+            @Override
+            public int madvise(long address, long len, int advice) {
+                advices.add(advice);
+                return super.madvise(address, len, advice);
+            }
+        };
+        assertMemoryLeak(ff, () -> {
+            compile("create table x as (" +
+                    "select rnd_symbol('a','b','c') s, rnd_double() d, timestamp_sequence(0, 3600000000) ts" +
+                    " from long_sequence(100)" +
+                    "), index(s) timestamp(ts) partition by DAY");
+
+            advices.clear();
+            assertSql("select count() from (select * from x where d > 0)", "count\n100\n");
+            Assert.assertTrue(countColumnAdvice(advices, Files.MADV_SEQUENTIAL) > 0);
+
+            advices.clear();
+            assertSql("select count() from (select * from x where s = 'a' and d > 0)", "count\n29\n");
+            Assert.assertTrue(countColumnAdvice(advices, Files.MADV_RANDOM) > 0);
+
+            // reader is returned to the pool, advice is applied again for the next scan
+            advices.clear();
+            assertSql("select count() from (select * from x where d > 0)", "count\n100\n");
+            Assert.assertTrue(countColumnAdvice(advices, Files.MADV_SEQUENTIAL) > 0);
+
+            // advice is not repeated while partition mapping does not change
+            advices.clear();
+            assertSql("select count() from (select * from x where d > 0)", "count\n100\n");
+            Assert.assertEquals(0, countColumnAdvice(advices, Files.MADV_SEQUENTIAL));
+        });
+    }
+
+    private static int countColumnAdvice(IntList advices, int expected) {
+        int count = 0;
+        for (int i = 0, n = advices.size(); i < n; i++) {
+            final int advice = advices.getQuick(i);
+            // symbol maps and _txn are read ahead regardless of query
+            if (advice != Files.MADV_WILLNEED) {
+                Assert.assertEquals(expected, advice);
+                count++;
+            }
+        }
+        return count;
+    }
+
     @Test
     public void testMinDoubleColumn() throws Exception {
         final String expected = "a\tk\n";
@@ -6719,6 +6773,143 @@ public class SqlCodeGeneratorTest extends AbstractGriffinTest {
         );
     }
 
+    @Test
+    public void testIndexPrefetch() throws Exception {
+        final LongList willNeed = new LongList();
+        final FilesFacade ff = new FilesFacadeImpl() {
+            @Override
+            public int madvise(long address, long len, int advice) {
+                Assert.assertEquals(0, address % Files.PAGE_SIZE);
+                if (advice == Files.MADV_WILLNEED) {
+                    willNeed.add(address);
+                }
+                return super.madvise(address, len, advice);
+            }
+        };
+        assertMemoryLeak(ff, () -> {
+            compile("create table x as (" +
+                    "select rnd_symbol('A','B','C') sym, rnd_double() price, rnd_int() qty, rnd_str(4,8,1) s, timestamp_sequence(0, 1000000) ts" +
+                    " from long_sequence(2000)" +
+                    "), index(sym) timestamp(ts) partition by HOUR");
+            // column top in the last partition
+            compile("alter table x add column l long");
+            compile("insert into x select rnd_symbol('A','B','C'), rnd_double(), rnd_int(), rnd_str(4,8,1), timestamp_sequence(2000000000, 1000000), rnd_long() from long_sequence(2000)");
+
+            final String[] queries = {
+                    "select price, qty from x where sym = 'A'",
+                    "select * from x where sym in ('A', 'C')",
+                    "select * from x where sym = 'B' order by ts desc"
+            };
+            final String[] expected = new String[queries.length];
+            for (int i = 0; i < queries.length; i++) {
+                TestUtils.printSql(compiler, sqlExecutionContext, queries[i], sink);
+                expected[i] = sink.toString();
+            }
+
+            for (int i = 0; i < queries.length; i++) {
+                willNeed.clear();
+                assertSql(queries[i], expected[i]);
+                Assert.assertEquals(0, willNeed.size());
+            }
+
+            sqlIOMode = SqlIOMode.IO_MODE_PREFETCH;
+            for (int i = 0; i < queries.length; i++) {
+                willNeed.clear();
+                assertSql(queries[i], expected[i]);
+                Assert.assertTrue(willNeed.size() > 0);
+            }
+        });
+    }
+
+    @Test
+    public void testIndexPrefetchWithoutMadvise() throws Exception {
+        final LongList willNeed = new LongList();
+        final FilesFacade ff = new FilesFacadeImpl() {
+            @Override
+            public int madvise(long address, long len, int advice) {
+                if (advice == Files.MADV_WILLNEED) {
+                    willNeed.add(address);
+                }
+                // kernel cannot be advised, pages are read by the cursor instead
+                return -1;
+            }
+        };
+        assertMemoryLeak(ff, () -> {
+            compile("create table x as (" +
+                    "select rnd_symbol('A','B','C') sym, rnd_double() price, rnd_str(4,8,1) s, timestamp_sequence(0, 1000000) ts" +
+                    " from long_sequence(2000)" +
+                    "), index(sym) timestamp(ts) partition by HOUR");
+            // column top in the last partition
+            compile("alter table x add column l long");
+            compile("insert into x select rnd_symbol('A','B','C'), rnd_double(), rnd_str(4,8,1), timestamp_sequence(2000000000, 1000000), rnd_long() from long_sequence(2000)");
+
+            final String[] queries = {
+                    "select price, l from x where sym = 'A'",
+                    "select * from x where sym in ('A', 'C')",
+                    "select * from x where sym = 'B' order by ts desc"
+            };
+            final String[] expected = new String[queries.length];
+            for (int i = 0; i < queries.length; i++) {
+                TestUtils.printSql(compiler, sqlExecutionContext, queries[i], sink);
+                expected[i] = sink.toString();
+            }
+
+            sqlIOMode = SqlIOMode.IO_MODE_PREFETCH;
+            for (int i = 0; i < queries.length; i++) {
+                willNeed.clear();
+                assertSql(queries[i], expected[i]);
+                Assert.assertTrue(willNeed.size() > 0);
+            }
+        });
+    }
+
+    @Test
+    public void testPageFramePrefetch() throws Exception {
+        final IntList advices = new IntList();
+        final FilesFacade ff = new FilesFacadeImpl() {
+            @Override
+            public int madvise(long address, long len, int advice) {
+                Assert.assertEquals(0, address % Files.PAGE_SIZE);
+                advices.add(advice);
+                return super.madvise(address, len, advice);
+            }
+        };
+        assertMemoryLeak(ff, () -> {
+            pageFrameMaxSize = 64;
+            compile("create table x as (" +
+                    "select rnd_double() d, rnd_str(4,8,1) s, timestamp_sequence(0, 1000000) ts" +
+                    " from long_sequence(1000)" +
+                    ") timestamp(ts) partition by DAY");
+            // add column to have column top in the middle of the partition
+            compile("alter table x add column i int");
+            compile("insert into x select rnd_double(), rnd_str(4,8,1), timestamp_sequence(1000000000, 1000000), rnd_int() from long_sequence(1000)");
+
+            final String[] queries = {
+                    "select sum(d), sum(i) from x",
+                    "select * from x where d > 0.9 and i > 0"
+            };
+            final String[] expected = new String[queries.length];
+            for (int i = 0; i < queries.length; i++) {
+                TestUtils.printSql(compiler, sqlExecutionContext, queries[i], sink);
+                expected[i] = sink.toString();
+            }
+
+            // reader is open, there is nothing else to read ahead
+            for (int i = 0; i < queries.length; i++) {
+                advices.clear();
+                assertSql(queries[i], expected[i]);
+                Assert.assertEquals(-1, advices.indexOf(Files.MADV_WILLNEED, 0, advices.size()));
+            }
+
+            sqlIOMode = SqlIOMode.IO_MODE_PREFETCH;
+            for (int i = 0; i < queries.length; i++) {
+                advices.clear();
+                assertSql(queries[i], expected[i]);
+                Assert.assertTrue(advices.indexOf(Files.MADV_WILLNEED, 0, advices.size()) > -1);
+            }
+        });
+    }
+
     @Test
     public void testSampleByFillLinearEmptyCursor() throws Exception {
         assertQuery("b\tsum\tk\n",
@@ -7428,6 +7619,144 @@ public class SqlCodeGeneratorTest extends AbstractGriffinTest {
         }
     }
 
+    @Test
+    public void testVectorAggregateOfArithmeticProjection() throws Exception {
+        assertMemoryLeak(() -> {
+            compiler.compile("create table x as (" +
+                    "select rnd_double(2) price, rnd_long(1, 100, 2) qty, rnd_int(0, 100, 2) i from long_sequence(200000)" +
+                    ")", sqlExecutionContext);
+
+            // nested arithmetic is evaluated row by row and serves as reference
+            TestUtils.assertSqlCursors(
+                    compiler,
+                    sqlExecutionContext,
+                    "select round(sum(price * qty * 1), 2) s1, sum(qty - i + 0) s2, round(avg(price / 2 + 0), 6) a," +
+                            " min(qty * 3 + 0) m, sum(qty / i + 0) s3, count() c from x",
+                    "select round(sum(price * qty), 2) s1, sum(qty - i) s2, round(avg(price / 2), 6) a," +
+                            " min(qty * 3) m, sum(qty / i) s3, count() c from x",
+                    LOG
+            );
+
+            try (RecordCursorFactory factory = compiler.compile("select sum(price * qty) from x", sqlExecutionContext).getRecordCursorFactory()) {
+                Assert.assertTrue(factory instanceof GroupByNotKeyedVectorRecordCursorFactory);
+            }
+        });
+    }
+
+    @Test
+    public void testVectorAggregateOfArithmeticProjectionNonFinite() throws Exception {
+        assertMemoryLeak(() -> {
+            compiler.compile("create table x as (" +
+                    "select rnd_double(2) price, rnd_double(2) * 1e308 big, rnd_int(0, 10, 2) i from long_sequence(100000)" +
+                    ")", sqlExecutionContext);
+
+            // division by zero and overflow yield infinity, sum() and avg() skip it, min() and max() do not
+            // and are left to row-by-row group by
+            TestUtils.assertSqlCursors(
+                    compiler,
+                    sqlExecutionContext,
+                    "select round(sum(price / i + 0), 2) s1, round(avg(big * 10 + 0) / 1e308, 6) a, round(ksum(big + big + 0) / 1e308, 2) s2," +
+                            " round(nsum(big * 3 + 0) / 1e308, 2) s3, max(price / i + 0) m1, min(big * -10 + 0) m2 from x",
+                    "select round(sum(price / i), 2) s1, round(avg(big * 10) / 1e308, 6) a, round(ksum(big + big) / 1e308, 2) s2," +
+                            " round(nsum(big * 3) / 1e308, 2) s3, max(price / i) m1, min(big * -10) m2 from x",
+                    LOG
+            );
+
+            try (RecordCursorFactory factory = compiler.compile("select sum(price / i), avg(big * 10) from x", sqlExecutionContext).getRecordCursorFactory()) {
+                Assert.assertTrue(factory instanceof GroupByNotKeyedVectorRecordCursorFactory);
+            }
+        });
+    }
+
+    @Test
+    public void testVectorKeyedAggregateOfArithmeticProjectionWithColumnTop() throws Exception {
+        assertMemoryLeak(() -> {
+            compiler.compile("create table x as (" +
+                    "select rnd_symbol('A','B','C') s, rnd_double(2) price, rnd_int(0, 100, 2) i," +
+                    " timestamp_sequence(0, 1000000) ts from long_sequence(100000)" +
+                    ") timestamp(ts) partition by DAY", sqlExecutionContext);
+            compile("alter table x add column qty long");
+            compiler.compile("insert into x select rnd_symbol('A','B','C'), rnd_double(2), rnd_int(0, 100, 2)," +
+                    " timestamp_sequence(100000000000, 1000000), rnd_long(1, 100, 2) from long_sequence(100000)", sqlExecutionContext);
+
+            TestUtils.assertSqlCursors(
+                    compiler,
+                    sqlExecutionContext,
+                    "select s, round(sum(price * qty * 1), 2) s1, sum(qty + i + 0) s2, max(i * 2.5 + 0) m from x order by s",
+                    "select s, round(sum(price * qty), 2) s1, sum(qty + i) s2, max(i * 2.5) m from x order by s",
+                    LOG
+            );
+
+            try (RecordCursorFactory factory = compiler.compile("select s, sum(price * qty) from x", sqlExecutionContext).getRecordCursorFactory()) {
+                Assert.assertTrue(factory instanceof GroupByRecordCursorFactory);
+            }
+        });
+    }
+
+    @Test
+    public void testVectorAggregateOfArithmeticProjectionParallel() throws Exception {
+        assertMemoryLeak(() -> {
+            final AtomicBoolean running = new AtomicBoolean(true);
+            final SOCountDownLatch haltLatch = new SOCountDownLatch(1);
+            final GroupByJob job = new GroupByJob(engine.getMessageBus());
+            // second worker aggregates computed frames while the cursor computes the next ones
+            new Thread(() -> {
+                while (running.get()) {
+                    job.run(1);
+                }
+                haltLatch.countDown();
+            }).start();
+
+            try {
+                final SqlExecutionContext context = new SqlExecutionContextImpl(engine, 2)
+                        .with(AllowAllCairoSecurityContext.INSTANCE, bindVariableService, null, -1, null);
+                compiler.compile("create table x as (" +
+                        "select rnd_symbol('A','B','C') s, rnd_double(2) price, rnd_long(1, 100, 2) qty from long_sequence(1000000)" +
+                        ")", context);
+
+                TestUtils.assertSqlCursors(
+                        compiler,
+                        context,
+                        "select round(sum(price * qty * 1), 2) s1, sum(qty * 2 + 0) s2, count() c from x",
+                        "select round(sum(price * qty), 2) s1, sum(qty * 2) s2, count() c from x",
+                        LOG
+                );
+                TestUtils.assertSqlCursors(
+                        compiler,
+                        context,
+                        "select s, round(sum(price * qty * 1), 2) s1, sum(qty * 2 + 0) s2 from x order by s",
+                        "select s, round(sum(price * qty), 2) s1, sum(qty * 2) s2 from x order by s",
+                        LOG
+                );
+            } finally {
+                running.set(false);
+                haltLatch.await();
+            }
+        });
+    }
+
+    @Test
+    public void testVectorAggregateOfArithmeticProjectionUnsupportedKeys() throws Exception {
+        assertMemoryLeak(() -> {
+            compiler.compile("create table x as (" +
+                    "select rnd_symbol('A','B') s1, rnd_symbol('C','D') s2, rnd_double(2) price, rnd_long(1, 100, 2) qty from long_sequence(100000)" +
+                    ")", sqlExecutionContext);
+
+            // keys and aggregates qualify for vector aggregation, key count does not, projection is released
+            TestUtils.assertSqlCursors(
+                    compiler,
+                    sqlExecutionContext,
+                    "select s1, s2, round(sum(price * qty * 1), 2) s from x order by s1, s2",
+                    "select s1, s2, round(sum(price * qty), 2) s from x order by s1, s2",
+                    LOG
+            );
+
+            try (RecordCursorFactory factory = compiler.compile("select s1, s2, sum(price * qty) from x", sqlExecutionContext).getRecordCursorFactory()) {
+                Assert.assertTrue(factory instanceof io.questdb.griffin.engine.groupby.GroupByRecordCursorFactory);
+            }
+        });
+    }
+
     @Test
     public void testVectorSumAvgDoubleRndColumnWithNulls() throws Exception {
         assertQuery("avg\tsum\n" +
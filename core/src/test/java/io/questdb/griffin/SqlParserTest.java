@@ -171,6 +171,61 @@ public class SqlParserTest extends AbstractSqlParserTest {
         );
     }
 
+    @Test
+    public void testAnalyticFrameEndBeforeStart() throws Exception {
+        assertSyntaxError(
+                "select a, sum(c) over (order by ts rows between current row and 2 preceding) from xyz",
+                64,
+                "frame end cannot be before frame start",
+                modelOf("xyz").col("a", ColumnType.INT).col("c", ColumnType.DOUBLE).timestamp("ts")
+        );
+    }
+
+    @Test
+    public void testAnalyticFrameInvalidBound() throws Exception {
+        assertSyntaxError(
+                "select a, sum(c) over (order by ts rows between -1 preceding and current row) from xyz",
+                48,
+                "'unbounded', 'current' or non-negative integer expected",
+                modelOf("xyz").col("a", ColumnType.INT).col("c", ColumnType.DOUBLE).timestamp("ts")
+        );
+    }
+
+    @Test
+    public void testAnalyticFrameRange() throws Exception {
+        assertQuery(
+                "select-analytic a, b, sum(c) sum over (partition by b order by ts range between 1000000 preceding and current row) from (select [a, b, c, ts] from xyz timestamp (ts))",
+                "select a, b, sum(c) over (partition by b order by ts range between 1000000 preceding and current row) from xyz",
+                modelOf("xyz")
+                        .col("a", ColumnType.INT)
+                        .col("b", ColumnType.INT)
+                        .col("c", ColumnType.DOUBLE)
+                        .timestamp("ts")
+        );
+    }
+
+    @Test
+    public void testAnalyticFrameRowsShortForm() throws Exception {
+        assertQuery(
+                "select-analytic a, avg(c) avg over (order by ts rows between 3 preceding and current row), max(c) max over (rows between unbounded preceding and unbounded following) from (select [a, c, ts] from xyz timestamp (ts))",
+                "select a, avg(c) over (order by ts rows 3 preceding), max(c) over (rows between unbounded preceding and unbounded following) from xyz",
+                modelOf("xyz")
+                        .col("a", ColumnType.INT)
+                        .col("c", ColumnType.DOUBLE)
+                        .timestamp("ts")
+        );
+    }
+
+    @Test
+    public void testAnalyticFrameStartUnboundedFollowing() throws Exception {
+        assertSyntaxError(
+                "select a, sum(c) over (order by ts rows between unbounded following and current row) from xyz",
+                48,
+                "frame start cannot be UNBOUNDED FOLLOWING",
+                modelOf("xyz").col("a", ColumnType.INT).col("c", ColumnType.DOUBLE).timestamp("ts")
+        );
+    }
+
     @Test
     public void testAnalyticLiteralAfterFunction() throws Exception {
         assertQuery(
@@ -0,0 +1,276 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2022 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.griffin.engine.functions.analytic;
+
+import io.questdb.cairo.sql.RecordCursorFactory;
+import io.questdb.griffin.AbstractGriffinTest;
+import io.questdb.griffin.engine.analytic.AnalyticRecordCursorFactory;
+import io.questdb.griffin.engine.analytic.CachedAnalyticRecordCursorFactory;
+import io.questdb.test.tools.TestUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class AnalyticFunctionTest extends AbstractGriffinTest {
+
+    private static final String DDL = "create table t as (" +
+            "select case when x % 2 = 1 then 'a' else 'b' end sym," +
+            " case when x = 4 then NaN else x * 1.0 end v," +
+            " timestamp_sequence(0, 1000000) ts" +
+            " from long_sequence(6)" +
+            ") timestamp(ts)";
+
+    @Test
+    public void testFrameEndFollowingNotSupported() throws Exception {
+        assertFailure(
+                "select sum(v) over (order by ts rows between 1 preceding and 1 following) from t",
+                DDL,
+                7,
+                "frame must end with CURRENT ROW or UNBOUNDED FOLLOWING"
+        );
+    }
+
+    @Test
+    public void testLagAndLead() throws Exception {
+        assertMemoryLeak(() -> {
+            compile(DDL);
+            assertSql(
+                    "select sym, v, lag(v) over (partition by sym order by ts) lag, lead(v, 1, -1.0) over (partition by sym order by ts) lead from t",
+                    "sym\tv\tlag\tlead\n" +
+                            "a\t1.0\tNaN\t3.0\n" +
+                            "b\t2.0\tNaN\tNaN\n" +
+                            "a\t3.0\t1.0\t5.0\n" +
+                            "b\tNaN\t2.0\t6.0\n" +
+                            "a\t5.0\t3.0\t-1.0\n" +
+                            "b\t6.0\tNaN\t-1.0\n"
+            );
+        });
+    }
+
+    @Test
+    public void testLagOffsetMustBeConstant() throws Exception {
+        assertFailure(
+                "select lag(v, v) over (order by ts) from t",
+                DDL,
+                14,
+                "offset must be a non-negative integer constant"
+        );
+    }
+
+    @Test
+    public void testRangeFrame() throws Exception {
+        assertMemoryLeak(() -> {
+            compile(DDL);
+            assertSql(
+                    "select sym, v, ts," +
+                            " max(v) over (partition by sym order by ts range between 2000000 preceding and current row) max," +
+                            " min(v) over (partition by sym order by ts range 2000000 preceding) min" +
+                            " from t",
+                    "sym\tv\tts\tmax\tmin\n" +
+                            "a\t1.0\t1970-01-01T00:00:00.000000Z\t1.0\t1.0\n" +
+                            "b\t2.0\t1970-01-01T00:00:01.000000Z\t2.0\t2.0\n" +
+                            "a\t3.0\t1970-01-01T00:00:02.000000Z\t3.0\t1.0\n" +
+                            "b\tNaN\t1970-01-01T00:00:03.000000Z\t2.0\t2.0\n" +
+                            "a\t5.0\t1970-01-01T00:00:04.000000Z\t5.0\t3.0\n" +
+                            "b\t6.0\t1970-01-01T00:00:05.000000Z\t6.0\t6.0\n"
+            );
+        });
+    }
+
+    @Test
+    public void testRangeFramePeers() throws Exception {
+        assertMemoryLeak(() -> {
+            compile("create table p (sym string, v double, ts timestamp) timestamp(ts)");
+            executeInsert("insert into p values ('a', 1.0, 0)");
+            executeInsert("insert into p values ('a', 2.0, 0)");
+            executeInsert("insert into p values ('b', 3.0, 1000000)");
+            executeInsert("insert into p values ('a', 4.0, 2000000)");
+            executeInsert("insert into p values ('a', 5.0, 2000000)");
+            executeInsert("insert into p values ('b', 6.0, 2000000)");
+            executeInsert("insert into p values ('a', 7.0, 4000000)");
+
+            // rows with the same timestamp are peers, RANGE frame includes all of them
+            final String query = "select sym, v," +
+                    " sum(v) over (partition by sym order by ts range unbounded preceding) s1," +
+                    " sum(v) over (partition by sym order by ts range 2000000 preceding) s2," +
+                    " row_number() over (order by ts) rn" +
+                    " from p";
+            // peer groups are held back, rows stream
+            try (RecordCursorFactory factory = compiler.compile(query, sqlExecutionContext).getRecordCursorFactory()) {
+                Assert.assertTrue(factory instanceof AnalyticRecordCursorFactory);
+            }
+            final String expected = "sym\tv\ts1\ts2\trn\n" +
+                    "a\t1.0\t3.0\t3.0\t0\n" +
+                    "a\t2.0\t3.0\t3.0\t1\n" +
+                    "b\t3.0\t3.0\t3.0\t2\n" +
+                    "a\t4.0\t12.0\t12.0\t3\n" +
+                    "a\t5.0\t12.0\t12.0\t4\n" +
+                    "b\t6.0\t9.0\t9.0\t5\n" +
+                    "a\t7.0\t19.0\t16.0\t6\n";
+            assertSql(query, expected);
+
+            // rows are materialized when another function needs the whole partition
+            final String cached = "select sym, v," +
+                    " sum(v) over (partition by sym order by ts range unbounded preceding) s1," +
+                    " max(v) over (range unbounded preceding) m" +
+                    " from p";
+            try (RecordCursorFactory factory = compiler.compile(cached, sqlExecutionContext).getRecordCursorFactory()) {
+                Assert.assertTrue(factory instanceof CachedAnalyticRecordCursorFactory);
+            }
+            assertSql(
+                    cached,
+                    "sym\tv\ts1\tm\n" +
+                            "a\t1.0\t3.0\t7.0\n" +
+                            "a\t2.0\t3.0\t7.0\n" +
+                            "b\t3.0\t3.0\t7.0\n" +
+                            "a\t4.0\t12.0\t7.0\n" +
+                            "a\t5.0\t12.0\t7.0\n" +
+                            "b\t6.0\t9.0\t7.0\n" +
+                            "a\t7.0\t19.0\t7.0\n"
+            );
+        });
+    }
+
+    @Test
+    public void testRangeFrameRequiresTimestampOrder() throws Exception {
+        assertFailure(
+                "select sum(v) over (order by v range between 10 preceding and current row) from t",
+                DDL,
+                7,
+                "RANGE frame requires ascending ORDER BY on a single TIMESTAMP column"
+        );
+    }
+
+    @Test
+    public void testRowsFrame() throws Exception {
+        assertMemoryLeak(() -> {
+            compile(DDL);
+            assertSql(
+                    "select v, avg(v) over (order by ts rows between 1 preceding and current row) avg," +
+                            " first_value(v) over (order by ts rows 2 preceding) first" +
+                            " from t",
+                    "v\tavg\tfirst\n" +
+                            "1.0\t1.0\t1.0\n" +
+                            "2.0\t1.5\t1.0\n" +
+                            "3.0\t2.5\t1.0\n" +
+                            "NaN\t3.0\t2.0\n" +
+                            "5.0\t5.0\t3.0\n" +
+                            "6.0\t5.5\tNaN\n"
+            );
+        });
+    }
+
+    @Test
+    public void testRunningSum() throws Exception {
+        assertMemoryLeak(() -> {
+            compile(DDL);
+            assertSql(
+                    "select sym, v, sum(v) over (partition by sym order by ts) sum, row_number() over (order by ts) rn from t",
+                    "sym\tv\tsum\trn\n" +
+                            "a\t1.0\t1.0\t0\n" +
+                            "b\t2.0\t2.0\t1\n" +
+                            "a\t3.0\t4.0\t2\n" +
+                            "b\tNaN\t2.0\t3\n" +
+                            "a\t5.0\t9.0\t4\n" +
+                            "b\t6.0\t8.0\t5\n"
+            );
+        });
+    }
+
+    @Test
+    public void testStreamingSameAsCached() throws Exception {
+        assertMemoryLeak(() -> {
+            compile("create table x as (" +
+                    "select rnd_str('a','b','c','d') sym, rnd_double(2) v," +
+                    " timestamp_sequence(0, rnd_long(1, 3, 0) * 1000000) ts" +
+                    " from long_sequence(2000)" +
+                    ") timestamp(ts) partition by HOUR");
+            // same rows ordered by timestamp, which is not designated, make analytic functions materialize
+            compile("create table y as (select sym, v, ts, ts ts2 from x) timestamp(ts)");
+
+            final String columns = "sym, v," +
+                    " sum(v) over (partition by sym order by %s) s1," +
+                    " avg(v) over (partition by sym order by %s rows between 5 preceding and current row) a1," +
+                    " min(v) over (order by %s rows 10 preceding) m1," +
+                    " first_value(v) over (partition by sym order by %s rows 3 preceding) f1," +
+                    " lag(v, 2) over (partition by sym order by %s) l1";
+            final String streaming = "select " + columns.replace("%s", "ts") + " from x";
+            final String cached = "select " + columns.replace("%s", "ts2") + " from y";
+
+            try (RecordCursorFactory factory = compiler.compile(streaming, sqlExecutionContext).getRecordCursorFactory()) {
+                Assert.assertTrue(factory instanceof AnalyticRecordCursorFactory);
+            }
+            try (RecordCursorFactory factory = compiler.compile(cached, sqlExecutionContext).getRecordCursorFactory()) {
+                Assert.assertTrue(factory instanceof CachedAnalyticRecordCursorFactory);
+            }
+            TestUtils.assertSqlCursors(compiler, sqlExecutionContext, cached, streaming, LOG);
+        });
+    }
+
+    @Test
+    public void testStreamingRangeFramePeersSameAsCached() throws Exception {
+        assertMemoryLeak(() -> {
+            // timestamp step of 0 makes peer groups, integer values keep sums independent of peer order
+            compile("create table x as (" +
+                    "select rnd_str('a','b','c','d') sym, cast(rnd_int(0, 100, 2) as double) v," +
+                    " timestamp_sequence(0, rnd_long(0, 2, 0) * 1000000) ts" +
+                    " from long_sequence(2000)" +
+                    ") timestamp(ts) partition by HOUR");
+            compile("create table y as (select sym, v, ts, ts ts2 from x) timestamp(ts)");
+
+            final String columns = "sym, v, ts," +
+                    " sum(v) over (partition by sym order by %s range unbounded preceding) s1," +
+                    " avg(v) over (partition by sym order by %s range 5000000 preceding) a1," +
+                    " max(v) over (order by %s range between 3000000 preceding and current row) m1," +
+                    " min(v) over (partition by sym order by %s range 10000000 preceding) m2";
+            final String streaming = "select " + columns.replace("%s", "ts") + " from x";
+            final String cached = "select " + columns.replace("%s", "ts2") + " from y";
+
+            try (RecordCursorFactory factory = compiler.compile(streaming, sqlExecutionContext).getRecordCursorFactory()) {
+                Assert.assertTrue(factory instanceof AnalyticRecordCursorFactory);
+            }
+            try (RecordCursorFactory factory = compiler.compile(cached, sqlExecutionContext).getRecordCursorFactory()) {
+                Assert.assertTrue(factory instanceof CachedAnalyticRecordCursorFactory);
+            }
+            TestUtils.assertSqlCursors(compiler, sqlExecutionContext, cached, streaming, LOG);
+        });
+    }
+
+    @Test
+    public void testWholePartition() throws Exception {
+        assertMemoryLeak(() -> {
+            compile(DDL);
+            assertSql(
+                    "select sym, v, sum(v) over (partition by sym) sum, max(v) over () max from t",
+                    "sym\tv\tsum\tmax\n" +
+                            "a\t1.0\t9.0\t6.0\n" +
+                            "b\t2.0\t8.0\t6.0\n" +
+                            "a\t3.0\t9.0\t6.0\n" +
+                            "b\tNaN\t8.0\t6.0\n" +
+                            "a\t5.0\t9.0\t6.0\n" +
+                            "b\t6.0\t8.0\t6.0\n"
+            );
+        });
+    }
+}
@@ -293,6 +293,38 @@ public class CompiledFilterIRSerializerTest extends BaseFunctionFactoryTest {
         Assert.assertEquals(UNKNOWN_SYMBOL, bindVarFunctions.get(0).getStr(null));
     }
 
+    @Test
+    public void testSymbolInList() throws Exception {
+        serialize("asymbol in ('" + KNOWN_SYMBOL_1 + "', '" + UNKNOWN_SYMBOL + "')");
+        assertIR("(i32 :0)(i32 asymbol)(=)(i32 0L)(i32 asymbol)(=)(||)(ret)");
+
+        Assert.assertEquals(1, bindVarFunctions.size());
+        Assert.assertEquals(UNKNOWN_SYMBOL, bindVarFunctions.get(0).getStr(null));
+    }
+
+    @Test
+    public void testInList() throws Exception {
+        serialize("along in (1, -2, 3) and not achar in ('a')");
+        assertIR("(i16 97L)(i16 achar)(=)(!)(i64 3L)(i64 along)(=)(i64 -2L)(i64 along)(=)(i64 1L)(i64 along)(=)(||)(||)"
+                + "(i64 " + Numbers.LONG_NaN + "L)(i64 along)(<>)(&&)(&&)(ret)");
+    }
+
+    @Test
+    public void testTimestampInList() throws Exception {
+        serialize("atimestamp in ('1970-01-01T00:00:01', null)");
+        assertIR("(i64 " + Numbers.LONG_NaN + "L)(i64 atimestamp)(=)(i64 1000000L)(i64 atimestamp)(=)(||)"
+                + "(i64 " + Numbers.LONG_NaN + "L)(i64 atimestamp)(<>)(&&)(ret)");
+    }
+
+    @Test
+    public void testBetween() throws Exception {
+        serialize("atimestamp between 10 and 5");
+        assertIR("(i64 10L)(i64 atimestamp)(<=)(i64 5L)(i64 atimestamp)(>=)(&&)(ret)");
+
+        serialize("atimestamp between '1970-01-01T00:00:01' and '1970-01-01'");
+        assertIR("(i64 1000000L)(i64 atimestamp)(<=)(i64 0L)(i64 atimestamp)(>=)(&&)(ret)");
+    }
+
     @Test
     public void testNegatedColumn() throws Exception {
         serialize("-ashort > 0");
@@ -515,6 +547,23 @@ public class CompiledFilterIRSerializerTest extends BaseFunctionFactoryTest {
         serialize("asymbol in (select rnd_symbol('A','B','C') from long_sequence(10))");
     }
 
+    @Test(expected = SqlException.class)
+    public void testUnsupportedInListColumnType() throws Exception {
+        serialize("adouble in (1.5, 2.5)");
+    }
+
+    @Test(expected = SqlException.class)
+    public void testUnsupportedInInterval() throws Exception {
+        serialize("atimestamp in '1970-01'");
+    }
+
+    @Test(expected = SqlException.class)
+    public void testUnsupportedBetweenBindVariable() throws Exception {
+        bindVariableService.clear();
+        bindVariableService.setTimestamp(0, 42);
+        serialize("atimestamp between $1 and 100");
+    }
+
     @Test(expected = SqlException.class)
     public void testUnsupportedStringConstant() throws Exception {
         serialize("achar = 'abc'");
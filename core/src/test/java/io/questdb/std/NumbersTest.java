@@ -218,6 +218,24 @@ public class NumbersTest {
         TestUtils.assertEquals("44556.0", sink);
     }
 
+    @Test
+    public void testFormatDoubleIntegral() {
+        final double[] values = {1, -1, 9_999_999, -9_999_999, 10_000_000, -10_000_000, 1L << 53, 1E15, 123456789012d};
+        for (double d : values) {
+            sink.clear();
+            Numbers.append(sink, d);
+            TestUtils.assertEquals(Double.toString(d), sink);
+        }
+
+        Random random = new Random();
+        for (int i = 0; i < 1_000_000; i++) {
+            double d = random.nextInt(40_000_000) - 20_000_000;
+            sink.clear();
+            Numbers.append(sink, d);
+            TestUtils.assertEquals(Double.toString(d), sink);
+        }
+    }
+
     @Test
     public void testFormatDoubleLargeExp() {
         sink.clear();